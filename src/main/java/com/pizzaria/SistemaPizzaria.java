@@ -1,12 +1,57 @@
 package com.pizzaria;
 
+import com.pizzaria.analise.ArmazemColunar;
+import com.pizzaria.analise.CategoriaVendida;
+import com.pizzaria.analise.Classificacoes;
+import com.pizzaria.analise.ClientesDistintos;
+import com.pizzaria.analise.ConsultaColunar;
+import com.pizzaria.analise.Dimensao;
+import com.pizzaria.analise.EntradaRanking;
+import com.pizzaria.analise.EtapaPedido;
+import com.pizzaria.analise.ExecucaoRelatorio;
+import com.pizzaria.analise.GrupoResultado;
+import com.pizzaria.analise.ItemFrequente;
+import com.pizzaria.analise.JanelaTempo;
+import com.pizzaria.analise.MaisVendidos;
+import com.pizzaria.analise.Medida;
+import com.pizzaria.analise.MotorRelatorios;
+import com.pizzaria.analise.PainelTempoReal;
+import com.pizzaria.analise.PerfilCliente;
+import com.pizzaria.analise.ResumoPainel;
+import com.pizzaria.analise.SegmentacaoClientes;
+import com.pizzaria.analise.SegmentoCliente;
+import com.pizzaria.analise.ResumoLatencia;
+import com.pizzaria.analise.TemposPedido;
+import com.pizzaria.analise.TipoRelatorio;
+import com.pizzaria.api.ServidorHttp;
+import com.pizzaria.cozinha.EscalonadorCozinha;
 import com.pizzaria.exception.*;
+import com.pizzaria.exportacao.ExportadorPedidos;
+import com.pizzaria.exportacao.FormatoExportacao;
+import com.pizzaria.exportacao.ResultadoExportacao;
+import com.pizzaria.importacao.ImportadorLote;
+import com.pizzaria.importacao.ResultadoImportacao;
 import com.pizzaria.model.*;
+import com.pizzaria.replicacao.ReplicacaoPrimaria;
+import com.pizzaria.replicacao.ReplicacaoStandby;
 import com.pizzaria.service.*;
+import com.pizzaria.terminal.ServidorTerminal;
+import com.pizzaria.util.Dinheiro;
+import com.pizzaria.util.JsonPersistence;
+import com.pizzaria.util.UnidadeDeTrabalho;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -14,38 +59,339 @@ import java.util.Scanner;
  * Demonstra o uso das funcionalidades do sistema
  */
 public class SistemaPizzaria {
+    private static final int NUMERO_ESTACOES_FORNO = 4;
+    // Console principal: a sessão dele e as mensagens de main() (antes de haver sessão) saem aqui
+    private static final PrintStream SAIDA_CONSOLE = System.out;
+    private static final PrintStream ERRO_CONSOLE = System.err;
+
     private ClienteService clienteService;
     private IngredienteService ingredienteService;
     private CardapioService cardapioService;
     private PedidoService pedidoService;
+    private EscalonadorCozinha escalonadorCozinha;
+    private ControleAdmissao controleAdmissao;
+    private ArmazemColunar armazemColunar;
+    private MotorRelatorios motorRelatorios;
+    private MaisVendidos maisVendidos;
+    private ClientesDistintos clientesDistintos;
+    private TemposPedido temposPedido;
+    private PainelTempoReal painelTempoReal;
+    private FechamentoService fechamentoService;
+    private final BackupService backupService;
+    private SegmentacaoClientes segmentacaoClientes;
+    private Classificacoes classificacoes;
+    private ReplicacaoPrimaria replicacaoPrimaria;
+    private ReplicacaoStandby replicacaoStandby;
     private Scanner scanner;
+    private PrintStream out;
+    private PrintStream err;
 
     public SistemaPizzaria() {
+        this(0);
+    }
+
+    /**
+     * Cria o sistema; com particoesPedidos > 0 os pedidos usam o serviço particionado
+     * (uma thread dona por partição) em vez do serviço com lock único
+     */
+    public SistemaPizzaria(int particoesPedidos) {
         this.clienteService = new ClienteService();
         this.ingredienteService = new IngredienteService();
         this.cardapioService = new CardapioService();
-        this.pedidoService = new PedidoService(clienteService, ingredienteService, cardapioService);
+        this.pedidoService = particoesPedidos > 0
+                ? new PedidoServiceParticionado(clienteService, ingredienteService, cardapioService, particoesPedidos)
+                : new PedidoService(clienteService, ingredienteService, cardapioService);
+        this.backupService = new BackupService(clienteService, ingredienteService, cardapioService, pedidoService);
+        this.escalonadorCozinha = new EscalonadorCozinha(NUMERO_ESTACOES_FORNO);
+        this.controleAdmissao = new ControleAdmissao(NUMERO_ESTACOES_FORNO);
+        this.armazemColunar = new ArmazemColunar();
         this.scanner = new Scanner(System.in);
+        this.out = SAIDA_CONSOLE;
+        this.err = ERRO_CONSOLE;
+
+        // A cozinha retoma os pedidos já em preparo e acompanha os próximos pelos eventos
+        for (Pedido pedido : pedidoService.listarEmPreparo()) {
+            escalonadorCozinha.agendarPedido(pedido);
+        }
+        pedidoService.getEventos().inscrever("cozinha", escalonadorCozinha);
+
+        // A admissão parte da carga dos pedidos ainda abertos na cozinha
+        List<Pedido> pedidosEmAberto = new ArrayList<>(pedidoService.listarPendentes());
+        pedidosEmAberto.addAll(pedidoService.listarEmPreparo());
+        controleAdmissao.inicializar(pedidosEmAberto);
+        pedidoService.getEventos().inscrever("admissao", controleAdmissao);
+        pedidoService.setControleAdmissao(controleAdmissao);
+
+        // Relatórios leem o histórico em colunas, mantidas em dia pelos eventos
+        armazemColunar.reconstruir(pedidoService.listarTodos());
+        pedidoService.getEventos().inscrever("analise", armazemColunar);
+        this.motorRelatorios = new MotorRelatorios(armazemColunar);
+        motorRelatorios.definirNomesClientes(id -> {
+            try {
+                return clienteService.buscarPorId(id).getNome();
+            } catch (ClienteNaoEncontradoException e) {
+                return "Cliente " + id;
+            }
+        });
+        
+        this.maisVendidos = new MaisVendidos();
+        maisVendidos.reconstruir(pedidoService.listarTodos());
+        pedidoService.getEventos().inscrever("mais-vendidos", maisVendidos);
+        
+        this.clientesDistintos = ClientesDistintos.carregar(pedidoService.listarTodos());
+        pedidoService.getEventos().inscrever("clientes-distintos", clientesDistintos);
+        
+        this.temposPedido = new TemposPedido();
+        temposPedido.reconstruir(pedidoService.listarTodos());
+        pedidoService.getEventos().inscrever("tempos", temposPedido);
+        
+        this.painelTempoReal = new PainelTempoReal();
+        painelTempoReal.reconstruir(pedidoService.listarTodos());
+        pedidoService.getEventos().inscrever("painel", painelTempoReal);
+        
+        // Fecha os dias anteriores pendentes e agenda os próximos fechamentos
+        this.fechamentoService = new FechamentoService(pedidoService);
+        pedidoService.getEventos().inscrever("fechamento", fechamentoService);
+        fechamentoService.iniciarAgendamento();
+        
+        this.segmentacaoClientes = new SegmentacaoClientes();
+        segmentacaoClientes.reconstruir(pedidoService.listarTodos());
+        pedidoService.getEventos().inscrever("segmentacao", segmentacaoClientes);
+        
+        this.classificacoes = new Classificacoes();
+        classificacoes.reconstruir(pedidoService.listarTodos());
+        pedidoService.getEventos().inscrever("classificacoes", classificacoes);
+    }
+
+    /**
+     * Cria uma sessão de console que compartilha os serviços e componentes de outra
+     * (usado pelo servidor de terminais). Mensagens de erro vão para a mesma saída do operador.
+     */
+    private SistemaPizzaria(SistemaPizzaria principal, InputStream entrada, PrintStream saida) {
+        this.clienteService = principal.clienteService;
+        this.ingredienteService = principal.ingredienteService;
+        this.cardapioService = principal.cardapioService;
+        this.pedidoService = principal.pedidoService;
+        this.escalonadorCozinha = principal.escalonadorCozinha;
+        this.controleAdmissao = principal.controleAdmissao;
+        this.armazemColunar = principal.armazemColunar;
+        this.motorRelatorios = principal.motorRelatorios;
+        this.maisVendidos = principal.maisVendidos;
+        this.clientesDistintos = principal.clientesDistintos;
+        this.temposPedido = principal.temposPedido;
+        this.painelTempoReal = principal.painelTempoReal;
+        this.fechamentoService = principal.fechamentoService;
+        this.backupService = principal.backupService;
+        this.segmentacaoClientes = principal.segmentacaoClientes;
+        this.classificacoes = principal.classificacoes;
+        this.replicacaoPrimaria = principal.replicacaoPrimaria;
+        this.replicacaoStandby = principal.replicacaoStandby;
+        this.scanner = new Scanner(entrada, StandardCharsets.UTF_8);
+        this.out = saida;
+        this.err = saida;
+    }
+
+    /**
+     * Abre uma nova sessão de operador sobre os mesmos serviços deste sistema
+     */
+    public SistemaPizzaria novaSessao(InputStream entrada, PrintStream saida) {
+        return new SistemaPizzaria(this, entrada, saida);
     }
 
     public static void main(String[] args) {
-        SistemaPizzaria sistema = new SistemaPizzaria();
-        sistema.inicializar();
+        // --particoes <n>: pedidos em n partições, cada uma com uma thread dona
+        int particoesPedidos = 0;
+        // --importar-clientes <arquivo> / --importar-pedidos <arquivo>: carga em lote e sai
+        String arquivoClientes = null;
+        String arquivoPedidos = null;
+        // --replicar-para <porta>: envia as alterações a um standby nessa porta local
+        // --standby <porta>: recebe as alterações de um primário até ser promovido
+        int portaReplicacao = 0;
+        int portaStandby = 0;
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("--particoes")) {
+                particoesPedidos = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--replicar-para")) {
+                portaReplicacao = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--standby")) {
+                portaStandby = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--importar-clientes")) {
+                arquivoClientes = args[i + 1];
+            } else if (args[i].equals("--importar-pedidos")) {
+                arquivoPedidos = args[i + 1];
+            }
+        }
+        if (portaStandby > 0 && particoesPedidos > 0) {
+            // O standby aplica as réplicas na lista do serviço com lock único, também depois de promovido
+            ERRO_CONSOLE.println("Erro: --standby não pode ser usado com --particoes");
+            return;
+        }
+        if (arquivoClientes != null || arquivoPedidos != null) {
+            importarEmLote(arquivoClientes, arquivoPedidos);
+            return;
+        }
+
+        // Com partições, pedidos gravados por outro processo não seriam recarregados: data/ fica só para este
+        try {
+            JsonPersistence.reservarDiretorio(particoesPedidos > 0);
+        } catch (IOException e) {
+            ERRO_CONSOLE.println("Erro ao reservar o diretório de dados: " + e.getMessage());
+            return;
+        }
+
+        SistemaPizzaria sistema;
+        if (portaStandby > 0) {
+            // O standby aplica os pedidos recebidos na lista do serviço com lock único
+            sistema = new SistemaPizzaria(0);
+            if (!sistema.aguardarPromocao(portaStandby)) {
+                return; // sem console: segue recebendo até o processo ser encerrado
+            }
+        } else {
+            sistema = new SistemaPizzaria(particoesPedidos);
+            sistema.inicializar();
+        }
+        if (portaReplicacao > 0) {
+            sistema.iniciarReplicacao(portaReplicacao);
+        }
+
+        // Outros processos podem usar o mesmo data/: o que eles gravarem é recarregado aqui
+        try {
+            JsonPersistence.observarAlteracoes();
+        } catch (IOException e) {
+            ERRO_CONSOLE.println("Erro ao observar o diretório de dados: " + e.getMessage());
+        }
+
+        // --http <porta>: expõe a API HTTP no mesmo processo do console
+        // --terminal <porta>: aceita operadores remotos compartilhando os mesmos serviços
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("--http")) {
+                sistema.iniciarServidorHttp(Integer.parseInt(args[i + 1]));
+            } else if (args[i].equals("--terminal")) {
+                sistema.iniciarServidorTerminal(Integer.parseInt(args[i + 1]));
+            }
+        }
+
         sistema.executarMenuPrincipal();
+        if (sistema.replicacaoStandby != null) {
+            sistema.replicacaoStandby.parar(); // a thread de recepção mantém o processo no ar
+        }
+    }
+
+    /**
+     * Importa clientes e depois pedidos (que dependem dos clientes) sem abrir o menu.
+     * Os serviços são criados só para a carga, sem dados de exemplo nem componentes de análise.
+     */
+    private static void importarEmLote(String arquivoClientes, String arquivoPedidos) {
+        ClienteService clienteService = new ClienteService();
+        CardapioService cardapioService = new CardapioService();
+        PedidoService pedidoService = new PedidoService(clienteService, new IngredienteService(), cardapioService);
+        ImportadorLote importador = new ImportadorLote(clienteService, cardapioService, pedidoService);
+        try {
+            long inicio = System.currentTimeMillis();
+            if (arquivoClientes != null) {
+                exibirImportacao(importador.importarClientes(Path.of(arquivoClientes)));
+            }
+            if (arquivoPedidos != null) {
+                exibirImportacao(importador.importarPedidos(Path.of(arquivoPedidos)));
+            }
+            SAIDA_CONSOLE.printf("Importação concluída em %.1f s%n", (System.currentTimeMillis() - inicio) / 1000.0);
+        } catch (IOException e) {
+            ERRO_CONSOLE.println("Erro ao importar: " + e.getMessage());
+        }
+    }
+
+    private static void exibirImportacao(ResultadoImportacao resultado) {
+        SAIDA_CONSOLE.println(resultado);
+        resultado.getPrimeirasRejeicoes().stream().limit(10).forEach(rejeicao -> SAIDA_CONSOLE.println("  " + rejeicao));
+    }
+
+    /**
+     * Inicia a API HTTP compartilhando os serviços do console
+     */
+    private void iniciarServidorHttp(int porta) {
+        try {
+            ServidorHttp servidorHttp = new ServidorHttp(clienteService, cardapioService, pedidoService,
+                                                         escalonadorCozinha, porta);
+            if (replicacaoPrimaria != null) {
+                servidorHttp.setReplicacao(replicacaoPrimaria::getResumo);
+            } else if (replicacaoStandby != null) {
+                servidorHttp.setReplicacao(replicacaoStandby::getResumo);
+            }
+            servidorHttp.iniciar();
+            out.println("API HTTP disponível na porta " + servidorHttp.getPorta());
+        } catch (IOException e) {
+            err.println("Erro ao iniciar API HTTP: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Começa a replicar as alterações para um standby na porta local informada
+     */
+    private void iniciarReplicacao(int porta) {
+        replicacaoPrimaria = new ReplicacaoPrimaria(pedidoService.getEventos(), porta);
+        replicacaoPrimaria.iniciar();
+        out.println("Replicando alterações para o standby na porta " + porta);
+    }
+
+    /**
+     * Executa como standby: recebe as alterações do primário e atende os comandos
+     * "status" e "promover" no console. Retorna true quando promovido (o sistema segue
+     * como primário) e false se a entrada terminar antes.
+     */
+    private boolean aguardarPromocao(int porta) {
+        replicacaoStandby = new ReplicacaoStandby(pedidoService, porta);
+        try {
+            replicacaoStandby.iniciar();
+        } catch (IOException e) {
+            err.println("Erro ao iniciar standby: " + e.getMessage());
+            return false;
+        }
+        out.println("=== Sistema de Gerenciamento de Pizzaria - Standby ===");
+        out.println("Recebendo alterações na porta " + replicacaoStandby.getPorta()
+                    + " (comandos: status, promover)");
+
+        while (scanner.hasNextLine()) {
+            String comando = scanner.nextLine().trim();
+            switch (comando) {
+                case "status" -> out.println(replicacaoStandby.getResumo());
+                case "promover" -> {
+                    replicacaoStandby.promover();
+                    out.println("Standby promovido: " + replicacaoStandby.getResumo());
+                    out.println(pedidoService.getEstatisticas());
+                    return true;
+                }
+                case "" -> { }
+                default -> out.println("Comando inválido! Use status ou promover.");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inicia o servidor de terminais compartilhando os serviços do console
+     */
+    private void iniciarServidorTerminal(int porta) {
+        try {
+            ServidorTerminal servidorTerminal = new ServidorTerminal(this, porta);
+            servidorTerminal.iniciar();
+            out.println("Servidor de terminais disponível na porta " + servidorTerminal.getPorta());
+        } catch (IOException e) {
+            err.println("Erro ao iniciar servidor de terminais: " + e.getMessage());
+        }
     }
 
     /**
      * Inicializa o sistema com dados de exemplo
      */
     private void inicializar() {
-        System.out.println("=== Sistema de Gerenciamento de Pizzaria ===");
-        System.out.println("Inicializando sistema...");
+        out.println("=== Sistema de Gerenciamento de Pizzaria ===");
+        out.println("Inicializando sistema...");
         
         try {
             criarDadosExemplo();
-            System.out.println("Sistema inicializado com sucesso!");
+            out.println("Sistema inicializado com sucesso!");
         } catch (Exception e) {
-            System.err.println("Erro ao inicializar sistema: " + e.getMessage());
+            err.println("Erro ao inicializar sistema: " + e.getMessage());
         }
     }
 
@@ -102,7 +448,7 @@ public class SistemaPizzaria {
     /**
      * Executa o menu principal do sistema
      */
-    private void executarMenuPrincipal() {
+    public void executarMenuPrincipal() {
         while (true) {
             exibirMenuPrincipal();
             int opcao = lerOpcao();
@@ -115,36 +461,40 @@ public class SistemaPizzaria {
                     case 4 -> menuPedidos();
                     case 5 -> exibirEstatisticas();
                     case 6 -> demonstrarCasoDeUso();
+                    case 7 -> menuRelatorios();
+                    case 8 -> criarBackup();
                     case 0 -> {
-                        System.out.println("Encerrando sistema...");
+                        out.println("Encerrando sistema...");
                         return;
                     }
-                    default -> System.out.println("Opção inválida!");
+                    default -> out.println("Opção inválida!");
                 }
             } catch (Exception e) {
-                System.err.println("Erro: " + e.getMessage());
+                err.println("Erro: " + e.getMessage());
             }
         }
     }
 
     private void exibirMenuPrincipal() {
-        System.out.println("\n=== MENU PRINCIPAL ===");
-        System.out.println("1. Gerenciar Clientes");
-        System.out.println("2. Gerenciar Ingredientes");
-        System.out.println("3. Gerenciar Cardápio");
-        System.out.println("4. Gerenciar Pedidos");
-        System.out.println("5. Exibir Estatísticas");
-        System.out.println("6. Demonstrar Caso de Uso");
-        System.out.println("0. Sair");
-        System.out.print("Escolha uma opção: ");
+        out.println("\n=== MENU PRINCIPAL ===");
+        out.println("1. Gerenciar Clientes");
+        out.println("2. Gerenciar Ingredientes");
+        out.println("3. Gerenciar Cardápio");
+        out.println("4. Gerenciar Pedidos");
+        out.println("5. Exibir Estatísticas");
+        out.println("6. Demonstrar Caso de Uso");
+        out.println("7. Relatórios");
+        out.println("8. Backup dos dados");
+        out.println("0. Sair");
+        out.print("Escolha uma opção: ");
     }
 
     private void menuClientes() {
-        System.out.println("\n=== GERENCIAR CLIENTES ===");
-        System.out.println("1. Listar todos os clientes");
-        System.out.println("2. Buscar cliente por telefone");
-        System.out.println("3. Cadastrar novo cliente");
-        System.out.print("Escolha uma opção: ");
+        out.println("\n=== GERENCIAR CLIENTES ===");
+        out.println("1. Listar todos os clientes");
+        out.println("2. Buscar cliente por telefone");
+        out.println("3. Cadastrar novo cliente");
+        out.print("Escolha uma opção: ");
         
         int opcao = lerOpcao();
         
@@ -153,19 +503,19 @@ public class SistemaPizzaria {
                 case 1 -> listarClientes();
                 case 2 -> buscarClientePorTelefone();
                 case 3 -> cadastrarCliente();
-                default -> System.out.println("Opção inválida!");
+                default -> out.println("Opção inválida!");
             }
         } catch (Exception e) {
-            System.err.println("Erro: " + e.getMessage());
+            err.println("Erro: " + e.getMessage());
         }
     }
 
     private void menuIngredientes() {
-        System.out.println("\n=== GERENCIAR INGREDIENTES ===");
-        System.out.println("1. Listar todos os ingredientes");
-        System.out.println("2. Listar ingredientes em falta");
-        System.out.println("3. Adicionar estoque");
-        System.out.print("Escolha uma opção: ");
+        out.println("\n=== GERENCIAR INGREDIENTES ===");
+        out.println("1. Listar todos os ingredientes");
+        out.println("2. Listar ingredientes em falta");
+        out.println("3. Adicionar estoque");
+        out.print("Escolha uma opção: ");
         
         int opcao = lerOpcao();
         
@@ -174,19 +524,19 @@ public class SistemaPizzaria {
                 case 1 -> listarIngredientes();
                 case 2 -> listarIngredientesEmFalta();
                 case 3 -> adicionarEstoque();
-                default -> System.out.println("Opção inválida!");
+                default -> out.println("Opção inválida!");
             }
         } catch (Exception e) {
-            System.err.println("Erro: " + e.getMessage());
+            err.println("Erro: " + e.getMessage());
         }
     }
 
     private void menuCardapio() {
-        System.out.println("\n=== GERENCIAR CARDÁPIO ===");
-        System.out.println("1. Listar pizzas");
-        System.out.println("2. Listar bebidas");
-        System.out.println("3. Criar pizza personalizada");
-        System.out.print("Escolha uma opção: ");
+        out.println("\n=== GERENCIAR CARDÁPIO ===");
+        out.println("1. Listar pizzas");
+        out.println("2. Listar bebidas");
+        out.println("3. Criar pizza personalizada");
+        out.print("Escolha uma opção: ");
         
         int opcao = lerOpcao();
         
@@ -195,23 +545,24 @@ public class SistemaPizzaria {
                 case 1 -> listarPizzas();
                 case 2 -> listarBebidas();
                 case 3 -> criarPizzaPersonalizada();
-                default -> System.out.println("Opção inválida!");
+                default -> out.println("Opção inválida!");
             }
         } catch (Exception e) {
-            System.err.println("Erro: " + e.getMessage());
+            err.println("Erro: " + e.getMessage());
         }
     }
 
     private void menuPedidos() {
         while (true) {
-            System.out.println("\n=== GERENCIAR PEDIDOS ===");
-            System.out.println("1. Criar novo pedido");
-            System.out.println("2. Listar pedidos pendentes");
-            System.out.println("3. Listar pedidos em preparo");
-            System.out.println("4. Atualizar status do pedido");
-            System.out.println("5. Listar pedidos do dia");
-            System.out.println("0. Voltar ao menu principal");
-            System.out.print("Escolha uma opção: ");
+            out.println("\n=== GERENCIAR PEDIDOS ===");
+            out.println("1. Criar novo pedido");
+            out.println("2. Listar pedidos pendentes");
+            out.println("3. Listar pedidos em preparo");
+            out.println("4. Atualizar status do pedido");
+            out.println("5. Listar pedidos do dia");
+            out.println("6. Painel da cozinha");
+            out.println("0. Voltar ao menu principal");
+            out.print("Escolha uma opção: ");
             
             int opcao = lerOpcao();
             
@@ -222,11 +573,12 @@ public class SistemaPizzaria {
                     case 3 -> listarPedidosEmPreparo();
                     case 4 -> atualizarStatusPedido();
                     case 5 -> listarPedidosDoDia();
+                    case 6 -> exibirPainelCozinha();
                     case 0 -> { return; }
-                    default -> System.out.println("Opção inválida!");
+                    default -> out.println("Opção inválida!");
                 }
             } catch (Exception e) {
-                System.err.println("Erro: " + e.getMessage());
+                err.println("Erro: " + e.getMessage());
             }
         }
     }
@@ -236,235 +588,631 @@ public class SistemaPizzaria {
     private void listarClientes() {
         List<Cliente> clientes = clienteService.listarTodos();
         if (clientes.isEmpty()) {
-            System.out.println("Nenhum cliente cadastrado.");
+            out.println("Nenhum cliente cadastrado.");
             return;
         }
         
-        System.out.println("\n=== CLIENTES CADASTRADOS ===");
+        out.println("\n=== CLIENTES CADASTRADOS ===");
         for (Cliente cliente : clientes) {
-            System.out.println(cliente);
+            out.println(cliente);
         }
     }
 
     private void buscarClientePorTelefone() {
-        System.out.print("Digite o telefone: ");
+        out.print("Digite o telefone: ");
         String telefone = scanner.nextLine();
         
         try {
             Cliente cliente = clienteService.buscarPorTelefone(telefone);
-            System.out.println("Cliente encontrado: " + cliente);
+            out.println("Cliente encontrado: " + cliente);
         } catch (ClienteNaoEncontradoException e) {
-            System.out.println(e.getMessage());
+            out.println(e.getMessage());
         }
     }
 
     private void cadastrarCliente() throws IOException {
-        System.out.print("Nome: ");
+        out.print("Nome: ");
         String nome = scanner.nextLine();
-        System.out.print("Telefone: ");
+        out.print("Telefone: ");
         String telefone = scanner.nextLine();
-        System.out.print("Logradouro: ");
+        out.print("Logradouro: ");
         String logradouro = scanner.nextLine();
-        System.out.print("Número: ");
+        out.print("Número: ");
         String numero = scanner.nextLine();
-        System.out.print("Bairro: ");
+        out.print("Bairro: ");
         String bairro = scanner.nextLine();
-        System.out.print("Cidade: ");
+        out.print("Cidade: ");
         String cidade = scanner.nextLine();
-        System.out.print("CEP: ");
+        out.print("CEP: ");
         String cep = scanner.nextLine();
         
         Endereco endereco = new Endereco(logradouro, numero, bairro, cidade, cep);
         Cliente cliente = new Cliente(0, nome, telefone, endereco);
         
         clienteService.criarCliente(cliente);
-        System.out.println("Cliente cadastrado com sucesso!");
+        out.println("Cliente cadastrado com sucesso!");
     }
 
     private void listarIngredientes() {
         List<Ingrediente> ingredientes = ingredienteService.listarTodos();
         if (ingredientes.isEmpty()) {
-            System.out.println("Nenhum ingrediente cadastrado.");
+            out.println("Nenhum ingrediente cadastrado.");
             return;
         }
         
-        System.out.println("\n=== INGREDIENTES ===");
+        out.println("\n=== INGREDIENTES ===");
         for (Ingrediente ingrediente : ingredientes) {
-            System.out.println(ingrediente);
+            out.println(ingrediente);
         }
     }
 
     private void listarIngredientesEmFalta() {
         List<Ingrediente> ingredientesEmFalta = ingredienteService.listarEmFalta();
         if (ingredientesEmFalta.isEmpty()) {
-            System.out.println("Todos os ingredientes têm estoque disponível.");
+            out.println("Todos os ingredientes têm estoque disponível.");
             return;
         }
         
-        System.out.println("\n=== INGREDIENTES EM FALTA ===");
+        out.println("\n=== INGREDIENTES EM FALTA ===");
         for (Ingrediente ingrediente : ingredientesEmFalta) {
-            System.out.println(ingrediente);
+            out.println(ingrediente);
         }
     }
 
     private void adicionarEstoque() throws IOException {
         listarIngredientes();
-        System.out.print("ID do ingrediente: ");
+        out.print("ID do ingrediente: ");
         int id = lerOpcao();
-        System.out.print("Quantidade a adicionar: ");
+        out.print("Quantidade a adicionar: ");
         int quantidade = lerOpcao();
         
         ingredienteService.adicionarEstoque(id, quantidade);
-        System.out.println("Estoque adicionado com sucesso!");
+        out.println("Estoque adicionado com sucesso!");
     }
 
     private void listarPizzas() {
         List<Pizza> pizzas = cardapioService.listarTodasPizzas();
         if (pizzas.isEmpty()) {
-            System.out.println("Nenhuma pizza cadastrada.");
+            out.println("Nenhuma pizza cadastrada.");
             return;
         }
         
-        System.out.println("\n=== PIZZAS DO CARDÁPIO ===");
+        out.println("\n=== PIZZAS DO CARDÁPIO ===");
         for (Pizza pizza : pizzas) {
-            System.out.println(pizza);
-            System.out.println();
+            out.println(pizza);
+            out.println();
         }
     }
 
     private void listarBebidas() {
         List<Bebida> bebidas = cardapioService.listarTodasBebidas();
         if (bebidas.isEmpty()) {
-            System.out.println("Nenhuma bebida cadastrada.");
+            out.println("Nenhuma bebida cadastrada.");
             return;
         }
         
-        System.out.println("\n=== BEBIDAS DO CARDÁPIO ===");
+        out.println("\n=== BEBIDAS DO CARDÁPIO ===");
         for (Bebida bebida : bebidas) {
-            System.out.println(bebida);
+            out.println(bebida);
         }
     }
 
     private void criarPizzaPersonalizada() throws IOException {
-        System.out.print("Nome da pizza: ");
+        out.print("Nome da pizza: ");
         String nome = scanner.nextLine();
         
-        System.out.println("Tamanhos disponíveis:");
+        out.println("Tamanhos disponíveis:");
         for (Tamanho tamanho : Tamanho.values()) {
-            System.out.println(tamanho.ordinal() + ". " + tamanho);
+            out.println(tamanho.ordinal() + ". " + tamanho);
         }
-        System.out.print("Escolha o tamanho: ");
+        out.print("Escolha o tamanho: ");
         int tamanhoEscolhido = lerOpcao();
         Tamanho tamanho = Tamanho.values()[tamanhoEscolhido];
         
-        System.out.print("Preço base: ");
+        out.print("Preço base: ");
         double precoBase = Double.parseDouble(scanner.nextLine());
         
         List<Ingrediente> ingredientesEscolhidos = new ArrayList<>();
         listarIngredientes();
         
-        System.out.println("Escolha os ingredientes (digite -1 para finalizar):");
+        out.println("Escolha os ingredientes (digite -1 para finalizar):");
         while (true) {
-            System.out.print("ID do ingrediente: ");
+            out.print("ID do ingrediente: ");
             int id = lerOpcao();
             if (id == -1) break;
             
             Ingrediente ingrediente = ingredienteService.buscarPorId(id);
             if (ingrediente != null) {
                 ingredientesEscolhidos.add(ingrediente);
-                System.out.println("Ingrediente adicionado: " + ingrediente.getNome());
+                out.println("Ingrediente adicionado: " + ingrediente.getNome());
             } else {
-                System.out.println("Ingrediente não encontrado!");
+                out.println("Ingrediente não encontrado!");
             }
         }
         
         Pizza pizza = cardapioService.criarPizzaPersonalizada(nome, tamanho, precoBase, ingredientesEscolhidos);
-        System.out.println("Pizza criada: " + pizza);
+        out.println("Pizza criada: " + pizza);
     }
 
     private void listarPedidosPendentes() {
         List<Pedido> pedidos = pedidoService.listarPendentes();
         if (pedidos.isEmpty()) {
-            System.out.println("Nenhum pedido pendente.");
+            out.println("Nenhum pedido pendente.");
             return;
         }
         
-        System.out.println("\n=== PEDIDOS PENDENTES ===");
+        out.println("\n=== PEDIDOS PENDENTES ===");
         for (Pedido pedido : pedidos) {
-            System.out.println(pedido);
+            out.println(pedido);
         }
     }
 
     private void listarPedidosEmPreparo() {
         List<Pedido> pedidos = pedidoService.listarEmPreparo();
         if (pedidos.isEmpty()) {
-            System.out.println("Nenhum pedido em preparo.");
+            out.println("Nenhum pedido em preparo.");
             return;
         }
         
-        System.out.println("\n=== PEDIDOS EM PREPARO ===");
+        out.println("\n=== PEDIDOS EM PREPARO ===");
         for (Pedido pedido : pedidos) {
-            System.out.println(pedido);
+            out.println(pedido);
         }
     }
 
     private void atualizarStatusPedido() throws IOException, PedidoInvalidoException, EstoqueInsuficienteException {
-        System.out.print("ID do pedido: ");
+        out.print("ID do pedido: ");
         int id = lerOpcao();
         
-        System.out.println("Novos status disponíveis:");
+        out.println("Novos status disponíveis:");
         for (StatusPedido status : StatusPedido.values()) {
-            System.out.println(status.ordinal() + ". " + status);
+            out.println(status.ordinal() + ". " + status);
         }
-        System.out.print("Escolha o novo status: ");
+        out.print("Escolha o novo status: ");
         int statusEscolhido = lerOpcao();
         StatusPedido novoStatus = StatusPedido.values()[statusEscolhido];
         
         pedidoService.atualizarStatusPedido(id, novoStatus);
-        System.out.println("Status atualizado com sucesso!");
+        out.println("Status atualizado com sucesso!");
     }
 
     private void listarPedidosDoDia() {
         List<Pedido> pedidos = pedidoService.listarPedidosDoDia();
         if (pedidos.isEmpty()) {
-            System.out.println("Nenhum pedido hoje.");
+            out.println("Nenhum pedido hoje.");
             return;
         }
         
-        System.out.println("\n=== PEDIDOS DO DIA ===");
+        out.println("\n=== PEDIDOS DO DIA ===");
         for (Pedido pedido : pedidos) {
-            System.out.println(pedido);
+            out.println(pedido);
         }
     }
 
+    private void exibirPainelCozinha() {
+        out.println("\n=== PAINEL DA COZINHA ===");
+        for (String estacao : escalonadorCozinha.getResumoEstacoes()) {
+            out.println(estacao);
+        }
+        out.printf("Média de pizzas por fornada: %.1f%n", escalonadorCozinha.getMediaPizzasPorFornada());
+        out.println(controleAdmissao.getResumo());
+        List<Integer> espera = controleAdmissao.listarEspera();
+        if (!espera.isEmpty()) {
+            out.println("Pedidos em espera (ordem de chegada): " + espera);
+        }
+
+        List<Pedido> pedidos = pedidoService.listarEmPreparo();
+        if (pedidos.isEmpty()) {
+            out.println("Nenhum pedido em preparo.");
+            return;
+        }
+
+        out.println("\nPrevisão de saída do forno:");
+        DateTimeFormatter formato = DateTimeFormatter.ofPattern("HH:mm");
+        for (Pedido pedido : pedidos) {
+            LocalDateTime previsao = escalonadorCozinha.estimarConclusao(pedido.getId());
+            out.printf("Pedido %d: %s%n", pedido.getId(),
+                previsao != null ? previsao.format(formato) : "sem pizzas na fila");
+        }
+    }
+
+    private void menuRelatorios() {
+        while (true) {
+            out.println("\n=== RELATÓRIOS ===");
+            out.println("1. Vendas agrupadas");
+            out.println("2. Relatório de faturamento (paralelo)");
+            out.println("3. Mais vendidos");
+            out.println("4. Clientes distintos");
+            out.println("5. Tempos de preparo e entrega");
+            out.println("6. Painel em tempo real");
+            out.println("7. Fechamentos diários");
+            out.println("8. Segmentação de clientes (RFM)");
+            out.println("9. Classificações do mês");
+            out.println("10. Exportar pedidos (CSV / contábil)");
+            out.println("0. Voltar ao menu principal");
+            out.print("Escolha uma opção: ");
+            
+            int opcao = lerOpcao();
+            
+            try {
+                switch (opcao) {
+                    case 1 -> exibirVendasAgrupadas();
+                    case 2 -> exibirRelatorioFaturamento();
+                    case 3 -> exibirMaisVendidos();
+                    case 4 -> exibirClientesDistintos();
+                    case 5 -> exibirTemposPedido();
+                    case 6 -> exibirPainelTempoReal();
+                    case 7 -> exibirFechamentos();
+                    case 8 -> exibirSegmentacaoClientes();
+                    case 9 -> exibirClassificacoes();
+                    case 10 -> exportarPedidos();
+                    case 0 -> { return; }
+                    default -> out.println("Opção inválida!");
+                }
+            } catch (Exception e) {
+                err.println("Erro: " + e.getMessage());
+            }
+        }
+    }
+
+    private void exibirVendasAgrupadas() {
+        Dimensao[] dimensoes = Dimensao.values();
+        out.println("\nAgrupar por:");
+        for (int i = 0; i < dimensoes.length; i++) {
+            out.println((i + 1) + ". " + dimensoes[i].getDescricao());
+        }
+        out.print("Escolha uma opção: ");
+        int opcaoDimensao = lerOpcao();
+        if (opcaoDimensao < 1 || opcaoDimensao > dimensoes.length) {
+            out.println("Opção inválida!");
+            return;
+        }
+        
+        out.print("Medida (1. Valor, 2. Itens): ");
+        Medida medida = lerOpcao() == 2 ? Medida.ITENS : Medida.VALOR;
+        
+        out.print("Apenas pedidos concluídos? (s/n): ");
+        boolean apenasConcluidos = scanner.nextLine().equalsIgnoreCase("s");
+        
+        if (armazemColunar.isIncompleto()) {
+            armazemColunar.reconstruir(pedidoService.listarTodos());
+        }
+        
+        ConsultaColunar consulta = armazemColunar.consulta()
+                                                 .agruparPor(dimensoes[opcaoDimensao - 1])
+                                                 .medir(medida);
+        if (apenasConcluidos) {
+            consulta.comStatus(StatusPedido.CONCLUIDO);
+        }
+        
+        List<GrupoResultado> grupos = consulta.executar();
+        out.println("\n=== VENDAS POR " + dimensoes[opcaoDimensao - 1].getDescricao().toUpperCase() + " ===");
+        if (grupos.isEmpty()) {
+            out.println("Nenhum pedido encontrado.");
+            return;
+        }
+        grupos.forEach(out::println);
+    }
+
+    private void exibirRelatorioFaturamento() throws InterruptedException {
+        TipoRelatorio[] tipos = TipoRelatorio.values();
+        out.println("\nRelatório:");
+        for (int i = 0; i < tipos.length; i++) {
+            out.println((i + 1) + ". " + tipos[i].getDescricao());
+        }
+        out.print("Escolha uma opção: ");
+        int opcaoTipo = lerOpcao();
+        if (opcaoTipo < 1 || opcaoTipo > tipos.length) {
+            out.println("Opção inválida!");
+            return;
+        }
+        
+        DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        LocalDate inicio;
+        LocalDate fim;
+        try {
+            out.print("Data inicial (dd/MM/yyyy, vazio para todo o histórico): ");
+            String textoInicio = scanner.nextLine().trim();
+            inicio = textoInicio.isEmpty() ? null : LocalDate.parse(textoInicio, formato);
+            out.print("Data final (dd/MM/yyyy, vazio para até hoje): ");
+            String textoFim = scanner.nextLine().trim();
+            fim = textoFim.isEmpty() ? null : LocalDate.parse(textoFim, formato);
+        } catch (DateTimeParseException e) {
+            out.println("Data inválida!");
+            return;
+        }
+        
+        if (armazemColunar.isIncompleto()) {
+            armazemColunar.reconstruir(pedidoService.listarTodos());
+        }
+        
+        ExecucaoRelatorio execucao = motorRelatorios.gerar(tipos[opcaoTipo - 1], inicio, fim);
+        while (!execucao.isConcluido()) {
+            out.printf("Processando... %.0f%%%n", execucao.getProgresso() * 100);
+            Thread.sleep(200);
+        }
+        
+        List<GrupoResultado> grupos = execucao.aguardar();
+        out.println("\n=== " + tipos[opcaoTipo - 1].getDescricao().toUpperCase() + " ===");
+        if (grupos.isEmpty()) {
+            out.println("Nenhum pedido concluído no período.");
+            return;
+        }
+        grupos.forEach(out::println);
+    }
+
+    private void exibirMaisVendidos() {
+        JanelaTempo[] janelas = JanelaTempo.values();
+        out.println("\nPeríodo:");
+        for (int i = 0; i < janelas.length; i++) {
+            out.println((i + 1) + ". " + janelas[i].getDescricao());
+        }
+        out.print("Escolha uma opção: ");
+        int opcaoJanela = lerOpcao();
+        if (opcaoJanela < 1 || opcaoJanela > janelas.length) {
+            out.println("Opção inválida!");
+            return;
+        }
+        
+        JanelaTempo janela = janelas[opcaoJanela - 1];
+        out.println("\n=== MAIS VENDIDOS - " + janela.getDescricao().toUpperCase() + " ===");
+        for (CategoriaVendida categoria : CategoriaVendida.values()) {
+            out.println("\n" + categoria.getDescricao() + ":");
+            List<ItemFrequente> topo = maisVendidos.topo(categoria, janela, 10);
+            if (topo.isEmpty()) {
+                out.println("  Nenhum pedido no período.");
+            }
+            for (int i = 0; i < topo.size(); i++) {
+                out.printf("%2d. %s%n", i + 1, topo.get(i));
+            }
+        }
+    }
+
+    private void exibirClientesDistintos() {
+        LocalDate hoje = LocalDate.now();
+        out.println("\n=== CLIENTES DISTINTOS (estimativa) ===");
+        out.println("Hoje: " + clientesDistintos.estimarPorPeriodo(hoje, hoje));
+        out.println("Últimos 7 dias: " + clientesDistintos.estimarPorPeriodo(hoje.minusDays(6), hoje));
+        out.println("Últimos 30 dias: " + clientesDistintos.estimarPorPeriodo(hoje.minusDays(29), hoje));
+        out.println("Desde o início: " + clientesDistintos.estimarTotal());
+        
+        Map<String, Long> porBairro = clientesDistintos.estimarPorBairros();
+        if (!porBairro.isEmpty()) {
+            out.println("\nPor bairro de entrega:");
+            porBairro.forEach((bairro, total) -> out.printf("  %-20s %6d%n", bairro, total));
+        }
+    }
+
+    private void exibirTemposPedido() {
+        out.println("\n=== TEMPOS DOS PEDIDOS (min:seg) ===");
+        for (EtapaPedido etapa : EtapaPedido.values()) {
+            out.println("\n" + etapa.getDescricao() + ":");
+            ResumoLatencia geral = temposPedido.geral(etapa);
+            if (geral.getTotal() == 0) {
+                out.println("  Sem medições.");
+                continue;
+            }
+            for (ResumoLatencia hora : temposPedido.porHora(etapa)) {
+                out.println("  " + hora);
+            }
+            out.println("  " + geral);
+        }
+    }
+
+    /**
+     * Mostra o painel atualizado a cada segundo até o operador teclar ENTER
+     */
+    private void exibirPainelTempoReal() throws InterruptedException {
+        out.println("\n=== PAINEL EM TEMPO REAL === (ENTER para voltar)");
+        Thread atualizador = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    ResumoPainel resumo = painelTempoReal.consultar();
+                    StringBuilder grafico = new StringBuilder();
+                    for (long pedidos : resumo.getPedidosPorMinuto()) {
+                        grafico.append(pedidos == 0 ? '.' : pedidos < 10 ? (char) ('0' + pedidos) : '+');
+                    }
+                    out.println("[" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")) + "] "
+                                + resumo + " | 15 min: " + grafico);
+                    Thread.sleep(1000);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "painel-tempo-real");
+        atualizador.setDaemon(true);
+        atualizador.start();
+        
+        scanner.nextLine();
+        atualizador.interrupt();
+        atualizador.join();
+    }
+
+    private void exibirFechamentos() {
+        DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio;
+        LocalDate fim;
+        try {
+            out.print("Data inicial (dd/MM/yyyy, vazio para 7 dias atrás): ");
+            String textoInicio = scanner.nextLine().trim();
+            inicio = textoInicio.isEmpty() ? hoje.minusDays(6) : LocalDate.parse(textoInicio, formato);
+            out.print("Data final (dd/MM/yyyy, vazio para hoje): ");
+            String textoFim = scanner.nextLine().trim();
+            fim = textoFim.isEmpty() ? hoje : LocalDate.parse(textoFim, formato);
+        } catch (DateTimeParseException e) {
+            out.println("Data inválida!");
+            return;
+        }
+        
+        List<Fechamento> dias = fechamentoService.listarDias(inicio, fim);
+        out.println("\n=== FECHAMENTOS DE " + inicio.format(formato) + " A " + fim.format(formato) + " ===");
+        if (dias.isEmpty()) {
+            out.println("Nenhum pedido no período.");
+            return;
+        }
+        dias.forEach(out::println);
+        
+        Fechamento periodo = fechamentoService.consolidar(inicio, fim);
+        out.println("\nTotal do período: " + periodo);
+        out.println("\nItens mais vendidos:");
+        periodo.getItensVendidos().stream().limit(10).forEach(item -> out.println("  " + item));
+        out.println("\nIngredientes mais consumidos:");
+        periodo.getIngredientesConsumidos().stream().limit(10).forEach(ingrediente -> out.println("  " + ingrediente));
+    }
+
+    private void exibirSegmentacaoClientes() {
+        out.println("\n=== SEGMENTAÇÃO DE CLIENTES (RFM) ===");
+        out.println("Clientes com pedidos concluídos: " + segmentacaoClientes.getTotalClientes());
+        segmentacaoClientes.contarPorSegmento()
+                           .forEach((segmento, total) -> out.printf("  %-12s %5d%n", segmento.getDescricao(), total));
+        
+        out.print("\nListar os x% que mais gastam (vazio para 5): ");
+        String texto = scanner.nextLine().trim();
+        double percentual;
+        try {
+            percentual = texto.isEmpty() ? 5 : Double.parseDouble(texto.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            out.println("Percentual inválido!");
+            return;
+        }
+        
+        List<PerfilCliente> melhores = segmentacaoClientes.listarTopPercentual(percentual);
+        out.println("\nTop " + (texto.isEmpty() ? "5" : texto) + "% clientes:");
+        for (PerfilCliente perfil : melhores) {
+            out.printf("  %-20s %s%n", nomeDoCliente(perfil.getClienteId()), perfil);
+        }
+    }
+
+    private void exibirClassificacoes() {
+        out.println("\n=== CLASSIFICAÇÕES DE " + classificacoes.getMes() + " ===");
+        out.println("Clientes que mais gastaram (" + classificacoes.getTotalClientes() + " com pedidos concluídos):");
+        for (EntradaRanking<Integer> entrada : classificacoes.topClientes(10)) {
+            out.printf("  %3dº %-20s R$%10.2f%n", entrada.getPosicao(), nomeDoCliente(entrada.getChave()),
+                       Dinheiro.paraReais(entrada.getValor()));
+        }
+        
+        out.println("\nBairros com mais pedidos concluídos:");
+        for (EntradaRanking<String> entrada : classificacoes.topBairros(10)) {
+            out.printf("  %3dº %-20s %6d%n", entrada.getPosicao(), entrada.getChave(), entrada.getValor());
+        }
+        
+        out.print("\nID do cliente para ver a posição (vazio para voltar): ");
+        String texto = scanner.nextLine().trim();
+        if (texto.isEmpty()) {
+            return;
+        }
+        int clienteId;
+        try {
+            clienteId = Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            out.println("ID inválido!");
+            return;
+        }
+        int posicao = classificacoes.posicaoCliente(clienteId);
+        if (posicao < 0) {
+            out.println(nomeDoCliente(clienteId) + " não tem pedidos concluídos no mês.");
+        } else {
+            out.printf("%s está em %dº lugar, com R$%.2f no mês.%n", nomeDoCliente(clienteId), posicao,
+                       Dinheiro.paraReais(classificacoes.gastoNoMesCentavos(clienteId)));
+        }
+    }
+
+    private void exportarPedidos() throws IOException {
+        DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio;
+        LocalDate fim;
+        try {
+            out.print("Data inicial (dd/MM/yyyy, vazio para o início do mês): ");
+            String textoInicio = scanner.nextLine().trim();
+            inicio = textoInicio.isEmpty() ? hoje.withDayOfMonth(1) : LocalDate.parse(textoInicio, formatoData);
+            out.print("Data final (dd/MM/yyyy, vazio para hoje): ");
+            String textoFim = scanner.nextLine().trim();
+            fim = textoFim.isEmpty() ? hoje : LocalDate.parse(textoFim, formatoData);
+        } catch (DateTimeParseException e) {
+            out.println("Data inválida!");
+            return;
+        }
+        
+        FormatoExportacao[] formatos = FormatoExportacao.values();
+        for (int i = 0; i < formatos.length; i++) {
+            out.println((i + 1) + ". " + formatos[i].getDescricao());
+        }
+        out.print("Formato: ");
+        int opcao = lerOpcao();
+        if (opcao < 1 || opcao > formatos.length) {
+            out.println("Formato inválido!");
+            return;
+        }
+        FormatoExportacao formato = formatos[opcao - 1];
+        out.print("Um arquivo por dia? (s/N): ");
+        boolean porDia = scanner.nextLine().trim().equalsIgnoreCase("s");
+        
+        ExportadorPedidos exportador = new ExportadorPedidos(pedidoService);
+        Path destino = Path.of("data", "exportacoes");
+        ResultadoExportacao resultado;
+        if (porDia) {
+            destino = destino.resolve(inicio + "_" + fim);
+            resultado = exportador.exportarPorDia(inicio, fim, formato, destino,
+                                                  Runtime.getRuntime().availableProcessors());
+        } else {
+            destino = destino.resolve("pedidos-" + inicio + "_" + fim + "." + formato.getExtensao());
+            resultado = exportador.exportar(inicio, fim, formato, destino);
+        }
+        out.println(resultado);
+        out.println("Destino: " + destino);
+    }
+
+    private String nomeDoCliente(int clienteId) {
+        try {
+            return clienteService.buscarPorId(clienteId).getNome();
+        } catch (ClienteNaoEncontradoException e) {
+            return "Cliente " + clienteId;
+        }
+    }
+
+    private void criarBackup() throws IOException {
+        out.println("Gerando backup (os pedidos continuam sendo aceitos)...");
+        ResultadoBackup resultado = backupService.criarBackup();
+        out.println(resultado);
+        out.println("Arquivo: " + resultado.getArquivo());
+    }
+
     private void exibirEstatisticas() {
-        System.out.println("\n=== ESTATÍSTICAS DO SISTEMA ===");
-        System.out.println("Clientes: " + clienteService.getTotalClientes());
-        System.out.println("Ingredientes: " + ingredienteService.getTotalIngredientes());
-        System.out.println(cardapioService.getEstatisticas());
-        System.out.println(pedidoService.getEstatisticas());
+        out.println("\n=== ESTATÍSTICAS DO SISTEMA ===");
+        out.println("Clientes: " + clienteService.getTotalClientes());
+        out.println("Ingredientes: " + ingredienteService.getTotalIngredientes());
+        out.println(cardapioService.getEstatisticas());
+        out.println(pedidoService.getEstatisticas());
+        if (replicacaoPrimaria != null) {
+            out.println(replicacaoPrimaria.getResumo());
+        }
+        if (replicacaoStandby != null) {
+            out.println(replicacaoStandby.getResumo());
+        }
     }
 
     /**
      * Demonstra o caso de uso "Realizar um Pedido para Entrega"
      */
     private void demonstrarCasoDeUso() {
-        System.out.println("\n=== DEMONSTRAÇÃO: CASO DE USO - REALIZAR PEDIDO PARA ENTREGA ===");
+        out.println("\n=== DEMONSTRAÇÃO: CASO DE USO - REALIZAR PEDIDO PARA ENTREGA ===");
         
         try {
             // 1. Buscar cliente
-            System.out.println("1. Buscando cliente por telefone...");
+            out.println("1. Buscando cliente por telefone...");
             Cliente cliente = clienteService.buscarPorTelefone("(11) 99999-9999");
-            System.out.println("Cliente encontrado: " + cliente.getNome());
+            out.println("Cliente encontrado: " + cliente.getNome());
             
             // 2. Montar pedido
-            System.out.println("\n2. Montando pedido...");
+            out.println("\n2. Montando pedido...");
             List<ItemPedido> itens = new ArrayList<>();
             
             // Adicionar bebidas
             Bebida cocaCola = cardapioService.buscarBebidaPorId(1000);
             itens.add(new ItemPedido(cocaCola, 2));
-            System.out.println("Adicionado: 2x " + cocaCola.getNome());
+            out.println("Adicionado: 2x " + cocaCola.getNome());
             
             // Adicionar pizza personalizada
             List<Ingrediente> ingredientesPizza = new ArrayList<>();
@@ -475,48 +1223,56 @@ public class SistemaPizzaria {
             Pizza pizzaPersonalizada = new Pizza(999, "Pizza Especial", "Pizza personalizada", 
                                                20.00, Tamanho.GRANDE, ingredientesPizza);
             itens.add(new ItemPedido(pizzaPersonalizada, 1));
-            System.out.println("Adicionado: 1x Pizza Especial (Grande)");
+            out.println("Adicionado: 1x Pizza Especial (Grande)");
             
             // 3. Calcular total
-            System.out.println("\n3. Calculando valor total...");
-            double total = itens.stream().mapToDouble(ItemPedido::calcularSubtotal).sum();
-            System.out.println("Valor total: R$" + String.format("%.2f", total));
-            
-            // 4. Criar pedido
-            System.out.println("\n4. Criando pedido...");
-            Endereco enderecoEntrega = new Endereco("Rua Nova", "456", "Jardim", "São Paulo", "09876-543");
-            Pedido pedido = pedidoService.criarPedidoDelivery(cliente, itens, enderecoEntrega);
-            System.out.println("Pedido criado: " + pedido);
+            out.println("\n3. Calculando valor total...");
+            double total = Dinheiro.paraReais(itens.stream().mapToLong(ItemPedido::calcularSubtotalCentavos).sum());
+            out.println("Valor total: R$" + String.format("%.2f", total));
             
-            // 5. Confirmar pedido
-            System.out.println("\n5. Confirmando pedido (verificando estoque)...");
-            pedidoService.atualizarStatusPedido(pedido.getId(), StatusPedido.EM_PREPARO);
-            System.out.println("Pedido confirmado e em preparo!");
+            // 4 e 5. Criar e confirmar o pedido, gravados juntos (pedido e estoque)
+            try (UnidadeDeTrabalho unidade = UnidadeDeTrabalho.iniciar()) {
+                out.println("\n4. Criando pedido...");
+                Endereco enderecoEntrega = new Endereco("Rua Nova", "456", "Jardim", "São Paulo", "09876-543");
+                Pedido pedido = pedidoService.criarPedidoDelivery(cliente, itens, enderecoEntrega);
+                out.println("Pedido criado: " + pedido);
+                
+                out.println("\n5. Confirmando pedido (verificando estoque)...");
+                pedidoService.atualizarStatusPedido(pedido.getId(), StatusPedido.EM_PREPARO);
+                unidade.confirmar();
+                out.println("Pedido confirmado e em preparo!");
+            }
             
-            System.out.println("\n=== CASO DE USO CONCLUÍDO COM SUCESSO! ===");
+            out.println("\n=== CASO DE USO CONCLUÍDO COM SUCESSO! ===");
             
         } catch (Exception e) {
-            System.err.println("Erro na demonstração: " + e.getMessage());
-            e.printStackTrace();
+            err.println("Erro na demonstração: " + e.getMessage());
+            e.printStackTrace(err);
         }
     }
 
+    /**
+     * Cadastro do cliente (no primeiro contato) e criação do pedido formam uma unidade
+     * de trabalho: são gravados juntos, e um erro no pedido desfaz o cadastro. O cliente
+     * novo só é cadastrado depois de montado o pedido, para nenhum arquivo ficar travado
+     * enquanto o operador digita.
+     */
     private void criarNovoPedido() {
         try {
-            System.out.println("\n=== CRIAR NOVO PEDIDO ===");
+            out.println("\n=== CRIAR NOVO PEDIDO ===");
             
             // 1. Buscar ou cadastrar cliente
             Cliente cliente = buscarOuCadastrarCliente();
             if (cliente == null) {
-                System.out.println("Operação cancelada.");
+                out.println("Operação cancelada.");
                 return;
             }
             
             // 2. Escolher tipo de pedido
-            System.out.println("\nTipo de pedido:");
-            System.out.println("1. Balcão");
-            System.out.println("2. Delivery");
-            System.out.print("Escolha: ");
+            out.println("\nTipo de pedido:");
+            out.println("1. Balcão");
+            out.println("2. Delivery");
+            out.print("Escolha: ");
             int tipoPedido = lerOpcao();
             
             Endereco enderecoEntrega = null;
@@ -526,37 +1282,45 @@ public class SistemaPizzaria {
             
             // 3. Montar o pedido
             List<ItemPedido> itens = montarItensPedido();
-            if (itens.isEmpty()) {
-                System.out.println("Pedido cancelado - nenhum item adicionado.");
-                return;
-            }
             
-            // 4. Criar o pedido
+            // 4. Cadastrar o cliente novo e criar o pedido
             Pedido pedido;
-            if (tipoPedido == 1) {
-                pedido = pedidoService.criarPedido(cliente, itens);
-            } else {
-                pedido = pedidoService.criarPedidoDelivery(cliente, itens, enderecoEntrega);
+            try (UnidadeDeTrabalho unidade = UnidadeDeTrabalho.iniciar()) {
+                if (cliente.getId() == 0) {
+                    clienteService.criarCliente(cliente);
+                }
+                if (itens.isEmpty()) {
+                    unidade.confirmar(); // o cadastro do cliente fica
+                    out.println("Pedido cancelado - nenhum item adicionado.");
+                    return;
+                }
+                
+                if (tipoPedido == 1) {
+                    pedido = pedidoService.criarPedido(cliente, itens);
+                } else {
+                    pedido = pedidoService.criarPedidoDelivery(cliente, itens, enderecoEntrega);
+                }
+                unidade.confirmar();
             }
             
             // 5. Mostrar resumo e confirmar
             mostrarResumoPedido(pedido, cliente, tipoPedido, enderecoEntrega);
             
         } catch (Exception e) {
-            System.out.println("Erro ao criar pedido: " + e.getMessage());
+            out.println("Erro ao criar pedido: " + e.getMessage());
         }
     }
 
     private Cliente buscarOuCadastrarCliente() {
-        System.out.print("Digite o telefone do cliente: ");
+        out.print("Digite o telefone do cliente: ");
         String telefone = scanner.nextLine();
         
         try {
             Cliente cliente = clienteService.buscarPorTelefone(telefone);
-            System.out.println("Cliente encontrado: " + cliente.getNome());
+            out.println("Cliente encontrado: " + cliente.getNome());
             return cliente;
         } catch (ClienteNaoEncontradoException e) {
-            System.out.print("Cliente não encontrado. Deseja cadastrar um novo cliente? (s/n): ");
+            out.print("Cliente não encontrado. Deseja cadastrar um novo cliente? (s/n): ");
             String opcao = scanner.nextLine();
             
             if (opcao.equalsIgnoreCase("s")) {
@@ -568,50 +1332,50 @@ public class SistemaPizzaria {
 
     private Cliente cadastrarNovoClienteRapido(String telefone) {
         try {
-            System.out.print("Nome do cliente: ");
+            out.print("Nome do cliente: ");
             String nome = scanner.nextLine();
             
-            System.out.println("\n=== ENDEREÇO ===");
-            System.out.print("Rua: ");
+            out.println("\n=== ENDEREÇO ===");
+            out.print("Rua: ");
             String rua = scanner.nextLine();
-            System.out.print("Número: ");
+            out.print("Número: ");
             String numero = scanner.nextLine();
-            System.out.print("Bairro: ");
+            out.print("Bairro: ");
             String bairro = scanner.nextLine();
-            System.out.print("Cidade: ");
+            out.print("Cidade: ");
             String cidade = scanner.nextLine();
-            System.out.print("CEP: ");
+            out.print("CEP: ");
             String cep = scanner.nextLine();
             
+            // Cadastrado junto com o pedido (ID 0 até lá)
             Endereco endereco = new Endereco(rua, numero, bairro, cidade, cep);
-            Cliente cliente = new Cliente(0, nome, telefone, endereco);
-            return clienteService.criarCliente(cliente);
+            return new Cliente(0, nome, telefone, endereco);
         } catch (Exception e) {
-            System.out.println("Erro ao cadastrar cliente: " + e.getMessage());
+            out.println("Erro ao cadastrar cliente: " + e.getMessage());
             return null;
         }
     }
 
     private Endereco obterEnderecoEntrega(Cliente cliente) {
-        System.out.println("\nEndereço de entrega:");
-        System.out.println("1. Usar endereço do cliente");
-        System.out.println("2. Informar outro endereço");
-        System.out.print("Escolha: ");
+        out.println("\nEndereço de entrega:");
+        out.println("1. Usar endereço do cliente");
+        out.println("2. Informar outro endereço");
+        out.print("Escolha: ");
         int opcao = lerOpcao();
         
         if (opcao == 1) {
             return cliente.getEndereco();
         } else {
-            System.out.println("=== NOVO ENDEREÇO DE ENTREGA ===");
-            System.out.print("Rua: ");
+            out.println("=== NOVO ENDEREÇO DE ENTREGA ===");
+            out.print("Rua: ");
             String rua = scanner.nextLine();
-            System.out.print("Número: ");
+            out.print("Número: ");
             String numero = scanner.nextLine();
-            System.out.print("Bairro: ");
+            out.print("Bairro: ");
             String bairro = scanner.nextLine();
-            System.out.print("Cidade: ");
+            out.print("Cidade: ");
             String cidade = scanner.nextLine();
-            System.out.print("CEP: ");
+            out.print("CEP: ");
             String cep = scanner.nextLine();
             
             return new Endereco(rua, numero, bairro, cidade, cep);
@@ -622,12 +1386,12 @@ public class SistemaPizzaria {
         List<ItemPedido> itens = new ArrayList<>();
         
         while (true) {
-            System.out.println("\n=== ADICIONAR ITEM ===");
-            System.out.println("1. Adicionar Pizza");
-            System.out.println("2. Adicionar Bebida");
-            System.out.println("3. Ver itens do pedido");
-            System.out.println("0. Finalizar pedido");
-            System.out.print("Escolha: ");
+            out.println("\n=== ADICIONAR ITEM ===");
+            out.println("1. Adicionar Pizza");
+            out.println("2. Adicionar Bebida");
+            out.println("3. Ver itens do pedido");
+            out.println("0. Finalizar pedido");
+            out.print("Escolha: ");
             
             int opcao = lerOpcao();
             
@@ -636,56 +1400,56 @@ public class SistemaPizzaria {
                 case 2 -> adicionarBebida(itens);
                 case 3 -> mostrarItensPedido(itens);
                 case 0 -> { return itens; }
-                default -> System.out.println("Opção inválida!");
+                default -> out.println("Opção inválida!");
             }
         }
     }
 
     private void adicionarPizza(List<ItemPedido> itens) {
-        System.out.println("\n=== PIZZAS DISPONÍVEIS ===");
+        out.println("\n=== PIZZAS DISPONÍVEIS ===");
         List<Pizza> pizzas = cardapioService.listarTodasPizzas();
         
         if (pizzas.isEmpty()) {
-            System.out.println("Nenhuma pizza cadastrada no cardápio.");
+            out.println("Nenhuma pizza cadastrada no cardápio.");
             return;
         }
         
         // Mostrar pizzas com todos os preços
         for (int i = 0; i < pizzas.size(); i++) {
             Pizza pizza = pizzas.get(i);
-            System.out.printf("%d. %s%n", (i + 1), pizza.getNome());
-            System.out.printf("   P: R$ %.2f | M: R$ %.2f | G: R$ %.2f%n",
+            out.printf("%d. %s%n", (i + 1), pizza.getNome());
+            out.printf("   P: R$ %.2f | M: R$ %.2f | G: R$ %.2f%n",
                 pizza.getPrecoBase() * Tamanho.PEQUENA.getMultiplicador(),
                 pizza.getPrecoBase() * Tamanho.MEDIA.getMultiplicador(),
                 pizza.getPrecoBase() * Tamanho.GRANDE.getMultiplicador());
             if (!pizza.getIngredientes().isEmpty()) {
-                System.out.printf("   Ingredientes: %s%n", 
+                out.printf("   Ingredientes: %s%n", 
                     pizza.getIngredientes().stream().map(Ingrediente::getNome).reduce((a, b) -> a + ", " + b).orElse(""));
             }
-            System.out.println();
+            out.println();
         }
         
-        System.out.print("Escolha a pizza: ");
+        out.print("Escolha a pizza: ");
         int escolha = lerOpcao();
         
         if (escolha < 1 || escolha > pizzas.size()) {
-            System.out.println("Opção inválida!");
+            out.println("Opção inválida!");
             return;
         }
         
         Pizza pizzaBase = pizzas.get(escolha - 1);
         
         // Escolher tamanho
-        System.out.println("\nEscolha o tamanho:");
-        System.out.println("P - Pequena (1x do preço base)");
-        System.out.println("M - Média (1.5x do preço base)");
-        System.out.println("G - Grande (2x do preço base)");
-        System.out.print("Digite P, M ou G: ");
+        out.println("\nEscolha o tamanho:");
+        out.println("P - Pequena (1x do preço base)");
+        out.println("M - Média (1.5x do preço base)");
+        out.println("G - Grande (2x do preço base)");
+        out.print("Digite P, M ou G: ");
         String tamanhoEscolhido = scanner.nextLine().trim().toUpperCase();
         
         Tamanho tamanho = Tamanho.porSigla(tamanhoEscolhido);
         if (tamanho == null) {
-            System.out.println("Tamanho inválido! Use P, M ou G.");
+            out.println("Tamanho inválido! Use P, M ou G.");
             return;
         }
         
@@ -699,70 +1463,70 @@ public class SistemaPizzaria {
             pizzaBase.getIngredientes()
         );
         
-        System.out.printf("Pizza escolhida: %s (%s) - R$ %.2f%n", 
+        out.printf("Pizza escolhida: %s (%s) - R$ %.2f%n", 
             pizzaComTamanho.getNome(), tamanho.getSigla(), pizzaComTamanho.calcularPreco());
         
-        System.out.print("Quantidade: ");
+        out.print("Quantidade: ");
         int quantidade = lerOpcao();
         
         if (quantidade <= 0) {
-            System.out.println("Quantidade inválida!");
+            out.println("Quantidade inválida!");
             return;
         }
         
         ItemPedido item = new ItemPedido(pizzaComTamanho, quantidade);
         itens.add(item);
         
-        System.out.printf("✓ %dx %s (%s) adicionada ao pedido!%n", 
+        out.printf("✓ %dx %s (%s) adicionada ao pedido!%n", 
             quantidade, pizzaComTamanho.getNome(), tamanho.getSigla());
     }
 
     private void adicionarBebida(List<ItemPedido> itens) {
-        System.out.println("\n=== BEBIDAS DISPONÍVEIS ===");
+        out.println("\n=== BEBIDAS DISPONÍVEIS ===");
         List<Bebida> bebidas = cardapioService.listarTodasBebidas();
         
         if (bebidas.isEmpty()) {
-            System.out.println("Nenhuma bebida cadastrada no cardápio.");
+            out.println("Nenhuma bebida cadastrada no cardápio.");
             return;
         }
         
         for (int i = 0; i < bebidas.size(); i++) {
             Bebida bebida = bebidas.get(i);
-            System.out.printf("%d. %s (%dml) - R$ %.2f%n", 
+            out.printf("%d. %s (%dml) - R$ %.2f%n", 
                 (i + 1), bebida.getNome(), bebida.getVolumeEmML(), bebida.calcularPreco());
         }
         
-        System.out.print("Escolha a bebida: ");
+        out.print("Escolha a bebida: ");
         int escolha = lerOpcao();
         
         if (escolha < 1 || escolha > bebidas.size()) {
-            System.out.println("Opção inválida!");
+            out.println("Opção inválida!");
             return;
         }
         
         Bebida bebidaEscolhida = bebidas.get(escolha - 1);
         
-        System.out.print("Quantidade: ");
+        out.print("Quantidade: ");
         int quantidade = lerOpcao();
         
         if (quantidade <= 0) {
-            System.out.println("Quantidade inválida!");
+            out.println("Quantidade inválida!");
             return;
         }
         
         ItemPedido item = new ItemPedido(bebidaEscolhida, quantidade);
         itens.add(item);
         
-        System.out.printf("✓ %dx %s adicionada ao pedido!%n", quantidade, bebidaEscolhida.getNome());
+        out.printf("✓ %dx %s adicionada ao pedido!%n", quantidade, bebidaEscolhida.getNome());
     }
 
     private void mostrarItensPedido(List<ItemPedido> itens) {
         if (itens.isEmpty()) {
-            System.out.println("\nNenhum item no pedido ainda.");
+            out.println("\nNenhum item no pedido ainda.");
             return;
         }
         
-        System.out.println("\n=== ITENS DO PEDIDO ===");
+        out.println("\n=== ITENS DO PEDIDO ===");
         double total = 0;
         for (int i = 0; i < itens.size(); i++) {
             ItemPedido item = itens.get(i);
@@ -774,38 +1538,46 @@ public class SistemaPizzaria {
                 nomeItem += " (" + pizza.getTamanho().getSigla() + ")";
             }
             
-            System.out.printf("%d. %dx %s - R$ %.2f%n", 
+            out.printf("%d. %dx %s - R$ %.2f%n", 
                 (i + 1), item.getQuantidade(), nomeItem, subtotal);
         }
-        System.out.printf("\nTotal atual: R$ %.2f%n", total);
+        out.printf("\nTotal atual: R$ %.2f%n", total);
     }
 
     private void mostrarResumoPedido(Pedido pedido, Cliente cliente, int tipoPedido, Endereco enderecoEntrega) {
-        System.out.println("\n=== RESUMO DO PEDIDO ===");
-        System.out.println("Pedido ID: " + pedido.getId());
-        System.out.println("Cliente: " + cliente.getNome());
-        System.out.println("Telefone: " + cliente.getTelefone());
-        System.out.println("Tipo: " + (tipoPedido == 1 ? "Balcão" : "Delivery"));
+        out.println("\n=== RESUMO DO PEDIDO ===");
+        out.println("Pedido ID: " + pedido.getId());
+        out.println("Cliente: " + cliente.getNome());
+        out.println("Telefone: " + cliente.getTelefone());
+        out.println("Tipo: " + (tipoPedido == 1 ? "Balcão" : "Delivery"));
         
         if (enderecoEntrega != null) {
-            System.out.println("Endereço de entrega: " + enderecoEntrega);
+            out.println("Endereço de entrega: " + enderecoEntrega);
         }
         
-        System.out.println("\nItens:");
+        out.println("\nItens:");
         for (ItemPedido item : pedido.getItensDoPedido()) {
             String nomeItem = item.getItem().getNome();
             if (item.getItem() instanceof Pizza pizza) {
                 nomeItem += " (" + pizza.getTamanho().getSigla() + ")";
             }
-            System.out.printf("- %dx %s - R$ %.2f%n", 
+            out.printf("- %dx %s - R$ %.2f%n", 
                 item.getQuantidade(), nomeItem, item.calcularSubtotal());
         }
         
-        System.out.printf("\nValor total: R$ %.2f%n", pedido.getValorTotal());
-        System.out.println("Status: " + pedido.getStatus());
-        System.out.println("Data/Hora: " + pedido.getDataHora().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+        out.printf("\nValor total: R$ %.2f%n", pedido.getValorTotal());
+        out.println("Status: " + pedido.getStatus());
+        out.println("Data/Hora: " + pedido.getDataHora().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+        
+        DecisaoAdmissao decisao = controleAdmissao.getDecisao(pedido.getId());
+        if (decisao != null) {
+            out.println("Admissão: " + decisao);
+        }
+        if (pedido.getPrazoPrometido() != null) {
+            out.println("Previsão para o cliente: " + pedido.getPrazoPrometido().format(DateTimeFormatter.ofPattern("HH:mm")));
+        }
         
-        System.out.println("\n✓ Pedido criado com sucesso!");
+        out.println("\n✓ Pedido criado com sucesso!");
     }
 
     private int lerOpcao() {
@@ -0,0 +1,438 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.evento.TipoEventoPedido;
+import com.pizzaria.model.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Armazém colunar do histórico de pedidos para relatórios.
+ *
+ * Cada atributo fica em um array primitivo próprio (uma posição por pedido e,
+ * separadamente, uma por item de pedido), de modo que as consultas de agrupamento
+ * percorrem só as colunas que usam, em laços sobre primitivos, sem visitar
+ * Pedido -> ItemPedido -> ItemCardapio. Textos (bairro, nome da pizza) são
+ * guardados uma vez em dicionários e as colunas guardam o índice.
+ *
+ * É alimentado pelos eventos do PedidoService e pode ser reconstruído do histórico.
+ */
+public class ArmazemColunar implements OuvinteEventoPedido {
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final byte SEM_TAMANHO = -1; // item que não é pizza
+    private static final Locale LOCALE_BR = Locale.forLanguageTag("pt-BR");
+
+    private final ReentrantReadWriteLock trava;
+    private final ZoneId zona;
+
+    // Colunas por pedido
+    private int totalPedidos;
+    private int[] pedidoId;
+    private long[] instante;          // epoch millis
+    private int[] dia;                // epoch day
+    private byte[] hora;
+    private byte[] diaSemana;         // 1 = segunda ... 7 = domingo
+    private byte[] status;            // ordinal de StatusPedido
+    private int[] clienteId;
+    private long[] totalCentavos;
+    private int[] quantidadeItens;
+    private int[] bairro;             // índice em bairros, -1 = sem endereço
+    private int[] ultimoItem;         // último item do pedido (lista encadeada), -1 = nenhum
+
+    // Colunas por item de pedido
+    private int totalItens;
+    private int[] itemLinhaPedido;    // posição do pedido nas colunas acima
+    private int[] itemId;
+    private byte[] itemTamanho;       // ordinal de Tamanho, -1 = bebida
+    private int[] itemQuantidade;     // 0 = item removido do pedido
+    private long[] itemPrecoCentavos;
+    private int[] itemAnterior;       // item anterior do mesmo pedido, -1 = nenhum
+
+    // Dicionários e índice por ID do pedido
+    private final Map<String, Integer> indiceBairro;
+    private final List<String> bairros;
+    private final Map<Integer, String> nomesPizzas;
+    private int maiorIdPizza;
+    private int maiorClienteId;
+    private int menorDia;
+    private int maiorDia;
+    private int[] linhaDoPedido;      // pedidoId -> posição, -1 = ausente
+
+    private long ultimaSequencia;
+    private volatile boolean incompleto;
+
+    public ArmazemColunar() {
+        this.trava = new ReentrantReadWriteLock();
+        this.zona = ZoneId.systemDefault();
+        this.indiceBairro = new HashMap<>();
+        this.bairros = new ArrayList<>();
+        this.nomesPizzas = new HashMap<>();
+        limpar();
+    }
+
+    /**
+     * Recarrega todas as colunas a partir do histórico de pedidos
+     */
+    public void reconstruir(List<Pedido> pedidos) {
+        trava.writeLock().lock();
+        try {
+            limpar();
+            for (Pedido pedido : pedidos) {
+                adicionarPedido(pedido);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inicia uma consulta de agrupamento
+     */
+    public ConsultaColunar consulta() {
+        return new ConsultaColunar(this);
+    }
+
+    public int getTotalPedidos() {
+        trava.readLock().lock();
+        try {
+            return totalPedidos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public int getTotalItens() {
+        trava.readLock().lock();
+        try {
+            return totalItens;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cópia das colunas usadas pelos relatórios pesados, tirada sob a trava de leitura
+     * para que o processamento paralelo não segure o armazém
+     */
+    static final class Instantaneo {
+        final int totalPedidos;
+        final int[] dia;
+        final byte[] status;
+        final int[] clienteId;
+        final long[] totalCentavos;
+        final int totalItens;
+        final int[] itemLinhaPedido;
+        final int[] itemId;
+        final byte[] itemTamanho;
+        final int[] itemQuantidade;
+        final long[] itemPrecoCentavos;
+        final Map<Integer, String> nomesPizzas;
+        final int maiorIdPizza;
+        final int maiorClienteId;
+        final int menorDia;
+        final int maiorDia;
+
+        private Instantaneo(ArmazemColunar armazem) {
+            this.totalPedidos = armazem.totalPedidos;
+            this.dia = Arrays.copyOf(armazem.dia, totalPedidos);
+            this.status = Arrays.copyOf(armazem.status, totalPedidos);
+            this.clienteId = Arrays.copyOf(armazem.clienteId, totalPedidos);
+            this.totalCentavos = Arrays.copyOf(armazem.totalCentavos, totalPedidos);
+            this.totalItens = armazem.totalItens;
+            this.itemLinhaPedido = Arrays.copyOf(armazem.itemLinhaPedido, totalItens);
+            this.itemId = Arrays.copyOf(armazem.itemId, totalItens);
+            this.itemTamanho = Arrays.copyOf(armazem.itemTamanho, totalItens);
+            this.itemQuantidade = Arrays.copyOf(armazem.itemQuantidade, totalItens);
+            this.itemPrecoCentavos = Arrays.copyOf(armazem.itemPrecoCentavos, totalItens);
+            this.nomesPizzas = new HashMap<>(armazem.nomesPizzas);
+            this.maiorIdPizza = armazem.maiorIdPizza;
+            this.maiorClienteId = armazem.maiorClienteId;
+            this.menorDia = armazem.menorDia;
+            this.maiorDia = armazem.maiorDia;
+        }
+    }
+
+    Instantaneo instantaneo() {
+        trava.readLock().lock();
+        try {
+            return new Instantaneo(this);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica se eventos foram perdidos (consumidor atrasado demais) e o armazém precisa ser reconstruído
+     */
+    public boolean isIncompleto() {
+        return incompleto;
+    }
+
+    @Override
+    public void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        trava.writeLock().lock();
+        try {
+            if (ultimaSequencia >= 0 && sequencia != ultimaSequencia + 1) {
+                incompleto = true;
+            }
+            ultimaSequencia = sequencia;
+
+            if (evento.getTipo() == TipoEventoPedido.CRIADO) {
+                if (linhaDe(evento.getPedidoId()) < 0) {
+                    adicionarPedido(evento.getPedido());
+                }
+                return;
+            }
+
+            int linha = linhaDe(evento.getPedidoId());
+            if (linha < 0) {
+                return; // pedido anterior à carga do armazém
+            }
+            status[linha] = (byte) evento.getStatusNovo().ordinal();
+            totalCentavos[linha] = evento.getValorTotalCentavos();
+
+            switch (evento.getTipo()) {
+                case ITEM_ADICIONADO -> adicionarItem(linha, evento.getItem(), evento.getQuantidade(),
+                                                      evento.getItem().calcularPrecoCentavos());
+                case ITEM_REMOVIDO -> removerItem(linha, evento.getItem());
+                default -> { }
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // ========== CONSULTAS ==========
+
+    List<GrupoResultado> executar(ConsultaColunar consulta) {
+        trava.readLock().lock();
+        try {
+            Dimensao dimensao = consulta.getDimensao();
+            boolean somarValor = consulta.getMedida() == Medida.VALOR;
+
+            boolean[] statusAceito = new boolean[StatusPedido.values().length];
+            for (StatusPedido s : consulta.getStatus()) {
+                statusAceito[s.ordinal()] = true;
+            }
+            int diaInicio = consulta.getInicio() != null ? (int) consulta.getInicio().toEpochDay() : Integer.MIN_VALUE;
+            int diaFim = consulta.getFim() != null ? (int) consulta.getFim().toEpochDay() : Integer.MAX_VALUE;
+
+            int cardinalidade = switch (dimensao) {
+                case HORA -> 24;
+                case DIA_SEMANA -> 8;
+                case BAIRRO -> bairros.size() + 1;
+                case PIZZA -> maiorIdPizza + 1;
+                case TAMANHO -> Tamanho.values().length;
+            };
+            long[] somas = new long[cardinalidade];
+            long[] contagens = new long[cardinalidade];
+
+            if (!dimensao.isPorItem()) {
+                byte[] chaves = dimensao == Dimensao.HORA ? hora : dimensao == Dimensao.DIA_SEMANA ? diaSemana : null;
+                for (int i = 0; i < totalPedidos; i++) {
+                    if (!statusAceito[status[i]] || dia[i] < diaInicio || dia[i] > diaFim) {
+                        continue;
+                    }
+                    int chave = chaves != null ? chaves[i] : bairro[i] + 1;
+                    somas[chave] += somarValor ? totalCentavos[i] : quantidadeItens[i];
+                    contagens[chave]++;
+                }
+            } else {
+                boolean porPizza = dimensao == Dimensao.PIZZA;
+                for (int j = 0; j < totalItens; j++) {
+                    int quantidade = itemQuantidade[j];
+                    if (quantidade == 0 || itemTamanho[j] == SEM_TAMANHO) {
+                        continue;
+                    }
+                    int i = itemLinhaPedido[j];
+                    if (!statusAceito[status[i]] || dia[i] < diaInicio || dia[i] > diaFim) {
+                        continue;
+                    }
+                    int chave = porPizza ? itemId[j] : itemTamanho[j];
+                    somas[chave] += somarValor ? itemPrecoCentavos[j] * quantidade : quantidade;
+                    contagens[chave]++;
+                }
+            }
+
+            List<GrupoResultado> grupos = new ArrayList<>();
+            for (int chave = 0; chave < cardinalidade; chave++) {
+                if (contagens[chave] > 0) {
+                    grupos.add(new GrupoResultado(rotulo(dimensao, chave), contagens[chave],
+                                                  somas[chave], consulta.getMedida()));
+                }
+            }
+            // Hora, dia e tamanho ficam na ordem natural; pizza e bairro, do maior para o menor
+            if (dimensao == Dimensao.PIZZA || dimensao == Dimensao.BAIRRO) {
+                grupos.sort(Comparator.comparingLong(GrupoResultado::getSomaBruta).reversed());
+            }
+            return grupos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private String rotulo(Dimensao dimensao, int chave) {
+        return switch (dimensao) {
+            case HORA -> String.format("%02dh", chave);
+            case DIA_SEMANA -> DayOfWeek.of(chave).getDisplayName(TextStyle.FULL, LOCALE_BR);
+            case BAIRRO -> chave == 0 ? "Sem endereço" : bairros.get(chave - 1);
+            case PIZZA -> nomesPizzas.getOrDefault(chave, "Pizza " + chave);
+            case TAMANHO -> Tamanho.values()[chave].getDescricao();
+        };
+    }
+
+    private void limpar() {
+        totalPedidos = 0;
+        pedidoId = new int[CAPACIDADE_INICIAL];
+        instante = new long[CAPACIDADE_INICIAL];
+        dia = new int[CAPACIDADE_INICIAL];
+        hora = new byte[CAPACIDADE_INICIAL];
+        diaSemana = new byte[CAPACIDADE_INICIAL];
+        status = new byte[CAPACIDADE_INICIAL];
+        clienteId = new int[CAPACIDADE_INICIAL];
+        totalCentavos = new long[CAPACIDADE_INICIAL];
+        quantidadeItens = new int[CAPACIDADE_INICIAL];
+        bairro = new int[CAPACIDADE_INICIAL];
+        ultimoItem = new int[CAPACIDADE_INICIAL];
+
+        totalItens = 0;
+        itemLinhaPedido = new int[CAPACIDADE_INICIAL];
+        itemId = new int[CAPACIDADE_INICIAL];
+        itemTamanho = new byte[CAPACIDADE_INICIAL];
+        itemQuantidade = new int[CAPACIDADE_INICIAL];
+        itemPrecoCentavos = new long[CAPACIDADE_INICIAL];
+        itemAnterior = new int[CAPACIDADE_INICIAL];
+
+        indiceBairro.clear();
+        bairros.clear();
+        nomesPizzas.clear();
+        maiorIdPizza = 0;
+        maiorClienteId = 0;
+        menorDia = Integer.MAX_VALUE;
+        maiorDia = Integer.MIN_VALUE;
+        linhaDoPedido = new int[CAPACIDADE_INICIAL];
+        Arrays.fill(linhaDoPedido, -1);
+
+        ultimaSequencia = -1;
+        incompleto = false;
+    }
+
+    private void adicionarPedido(Pedido pedido) {
+        if (totalPedidos == pedidoId.length) {
+            int capacidade = pedidoId.length * 2;
+            pedidoId = Arrays.copyOf(pedidoId, capacidade);
+            instante = Arrays.copyOf(instante, capacidade);
+            dia = Arrays.copyOf(dia, capacidade);
+            hora = Arrays.copyOf(hora, capacidade);
+            diaSemana = Arrays.copyOf(diaSemana, capacidade);
+            status = Arrays.copyOf(status, capacidade);
+            clienteId = Arrays.copyOf(clienteId, capacidade);
+            totalCentavos = Arrays.copyOf(totalCentavos, capacidade);
+            quantidadeItens = Arrays.copyOf(quantidadeItens, capacidade);
+            bairro = Arrays.copyOf(bairro, capacidade);
+            ultimoItem = Arrays.copyOf(ultimoItem, capacidade);
+        }
+
+        int linha = totalPedidos++;
+        LocalDateTime dataHora = pedido.getDataHora();
+        pedidoId[linha] = pedido.getId();
+        instante[linha] = dataHora.atZone(zona).toInstant().toEpochMilli();
+        dia[linha] = (int) dataHora.toLocalDate().toEpochDay();
+        hora[linha] = (byte) dataHora.getHour();
+        diaSemana[linha] = (byte) dataHora.getDayOfWeek().getValue();
+        status[linha] = (byte) pedido.getStatus().ordinal();
+        clienteId[linha] = pedido.getClienteId();
+        maiorClienteId = Math.max(maiorClienteId, pedido.getClienteId());
+        menorDia = Math.min(menorDia, dia[linha]);
+        maiorDia = Math.max(maiorDia, dia[linha]);
+        totalCentavos[linha] = pedido.getValorTotalCentavos();
+        quantidadeItens[linha] = 0;
+        bairro[linha] = indiceDoBairro(pedido.getEnderecoEntrega());
+        ultimoItem[linha] = -1;
+        mapearPedido(pedido.getId(), linha);
+
+        for (ItemPedido itemPedido : pedido.getItensDoPedido()) {
+            adicionarItem(linha, itemPedido.getItem(), itemPedido.getQuantidade(),
+                          itemPedido.getPrecoUnitarioCentavos());
+        }
+    }
+
+    private void adicionarItem(int linha, ItemCardapio item, int quantidade, long precoCentavos) {
+        if (totalItens == itemId.length) {
+            int capacidade = itemId.length * 2;
+            itemLinhaPedido = Arrays.copyOf(itemLinhaPedido, capacidade);
+            itemId = Arrays.copyOf(itemId, capacidade);
+            itemTamanho = Arrays.copyOf(itemTamanho, capacidade);
+            itemQuantidade = Arrays.copyOf(itemQuantidade, capacidade);
+            itemPrecoCentavos = Arrays.copyOf(itemPrecoCentavos, capacidade);
+            itemAnterior = Arrays.copyOf(itemAnterior, capacidade);
+        }
+
+        int posicao = totalItens++;
+        itemLinhaPedido[posicao] = linha;
+        itemId[posicao] = item.getId();
+        itemQuantidade[posicao] = quantidade;
+        itemPrecoCentavos[posicao] = precoCentavos;
+        itemAnterior[posicao] = ultimoItem[linha];
+        ultimoItem[linha] = posicao;
+        quantidadeItens[linha] += quantidade;
+
+        if (item instanceof Pizza pizza) {
+            itemTamanho[posicao] = (byte) pizza.getTamanho().ordinal();
+            nomesPizzas.putIfAbsent(pizza.getId(), pizza.getNome());
+            maiorIdPizza = Math.max(maiorIdPizza, pizza.getId());
+        } else {
+            itemTamanho[posicao] = SEM_TAMANHO;
+        }
+    }
+
+    /**
+     * Zera os itens do pedido iguais ao removido (mesma regra de Pedido.removerItem)
+     */
+    private void removerItem(int linha, ItemCardapio item) {
+        boolean pizza = item instanceof Pizza;
+        for (int posicao = ultimoItem[linha]; posicao >= 0; posicao = itemAnterior[posicao]) {
+            if (itemId[posicao] == item.getId() && (itemTamanho[posicao] != SEM_TAMANHO) == pizza) {
+                quantidadeItens[linha] -= itemQuantidade[posicao];
+                itemQuantidade[posicao] = 0;
+            }
+        }
+    }
+
+    private int indiceDoBairro(Endereco endereco) {
+        if (endereco == null || endereco.getBairro() == null) {
+            return -1;
+        }
+        return indiceBairro.computeIfAbsent(endereco.getBairro(), nome -> {
+            bairros.add(nome);
+            return bairros.size() - 1;
+        });
+    }
+
+    private void mapearPedido(int id, int linha) {
+        if (id >= linhaDoPedido.length) {
+            int tamanhoAnterior = linhaDoPedido.length;
+            linhaDoPedido = Arrays.copyOf(linhaDoPedido, Math.max(id + 1, tamanhoAnterior * 2));
+            Arrays.fill(linhaDoPedido, tamanhoAnterior, linhaDoPedido.length, -1);
+        }
+        linhaDoPedido[id] = linha;
+    }
+
+    private int linhaDe(int id) {
+        return id >= 0 && id < linhaDoPedido.length ? linhaDoPedido[id] : -1;
+    }
+}
@@ -0,0 +1,26 @@
+package com.pizzaria.analise;
+
+/**
+ * Enum que representa o que é contado nos mais vendidos: pizzas (por sabor e
+ * tamanho), bebidas e ingredientes usados nas pizzas pedidas
+ */
+public enum CategoriaVendida {
+    PIZZAS("Pizzas"),
+    BEBIDAS("Bebidas"),
+    INGREDIENTES("Ingredientes");
+
+    private final String descricao;
+
+    CategoriaVendida(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -0,0 +1,132 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.evento.TipoEventoPedido;
+import com.pizzaria.model.Endereco;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.StatusPedido;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Classificações do mês que se mantêm ordenadas conforme os pedidos são concluídos:
+ * clientes por valor gasto e bairros por número de pedidos entregues.
+ *
+ * Cada pedido concluído custa uma atualização O(log n) em cada RankingOrdenado;
+ * as consultas de posição e de top-k não reordenam nada. Na virada do mês as
+ * classificações recomeçam do zero.
+ */
+public class Classificacoes implements OuvinteEventoPedido {
+    private final RankingOrdenado<Integer> gastoPorCliente;   // centavos
+    private final RankingOrdenado<String> pedidosPorBairro;
+    private YearMonth mes;
+
+    public Classificacoes() {
+        this.gastoPorCliente = new RankingOrdenado<>();
+        this.pedidosPorBairro = new RankingOrdenado<>();
+        this.mes = YearMonth.now();
+    }
+
+    /**
+     * Recalcula as classificações a partir dos pedidos concluídos no mês corrente
+     */
+    public synchronized void reconstruir(List<Pedido> pedidos) {
+        gastoPorCliente.limpar();
+        pedidosPorBairro.limpar();
+        mes = YearMonth.now();
+        for (Pedido pedido : pedidos) {
+            if (pedido.getStatus() == StatusPedido.CONCLUIDO) {
+                registrarConclusao(pedido);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        if (evento.getTipo() == TipoEventoPedido.STATUS_ALTERADO
+                && evento.getStatusNovo() == StatusPedido.CONCLUIDO) {
+            registrarConclusao(evento.getPedido());
+        }
+    }
+
+    /**
+     * Os k clientes que mais gastaram no mês (chave: ID do cliente, valor: centavos)
+     */
+    public synchronized List<EntradaRanking<Integer>> topClientes(int k) {
+        avancarMes();
+        return gastoPorCliente.topo(k);
+    }
+
+    /**
+     * Clientes entre as posições `de` e `ate` (inclusive) do mês
+     */
+    public synchronized List<EntradaRanking<Integer>> clientesEntre(int de, int ate) {
+        avancarMes();
+        return gastoPorCliente.intervalo(de, ate);
+    }
+
+    /**
+     * Posição do cliente no mês (1 = quem mais gastou), ou -1 se ele não concluiu pedidos
+     */
+    public synchronized int posicaoCliente(int clienteId) {
+        avancarMes();
+        return gastoPorCliente.posicao(clienteId);
+    }
+
+    public synchronized long gastoNoMesCentavos(int clienteId) {
+        avancarMes();
+        return gastoPorCliente.getValor(clienteId);
+    }
+
+    public synchronized int getTotalClientes() {
+        avancarMes();
+        return gastoPorCliente.tamanho();
+    }
+
+    /**
+     * Os k bairros com mais pedidos concluídos no mês
+     */
+    public synchronized List<EntradaRanking<String>> topBairros(int k) {
+        avancarMes();
+        return pedidosPorBairro.topo(k);
+    }
+
+    public synchronized YearMonth getMes() {
+        avancarMes();
+        return mes;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void registrarConclusao(Pedido pedido) {
+        avancarMes();
+        LocalDateTime conclusao = pedido.getDataHoraStatus(StatusPedido.CONCLUIDO);
+        if (conclusao == null) {
+            conclusao = pedido.getDataHora(); // pedido gravado antes dos horários por status
+        }
+        if (!YearMonth.from(conclusao).equals(mes)) {
+            return;
+        }
+
+        gastoPorCliente.somar(pedido.getClienteId(), pedido.getValorTotalCentavos());
+        Endereco endereco = pedido.getEnderecoEntrega();
+        if (endereco != null && endereco.getBairro() != null && !endereco.getBairro().isBlank()) {
+            pedidosPorBairro.somar(endereco.getBairro().trim(), 1);
+        }
+    }
+
+    /**
+     * Recomeça as classificações quando o mês muda
+     */
+    private void avancarMes() {
+        YearMonth atual = YearMonth.now();
+        if (!atual.equals(mes)) {
+            mes = atual;
+            gastoPorCliente.limpar();
+            pedidosPorBairro.limpar();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.pizzaria.analise;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.Expose;
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.evento.TipoEventoPedido;
+import com.pizzaria.model.Endereco;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.util.JsonPersistence;
+import com.pizzaria.util.TravaDeArquivo;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Contagem aproximada de clientes distintos por dia e por bairro de entrega.
+ *
+ * Cada dia e cada bairro tem um esboço HyperLogLog; perguntas sobre um período
+ * qualquer juntam os esboços dos dias dele, sem percorrer o histórico de pedidos.
+ * Os esboços ficam em data/clientes_distintos/: um AAAA-MM-DD.json por dia e um
+ * bairros.json com os dos bairros e o último pedido contado. Ao fim de um lote de
+ * eventos, no máximo a cada INTERVALO_GRAVACAO_MS, só os dias alterados são
+ * regravados, com a trava de bairros.json valendo para o diretório todo. Antes de
+ * gravar, cada esboço é juntado ao que está no disco, então gravações de outro
+ * processo não se perdem. Na carga, os pedidos posteriores ao último gravado são
+ * acrescentados (registrar um cliente de novo não altera o esboço), o que também
+ * cobre o que ficou sem gravar entre um intervalo e o encerramento.
+ */
+public class ClientesDistintos implements OuvinteEventoPedido {
+    private static final String CLIENTES_DISTINTOS_DIR = "clientes_distintos";
+    private static final String BAIRROS_FILE = CLIENTES_DISTINTOS_DIR + "/bairros.json";
+    private static final String ARQUIVO_ANTIGO = "clientes_distintos.json"; // tudo em um arquivo, versões anteriores
+    private static final long INTERVALO_GRAVACAO_MS = 10_000;
+
+    private final SortedMap<String, HyperLogLog> porDia;     // chave: data ISO (yyyy-MM-dd)
+    private final SortedMap<String, HyperLogLog> porBairro;
+    private final TreeSet<String> diasAlterados;
+    private int ultimoPedidoId;
+    private boolean alterado;
+    private long ultimaGravacao;
+
+    public ClientesDistintos() {
+        this.porDia = new TreeMap<>();
+        this.porBairro = new TreeMap<>();
+        this.diasAlterados = new TreeSet<>();
+    }
+
+    /**
+     * Carrega os esboços gravados e os completa com os pedidos ainda não contados
+     */
+    public static ClientesDistintos carregar(List<Pedido> pedidos) {
+        ClientesDistintos clientesDistintos = new ClientesDistintos();
+        try {
+            clientesDistintos.carregarDados();
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Erro ao carregar clientes distintos: " + e.getMessage());
+        }
+
+        synchronized (clientesDistintos) {
+            for (Pedido pedido : pedidos) {
+                if (pedido.getId() > clientesDistintos.ultimoPedidoId) {
+                    clientesDistintos.registrar(pedido);
+                }
+            }
+        }
+        clientesDistintos.salvarSeAlterado();
+        return clientesDistintos;
+    }
+
+    @Override
+    public void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        synchronized (this) {
+            if (evento.getTipo() == TipoEventoPedido.CRIADO) {
+                registrar(evento.getPedido());
+            }
+            if (!fimDoLote || System.currentTimeMillis() - ultimaGravacao < INTERVALO_GRAVACAO_MS) {
+                return;
+            }
+        }
+        salvarSeAlterado();
+    }
+
+    /**
+     * Clientes distintos com pedidos feitos entre as datas (inclusive)
+     */
+    public synchronized long estimarPorPeriodo(LocalDate inicio, LocalDate fim) {
+        HyperLogLog uniao = new HyperLogLog();
+        for (HyperLogLog esboco : porDia.subMap(inicio.toString(), fim.plusDays(1).toString()).values()) {
+            uniao.juntar(esboco);
+        }
+        return uniao.estimar();
+    }
+
+    /**
+     * Clientes distintos que já receberam pedidos no bairro
+     */
+    public synchronized long estimarPorBairro(String bairro) {
+        HyperLogLog esboco = porBairro.get(bairro);
+        return esboco != null ? esboco.estimar() : 0;
+    }
+
+    /**
+     * Clientes distintos por bairro, em ordem alfabética de bairro
+     */
+    public synchronized Map<String, Long> estimarPorBairros() {
+        Map<String, Long> resultado = new TreeMap<>();
+        for (Map.Entry<String, HyperLogLog> entrada : porBairro.entrySet()) {
+            resultado.put(entrada.getKey(), entrada.getValue().estimar());
+        }
+        return resultado;
+    }
+
+    /**
+     * Clientes distintos em todo o histórico
+     */
+    public synchronized long estimarTotal() {
+        HyperLogLog uniao = new HyperLogLog();
+        for (HyperLogLog esboco : porDia.values()) {
+            uniao.juntar(esboco);
+        }
+        return uniao.estimar();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Conteúdo de bairros.json (e, com porDia, do arquivo único das versões anteriores)
+     */
+    private static class Estado {
+        @Expose
+        int ultimoPedidoId;
+        @Expose
+        SortedMap<String, HyperLogLog> porBairro;
+        @Expose
+        SortedMap<String, HyperLogLog> porDia;
+    }
+
+    @SuppressWarnings("try")
+    private synchronized void carregarDados() throws IOException {
+        try (TravaDeArquivo trava = JsonPersistence.travar(BAIRROS_FILE)) {
+            Estado estado = JsonPersistence.loadObjectFromFile(BAIRROS_FILE, Estado.class);
+            if (estado == null) {
+                carregarArquivoAntigo();
+                return;
+            }
+            ultimoPedidoId = estado.ultimoPedidoId;
+            if (estado.porBairro != null) {
+                porBairro.putAll(estado.porBairro);
+            }
+            for (String arquivo : JsonPersistence.listFiles(CLIENTES_DISTINTOS_DIR)) {
+                if (arquivo.equals(BAIRROS_FILE)) {
+                    continue;
+                }
+                HyperLogLog esboco = JsonPersistence.loadObjectFromFile(arquivo, HyperLogLog.class);
+                if (esboco != null) {
+                    String nome = arquivo.substring(CLIENTES_DISTINTOS_DIR.length() + 1);
+                    porDia.put(nome.substring(0, nome.length() - ".json".length()), esboco);
+                }
+            }
+        }
+    }
+
+    /**
+     * Traz os esboços do arquivo único das versões anteriores; todos os dias são
+     * marcados para a primeira gravação no diretório, que apaga o arquivo antigo
+     */
+    private void carregarArquivoAntigo() throws IOException {
+        Estado antigo = JsonPersistence.loadObjectFromFile(ARQUIVO_ANTIGO, Estado.class);
+        if (antigo == null) {
+            return;
+        }
+        ultimoPedidoId = antigo.ultimoPedidoId;
+        if (antigo.porBairro != null) {
+            porBairro.putAll(antigo.porBairro);
+        }
+        if (antigo.porDia != null) {
+            porDia.putAll(antigo.porDia);
+            diasAlterados.addAll(antigo.porDia.keySet());
+        }
+        alterado = true;
+    }
+
+    private void registrar(Pedido pedido) {
+        int clienteId = pedido.getClienteId();
+        String dia = pedido.getDataHora().toLocalDate().toString();
+        porDia.computeIfAbsent(dia, d -> new HyperLogLog()).adicionar(clienteId);
+        diasAlterados.add(dia);
+
+        Endereco endereco = pedido.getEnderecoEntrega();
+        if (endereco != null && endereco.getBairro() != null && !endereco.getBairro().isBlank()) {
+            porBairro.computeIfAbsent(endereco.getBairro().trim(), bairro -> new HyperLogLog())
+                     .adicionar(clienteId);
+        }
+
+        ultimoPedidoId = Math.max(ultimoPedidoId, pedido.getId());
+        alterado = true;
+    }
+
+    /**
+     * Grava os dias alterados e bairros.json. Copia os esboços com a trava do objeto e
+     * grava sem ela; o que outro processo gravou nos mesmos arquivos volta para a memória.
+     */
+    @SuppressWarnings("try")
+    private void salvarSeAlterado() {
+        SortedMap<String, HyperLogLog> dias = new TreeMap<>();
+        Estado estado = new Estado();
+        synchronized (this) {
+            if (!alterado) {
+                return;
+            }
+            for (String dia : diasAlterados) {
+                dias.put(dia, porDia.get(dia).copiar());
+            }
+            estado.ultimoPedidoId = ultimoPedidoId;
+            estado.porBairro = new TreeMap<>();
+            for (Map.Entry<String, HyperLogLog> entrada : porBairro.entrySet()) {
+                estado.porBairro.put(entrada.getKey(), entrada.getValue().copiar());
+            }
+            diasAlterados.clear();
+            alterado = false;
+            ultimaGravacao = System.currentTimeMillis();
+        }
+
+        try (TravaDeArquivo trava = JsonPersistence.travar(BAIRROS_FILE)) {
+            for (Map.Entry<String, HyperLogLog> dia : dias.entrySet()) {
+                String arquivo = CLIENTES_DISTINTOS_DIR + "/" + dia.getKey() + ".json";
+                HyperLogLog gravado = JsonPersistence.loadObjectFromFile(arquivo, HyperLogLog.class);
+                if (gravado != null) {
+                    dia.getValue().juntar(gravado);
+                }
+                JsonPersistence.saveObjectToFile(dia.getValue(), arquivo);
+            }
+
+            Estado gravado = JsonPersistence.loadObjectFromFile(BAIRROS_FILE, Estado.class);
+            if (gravado != null) {
+                estado.ultimoPedidoId = Math.max(estado.ultimoPedidoId, gravado.ultimoPedidoId);
+                if (gravado.porBairro != null) {
+                    for (Map.Entry<String, HyperLogLog> bairro : gravado.porBairro.entrySet()) {
+                        estado.porBairro.computeIfAbsent(bairro.getKey(), b -> new HyperLogLog())
+                                        .juntar(bairro.getValue());
+                    }
+                }
+            }
+            JsonPersistence.saveSharedObjectToFile(estado, BAIRROS_FILE);
+            JsonPersistence.deleteFile(ARQUIVO_ANTIGO);
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Erro ao salvar clientes distintos: " + e.getMessage());
+            synchronized (this) {
+                diasAlterados.addAll(dias.keySet());
+                alterado = true;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            for (Map.Entry<String, HyperLogLog> dia : dias.entrySet()) {
+                porDia.get(dia.getKey()).juntar(dia.getValue());
+            }
+            for (Map.Entry<String, HyperLogLog> bairro : estado.porBairro.entrySet()) {
+                porBairro.computeIfAbsent(bairro.getKey(), b -> new HyperLogLog()).juntar(bairro.getValue());
+            }
+        }
+    }
+}
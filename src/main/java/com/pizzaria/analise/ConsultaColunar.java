@@ -0,0 +1,83 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.model.StatusPedido;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consulta de agrupamento sobre o armazém colunar:
+ * armazem.consulta().agruparPor(Dimensao.HORA).medir(Medida.VALOR).comStatus(CONCLUIDO).executar()
+ */
+public class ConsultaColunar {
+    private final ArmazemColunar armazem;
+    private Dimensao dimensao;
+    private Medida medida;
+    private Set<StatusPedido> status;
+    private LocalDate inicio;
+    private LocalDate fim;
+
+    ConsultaColunar(ArmazemColunar armazem) {
+        this.armazem = armazem;
+        this.dimensao = Dimensao.HORA;
+        this.medida = Medida.VALOR;
+        this.status = EnumSet.allOf(StatusPedido.class);
+    }
+
+    public ConsultaColunar agruparPor(Dimensao dimensao) {
+        this.dimensao = dimensao;
+        return this;
+    }
+
+    public ConsultaColunar medir(Medida medida) {
+        this.medida = medida;
+        return this;
+    }
+
+    /**
+     * Considera apenas pedidos nos status informados
+     */
+    public ConsultaColunar comStatus(StatusPedido primeiro, StatusPedido... outros) {
+        this.status = EnumSet.of(primeiro, outros);
+        return this;
+    }
+
+    /**
+     * Considera apenas pedidos feitos entre as datas (inclusive); null deixa o lado em aberto
+     */
+    public ConsultaColunar entre(LocalDate inicio, LocalDate fim) {
+        this.inicio = inicio;
+        this.fim = fim;
+        return this;
+    }
+
+    // Getters
+    public Dimensao getDimensao() {
+        return dimensao;
+    }
+
+    public Medida getMedida() {
+        return medida;
+    }
+
+    public Set<StatusPedido> getStatus() {
+        return status;
+    }
+
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public LocalDate getFim() {
+        return fim;
+    }
+
+    /**
+     * Executa a consulta e devolve os grupos não vazios
+     */
+    public List<GrupoResultado> executar() {
+        return armazem.executar(this);
+    }
+}
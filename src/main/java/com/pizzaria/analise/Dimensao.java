@@ -0,0 +1,37 @@
+package com.pizzaria.analise;
+
+/**
+ * Enum que representa as dimensões de agrupamento das consultas de vendas.
+ * Hora, dia da semana e bairro são do pedido; pizza e tamanho são dos itens (só pizzas).
+ */
+public enum Dimensao {
+    HORA("Hora", false),
+    DIA_SEMANA("Dia da semana", false),
+    BAIRRO("Bairro", false),
+    PIZZA("Pizza", true),
+    TAMANHO("Tamanho", true);
+
+    private final String descricao;
+    private final boolean porItem;
+
+    Dimensao(String descricao, boolean porItem) {
+        this.descricao = descricao;
+        this.porItem = porItem;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * Indica se a dimensão é calculada sobre os itens dos pedidos
+     */
+    public boolean isPorItem() {
+        return porItem;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
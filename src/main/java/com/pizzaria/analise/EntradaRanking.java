@@ -0,0 +1,37 @@
+package com.pizzaria.analise;
+
+/**
+ * Classe que representa uma posição em um RankingOrdenado
+ */
+public class EntradaRanking<K> {
+    private final int posicao;
+    private final K chave;
+    private final long valor;
+
+    public EntradaRanking(int posicao, K chave, long valor) {
+        this.posicao = posicao;
+        this.chave = chave;
+        this.valor = valor;
+    }
+
+    // Getters
+    /**
+     * Posição no ranking, começando em 1 (o maior valor)
+     */
+    public int getPosicao() {
+        return posicao;
+    }
+
+    public K getChave() {
+        return chave;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+
+    @Override
+    public String toString() {
+        return posicao + "º " + chave + " (" + valor + ")";
+    }
+}
@@ -0,0 +1,41 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.model.StatusPedido;
+
+/**
+ * Enum que representa as etapas medidas no ciclo de vida do pedido: de um status
+ * até o seguinte (ou da criação até a conclusão, no caso do TOTAL)
+ */
+public enum EtapaPedido {
+    ESPERA("Espera (pendente → em preparo)", StatusPedido.PENDENTE, StatusPedido.EM_PREPARO),
+    PREPARO("Preparo (em preparo → saiu)", StatusPedido.EM_PREPARO, StatusPedido.SAIU_PARA_ENTREGA),
+    ENTREGA("Entrega (saiu → concluído)", StatusPedido.SAIU_PARA_ENTREGA, StatusPedido.CONCLUIDO),
+    TOTAL("Total (criação → concluído)", StatusPedido.PENDENTE, StatusPedido.CONCLUIDO);
+
+    private final String descricao;
+    private final StatusPedido inicio;
+    private final StatusPedido fim;
+
+    EtapaPedido(String descricao, StatusPedido inicio, StatusPedido fim) {
+        this.descricao = descricao;
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public StatusPedido getInicio() {
+        return inicio;
+    }
+
+    public StatusPedido getFim() {
+        return fim;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
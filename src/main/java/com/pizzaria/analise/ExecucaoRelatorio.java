@@ -0,0 +1,94 @@
+package com.pizzaria.analise;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Acompanhamento de um relatório em execução no MotorRelatorios:
+ * progresso, cancelamento e espera pelo resultado
+ */
+public class ExecucaoRelatorio {
+    private final TipoRelatorio tipo;
+    private final long totalLinhas;
+    private final AtomicLong linhasProcessadas;
+    private volatile boolean cancelado;
+    private ForkJoinTask<MotorRelatorios.Parcial> tarefa;
+    private Function<MotorRelatorios.Parcial, List<GrupoResultado>> montarResultado;
+
+    ExecucaoRelatorio(TipoRelatorio tipo, long totalLinhas) {
+        this.tipo = tipo;
+        this.totalLinhas = totalLinhas;
+        this.linhasProcessadas = new AtomicLong();
+    }
+
+    void iniciar(ForkJoinTask<MotorRelatorios.Parcial> tarefa,
+                 Function<MotorRelatorios.Parcial, List<GrupoResultado>> montarResultado) {
+        this.montarResultado = montarResultado;
+        this.tarefa = tarefa;
+    }
+
+    void avancar(long linhas) {
+        linhasProcessadas.addAndGet(linhas);
+    }
+
+    boolean isCancelado() {
+        return cancelado;
+    }
+
+    public TipoRelatorio getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Fração já processada, de 0 a 1
+     */
+    public double getProgresso() {
+        return totalLinhas == 0 ? 1.0 : (double) linhasProcessadas.get() / totalLinhas;
+    }
+
+    public boolean isConcluido() {
+        return tarefa.isDone();
+    }
+
+    /**
+     * Interrompe o relatório: os blocos em andamento param na próxima verificação
+     */
+    public void cancelar() {
+        cancelado = true;
+        tarefa.cancel(false);
+    }
+
+    /**
+     * Aguarda o resultado do relatório
+     * @throws CancellationException se o relatório foi cancelado
+     */
+    public List<GrupoResultado> aguardar() throws InterruptedException {
+        try {
+            return aguardar(Long.MAX_VALUE);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Aguarda o resultado por no máximo o tempo informado
+     * @throws CancellationException se o relatório foi cancelado
+     */
+    public List<GrupoResultado> aguardar(long timeoutMillis) throws InterruptedException, TimeoutException {
+        try {
+            MotorRelatorios.Parcial parcial = tarefa.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (cancelado || parcial == null) {
+                throw new CancellationException("Relatório cancelado");
+            }
+            return montarResultado.apply(parcial);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gerar relatório: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.util.Dinheiro;
+
+/**
+ * Classe que representa um grupo no resultado de uma consulta: a chave,
+ * quantas linhas caíram nele e a soma da medida
+ */
+public class GrupoResultado {
+    private final String chave;
+    private final long contagem;
+    private final long soma;
+    private final Medida medida;
+
+    public GrupoResultado(String chave, long contagem, long soma, Medida medida) {
+        this.chave = chave;
+        this.contagem = contagem;
+        this.soma = soma;
+        this.medida = medida;
+    }
+
+    // Getters
+    public String getChave() {
+        return chave;
+    }
+
+    /**
+     * Número de pedidos (dimensões do pedido) ou de itens de pedido (pizza e tamanho)
+     */
+    public long getContagem() {
+        return contagem;
+    }
+
+    /**
+     * Soma bruta da medida (centavos para VALOR)
+     */
+    public long getSomaBruta() {
+        return soma;
+    }
+
+    /**
+     * Soma da medida (em reais para VALOR)
+     */
+    public double getSoma() {
+        return medida == Medida.VALOR ? Dinheiro.paraReais(soma) : soma;
+    }
+
+    public double getMedia() {
+        return contagem == 0 ? 0 : getSoma() / contagem;
+    }
+
+    public Medida getMedida() {
+        return medida;
+    }
+
+    @Override
+    public String toString() {
+        if (medida == Medida.VALOR) {
+            return String.format("%-20s %6d  soma=R$%10.2f  média=R$%8.2f", chave, contagem, getSoma(), getMedia());
+        }
+        return String.format("%-20s %6d  soma=%10.0f  média=%8.2f", chave, contagem, getSoma(), getMedia());
+    }
+}
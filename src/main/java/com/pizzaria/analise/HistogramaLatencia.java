@@ -0,0 +1,110 @@
+package com.pizzaria.analise;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de durações (em milissegundos) com faixas logarítmicas, no estilo
+ * do HdrHistogram: até 31 ms cada valor tem a sua faixa; acima disso cada potência
+ * de dois é dividida em 16 faixas, o que mantém o erro relativo abaixo de ~3%
+ * com memória fixa (528 contadores), qualquer que seja o número de registros.
+ * Serve de esboço de quantis para qualquer inteiro não negativo até ~6,9e10
+ * (a segmentação de clientes o usa com centavos, pedidos e dias).
+ *
+ * Não é thread-safe; quem usa sincroniza.
+ */
+public class HistogramaLatencia {
+    private static final int BITS_SUBFAIXA = 4;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;      // 16 por potência de dois
+    private static final int LIMITE_LINEAR = SUBFAIXAS * 2;        // 0..31 exatos
+    private static final int MAIOR_EXPOENTE = 35;                  // ~1 ano em ms
+    private static final long MAIOR_VALOR = (1L << (MAIOR_EXPOENTE + 1)) - 1;
+    private static final int TOTAL_FAIXAS =
+            LIMITE_LINEAR + (MAIOR_EXPOENTE - BITS_SUBFAIXA) * SUBFAIXAS;
+
+    private final long[] contagens;
+    private long total;
+    private long maximo;
+
+    public HistogramaLatencia() {
+        this.contagens = new long[TOTAL_FAIXAS];
+    }
+
+    /**
+     * Registra uma duração; valores negativos contam como zero e valores acima
+     * de ~1 ano caem na última faixa
+     */
+    public void registrar(long milissegundos) {
+        long valor = Math.min(Math.max(milissegundos, 0), MAIOR_VALOR);
+        contagens[faixa(valor)]++;
+        total++;
+        maximo = Math.max(maximo, valor);
+    }
+
+    /**
+     * Soma as contagens de outro histograma neste
+     */
+    public void juntar(HistogramaLatencia outro) {
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            contagens[i] += outro.contagens[i];
+        }
+        total += outro.total;
+        maximo = Math.max(maximo, outro.maximo);
+    }
+
+    /**
+     * Duração abaixo da qual estão `percentil`% dos registros (ex.: 95 para o p95)
+     */
+    public long percentil(double percentil) {
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(percentil / 100.0 * total));
+        long acumulado = 0;
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(valorRepresentativo(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    public void limpar() {
+        Arrays.fill(contagens, 0);
+        total = 0;
+        maximo = 0;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private static int faixa(long valor) {
+        if (valor < LIMITE_LINEAR) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);         // >= 5
+        int subfaixa = (int) (valor >>> (expoente - BITS_SUBFAIXA)) - SUBFAIXAS;
+        return LIMITE_LINEAR + (expoente - BITS_SUBFAIXA - 1) * SUBFAIXAS + subfaixa;
+    }
+
+    /**
+     * Meio da faixa (o valor real está a no máximo meia faixa dele)
+     */
+    private static long valorRepresentativo(int faixa) {
+        if (faixa < LIMITE_LINEAR) {
+            return faixa;
+        }
+        int posicao = faixa - LIMITE_LINEAR;
+        int expoente = posicao / SUBFAIXAS + BITS_SUBFAIXA + 1;
+        long inicio = (long) (posicao % SUBFAIXAS + SUBFAIXAS) << (expoente - BITS_SUBFAIXA);
+        long largura = 1L << (expoente - BITS_SUBFAIXA);
+        return inicio + largura / 2;
+    }
+}
@@ -0,0 +1,109 @@
+package com.pizzaria.analise;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.pizzaria.util.Base64Adapter;
+
+/**
+ * Esboço HyperLogLog para contar valores distintos (aqui, IDs de clientes) com
+ * memória fixa: 2^precisao registradores de um byte, erro padrão de cerca de
+ * 1,04 / sqrt(2^precisao). Esboços com a mesma precisão podem ser juntados
+ * (máximo registrador a registrador), o que dá a contagem da união.
+ *
+ * Não é thread-safe; quem usa sincroniza.
+ */
+public class HyperLogLog {
+    public static final int PRECISAO_PADRAO = 11; // 2048 registradores, ~2,3% de erro
+
+    @Expose
+    private int precisao;
+    @Expose
+    @JsonAdapter(Base64Adapter.class)
+    private byte[] registradores;
+
+    public HyperLogLog() {
+        this(PRECISAO_PADRAO);
+    }
+
+    public HyperLogLog(int precisao) {
+        if (precisao < 4 || precisao > 16) {
+            throw new IllegalArgumentException("Precisão deve estar entre 4 e 16");
+        }
+        this.precisao = precisao;
+        this.registradores = new byte[1 << precisao];
+    }
+
+    /**
+     * Registra um valor (adicionar o mesmo valor de novo não muda o esboço)
+     */
+    public void adicionar(long valor) {
+        long hash = misturar(valor);
+        int indice = (int) (hash >>> (64 - precisao));
+        // Posição do primeiro bit 1 no restante do hash (um sentinela limita a contagem)
+        long restante = (hash << precisao) | (1L << (precisao - 1));
+        byte posicao = (byte) (Long.numberOfLeadingZeros(restante) + 1);
+        if (posicao > registradores[indice]) {
+            registradores[indice] = posicao;
+        }
+    }
+
+    /**
+     * Junta outro esboço neste (união dos conjuntos)
+     */
+    public void juntar(HyperLogLog outro) {
+        if (outro.precisao != precisao) {
+            throw new IllegalArgumentException("Esboços com precisões diferentes");
+        }
+        for (int i = 0; i < registradores.length; i++) {
+            if (outro.registradores[i] > registradores[i]) {
+                registradores[i] = outro.registradores[i];
+            }
+        }
+    }
+
+    /**
+     * Estimativa do número de valores distintos registrados
+     */
+    public long estimar() {
+        int m = registradores.length;
+        double soma = 0;
+        int zerados = 0;
+        for (byte registrador : registradores) {
+            soma += 1.0 / (1L << registrador);
+            if (registrador == 0) {
+                zerados++;
+            }
+        }
+        double alfa = 0.7213 / (1 + 1.079 / m);
+        double estimativa = alfa * m * m / soma;
+
+        // Para poucos valores a contagem linear dos registradores vazios é mais precisa
+        if (estimativa <= 2.5 * m && zerados > 0) {
+            estimativa = m * Math.log((double) m / zerados);
+        }
+        return Math.round(estimativa);
+    }
+
+    public HyperLogLog copiar() {
+        HyperLogLog copia = new HyperLogLog(precisao);
+        System.arraycopy(registradores, 0, copia.registradores, 0, registradores.length);
+        return copia;
+    }
+
+    public int getPrecisao() {
+        return precisao;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Espalha os bits do valor (finalizador do SplitMix64); IDs sequenciais
+     * precisam de um hash bem distribuído para o esboço funcionar
+     */
+    private static long misturar(long valor) {
+        long z = valor + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
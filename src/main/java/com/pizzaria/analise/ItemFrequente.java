@@ -0,0 +1,45 @@
+package com.pizzaria.analise;
+
+/**
+ * Classe que representa uma posição no ranking de mais vendidos. A contagem é
+ * uma estimativa por cima: o valor real fica entre getMinimoGarantido() e getContagem()
+ */
+public class ItemFrequente {
+    private final String rotulo;
+    private final long contagem;
+    private final long erro;
+
+    public ItemFrequente(String rotulo, long contagem, long erro) {
+        this.rotulo = rotulo;
+        this.contagem = contagem;
+        this.erro = erro;
+    }
+
+    // Getters
+    public String getRotulo() {
+        return rotulo;
+    }
+
+    public long getContagem() {
+        return contagem;
+    }
+
+    /**
+     * Quanto a contagem pode estar acima do valor real
+     */
+    public long getErro() {
+        return erro;
+    }
+
+    public long getMinimoGarantido() {
+        return contagem - erro;
+    }
+
+    @Override
+    public String toString() {
+        if (erro == 0) {
+            return String.format("%-28s %6d", rotulo, contagem);
+        }
+        return String.format("%-28s %6d  (mín. %d)", rotulo, contagem, getMinimoGarantido());
+    }
+}
@@ -0,0 +1,25 @@
+package com.pizzaria.analise;
+
+/**
+ * Enum que representa as janelas de tempo dos mais vendidos
+ */
+public enum JanelaTempo {
+    HOJE("Hoje"),
+    ULTIMA_HORA("Última hora"),
+    TOTAL("Desde o início");
+
+    private final String descricao;
+
+    JanelaTempo(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -0,0 +1,187 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.model.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranking ao vivo dos mais pedidos (pizzas por sabor e tamanho, bebidas e
+ * ingredientes) em três janelas: hoje, última hora e desde o início.
+ *
+ * Cada janela de cada categoria é um resumo Space-Saving de tamanho fixo, então a
+ * memória não cresce com o histórico e a consulta custa O(k). A última hora é
+ * dividida em fatias de 5 minutos que vão sendo reaproveitadas; a consulta junta
+ * as fatias ainda dentro da hora.
+ *
+ * É alimentado pelos eventos de criação de pedido e de item adicionado. Itens
+ * removidos e cancelamentos não descontam: o ranking conta o que foi pedido.
+ */
+public class MaisVendidos implements OuvinteEventoPedido {
+    public static final int CAPACIDADE_PADRAO = 64;
+
+    private static final long MILIS_FATIA = 5 * 60 * 1000L;
+    private static final int FATIAS_POR_HORA = 12;
+
+    private final int capacidade;
+    private final ZoneId zona;
+    private final Map<CategoriaVendida, Janelas> janelas;
+
+    public MaisVendidos() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * Cria o ranking; a capacidade é o número de contadores por janela
+     * (as consultas são exatas para o topo enquanto ele cabe folgado nesse número)
+     */
+    public MaisVendidos(int capacidade) {
+        this.capacidade = capacidade;
+        this.zona = ZoneId.systemDefault();
+        this.janelas = new EnumMap<>(CategoriaVendida.class);
+        for (CategoriaVendida categoria : CategoriaVendida.values()) {
+            janelas.put(categoria, new Janelas());
+        }
+    }
+
+    /**
+     * Recalcula as janelas a partir do histórico de pedidos
+     */
+    public synchronized void reconstruir(List<Pedido> pedidos) {
+        for (Janelas janela : janelas.values()) {
+            janela.limpar();
+        }
+        for (Pedido pedido : pedidos) {
+            long instante = pedido.getDataHora().atZone(zona).toInstant().toEpochMilli();
+            for (ItemPedido item : pedido.getItensDoPedido()) {
+                registrarItem(item.getItem(), item.getQuantidade(), instante);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        switch (evento.getTipo()) {
+            case CRIADO -> {
+                for (ItemPedido item : evento.getPedido().getItensDoPedido()) {
+                    registrarItem(item.getItem(), item.getQuantidade(), evento.getInstante());
+                }
+            }
+            case ITEM_ADICIONADO -> registrarItem(evento.getItem(), evento.getQuantidade(), evento.getInstante());
+            default -> { }
+        }
+    }
+
+    /**
+     * Os n mais pedidos da categoria na janela, do mais para o menos pedido
+     */
+    public synchronized List<ItemFrequente> topo(CategoriaVendida categoria, JanelaTempo janela, int n) {
+        return janelas.get(categoria).topo(janela, n, System.currentTimeMillis());
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void registrarItem(ItemCardapio item, int quantidade, long instante) {
+        if (quantidade <= 0) {
+            return;
+        }
+        if (item instanceof Pizza pizza) {
+            Tamanho tamanho = pizza.getTamanho();
+            String chave = tamanho != null ? pizza.getId() + ":" + tamanho.ordinal() : String.valueOf(pizza.getId());
+            String rotulo = tamanho != null ? pizza.getNome() + " (" + tamanho.getDescricao() + ")" : pizza.getNome();
+            janelas.get(CategoriaVendida.PIZZAS).registrar(chave, rotulo, quantidade, instante);
+            for (Ingrediente ingrediente : pizza.getIngredientes()) {
+                janelas.get(CategoriaVendida.INGREDIENTES).registrar(
+                        String.valueOf(ingrediente.getId()), ingrediente.getNome(), quantidade, instante);
+            }
+        } else {
+            janelas.get(CategoriaVendida.BEBIDAS).registrar(
+                    String.valueOf(item.getId()), item.getNome(), quantidade, instante);
+        }
+    }
+
+    private LocalDate diaDe(long instante) {
+        return Instant.ofEpochMilli(instante).atZone(zona).toLocalDate();
+    }
+
+    /**
+     * Os resumos das três janelas de uma categoria
+     */
+    private final class Janelas {
+        private final ResumoFrequentes total;
+        private final ResumoFrequentes hoje;
+        private LocalDate diaDeHoje;
+        private final ResumoFrequentes[] fatias;
+        private final long[] numeroFatia;   // qual fatia de 5 min cada posição guarda
+
+        private Janelas() {
+            this.total = new ResumoFrequentes(capacidade);
+            this.hoje = new ResumoFrequentes(capacidade);
+            this.fatias = new ResumoFrequentes[FATIAS_POR_HORA];
+            this.numeroFatia = new long[FATIAS_POR_HORA];
+            for (int i = 0; i < FATIAS_POR_HORA; i++) {
+                fatias[i] = new ResumoFrequentes(capacidade);
+                numeroFatia[i] = -1;
+            }
+        }
+
+        private void registrar(String chave, String rotulo, long peso, long instante) {
+            total.registrar(chave, rotulo, peso);
+
+            LocalDate dia = diaDe(instante);
+            if (diaDeHoje == null || dia.isAfter(diaDeHoje)) {
+                hoje.limpar();
+                diaDeHoje = dia;
+            }
+            if (dia.equals(diaDeHoje)) {
+                hoje.registrar(chave, rotulo, peso);
+            }
+
+            long fatia = instante / MILIS_FATIA;
+            int posicao = (int) (fatia % FATIAS_POR_HORA);
+            if (numeroFatia[posicao] < fatia) {
+                fatias[posicao].limpar();
+                numeroFatia[posicao] = fatia;
+            }
+            if (numeroFatia[posicao] == fatia) {
+                fatias[posicao].registrar(chave, rotulo, peso);
+            }
+        }
+
+        private List<ItemFrequente> topo(JanelaTempo janela, int n, long agora) {
+            return switch (janela) {
+                case TOTAL -> total.topo(n);
+                case HOJE -> diaDe(agora).equals(diaDeHoje) ? hoje.topo(n) : List.of();
+                case ULTIMA_HORA -> topoUltimaHora(n, agora);
+            };
+        }
+
+        private List<ItemFrequente> topoUltimaHora(int n, long agora) {
+            long fatiaAtual = agora / MILIS_FATIA;
+            Map<String, ResumoFrequentes.Contador> acumulado = new HashMap<>();
+            for (int i = 0; i < FATIAS_POR_HORA; i++) {
+                if (numeroFatia[i] > fatiaAtual - FATIAS_POR_HORA) {
+                    fatias[i].somarEm(acumulado);
+                }
+            }
+            return ResumoFrequentes.topo(acumulado, n);
+        }
+
+        private void limpar() {
+            total.limpar();
+            hoje.limpar();
+            diaDeHoje = null;
+            for (int i = 0; i < FATIAS_POR_HORA; i++) {
+                fatias[i].limpar();
+                numeroFatia[i] = -1;
+            }
+        }
+    }
+}
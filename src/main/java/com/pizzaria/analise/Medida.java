@@ -0,0 +1,24 @@
+package com.pizzaria.analise;
+
+/**
+ * Enum que representa o que é somado em cada grupo de uma consulta de vendas
+ */
+public enum Medida {
+    VALOR("Valor"),      // centavos (total do pedido ou subtotal do item)
+    ITENS("Itens");      // quantidade de itens
+
+    private final String descricao;
+
+    Medida(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
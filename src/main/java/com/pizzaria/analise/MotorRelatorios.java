@@ -0,0 +1,238 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.model.StatusPedido;
+import com.pizzaria.model.Tamanho;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+
+/**
+ * Motor de relatórios de faturamento em paralelo (fork/join).
+ *
+ * O histórico (uma cópia das colunas do ArmazemColunar) é dividido recursivamente
+ * em blocos; cada bloco soma em arrays próprios, sem compartilhar nada, e os
+ * resultados parciais são somados na volta da recursão. Como os valores são
+ * centavos inteiros, o resultado é o mesmo em qualquer ordem de junção.
+ */
+public class MotorRelatorios {
+    private static final int LIMIAR = 16_384;          // linhas por bloco
+    private static final int INTERVALO_CANCELAMENTO = 4_096;
+    private static final byte CONCLUIDO = (byte) StatusPedido.CONCLUIDO.ordinal();
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final ArmazemColunar armazem;
+    private final ForkJoinPool pool;
+    private volatile IntFunction<String> nomeCliente;
+
+    public MotorRelatorios(ArmazemColunar armazem) {
+        this(armazem, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MotorRelatorios(ArmazemColunar armazem, int paralelismo) {
+        this.armazem = armazem;
+        this.pool = new ForkJoinPool(paralelismo);
+        this.nomeCliente = id -> "Cliente " + id;
+    }
+
+    /**
+     * Define como o relatório por cliente mostra o nome a partir do ID
+     */
+    public void definirNomesClientes(IntFunction<String> nomeCliente) {
+        this.nomeCliente = nomeCliente;
+    }
+
+    public int getParalelismo() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Dispara um relatório sobre os pedidos concluídos feitos entre as datas
+     * (inclusive; null deixa o lado em aberto) e retorna sem esperar
+     */
+    public ExecucaoRelatorio gerar(TipoRelatorio tipo, LocalDate inicio, LocalDate fim) {
+        ArmazemColunar.Instantaneo dados = armazem.instantaneo();
+
+        // O período é limitado aos dias que existem no histórico, o que também limita
+        // o tamanho dos arrays do relatório por dia
+        int diaInicio = inicio != null ? Math.max((int) inicio.toEpochDay(), dados.menorDia) : dados.menorDia;
+        int diaFim = fim != null ? Math.min((int) fim.toEpochDay(), dados.maiorDia) : dados.maiorDia;
+        int cardinalidade = switch (tipo) {
+            case POR_PIZZA -> dados.maiorIdPizza + 1;
+            case POR_TAMANHO -> Tamanho.values().length;
+            case POR_CLIENTE -> dados.maiorClienteId + 1;
+            case POR_DIA -> diaFim >= diaInicio ? diaFim - diaInicio + 1 : 0;
+        };
+
+        int totalLinhas = tipo.isPorItem() ? dados.totalItens : dados.totalPedidos;
+        ExecucaoRelatorio execucao = new ExecucaoRelatorio(tipo, totalLinhas);
+        Contexto contexto = new Contexto(tipo, dados, diaInicio, diaFim, Math.max(cardinalidade, 0), execucao);
+
+        IntFunction<String> nomes = nomeCliente;
+        execucao.iniciar(pool.submit(new Agregacao(contexto, 0, totalLinhas)),
+                         parcial -> montarResultado(contexto, parcial, nomes));
+        return execucao;
+    }
+
+    /**
+     * Encerra as threads do motor
+     */
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+
+    // ========== AGREGAÇÃO ==========
+
+    /**
+     * Somas e contagens de um bloco, indexadas pela chave do relatório
+     */
+    static final class Parcial {
+        private final long[] somas;
+        private final long[] contagens;
+
+        private Parcial(int cardinalidade) {
+            this.somas = new long[cardinalidade];
+            this.contagens = new long[cardinalidade];
+        }
+
+        private Parcial juntar(Parcial outra) {
+            for (int i = 0; i < somas.length; i++) {
+                somas[i] += outra.somas[i];
+                contagens[i] += outra.contagens[i];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Dados imutáveis compartilhados por todos os blocos de um relatório
+     */
+    private static final class Contexto {
+        private final TipoRelatorio tipo;
+        private final ArmazemColunar.Instantaneo dados;
+        private final int diaInicio;
+        private final int diaFim;
+        private final int cardinalidade;
+        private final ExecucaoRelatorio execucao;
+
+        private Contexto(TipoRelatorio tipo, ArmazemColunar.Instantaneo dados, int diaInicio, int diaFim,
+                         int cardinalidade, ExecucaoRelatorio execucao) {
+            this.tipo = tipo;
+            this.dados = dados;
+            this.diaInicio = diaInicio;
+            this.diaFim = diaFim;
+            this.cardinalidade = cardinalidade;
+            this.execucao = execucao;
+        }
+    }
+
+    private static final class Agregacao extends RecursiveTask<Parcial> {
+        private static final long serialVersionUID = 1L;
+
+        private final Contexto contexto;
+        private final int inicio;
+        private final int fim;
+
+        private Agregacao(Contexto contexto, int inicio, int fim) {
+            this.contexto = contexto;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (contexto.execucao.isCancelado()) {
+                return null;
+            }
+            if (fim - inicio <= LIMIAR) {
+                return somarBloco();
+            }
+
+            int meio = (inicio + fim) >>> 1;
+            Agregacao esquerda = new Agregacao(contexto, inicio, meio);
+            esquerda.fork();
+            Parcial direita = new Agregacao(contexto, meio, fim).compute();
+            Parcial resultadoEsquerda = esquerda.join();
+            if (direita == null || resultadoEsquerda == null) {
+                return null; // cancelado
+            }
+            return resultadoEsquerda.juntar(direita);
+        }
+
+        private Parcial somarBloco() {
+            ArmazemColunar.Instantaneo dados = contexto.dados;
+            Parcial parcial = new Parcial(contexto.cardinalidade);
+            long[] somas = parcial.somas;
+            long[] contagens = parcial.contagens;
+            int diaInicio = contexto.diaInicio;
+            int diaFim = contexto.diaFim;
+
+            for (int bloco = inicio; bloco < fim; bloco += INTERVALO_CANCELAMENTO) {
+                if (contexto.execucao.isCancelado()) {
+                    return null;
+                }
+                int limite = Math.min(fim, bloco + INTERVALO_CANCELAMENTO);
+
+                switch (contexto.tipo) {
+                    case POR_PIZZA, POR_TAMANHO -> {
+                        boolean porPizza = contexto.tipo == TipoRelatorio.POR_PIZZA;
+                        for (int j = bloco; j < limite; j++) {
+                            int quantidade = dados.itemQuantidade[j];
+                            byte tamanho = dados.itemTamanho[j];
+                            int i = dados.itemLinhaPedido[j];
+                            if (quantidade == 0 || tamanho < 0 || dados.status[i] != CONCLUIDO
+                                    || dados.dia[i] < diaInicio || dados.dia[i] > diaFim) {
+                                continue;
+                            }
+                            int chave = porPizza ? dados.itemId[j] : tamanho;
+                            somas[chave] += dados.itemPrecoCentavos[j] * quantidade;
+                            contagens[chave] += quantidade;
+                        }
+                    }
+                    case POR_CLIENTE, POR_DIA -> {
+                        boolean porCliente = contexto.tipo == TipoRelatorio.POR_CLIENTE;
+                        for (int i = bloco; i < limite; i++) {
+                            int dia = dados.dia[i];
+                            if (dados.status[i] != CONCLUIDO || dia < diaInicio || dia > diaFim) {
+                                continue;
+                            }
+                            int chave = porCliente ? dados.clienteId[i] : dia - diaInicio;
+                            somas[chave] += dados.totalCentavos[i];
+                            contagens[chave]++;
+                        }
+                    }
+                }
+                contexto.execucao.avancar(limite - bloco);
+            }
+            return parcial;
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private List<GrupoResultado> montarResultado(Contexto contexto, Parcial parcial, IntFunction<String> nomes) {
+        List<GrupoResultado> grupos = new ArrayList<>();
+        for (int chave = 0; chave < contexto.cardinalidade; chave++) {
+            if (parcial.contagens[chave] == 0) {
+                continue;
+            }
+            String rotulo = switch (contexto.tipo) {
+                case POR_PIZZA -> contexto.dados.nomesPizzas.getOrDefault(chave, "Pizza " + chave);
+                case POR_TAMANHO -> Tamanho.values()[chave].getDescricao();
+                case POR_CLIENTE -> nomes.apply(chave);
+                case POR_DIA -> LocalDate.ofEpochDay(contexto.diaInicio + chave).format(FORMATO_DIA);
+            };
+            grupos.add(new GrupoResultado(rotulo, parcial.contagens[chave], parcial.somas[chave], Medida.VALOR));
+        }
+        // Dias e tamanhos na ordem natural; pizzas e clientes do maior para o menor faturamento
+        if (contexto.tipo == TipoRelatorio.POR_PIZZA || contexto.tipo == TipoRelatorio.POR_CLIENTE) {
+            grupos.sort(Comparator.comparingLong(GrupoResultado::getSomaBruta).reversed());
+        }
+        return grupos;
+    }
+}
@@ -0,0 +1,147 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.StatusPedido;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Contadores de movimento em tempo real: pedidos criados, cancelados e concluídos
+ * e faturamento dos concluídos, em um anel de 60 baldes de um minuto (a última
+ * hora). Cada evento atualiza só o balde do seu minuto e a leitura soma no máximo
+ * 60 baldes, então o painel pode ser atualizado a cada segundo sem custo.
+ *
+ * É alimentado pelos eventos do PedidoService; na partida, os baldes da última
+ * hora são preenchidos a partir dos horários de status gravados nos pedidos.
+ */
+public class PainelTempoReal implements OuvinteEventoPedido {
+    private static final int MINUTOS = 60;
+    private static final int JANELA_FATURAMENTO = 15;
+    private static final long MILIS_MINUTO = 60_000L;
+
+    private final long[] numeroMinuto;    // qual minuto cada posição do anel guarda
+    private final long[] criados;
+    private final long[] cancelados;
+    private final long[] concluidos;
+    private final long[] faturamentoCentavos;
+
+    public PainelTempoReal() {
+        this.numeroMinuto = new long[MINUTOS];
+        this.criados = new long[MINUTOS];
+        this.cancelados = new long[MINUTOS];
+        this.concluidos = new long[MINUTOS];
+        this.faturamentoCentavos = new long[MINUTOS];
+        Arrays.fill(numeroMinuto, -1);
+    }
+
+    /**
+     * Preenche os baldes da última hora a partir do histórico
+     */
+    public synchronized void reconstruir(List<Pedido> pedidos) {
+        Arrays.fill(numeroMinuto, -1);
+        ZoneId zona = ZoneId.systemDefault();
+        long inicioJanela = System.currentTimeMillis() / MILIS_MINUTO - MINUTOS + 1;
+        for (Pedido pedido : pedidos) {
+            registrar(pedido.getDataHora(), zona, inicioJanela, criados);
+            registrar(pedido.getDataHoraStatus(StatusPedido.CANCELADO), zona, inicioJanela, cancelados);
+            int posicao = registrar(pedido.getDataHoraStatus(StatusPedido.CONCLUIDO), zona, inicioJanela, concluidos);
+            if (posicao >= 0) {
+                faturamentoCentavos[posicao] += pedido.getValorTotalCentavos();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        int posicao = balde(evento.getInstante() / MILIS_MINUTO);
+        if (posicao < 0) {
+            return; // evento mais antigo que a última hora
+        }
+        switch (evento.getTipo()) {
+            case CRIADO -> criados[posicao]++;
+            case CANCELADO -> cancelados[posicao]++;
+            case STATUS_ALTERADO -> {
+                if (evento.getStatusNovo() == StatusPedido.CONCLUIDO) {
+                    concluidos[posicao]++;
+                    faturamentoCentavos[posicao] += evento.getValorTotalCentavos();
+                }
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Lê os indicadores no instante atual
+     */
+    public ResumoPainel consultar() {
+        return consultar(System.currentTimeMillis());
+    }
+
+    /**
+     * Lê os indicadores no instante informado (milissegundos desde a época)
+     */
+    public synchronized ResumoPainel consultar(long agora) {
+        long minutoAtual = agora / MILIS_MINUTO;
+        long[] pedidosPorMinuto = new long[JANELA_FATURAMENTO];
+        long faturamento15Minutos = 0;
+        long criadosNaHora = 0;
+        long canceladosNaHora = 0;
+        long concluidosNaHora = 0;
+
+        for (int atras = 0; atras < MINUTOS; atras++) {
+            long minuto = minutoAtual - atras;
+            int posicao = (int) Math.floorMod(minuto, (long) MINUTOS);
+            if (numeroMinuto[posicao] != minuto) {
+                continue;
+            }
+            criadosNaHora += criados[posicao];
+            canceladosNaHora += cancelados[posicao];
+            concluidosNaHora += concluidos[posicao];
+            if (atras < JANELA_FATURAMENTO) {
+                pedidosPorMinuto[JANELA_FATURAMENTO - 1 - atras] = criados[posicao];
+                faturamento15Minutos += faturamentoCentavos[posicao];
+            }
+        }
+        return new ResumoPainel(pedidosPorMinuto, faturamento15Minutos,
+                                criadosNaHora, canceladosNaHora, concluidosNaHora);
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private int registrar(LocalDateTime horario, ZoneId zona, long inicioJanela, long[] contadores) {
+        if (horario == null) {
+            return -1;
+        }
+        long minuto = horario.atZone(zona).toInstant().toEpochMilli() / MILIS_MINUTO;
+        int posicao = minuto >= inicioJanela ? balde(minuto) : -1;
+        if (posicao >= 0) {
+            contadores[posicao]++;
+        }
+        return posicao;
+    }
+
+    /**
+     * Posição do minuto no anel, zerando o balde se ele guardava um minuto antigo;
+     * -1 se o minuto já saiu da janela
+     */
+    private int balde(long minuto) {
+        int posicao = (int) Math.floorMod(minuto, (long) MINUTOS);
+        if (numeroMinuto[posicao] > minuto) {
+            return -1;
+        }
+        if (numeroMinuto[posicao] < minuto) {
+            numeroMinuto[posicao] = minuto;
+            criados[posicao] = 0;
+            cancelados[posicao] = 0;
+            concluidos[posicao] = 0;
+            faturamentoCentavos[posicao] = 0;
+        }
+        return posicao;
+    }
+}
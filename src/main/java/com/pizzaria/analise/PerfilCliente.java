@@ -0,0 +1,76 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.util.Dinheiro;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Classe que representa o perfil RFM de um cliente: agregados dos pedidos
+ * concluídos, as notas de 1 a 5 e o segmento
+ */
+public class PerfilCliente {
+    private final int clienteId;
+    private final LocalDateTime ultimoPedido;
+    private final int pedidos;
+    private final long totalCentavos;
+    private final int notaRecencia;
+    private final int notaFrequencia;
+    private final int notaValor;
+
+    public PerfilCliente(int clienteId, LocalDateTime ultimoPedido, int pedidos, long totalCentavos,
+                         int notaRecencia, int notaFrequencia, int notaValor) {
+        this.clienteId = clienteId;
+        this.ultimoPedido = ultimoPedido;
+        this.pedidos = pedidos;
+        this.totalCentavos = totalCentavos;
+        this.notaRecencia = notaRecencia;
+        this.notaFrequencia = notaFrequencia;
+        this.notaValor = notaValor;
+    }
+
+    // Getters
+    public int getClienteId() {
+        return clienteId;
+    }
+
+    public LocalDateTime getUltimoPedido() {
+        return ultimoPedido;
+    }
+
+    public int getPedidos() {
+        return pedidos;
+    }
+
+    public double getTotalGasto() {
+        return Dinheiro.paraReais(totalCentavos);
+    }
+
+    public long getTotalCentavos() {
+        return totalCentavos;
+    }
+
+    public int getNotaRecencia() {
+        return notaRecencia;
+    }
+
+    public int getNotaFrequencia() {
+        return notaFrequencia;
+    }
+
+    public int getNotaValor() {
+        return notaValor;
+    }
+
+    public SegmentoCliente getSegmento() {
+        return SegmentoCliente.classificar(notaRecencia, notaFrequencia, notaValor);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cliente %d: %d pedidos, R$%.2f, último em %s - RFM %d%d%d (%s)",
+                clienteId, pedidos, getTotalGasto(),
+                ultimoPedido.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                notaRecencia, notaFrequencia, notaValor, getSegmento());
+    }
+}
@@ -0,0 +1,244 @@
+package com.pizzaria.analise;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ranking sempre ordenado (do maior para o menor valor) com estatística de ordem:
+ * uma treap em que cada nó guarda o tamanho da sua subárvore. Atualizar o valor de
+ * uma chave, descobrir a posição de uma chave e pegar a k-ésima posição custam
+ * O(log n) esperado; listar um intervalo de posições custa O(log n + tamanho).
+ *
+ * Empates são desempatados pela chave, para a ordem ser estável.
+ * Não é thread-safe; quem usa sincroniza.
+ */
+public class RankingOrdenado<K extends Comparable<K>> {
+    private final Map<K, No<K>> porChave;
+    private No<K> raiz;
+
+    public RankingOrdenado() {
+        this.porChave = new HashMap<>();
+    }
+
+    /**
+     * Define o valor da chave (inserindo-a se ainda não estiver no ranking)
+     */
+    public void definir(K chave, long valor) {
+        No<K> atual = porChave.get(chave);
+        if (atual != null) {
+            if (atual.valor == valor) {
+                return;
+            }
+            raiz = remover(raiz, atual);
+        }
+        No<K> novo = new No<>(chave, valor);
+        porChave.put(chave, novo);
+        raiz = inserir(raiz, novo);
+    }
+
+    /**
+     * Soma `delta` ao valor da chave (começando de zero)
+     */
+    public void somar(K chave, long delta) {
+        No<K> atual = porChave.get(chave);
+        definir(chave, (atual != null ? atual.valor : 0) + delta);
+    }
+
+    public void remover(K chave) {
+        No<K> atual = porChave.remove(chave);
+        if (atual != null) {
+            raiz = remover(raiz, atual);
+        }
+    }
+
+    /**
+     * Valor da chave, ou 0 se ela não está no ranking
+     */
+    public long getValor(K chave) {
+        No<K> no = porChave.get(chave);
+        return no != null ? no.valor : 0;
+    }
+
+    /**
+     * Posição da chave (1 = maior valor), ou -1 se ela não está no ranking
+     */
+    public int posicao(K chave) {
+        No<K> alvo = porChave.get(chave);
+        if (alvo == null) {
+            return -1;
+        }
+        int antes = 0;
+        No<K> no = raiz;
+        while (no != null) {
+            int comparacao = comparar(alvo, no);
+            if (comparacao < 0) {
+                no = no.esquerda;
+            } else if (comparacao > 0) {
+                antes += tamanho(no.esquerda) + 1;
+                no = no.direita;
+            } else {
+                return antes + tamanho(no.esquerda) + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * As k primeiras posições
+     */
+    public List<EntradaRanking<K>> topo(int k) {
+        return intervalo(1, k);
+    }
+
+    /**
+     * Posições de `de` a `ate` (inclusive, começando em 1)
+     */
+    public List<EntradaRanking<K>> intervalo(int de, int ate) {
+        List<EntradaRanking<K>> resultado = new ArrayList<>();
+        int inicio = Math.max(de, 1);
+        int fim = Math.min(ate, tamanho());
+        if (inicio <= fim) {
+            coletar(raiz, 0, inicio, fim, resultado);
+        }
+        return resultado;
+    }
+
+    public int tamanho() {
+        return tamanho(raiz);
+    }
+
+    public void limpar() {
+        porChave.clear();
+        raiz = null;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Percorre em ordem só as subárvores que têm posições no intervalo;
+     * `antes` é quantos nós ficam à esquerda desta subárvore
+     */
+    private void coletar(No<K> no, int antes, int de, int ate, List<EntradaRanking<K>> resultado) {
+        if (no == null) {
+            return;
+        }
+        int posicao = antes + tamanho(no.esquerda) + 1;
+        if (de < posicao) {
+            coletar(no.esquerda, antes, de, ate, resultado);
+        }
+        if (posicao >= de && posicao <= ate) {
+            resultado.add(new EntradaRanking<>(posicao, no.chave, no.valor));
+        }
+        if (ate > posicao) {
+            coletar(no.direita, posicao, de, ate, resultado);
+        }
+    }
+
+    private No<K> inserir(No<K> no, No<K> novo) {
+        if (no == null) {
+            return novo;
+        }
+        if (comparar(novo, no) < 0) {
+            no.esquerda = inserir(no.esquerda, novo);
+            if (no.esquerda.prioridade > no.prioridade) {
+                no = girarDireita(no);
+            }
+        } else {
+            no.direita = inserir(no.direita, novo);
+            if (no.direita.prioridade > no.prioridade) {
+                no = girarEsquerda(no);
+            }
+        }
+        atualizarTamanho(no);
+        return no;
+    }
+
+    private No<K> remover(No<K> no, No<K> alvo) {
+        if (no == null) {
+            return null;
+        }
+        int comparacao = comparar(alvo, no);
+        if (comparacao < 0) {
+            no.esquerda = remover(no.esquerda, alvo);
+        } else if (comparacao > 0) {
+            no.direita = remover(no.direita, alvo);
+        } else {
+            return juntar(no.esquerda, no.direita);
+        }
+        atualizarTamanho(no);
+        return no;
+    }
+
+    /**
+     * Junta duas treaps em que todas as chaves da esquerda vêm antes das da direita
+     */
+    private No<K> juntar(No<K> esquerda, No<K> direita) {
+        if (esquerda == null) {
+            return direita;
+        }
+        if (direita == null) {
+            return esquerda;
+        }
+        if (esquerda.prioridade > direita.prioridade) {
+            esquerda.direita = juntar(esquerda.direita, direita);
+            atualizarTamanho(esquerda);
+            return esquerda;
+        }
+        direita.esquerda = juntar(esquerda, direita.esquerda);
+        atualizarTamanho(direita);
+        return direita;
+    }
+
+    private No<K> girarDireita(No<K> no) {
+        No<K> novaRaiz = no.esquerda;
+        no.esquerda = novaRaiz.direita;
+        novaRaiz.direita = no;
+        atualizarTamanho(no);
+        atualizarTamanho(novaRaiz);
+        return novaRaiz;
+    }
+
+    private No<K> girarEsquerda(No<K> no) {
+        No<K> novaRaiz = no.direita;
+        no.direita = novaRaiz.esquerda;
+        novaRaiz.esquerda = no;
+        atualizarTamanho(no);
+        atualizarTamanho(novaRaiz);
+        return novaRaiz;
+    }
+
+    /**
+     * Ordem do ranking: maior valor primeiro, depois a chave
+     */
+    private int comparar(No<K> a, No<K> b) {
+        int comparacao = Long.compare(b.valor, a.valor);
+        return comparacao != 0 ? comparacao : a.chave.compareTo(b.chave);
+    }
+
+    private static int tamanho(No<?> no) {
+        return no != null ? no.tamanho : 0;
+    }
+
+    private static void atualizarTamanho(No<?> no) {
+        no.tamanho = 1 + tamanho(no.esquerda) + tamanho(no.direita);
+    }
+
+    private static final class No<K> {
+        private final K chave;
+        private final long valor;
+        private final int prioridade;
+        private int tamanho;
+        private No<K> esquerda;
+        private No<K> direita;
+
+        private No(K chave, long valor) {
+            this.chave = chave;
+            this.valor = valor;
+            this.prioridade = ThreadLocalRandom.current().nextInt();
+            this.tamanho = 1;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.pizzaria.analise;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Resumo Space-Saving: guarda no máximo `capacidade` contadores. Uma chave nova
+ * com o resumo cheio toma o lugar do menor contador e herda a contagem dele como
+ * erro, então qualquer chave com frequência acima de total/capacidade está
+ * garantidamente no resumo e nenhuma contagem fica abaixo do valor real.
+ *
+ * Não é thread-safe; quem usa sincroniza.
+ */
+final class ResumoFrequentes {
+    private static final Comparator<Contador> ORDEM = Comparator.<Contador>comparingLong(c -> c.contagem)
+                                                                .thenComparingLong(c -> c.ordem);
+
+    private final int capacidade;
+    private final Map<String, Contador> porChave;
+    private final TreeSet<Contador> ordenados; // do menor para o maior
+    private long proximaOrdem;
+
+    ResumoFrequentes(int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva");
+        }
+        this.capacidade = capacidade;
+        this.porChave = new HashMap<>(capacidade * 2);
+        this.ordenados = new TreeSet<>(ORDEM);
+    }
+
+    /**
+     * Soma `peso` ocorrências da chave; o rótulo é o texto mostrado no ranking
+     */
+    void registrar(String chave, String rotulo, long peso) {
+        Contador contador = porChave.get(chave);
+        if (contador != null) {
+            ordenados.remove(contador);
+        } else if (porChave.size() < capacidade) {
+            contador = new Contador(chave);
+            porChave.put(chave, contador);
+        } else {
+            // Substitui o menor contador, que passa a ser o erro da chave nova
+            contador = ordenados.pollFirst();
+            porChave.remove(contador.chave);
+            contador.chave = chave;
+            contador.erro = contador.contagem;
+            porChave.put(chave, contador);
+        }
+        contador.rotulo = rotulo;
+        contador.contagem += peso;
+        contador.ordem = proximaOrdem++;
+        ordenados.add(contador);
+    }
+
+    /**
+     * As n chaves de maior contagem, da maior para a menor
+     */
+    List<ItemFrequente> topo(int n) {
+        List<ItemFrequente> resultado = new ArrayList<>(Math.min(n, ordenados.size()));
+        Iterator<Contador> iterador = ordenados.descendingIterator();
+        while (iterador.hasNext() && resultado.size() < n) {
+            Contador contador = iterador.next();
+            resultado.add(new ItemFrequente(contador.rotulo, contador.contagem, contador.erro));
+        }
+        return resultado;
+    }
+
+    /**
+     * Soma os contadores deste resumo em um acumulado por chave
+     * (usado para juntar as fatias de uma janela)
+     */
+    void somarEm(Map<String, Contador> acumulado) {
+        for (Contador contador : porChave.values()) {
+            Contador soma = acumulado.computeIfAbsent(contador.chave, Contador::new);
+            soma.rotulo = contador.rotulo;
+            soma.contagem += contador.contagem;
+            soma.erro += contador.erro;
+        }
+    }
+
+    /**
+     * Ordena um acumulado produzido por somarEm e devolve as n maiores chaves
+     */
+    static List<ItemFrequente> topo(Map<String, Contador> acumulado, int n) {
+        List<Contador> contadores = new ArrayList<>(acumulado.values());
+        contadores.sort(Comparator.<Contador>comparingLong(c -> c.contagem).reversed());
+        List<ItemFrequente> resultado = new ArrayList<>(Math.min(n, contadores.size()));
+        for (int i = 0; i < contadores.size() && i < n; i++) {
+            Contador contador = contadores.get(i);
+            resultado.add(new ItemFrequente(contador.rotulo, contador.contagem, contador.erro));
+        }
+        return resultado;
+    }
+
+    void limpar() {
+        porChave.clear();
+        ordenados.clear();
+    }
+
+    static final class Contador {
+        private String chave;
+        private String rotulo;
+        private long contagem;
+        private long erro;
+        private long ordem;
+
+        Contador(String chave) {
+            this.chave = chave;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.pizzaria.analise;
+
+import java.time.LocalDateTime;
+
+/**
+ * Classe que representa os percentis de duração de uma etapa em um período
+ * (uma hora, ou todo o histórico quando a hora é null)
+ */
+public class ResumoLatencia {
+    private final LocalDateTime hora;
+    private final long total;
+    private final long p50;
+    private final long p95;
+    private final long p99;
+    private final long maximo;
+
+    public ResumoLatencia(LocalDateTime hora, HistogramaLatencia histograma) {
+        this.hora = hora;
+        this.total = histograma.getTotal();
+        this.p50 = histograma.percentil(50);
+        this.p95 = histograma.percentil(95);
+        this.p99 = histograma.percentil(99);
+        this.maximo = histograma.getMaximo();
+    }
+
+    // Getters (durações em milissegundos)
+    public LocalDateTime getHora() {
+        return hora;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    @Override
+    public String toString() {
+        String periodo = hora != null ? String.format("%02dh", hora.getHour()) : "Total";
+        return String.format("%-6s %5d pedidos  p50=%s  p95=%s  p99=%s  máx=%s",
+                periodo, total, formatar(p50), formatar(p95), formatar(p99), formatar(maximo));
+    }
+
+    private static String formatar(long milissegundos) {
+        long segundos = Math.round(milissegundos / 1000.0);
+        return String.format("%d:%02d", segundos / 60, segundos % 60);
+    }
+}
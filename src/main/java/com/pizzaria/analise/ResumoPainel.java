@@ -0,0 +1,79 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.util.Dinheiro;
+
+/**
+ * Classe que representa uma leitura do painel em tempo real
+ */
+public class ResumoPainel {
+    private final long[] pedidosPorMinuto;   // últimos 15 minutos, do mais antigo ao atual
+    private final long faturamento15MinutosCentavos;
+    private final long criadosUltimaHora;
+    private final long canceladosUltimaHora;
+    private final long concluidosUltimaHora;
+
+    public ResumoPainel(long[] pedidosPorMinuto, long faturamento15MinutosCentavos,
+                        long criadosUltimaHora, long canceladosUltimaHora, long concluidosUltimaHora) {
+        this.pedidosPorMinuto = pedidosPorMinuto;
+        this.faturamento15MinutosCentavos = faturamento15MinutosCentavos;
+        this.criadosUltimaHora = criadosUltimaHora;
+        this.canceladosUltimaHora = canceladosUltimaHora;
+        this.concluidosUltimaHora = concluidosUltimaHora;
+    }
+
+    /**
+     * Pedidos criados por minuto nos últimos 15 minutos (o último é o minuto atual)
+     */
+    public long[] getPedidosPorMinuto() {
+        return pedidosPorMinuto.clone();
+    }
+
+    public long getPedidosMinutoAtual() {
+        return pedidosPorMinuto[pedidosPorMinuto.length - 1];
+    }
+
+    /**
+     * Média de pedidos por minuto nos últimos 15 minutos
+     */
+    public double getMediaPedidosPorMinuto() {
+        long soma = 0;
+        for (long pedidos : pedidosPorMinuto) {
+            soma += pedidos;
+        }
+        return (double) soma / pedidosPorMinuto.length;
+    }
+
+    /**
+     * Faturamento dos pedidos concluídos nos últimos 15 minutos
+     */
+    public double getFaturamento15Minutos() {
+        return Dinheiro.paraReais(faturamento15MinutosCentavos);
+    }
+
+    public long getCriadosUltimaHora() {
+        return criadosUltimaHora;
+    }
+
+    public long getCanceladosUltimaHora() {
+        return canceladosUltimaHora;
+    }
+
+    public long getConcluidosUltimaHora() {
+        return concluidosUltimaHora;
+    }
+
+    /**
+     * Cancelamentos sobre pedidos criados na última hora (0 a 1)
+     */
+    public double getTaxaCancelamento() {
+        return criadosUltimaHora == 0 ? 0 : Math.min(1.0, (double) canceladosUltimaHora / criadosUltimaHora);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pedidos/min: %d (média 15 min: %.1f) | Faturamento 15 min: R$%.2f | " +
+                             "Última hora: %d criados, %d concluídos, %d cancelados (%.1f%%)",
+                getPedidosMinutoAtual(), getMediaPedidosPorMinuto(), getFaturamento15Minutos(),
+                criadosUltimaHora, concluidosUltimaHora, canceladosUltimaHora, getTaxaCancelamento() * 100);
+    }
+}
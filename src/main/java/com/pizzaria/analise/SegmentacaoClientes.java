@@ -0,0 +1,218 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.evento.TipoEventoPedido;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.StatusPedido;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Segmentação RFM incremental de clientes.
+ *
+ * Cada cliente tem agregados (último pedido, número de pedidos e total gasto) que
+ * são atualizados quando um pedido dele é concluído, e um índice ordenado por
+ * valor gasto responde "quem são os x% que mais gastam" sem percorrer os pedidos.
+ *
+ * As fronteiras das notas de 1 a 5 (quintis de recência, frequência e valor) saem
+ * de esboços de quantis recalculados periodicamente a partir dos agregados; entre
+ * um recálculo e outro as notas usam as últimas fronteiras.
+ */
+public class SegmentacaoClientes implements OuvinteEventoPedido {
+    private static final long INTERVALO_RECALCULO_MS = 60_000;
+    private static final double[] QUINTIS = {20, 40, 60, 80};
+    private static final long MILIS_DIA = 86_400_000L;
+
+    private final Map<Integer, Agregado> porCliente;
+    private final TreeSet<Agregado> porValor;   // do maior para o menor gasto
+
+    // Fronteiras dos quintis (valores no percentil 20, 40, 60 e 80)
+    private long[] fronteirasRecencia;          // dias desde o último pedido
+    private long[] fronteirasFrequencia;
+    private long[] fronteirasValor;
+    private Map<SegmentoCliente, List<Integer>> clientesPorSegmento;
+    private long ultimoRecalculo;
+    private boolean alterado;
+
+    public SegmentacaoClientes() {
+        this.porCliente = new HashMap<>();
+        this.porValor = new TreeSet<>(Comparator.comparingLong((Agregado a) -> a.totalCentavos).reversed()
+                                                .thenComparingInt(a -> a.clienteId));
+        this.fronteirasRecencia = new long[QUINTIS.length];
+        this.fronteirasFrequencia = new long[QUINTIS.length];
+        this.fronteirasValor = new long[QUINTIS.length];
+        this.clientesPorSegmento = new EnumMap<>(SegmentoCliente.class);
+    }
+
+    /**
+     * Recalcula os agregados a partir dos pedidos concluídos do histórico
+     */
+    public synchronized void reconstruir(List<Pedido> pedidos) {
+        porCliente.clear();
+        porValor.clear();
+        for (Pedido pedido : pedidos) {
+            if (pedido.getStatus() == StatusPedido.CONCLUIDO) {
+                registrarConclusao(pedido);
+            }
+        }
+        recalcularFronteiras();
+    }
+
+    @Override
+    public synchronized void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        if (evento.getTipo() == TipoEventoPedido.STATUS_ALTERADO
+                && evento.getStatusNovo() == StatusPedido.CONCLUIDO) {
+            registrarConclusao(evento.getPedido());
+        }
+    }
+
+    /**
+     * Perfil RFM de um cliente, ou null se ele não tem pedidos concluídos
+     */
+    public synchronized PerfilCliente getPerfil(int clienteId) {
+        atualizarFronteirasSeNecessario();
+        Agregado agregado = porCliente.get(clienteId);
+        return agregado != null ? perfil(agregado, System.currentTimeMillis()) : null;
+    }
+
+    /**
+     * Os `percentual`% de clientes que mais gastaram, do maior para o menor
+     * (ex.: 5 para os 5% melhores); percorre só os clientes retornados
+     */
+    public synchronized List<PerfilCliente> listarTopPercentual(double percentual) {
+        atualizarFronteirasSeNecessario();
+        int quantidade = (int) Math.ceil(porValor.size() * percentual / 100.0);
+        long agora = System.currentTimeMillis();
+        List<PerfilCliente> resultado = new ArrayList<>(quantidade);
+        for (Agregado agregado : porValor) {
+            if (resultado.size() >= quantidade) {
+                break;
+            }
+            resultado.add(perfil(agregado, agora));
+        }
+        return resultado;
+    }
+
+    /**
+     * IDs dos clientes do segmento no último recálculo
+     */
+    public synchronized List<Integer> listarPorSegmento(SegmentoCliente segmento) {
+        atualizarFronteirasSeNecessario();
+        return new ArrayList<>(clientesPorSegmento.getOrDefault(segmento, List.of()));
+    }
+
+    /**
+     * Número de clientes em cada segmento no último recálculo
+     */
+    public synchronized Map<SegmentoCliente, Integer> contarPorSegmento() {
+        atualizarFronteirasSeNecessario();
+        Map<SegmentoCliente, Integer> contagem = new EnumMap<>(SegmentoCliente.class);
+        for (SegmentoCliente segmento : SegmentoCliente.values()) {
+            contagem.put(segmento, clientesPorSegmento.getOrDefault(segmento, List.of()).size());
+        }
+        return contagem;
+    }
+
+    public synchronized int getTotalClientes() {
+        return porCliente.size();
+    }
+
+    /**
+     * Força o recálculo das fronteiras e dos segmentos
+     */
+    public synchronized void recalcularFronteiras() {
+        long agora = System.currentTimeMillis();
+        HistogramaLatencia recencia = new HistogramaLatencia();
+        HistogramaLatencia frequencia = new HistogramaLatencia();
+        HistogramaLatencia valor = new HistogramaLatencia();
+        for (Agregado agregado : porCliente.values()) {
+            recencia.registrar(diasDesde(agregado, agora));
+            frequencia.registrar(agregado.pedidos);
+            valor.registrar(agregado.totalCentavos);
+        }
+        for (int i = 0; i < QUINTIS.length; i++) {
+            fronteirasRecencia[i] = recencia.percentil(QUINTIS[i]);
+            fronteirasFrequencia[i] = frequencia.percentil(QUINTIS[i]);
+            fronteirasValor[i] = valor.percentil(QUINTIS[i]);
+        }
+
+        Map<SegmentoCliente, List<Integer>> segmentos = new EnumMap<>(SegmentoCliente.class);
+        for (Agregado agregado : porCliente.values()) {
+            segmentos.computeIfAbsent(perfil(agregado, agora).getSegmento(), s -> new ArrayList<>())
+                     .add(agregado.clienteId);
+        }
+        clientesPorSegmento = segmentos;
+        ultimoRecalculo = agora;
+        alterado = false;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void registrarConclusao(Pedido pedido) {
+        Agregado agregado = porCliente.computeIfAbsent(pedido.getClienteId(), Agregado::new);
+        porValor.remove(agregado);
+        agregado.pedidos++;
+        agregado.totalCentavos += pedido.getValorTotalCentavos();
+        if (agregado.ultimoPedido == null || pedido.getDataHora().isAfter(agregado.ultimoPedido)) {
+            agregado.ultimoPedido = pedido.getDataHora();
+        }
+        porValor.add(agregado);
+        alterado = true;
+    }
+
+    private void atualizarFronteirasSeNecessario() {
+        if (alterado && System.currentTimeMillis() - ultimoRecalculo >= INTERVALO_RECALCULO_MS) {
+            recalcularFronteiras();
+        }
+    }
+
+    private PerfilCliente perfil(Agregado agregado, long agora) {
+        // Na recência, menos dias é melhor: a nota é invertida
+        int notaRecencia = 6 - nota(diasDesde(agregado, agora), fronteirasRecencia);
+        return new PerfilCliente(agregado.clienteId, agregado.ultimoPedido, agregado.pedidos,
+                                 agregado.totalCentavos, notaRecencia,
+                                 nota(agregado.pedidos, fronteirasFrequencia),
+                                 nota(agregado.totalCentavos, fronteirasValor));
+    }
+
+    /**
+     * Nota de 1 a 5: 1 + quantas fronteiras o valor ultrapassa
+     */
+    private static int nota(long valor, long[] fronteiras) {
+        int nota = 1;
+        for (long fronteira : fronteiras) {
+            if (valor > fronteira) {
+                nota++;
+            }
+        }
+        return nota;
+    }
+
+    private static long diasDesde(Agregado agregado, long agora) {
+        long ultimo = agregado.ultimoPedido.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.max(0, agora - ultimo) / MILIS_DIA;
+    }
+
+    /**
+     * Agregados de um cliente
+     */
+    private static final class Agregado {
+        private final int clienteId;
+        private LocalDateTime ultimoPedido;
+        private int pedidos;
+        private long totalCentavos;
+
+        private Agregado(int clienteId) {
+            this.clienteId = clienteId;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.pizzaria.analise;
+
+/**
+ * Enum que representa os segmentos RFM (recência, frequência, valor) de clientes.
+ * As notas vão de 1 a 5, 5 sendo o quinto melhor da base em cada critério.
+ */
+public enum SegmentoCliente {
+    CAMPEOES("Campeões"),
+    FIEIS("Fiéis"),
+    PROMISSORES("Promissores"),
+    EM_RISCO("Em risco"),
+    PERDIDOS("Perdidos"),
+    REGULARES("Regulares");
+
+    private final String descricao;
+
+    SegmentoCliente(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * Segmento correspondente às notas de recência, frequência e valor
+     */
+    public static SegmentoCliente classificar(int recencia, int frequencia, int valor) {
+        if (recencia >= 4 && frequencia >= 4 && valor >= 4) {
+            return CAMPEOES;
+        }
+        if (recencia <= 2 && frequencia >= 3) {
+            return EM_RISCO;
+        }
+        if (recencia <= 2) {
+            return PERDIDOS;
+        }
+        if (frequencia >= 4) {
+            return FIEIS;
+        }
+        if (recencia >= 4 && frequencia <= 2) {
+            return PROMISSORES;
+        }
+        return REGULARES;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -0,0 +1,147 @@
+package com.pizzaria.analise;
+
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.evento.TipoEventoPedido;
+import com.pizzaria.model.Pedido;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tempos do ciclo de vida dos pedidos: para cada etapa (espera, preparo, entrega
+ * e total) um histograma de todo o histórico e um por hora das últimas 24 horas,
+ * reaproveitados em anel. A memória é fixa e os percentis saem dos histogramas,
+ * sem percorrer os pedidos.
+ *
+ * É alimentado pelas mudanças de status publicadas pelo PedidoService; cada
+ * duração conta na hora em que a etapa terminou.
+ */
+public class TemposPedido implements OuvinteEventoPedido {
+    private static final int HORAS = 24;
+
+    private final Map<EtapaPedido, Etapa> etapas;
+
+    public TemposPedido() {
+        this.etapas = new EnumMap<>(EtapaPedido.class);
+        for (EtapaPedido etapa : EtapaPedido.values()) {
+            etapas.put(etapa, new Etapa());
+        }
+    }
+
+    /**
+     * Recalcula os histogramas a partir dos horários gravados nos pedidos
+     */
+    public synchronized void reconstruir(List<Pedido> pedidos) {
+        for (Etapa etapa : etapas.values()) {
+            etapa.limpar();
+        }
+        for (Pedido pedido : pedidos) {
+            for (EtapaPedido etapa : EtapaPedido.values()) {
+                registrarEtapa(pedido, etapa);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        if (evento.getTipo() != TipoEventoPedido.STATUS_ALTERADO) {
+            return;
+        }
+        for (EtapaPedido etapa : EtapaPedido.values()) {
+            if (etapa.getFim() == evento.getStatusNovo()) {
+                registrarEtapa(evento.getPedido(), etapa);
+            }
+        }
+    }
+
+    /**
+     * Percentis da etapa em cada uma das últimas 24 horas que teve pedidos,
+     * da mais antiga para a mais recente
+     */
+    public synchronized List<ResumoLatencia> porHora(EtapaPedido etapa) {
+        return etapas.get(etapa).porHora(horaDe(LocalDateTime.now()));
+    }
+
+    /**
+     * Percentis da etapa em todo o histórico
+     */
+    public synchronized ResumoLatencia geral(EtapaPedido etapa) {
+        return new ResumoLatencia(null, etapas.get(etapa).total);
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void registrarEtapa(Pedido pedido, EtapaPedido etapa) {
+        LocalDateTime inicio = pedido.getDataHoraStatus(etapa.getInicio());
+        LocalDateTime fim = pedido.getDataHoraStatus(etapa.getFim());
+        if (inicio == null || fim == null) {
+            return; // pulou a etapa, ou pedido gravado antes dos horários por status
+        }
+        etapas.get(etapa).registrar(horaDe(fim), Duration.between(inicio, fim).toMillis());
+    }
+
+    /**
+     * Número da hora desde a época (horário local, sem fuso: só serve de índice)
+     */
+    private static long horaDe(LocalDateTime horario) {
+        return horario.toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    /**
+     * Histograma geral e anel de histogramas por hora de uma etapa
+     */
+    private static final class Etapa {
+        private final HistogramaLatencia total;
+        private final HistogramaLatencia[] horas;
+        private final long[] numeroHora;   // qual hora cada posição do anel guarda
+
+        private Etapa() {
+            this.total = new HistogramaLatencia();
+            this.horas = new HistogramaLatencia[HORAS];
+            this.numeroHora = new long[HORAS];
+            for (int i = 0; i < HORAS; i++) {
+                horas[i] = new HistogramaLatencia();
+                numeroHora[i] = -1;
+            }
+        }
+
+        private void registrar(long hora, long milissegundos) {
+            total.registrar(milissegundos);
+
+            int posicao = (int) (hora % HORAS);
+            if (numeroHora[posicao] < hora) {
+                horas[posicao].limpar();
+                numeroHora[posicao] = hora;
+            }
+            if (numeroHora[posicao] == hora) {
+                horas[posicao].registrar(milissegundos);
+            }
+        }
+
+        private List<ResumoLatencia> porHora(long horaAtual) {
+            List<ResumoLatencia> resultado = new ArrayList<>();
+            for (long hora = horaAtual - HORAS + 1; hora <= horaAtual; hora++) {
+                int posicao = (int) (hora % HORAS);
+                if (numeroHora[posicao] == hora && horas[posicao].getTotal() > 0) {
+                    LocalDateTime inicioHora = LocalDateTime.ofEpochSecond(hora * 3600, 0, ZoneOffset.UTC);
+                    resultado.add(new ResumoLatencia(inicioHora, horas[posicao]));
+                }
+            }
+            return resultado;
+        }
+
+        private void limpar() {
+            total.limpar();
+            for (int i = 0; i < HORAS; i++) {
+                horas[i].limpar();
+                numeroHora[i] = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.pizzaria.analise;
+
+/**
+ * Enum que representa os relatórios de faturamento do motor paralelo
+ * (sempre sobre pedidos concluídos)
+ */
+public enum TipoRelatorio {
+    POR_PIZZA("Faturamento por pizza"),
+    POR_TAMANHO("Faturamento por tamanho"),
+    POR_CLIENTE("Faturamento por cliente"),
+    POR_DIA("Faturamento por dia");
+
+    private final String descricao;
+
+    TipoRelatorio(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * Indica se o relatório percorre os itens dos pedidos em vez dos pedidos
+     */
+    public boolean isPorItem() {
+        return this == POR_PIZZA || this == POR_TAMANHO;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
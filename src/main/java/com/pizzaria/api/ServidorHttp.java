@@ -0,0 +1,469 @@
+package com.pizzaria.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.pizzaria.cozinha.EscalonadorCozinha;
+import com.pizzaria.cozinha.Fornada;
+import com.pizzaria.exception.CapacidadeExcedidaException;
+import com.pizzaria.exception.ClienteNaoEncontradoException;
+import com.pizzaria.exception.EstoqueInsuficienteException;
+import com.pizzaria.exception.PedidoInvalidoException;
+import com.pizzaria.model.*;
+import com.pizzaria.replicacao.ResumoReplicacao;
+import com.pizzaria.service.*;
+import com.pizzaria.util.JsonPersistence;
+import com.pizzaria.util.ThreadUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Servidor HTTP/JSON embutido (com.sun.net.httpserver) sobre os serviços existentes.
+ * Cada requisição roda em uma thread virtual (JDK 21+) ou em um pool fixo no JDK 17.
+ *
+ * Rotas:
+ *   GET    /clientes?telefone=...         busca cliente por telefone
+ *   GET    /clientes/{id}                 busca cliente por ID
+ *   GET    /cardapio                      pizzas e bebidas
+ *   POST   /pedidos                       cria pedido {clienteId, itens:[{itemId, tamanho, quantidade}], enderecoEntrega?}
+ *   GET    /pedidos/{id}                  consulta pedido
+ *   POST   /pedidos/{id}/itens            adiciona item {itemId, tamanho, quantidade}
+ *   DELETE /pedidos/{id}/itens/{itemId}   remove item
+ *   PUT    /pedidos/{id}/status           altera status {status}
+ *   GET    /pedidos/{id}/previsao         previsão de saída do forno
+ *   GET    /cozinha                       resumo das estações
+ *   GET    /cozinha/admissao              carga em aberto e pedidos em espera
+ *   POST   /cozinha/estacoes/{n}/proxima  monta a próxima fornada da estação
+ *   POST   /cozinha/fornadas/{id}/concluir marca a fornada como pronta
+ *   GET    /estatisticas                  resumo do sistema (e da replicação, se houver)
+ */
+public class ServidorHttp {
+    private static final String CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+
+    private final ClienteService clienteService;
+    private final CardapioService cardapioService;
+    private final PedidoService pedidoService;
+    private final EscalonadorCozinha escalonadorCozinha;
+    private final int porta;
+    private volatile Supplier<ResumoReplicacao> replicacao;
+    private HttpServer servidor;
+    private ExecutorService executor;
+
+    public ServidorHttp(ClienteService clienteService, CardapioService cardapioService,
+                        PedidoService pedidoService, EscalonadorCozinha escalonadorCozinha, int porta) {
+        this.clienteService = clienteService;
+        this.cardapioService = cardapioService;
+        this.pedidoService = pedidoService;
+        this.escalonadorCozinha = escalonadorCozinha;
+        this.porta = porta;
+    }
+
+    /**
+     * Inclui o estado da replicação (primário ou standby) nas estatísticas
+     */
+    public void setReplicacao(Supplier<ResumoReplicacao> replicacao) {
+        this.replicacao = replicacao;
+    }
+
+    /**
+     * Inicia o servidor na porta configurada
+     */
+    public void iniciar() throws IOException {
+        // Backlog alto para absorver rajadas de conexões dos tablets
+        servidor = HttpServer.create(new InetSocketAddress(porta), 1024);
+        executor = ThreadUtils.novoExecutorPorTarefa("http", Runtime.getRuntime().availableProcessors() * 8);
+        servidor.setExecutor(executor);
+
+        servidor.createContext("/clientes", this::tratarClientes);
+        servidor.createContext("/cardapio", this::tratarCardapio);
+        servidor.createContext("/pedidos", this::tratarPedidos);
+        servidor.createContext("/cozinha", this::tratarCozinha);
+        servidor.createContext("/estatisticas", this::tratarEstatisticas);
+
+        servidor.start();
+    }
+
+    /**
+     * Encerra o servidor aguardando as requisições em andamento
+     */
+    public void parar() {
+        if (servidor != null) {
+            servidor.stop(1);
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public int getPorta() {
+        return servidor != null ? servidor.getAddress().getPort() : porta;
+    }
+
+    // ========== ROTAS ==========
+
+    private void tratarClientes(HttpExchange troca) throws IOException {
+        executar(troca, () -> {
+            exigirMetodo(troca, "GET");
+            String[] partes = caminho(troca, "/clientes");
+
+            Cliente cliente;
+            if (partes.length == 1) {
+                cliente = clienteService.buscarPorId(lerInteiro(partes[0], "id"));
+            } else {
+                String telefone = parametros(troca).get("telefone");
+                if (telefone == null) {
+                    throw new RequisicaoInvalidaException(400, "Informe o parâmetro telefone");
+                }
+                cliente = clienteService.buscarPorTelefone(telefone);
+            }
+            return JsonPersistence.toJson(cliente);
+        });
+    }
+
+    private void tratarCardapio(HttpExchange troca) throws IOException {
+        executar(troca, () -> {
+            exigirMetodo(troca, "GET");
+            Map<String, Object> cardapio = new HashMap<>();
+            cardapio.put("pizzas", cardapioService.listarTodasPizzas());
+            cardapio.put("bebidas", cardapioService.listarTodasBebidas());
+            return JsonPersistence.toJson(cardapio);
+        });
+    }
+
+    private void tratarPedidos(HttpExchange troca) throws IOException {
+        executar(troca, () -> {
+            String metodo = troca.getRequestMethod();
+            String[] partes = caminho(troca, "/pedidos");
+
+            if (partes.length == 0 && metodo.equals("POST")) {
+                return criarPedido(lerCorpo(troca));
+            }
+            if (partes.length == 0) {
+                throw new RequisicaoInvalidaException(405, "Método não suportado");
+            }
+
+            int pedidoId = lerInteiro(partes[0], "id do pedido");
+            if (partes.length == 1 && metodo.equals("GET")) {
+                return pedidoParaJson(pedidoService.buscarPorId(pedidoId));
+            }
+            if (partes.length == 2 && partes[1].equals("previsao") && metodo.equals("GET")) {
+                pedidoService.buscarPorId(pedidoId);
+                LocalDateTime previsao = escalonadorCozinha.estimarConclusao(pedidoId);
+                Map<String, Object> resposta = new HashMap<>();
+                resposta.put("pedidoId", pedidoId);
+                resposta.put("previsao", previsao != null ? previsao.toString() : null);
+                resposta.put("pizzasNaCozinha", escalonadorCozinha.listarTarefas(pedidoId).size());
+                return JsonPersistence.toJson(resposta);
+            }
+            if (partes.length == 2 && partes[1].equals("status") && metodo.equals("PUT")) {
+                JsonObject corpo = lerCorpo(troca);
+                StatusPedido novoStatus = lerStatus(texto(corpo, "status"));
+                pedidoService.atualizarStatusPedido(pedidoId, novoStatus);
+                return pedidoParaJson(pedidoService.buscarPorId(pedidoId));
+            }
+            if (partes.length == 2 && partes[1].equals("itens") && metodo.equals("POST")) {
+                ItemPedido item = lerItem(lerCorpo(troca));
+                pedidoService.adicionarItemAoPedido(pedidoId, item);
+                return pedidoParaJson(pedidoService.buscarPorId(pedidoId));
+            }
+            if (partes.length == 3 && partes[1].equals("itens") && metodo.equals("DELETE")) {
+                ItemCardapio item = cardapioService.buscarItemPorId(lerInteiro(partes[2], "id do item"));
+                if (item == null) {
+                    throw new RequisicaoInvalidaException(404, "Item não encontrado no cardápio");
+                }
+                pedidoService.removerItemDoPedido(pedidoId, item);
+                return pedidoParaJson(pedidoService.buscarPorId(pedidoId));
+            }
+            throw new RequisicaoInvalidaException(404, "Rota não encontrada");
+        });
+    }
+
+    private void tratarCozinha(HttpExchange troca) throws IOException {
+        executar(troca, () -> {
+            String metodo = troca.getRequestMethod();
+            String[] partes = caminho(troca, "/cozinha");
+
+            if (partes.length == 0 && metodo.equals("GET")) {
+                return JsonPersistence.toJson(escalonadorCozinha.getResumoEstacoes());
+            }
+            if (partes.length == 1 && partes[0].equals("admissao") && metodo.equals("GET")) {
+                ControleAdmissao controle = pedidoService.getControleAdmissao();
+                if (controle == null) {
+                    throw new RequisicaoInvalidaException(404, "Controle de admissão desativado");
+                }
+                Map<String, Object> resposta = new HashMap<>();
+                resposta.put("pedidosAbertos", controle.getPedidosAbertos());
+                resposta.put("minutosPorEstacao", controle.getMinutosPorEstacao());
+                resposta.put("emEspera", controle.listarEspera());
+                resposta.put("resumo", controle.getResumo());
+                return JsonPersistence.toJson(resposta);
+            }
+            if (partes.length == 3 && partes[0].equals("estacoes") && partes[2].equals("proxima")
+                    && metodo.equals("POST")) {
+                Fornada fornada = escalonadorCozinha.proximaFornada(lerInteiro(partes[1], "estação"));
+                Map<String, Object> resposta = new HashMap<>();
+                resposta.put("fornada", fornada != null ? fornadaParaMapa(fornada) : null);
+                return JsonPersistence.toJson(resposta);
+            }
+            if (partes.length == 3 && partes[0].equals("fornadas") && partes[2].equals("concluir")
+                    && metodo.equals("POST")) {
+                List<Integer> pedidosProntos = escalonadorCozinha.concluirFornada(lerInteiro(partes[1], "id da fornada"));
+                Map<String, Object> resposta = new HashMap<>();
+                resposta.put("pedidosProntos", pedidosProntos);
+                return JsonPersistence.toJson(resposta);
+            }
+            throw new RequisicaoInvalidaException(404, "Rota não encontrada");
+        });
+    }
+
+    private void tratarEstatisticas(HttpExchange troca) throws IOException {
+        executar(troca, () -> {
+            exigirMetodo(troca, "GET");
+            Map<String, Object> estatisticas = new HashMap<>();
+            estatisticas.put("clientes", clienteService.getTotalClientes());
+            estatisticas.put("cardapio", cardapioService.getEstatisticas());
+            estatisticas.put("pedidos", pedidoService.getEstatisticas());
+            estatisticas.put("faturamentoDoDia", pedidoService.calcularFaturamentoDoDia());
+            estatisticas.put("faturamentoTotal", pedidoService.calcularFaturamentoTotal());
+            Supplier<ResumoReplicacao> fonte = replicacao;
+            if (fonte != null) {
+                ResumoReplicacao resumo = fonte.get();
+                Map<String, Object> dados = new HashMap<>();
+                dados.put("papel", resumo.getPapel());
+                dados.put("conectado", resumo.isConectado());
+                dados.put("lotes", resumo.getLotes());
+                dados.put("alteracoes", resumo.getAlteracoes());
+                dados.put("pendentes", resumo.getPendentes());
+                dados.put("atrasoMillis", resumo.getAtrasoMillis());
+                estatisticas.put("replicacao", dados);
+            }
+            return JsonPersistence.toJson(estatisticas);
+        });
+    }
+
+    private String criarPedido(JsonObject corpo) throws Exception {
+        Cliente cliente;
+        if (corpo.has("clienteId")) {
+            cliente = clienteService.buscarPorId(corpo.get("clienteId").getAsInt());
+        } else {
+            cliente = clienteService.buscarPorTelefone(texto(corpo, "telefone"));
+        }
+
+        JsonArray itensJson = corpo.has("itens") ? corpo.getAsJsonArray("itens") : new JsonArray();
+        List<ItemPedido> itens = new ArrayList<>();
+        for (JsonElement itemJson : itensJson) {
+            itens.add(lerItem(itemJson.getAsJsonObject()));
+        }
+        if (itens.isEmpty()) {
+            throw new RequisicaoInvalidaException(400, "Pedido sem itens");
+        }
+
+        Pedido pedido;
+        if (corpo.has("enderecoEntrega")) {
+            Endereco endereco = JsonPersistence.fromJson(corpo.get("enderecoEntrega").toString(), Endereco.class);
+            pedido = pedidoService.criarPedidoDelivery(cliente, itens, endereco);
+        } else {
+            pedido = pedidoService.criarPedido(cliente, itens);
+        }
+        return pedidoParaJson(pedido);
+    }
+
+    // ========== AUXILIARES ==========
+
+    /**
+     * Serializa o pedido segurando o lock do serviço para não ler a lista de itens durante uma alteração
+     */
+    private String pedidoParaJson(Pedido pedido) {
+        synchronized (pedidoService) {
+            return JsonPersistence.toJson(pedido);
+        }
+    }
+
+    private Map<String, Object> fornadaParaMapa(Fornada fornada) {
+        Map<String, Object> mapa = new HashMap<>();
+        mapa.put("id", fornada.getId());
+        mapa.put("ticket", fornada.getTicket());
+        mapa.put("pizza", fornada.getNomePizza());
+        mapa.put("tamanho", fornada.getTamanho().getSigla());
+        mapa.put("quantidade", fornada.getQuantidade());
+        mapa.put("pedidos", fornada.getPedidos());
+        mapa.put("estacao", fornada.getEstacao());
+        mapa.put("minutos", fornada.getTempoPreparoMillis() / 60_000);
+        return mapa;
+    }
+
+    private ItemPedido lerItem(JsonObject json) throws RequisicaoInvalidaException {
+        if (!json.has("itemId")) {
+            throw new RequisicaoInvalidaException(400, "Campo obrigatório: itemId");
+        }
+        int quantidade = json.has("quantidade") ? json.get("quantidade").getAsInt() : 1;
+        Tamanho tamanho = null;
+        if (json.has("tamanho")) {
+            tamanho = Tamanho.porSigla(json.get("tamanho").getAsString());
+            if (tamanho == null) {
+                throw new RequisicaoInvalidaException(400, "Tamanho inválido! Use P, M ou G.");
+            }
+        }
+        return cardapioService.criarItemPedido(json.get("itemId").getAsInt(), tamanho, quantidade);
+    }
+
+    private StatusPedido lerStatus(String valor) throws RequisicaoInvalidaException {
+        try {
+            return StatusPedido.valueOf(valor.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RequisicaoInvalidaException(400, "Status inválido: " + valor);
+        }
+    }
+
+    private String texto(JsonObject json, String campo) throws RequisicaoInvalidaException {
+        if (!json.has(campo)) {
+            throw new RequisicaoInvalidaException(400, "Campo obrigatório: " + campo);
+        }
+        return json.get(campo).getAsString();
+    }
+
+    private int lerInteiro(String valor, String nome) throws RequisicaoInvalidaException {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new RequisicaoInvalidaException(400, "Valor inválido para " + nome + ": " + valor);
+        }
+    }
+
+    private void exigirMetodo(HttpExchange troca, String metodo) throws RequisicaoInvalidaException {
+        if (!troca.getRequestMethod().equals(metodo)) {
+            throw new RequisicaoInvalidaException(405, "Método não suportado");
+        }
+    }
+
+    private String[] caminho(HttpExchange troca, String contexto) {
+        String restante = troca.getRequestURI().getPath().substring(contexto.length());
+        restante = restante.replaceAll("^/+|/+$", "");
+        return restante.isEmpty() ? new String[0] : restante.split("/");
+    }
+
+    private Map<String, String> parametros(HttpExchange troca) {
+        Map<String, String> parametros = new HashMap<>();
+        String query = troca.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parametros;
+        }
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                               URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametros;
+    }
+
+    private JsonObject lerCorpo(HttpExchange troca) throws IOException, RequisicaoInvalidaException {
+        try (InputStream entrada = troca.getRequestBody()) {
+            String corpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+            if (corpo.isBlank()) {
+                return new JsonObject();
+            }
+            return JsonParser.parseString(corpo).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new RequisicaoInvalidaException(400, "JSON inválido");
+        }
+    }
+
+    /**
+     * Executa a rota e converte exceções de negócio em códigos HTTP
+     */
+    private void executar(HttpExchange troca, Rota rota) throws IOException {
+        int status;
+        String resposta;
+        try {
+            resposta = rota.executar();
+            status = troca.getRequestMethod().equals("POST") ? 201 : 200;
+        } catch (RequisicaoInvalidaException e) {
+            status = e.getStatus();
+            resposta = erro(e.getMessage());
+        } catch (ClienteNaoEncontradoException e) {
+            status = 404;
+            resposta = erro(e.getMessage());
+        } catch (PedidoInvalidoException e) {
+            status = e.getStatusAtual() == null && e.getPedidoId() != 0 ? 404 : 409;
+            resposta = erro(e.getMessage());
+        } catch (EstoqueInsuficienteException e) {
+            status = 422;
+            resposta = erro(e.getMessage());
+        } catch (CapacidadeExcedidaException e) {
+            // Cozinha saturada: o cliente (tablet/site) deve tentar de novo mais tarde
+            status = 503;
+            resposta = erro(e.getMessage());
+            troca.getResponseHeaders().set("Retry-After", "60");
+        } catch (IllegalArgumentException | IllegalStateException | JsonParseException e) {
+            status = 400;
+            resposta = erro(e.getMessage());
+        } catch (Exception e) {
+            status = 500;
+            resposta = erro("Erro interno: " + e.getMessage());
+        }
+        responder(troca, status, resposta);
+    }
+
+    private void responder(HttpExchange troca, int status, String corpo) throws IOException {
+        // Tamanho fixo na resposta mantém a conexão aberta (keep-alive) para a próxima requisição
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", CONTENT_TYPE_JSON);
+        troca.sendResponseHeaders(status, bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+
+    private String erro(String mensagem) {
+        Map<String, String> erro = new HashMap<>();
+        erro.put("erro", mensagem);
+        return JsonPersistence.toJson(erro);
+    }
+
+    @FunctionalInterface
+    private interface Rota {
+        String executar() throws Exception;
+    }
+
+    /**
+     * Erro de requisição com o código HTTP a ser devolvido
+     */
+    private static class RequisicaoInvalidaException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        RequisicaoInvalidaException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        int getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.pizzaria.cozinha;
+
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.evento.TipoEventoPedido;
+import com.pizzaria.model.ItemPedido;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.Pizza;
+import com.pizzaria.model.StatusPedido;
+import com.pizzaria.model.Tamanho;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escalonador da cozinha: transforma pedidos confirmados (EM_PREPARO) em
+ * tarefas por pizza e distribui entre as estações de forno.
+ *
+ * Cada estação tem sua fila ordenada pelo prazo limite da pizza, que vem do
+ * horário do pedido mais o prazo da faixa (delivery antes de balcão). Assim,
+ * pedidos mais antigos passam naturalmente à frente. Uma estação ociosa sem
+ * fila própria rouba a tarefa mais urgente da estação mais carregada.
+ *
+ * Quando uma estação puxa trabalho, a pizza mais urgente vira uma fornada que
+ * recebe também pizzas iguais (mesmo ID e tamanho) de outros pedidos na fila de
+ * qualquer estação, cujo prazo caia dentro da janela de agrupamento. Como a
+ * fornada leva o tempo de uma pizza só, agrupar nunca atrasa a pizza mais
+ * urgente e só adianta as demais.
+ */
+public class EscalonadorCozinha implements OuvinteEventoPedido {
+    private static final int CAPACIDADE_FORNADA_PADRAO = 4;
+    private static final int JANELA_AGRUPAMENTO_PADRAO_MINUTOS = 10;
+
+    private final Estacao[] estacoes;
+    private final Map<Integer, List<TarefaPizza>> tarefasPorPedido;
+    private final Map<Long, Fornada> fornadasNoForno;
+    private final Map<Tamanho, Long> tempoPreparoPorTamanho;
+    private final Map<FaixaPrioridade, Long> prazoPorFaixa;
+    private final ReentrantLock lock;
+    private int capacidadeFornada;
+    private long janelaAgrupamentoMillis;
+    private long proximaTarefaId;
+    private long proximaFornadaId;
+    private long fornadasConcluidas;
+    private long pizzasConcluidas;
+    private final LongAdder decisoes;
+    private final LongAdder nanosEmDecisoes;
+
+    public EscalonadorCozinha(int numeroEstacoes) {
+        if (numeroEstacoes <= 0) {
+            throw new IllegalArgumentException("A cozinha precisa de pelo menos uma estação");
+        }
+        this.estacoes = new Estacao[numeroEstacoes];
+        for (int i = 0; i < numeroEstacoes; i++) {
+            estacoes[i] = new Estacao(i + 1);
+        }
+        this.tarefasPorPedido = new HashMap<>();
+        this.fornadasNoForno = new HashMap<>();
+        this.tempoPreparoPorTamanho = new EnumMap<>(Tamanho.class);
+        for (Tamanho tamanho : Tamanho.values()) {
+            tempoPreparoPorTamanho.put(tamanho, TimeUnit.MINUTES.toMillis(tamanho.getMinutosForno()));
+        }
+        this.prazoPorFaixa = new EnumMap<>(FaixaPrioridade.class);
+        for (FaixaPrioridade faixa : FaixaPrioridade.values()) {
+            prazoPorFaixa.put(faixa, TimeUnit.MINUTES.toMillis(faixa.getPrazoMinutos()));
+        }
+        this.lock = new ReentrantLock();
+        this.capacidadeFornada = CAPACIDADE_FORNADA_PADRAO;
+        this.janelaAgrupamentoMillis = TimeUnit.MINUTES.toMillis(JANELA_AGRUPAMENTO_PADRAO_MINUTOS);
+        this.proximaTarefaId = 1;
+        this.proximaFornadaId = 1;
+        this.decisoes = new LongAdder();
+        this.nanosEmDecisoes = new LongAdder();
+    }
+
+    /**
+     * Define o tempo de forno de uma pizza de determinado tamanho
+     */
+    public void definirTempoPreparo(Tamanho tamanho, int minutos) {
+        lock.lock();
+        try {
+            tempoPreparoPorTamanho.put(tamanho, TimeUnit.MINUTES.toMillis(minutos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Define o prazo, em minutos a partir do pedido, de uma faixa de prioridade
+     */
+    public void definirPrazo(FaixaPrioridade faixa, int minutos) {
+        lock.lock();
+        try {
+            prazoPorFaixa.put(faixa, TimeUnit.MINUTES.toMillis(minutos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Define quantas pizzas iguais cabem juntas em uma fornada (1 desliga o agrupamento)
+     */
+    public void definirCapacidadeFornada(int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("Capacidade da fornada deve ser positiva");
+        }
+        lock.lock();
+        try {
+            this.capacidadeFornada = capacidade;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Define a janela de agrupamento: uma pizza entra na fornada se seu prazo
+     * for no máximo esta quantidade de minutos depois do prazo da mais urgente
+     */
+    public void definirJanelaAgrupamento(int minutos) {
+        lock.lock();
+        try {
+            this.janelaAgrupamentoMillis = TimeUnit.MINUTES.toMillis(minutos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quebra o pedido em tarefas por pizza e distribui entre as estações
+     * menos carregadas. Bebidas não passam pela cozinha.
+     */
+    public void agendarPedido(Pedido pedido) {
+        long inicioDecisao = System.nanoTime();
+        lock.lock();
+        try {
+            if (tarefasPorPedido.containsKey(pedido.getId())) {
+                return; // já agendado
+            }
+
+            FaixaPrioridade faixa = faixaDoPedido(pedido);
+            long prazo = paraMillis(pedido.getDataHora()) + prazoPorFaixa.get(faixa);
+
+            List<TarefaPizza> tarefas = new ArrayList<>();
+            for (ItemPedido itemPedido : pedido.getItensDoPedido()) {
+                if (itemPedido.getItem() instanceof Pizza pizza) {
+                    long tempo = tempoPreparoPorTamanho.get(pizza.getTamanho());
+                    for (int i = 0; i < itemPedido.getQuantidade(); i++) {
+                        TarefaPizza tarefa = new TarefaPizza(proximaTarefaId++, pedido.getId(), pizza.getId(),
+                                                             pizza.getNome(), pizza.getTamanho(), faixa, tempo, prazo);
+                        estacaoMenosCarregada().enfileirar(tarefa);
+                        tarefas.add(tarefa);
+                    }
+                }
+            }
+            if (!tarefas.isEmpty()) {
+                tarefasPorPedido.put(pedido.getId(), tarefas);
+            }
+        } finally {
+            lock.unlock();
+            registrarDecisao(inicioDecisao);
+        }
+    }
+
+    /**
+     * Retira todas as tarefas de um pedido (cancelado ou já despachado)
+     */
+    public void removerPedido(int pedidoId) {
+        lock.lock();
+        try {
+            List<TarefaPizza> tarefas = tarefasPorPedido.remove(pedidoId);
+            if (tarefas == null) {
+                return;
+            }
+            for (TarefaPizza tarefa : tarefas) {
+                Estacao estacao = estacoes[tarefa.getEstacao() - 1];
+                if (tarefa.isEmPreparo()) {
+                    Fornada fornada = estacao.atual;
+                    fornada.removerTarefa(tarefa);
+                    if (fornada.isVazia()) {
+                        estacao.atual = null;
+                        fornadasNoForno.remove(fornada.getId());
+                    }
+                } else {
+                    estacao.remover(tarefa);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Monta e entrega à estação a próxima fornada. A pizza mais urgente vem da
+     * fila da estação ou, se ela estiver vazia, da estação mais carregada.
+     * @param numeroEstacao estação de 1 a getNumeroEstacoes()
+     * @return a fornada que entrou no forno, ou null se não há nada a fazer
+     */
+    public Fornada proximaFornada(int numeroEstacao) {
+        long inicioDecisao = System.nanoTime();
+        lock.lock();
+        try {
+            Estacao estacao = estacao(numeroEstacao);
+            if (estacao.atual != null) {
+                throw new IllegalStateException("Estação " + numeroEstacao + " já está com uma pizza no forno");
+            }
+
+            TarefaPizza cabeca = estacao.desenfileirar();
+            if (cabeca == null) {
+                Estacao vitima = estacaoMaisCarregada();
+                if (vitima == null) {
+                    return null;
+                }
+                cabeca = vitima.desenfileirar();
+            }
+
+            List<TarefaPizza> tarefas = agrupar(cabeca);
+            long inicio = System.currentTimeMillis();
+            for (TarefaPizza tarefa : tarefas) {
+                tarefa.setEstacao(estacao.numero);
+                tarefa.setInicio(inicio);
+            }
+
+            Fornada fornada = new Fornada(proximaFornadaId++, estacao.numero, inicio, tarefas);
+            estacao.atual = fornada;
+            fornadasNoForno.put(fornada.getId(), fornada);
+            return fornada;
+        } finally {
+            lock.unlock();
+            registrarDecisao(inicioDecisao);
+        }
+    }
+
+    /**
+     * Marca a fornada como pronta e libera a estação
+     * @return IDs dos pedidos que ficaram com todas as pizzas prontas
+     */
+    public List<Integer> concluirFornada(long fornadaId) {
+        lock.lock();
+        try {
+            Fornada fornada = fornadasNoForno.remove(fornadaId);
+            if (fornada == null) {
+                throw new IllegalArgumentException("Fornada não está no forno: " + fornadaId);
+            }
+            estacoes[fornada.getEstacao() - 1].atual = null;
+            fornadasConcluidas++;
+            pizzasConcluidas += fornada.getQuantidade();
+
+            List<Integer> pedidosProntos = new ArrayList<>();
+            for (TarefaPizza tarefa : fornada.getTarefas()) {
+                List<TarefaPizza> tarefas = tarefasPorPedido.get(tarefa.getPedidoId());
+                tarefas.remove(tarefa);
+                if (tarefas.isEmpty()) {
+                    tarefasPorPedido.remove(tarefa.getPedidoId());
+                    pedidosProntos.add(tarefa.getPedidoId());
+                }
+            }
+            return pedidosProntos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estima quando a última pizza do pedido sai do forno, considerando o que
+     * está à frente dela na fila de cada estação. A estimativa é conservadora:
+     * não conta com agrupamentos futuros em fornadas.
+     * @return a previsão, ou null se o pedido não tem pizzas na cozinha
+     */
+    public LocalDateTime estimarConclusao(int pedidoId) {
+        lock.lock();
+        try {
+            List<TarefaPizza> tarefas = tarefasPorPedido.get(pedidoId);
+            if (tarefas == null) {
+                return null;
+            }
+
+            long agora = System.currentTimeMillis();
+            long previsao = agora;
+            for (TarefaPizza tarefa : tarefas) {
+                long fim;
+                if (tarefa.isEmPreparo()) {
+                    fim = Math.max(agora, tarefa.getInicio() + tarefa.getTempoPreparoMillis());
+                } else {
+                    Estacao estacao = estacoes[tarefa.getEstacao() - 1];
+                    fim = agora + estacao.restanteAtual(agora) + estacao.tempoAFrente(tarefa)
+                          + tarefa.getTempoPreparoMillis();
+                }
+                previsao = Math.max(previsao, fim);
+            }
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(previsao), ZoneId.systemDefault());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lista as tarefas de um pedido ainda na cozinha
+     */
+    public List<TarefaPizza> listarTarefas(int pedidoId) {
+        lock.lock();
+        try {
+            List<TarefaPizza> tarefas = tarefasPorPedido.get(pedidoId);
+            return tarefas != null ? new ArrayList<>(tarefas) : new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtém um resumo das estações (pizza no forno e tamanho da fila)
+     */
+    public List<String> getResumoEstacoes() {
+        lock.lock();
+        try {
+            long agora = System.currentTimeMillis();
+            List<String> resumo = new ArrayList<>();
+            for (Estacao estacao : estacoes) {
+                String atual = estacao.atual != null
+                        ? String.format("fornada #%d, %dx %s (%s) dos pedidos %s, faltam %d min",
+                                        estacao.atual.getId(), estacao.atual.getQuantidade(),
+                                        estacao.atual.getNomePizza(), estacao.atual.getTamanho().getSigla(),
+                                        estacao.atual.getPedidos(),
+                                        TimeUnit.MILLISECONDS.toMinutes(estacao.restanteAtual(agora)))
+                        : "livre";
+                resumo.add(String.format("Estação %d: %s | fila: %d pizzas (%d min)", estacao.numero, atual,
+                                         estacao.fila.size(), TimeUnit.MILLISECONDS.toMinutes(estacao.cargaFila)));
+            }
+            return resumo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getNumeroEstacoes() {
+        return estacoes.length;
+    }
+
+    /**
+     * Média de pizzas por fornada concluída (1.0 quando nada foi agrupado)
+     */
+    public double getMediaPizzasPorFornada() {
+        lock.lock();
+        try {
+            return fornadasConcluidas == 0 ? 0.0 : (double) pizzasConcluidas / fornadasConcluidas;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tempo médio, em nanossegundos, das decisões de agendamento e distribuição
+     */
+    public long getTempoMedioDecisaoNanos() {
+        long total = decisoes.sum();
+        return total == 0 ? 0 : nanosEmDecisoes.sum() / total;
+    }
+
+    /**
+     * Mantém a cozinha em dia com os eventos do PedidoService
+     */
+    @Override
+    public void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        if (evento.getTipo() == TipoEventoPedido.CANCELADO) {
+            removerPedido(evento.getPedidoId());
+        } else if (evento.getTipo() == TipoEventoPedido.STATUS_ALTERADO) {
+            if (evento.getStatusNovo() == StatusPedido.EM_PREPARO) {
+                agendarPedido(evento.getPedido());
+            } else {
+                removerPedido(evento.getPedidoId()); // saiu para entrega ou concluído
+            }
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private FaixaPrioridade faixaDoPedido(Pedido pedido) {
+        // Sem o cliente carregado não dá para comparar endereços: trata como balcão
+        return pedido.getCliente() != null && pedido.isDelivery()
+                ? FaixaPrioridade.DELIVERY
+                : FaixaPrioridade.BALCAO;
+    }
+
+    /**
+     * Junta à pizza mais urgente as pizzas iguais enfileiradas em qualquer estação,
+     * dentro da janela de agrupamento, até a capacidade da fornada
+     */
+    private List<TarefaPizza> agrupar(TarefaPizza cabeca) {
+        List<TarefaPizza> tarefas = new ArrayList<>();
+        tarefas.add(cabeca);
+        if (capacidadeFornada == 1) {
+            return tarefas;
+        }
+
+        long prazoMaximo = cabeca.getPrazoLimite() + janelaAgrupamentoMillis;
+        List<TarefaPizza> candidatas = new ArrayList<>();
+        for (Estacao estacao : estacoes) {
+            for (TarefaPizza tarefa : estacao.fila) {
+                if (tarefa.getPizzaId() == cabeca.getPizzaId()
+                        && tarefa.getTamanho() == cabeca.getTamanho()
+                        && tarefa.getPrazoLimite() <= prazoMaximo) {
+                    candidatas.add(tarefa);
+                }
+            }
+        }
+
+        // As mais urgentes primeiro
+        candidatas.sort(null);
+        for (TarefaPizza tarefa : candidatas) {
+            if (tarefas.size() >= capacidadeFornada) {
+                break;
+            }
+            estacoes[tarefa.getEstacao() - 1].remover(tarefa);
+            tarefas.add(tarefa);
+        }
+        return tarefas;
+    }
+
+    private Estacao estacao(int numeroEstacao) {
+        if (numeroEstacao < 1 || numeroEstacao > estacoes.length) {
+            throw new IllegalArgumentException("Estação inválida: " + numeroEstacao);
+        }
+        return estacoes[numeroEstacao - 1];
+    }
+
+    private Estacao estacaoMenosCarregada() {
+        long agora = System.currentTimeMillis();
+        Estacao escolhida = estacoes[0];
+        long menorCarga = Long.MAX_VALUE;
+        for (Estacao estacao : estacoes) {
+            long carga = estacao.cargaFila + estacao.restanteAtual(agora);
+            if (carga < menorCarga) {
+                menorCarga = carga;
+                escolhida = estacao;
+            }
+        }
+        return escolhida;
+    }
+
+    private Estacao estacaoMaisCarregada() {
+        Estacao escolhida = null;
+        for (Estacao estacao : estacoes) {
+            if (!estacao.fila.isEmpty() && (escolhida == null || estacao.cargaFila > escolhida.cargaFila)) {
+                escolhida = estacao;
+            }
+        }
+        return escolhida;
+    }
+
+    private void registrarDecisao(long inicioNanos) {
+        decisoes.increment();
+        nanosEmDecisoes.add(System.nanoTime() - inicioNanos);
+    }
+
+    private static long paraMillis(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Estação de forno: uma fornada por vez e uma fila própria ordenada por prazo
+     */
+    private static class Estacao {
+        private final int numero;
+        private final PriorityQueue<TarefaPizza> fila;
+        private long cargaFila;
+        private Fornada atual;
+
+        Estacao(int numero) {
+            this.numero = numero;
+            this.fila = new PriorityQueue<>();
+        }
+
+        void enfileirar(TarefaPizza tarefa) {
+            tarefa.setEstacao(numero);
+            fila.add(tarefa);
+            cargaFila += tarefa.getTempoPreparoMillis();
+        }
+
+        TarefaPizza desenfileirar() {
+            TarefaPizza tarefa = fila.poll();
+            if (tarefa != null) {
+                cargaFila -= tarefa.getTempoPreparoMillis();
+            }
+            return tarefa;
+        }
+
+        void remover(TarefaPizza tarefa) {
+            if (fila.remove(tarefa)) {
+                cargaFila -= tarefa.getTempoPreparoMillis();
+            }
+        }
+
+        long restanteAtual(long agora) {
+            if (atual == null) {
+                return 0;
+            }
+            return Math.max(0, atual.getFimPrevisto() - agora);
+        }
+
+        long tempoAFrente(TarefaPizza tarefa) {
+            long tempo = 0;
+            for (TarefaPizza outra : fila) {
+                if (outra.compareTo(tarefa) < 0) {
+                    tempo += outra.getTempoPreparoMillis();
+                }
+            }
+            return tempo;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.pizzaria.cozinha;
+
+/**
+ * Enum que representa as faixas de prioridade da cozinha.
+ * O prazo de cada faixa é somado ao horário do pedido para definir a ordem
+ * de preparo: delivery precisa sair antes porque ainda tem o tempo de entrega.
+ */
+public enum FaixaPrioridade {
+    DELIVERY("Delivery", 25),
+    BALCAO("Balcão", 35);
+
+    private final String descricao;
+    private final int prazoMinutos;
+
+    FaixaPrioridade(String descricao, int prazoMinutos) {
+        this.descricao = descricao;
+        this.prazoMinutos = prazoMinutos;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * Prazo padrão, em minutos a partir do pedido, para as pizzas saírem do forno
+     */
+    public int getPrazoMinutos() {
+        return prazoMinutos;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -0,0 +1,114 @@
+package com.pizzaria.cozinha;
+
+import com.pizzaria.model.Tamanho;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe que representa uma fornada (ticket de forno): pizzas iguais
+ * (mesmo ID e tamanho), possivelmente de pedidos diferentes, assadas juntas
+ * em uma estação. O tempo de forno é o de uma pizza só.
+ */
+public class Fornada {
+    private final long id;
+    private final int pizzaId;
+    private final String nomePizza;
+    private final Tamanho tamanho;
+    private final int estacao;
+    private final long inicio;
+    private final long tempoPreparoMillis;
+    private final List<TarefaPizza> tarefas;
+
+    public Fornada(long id, int estacao, long inicio, List<TarefaPizza> tarefas) {
+        if (tarefas.isEmpty()) {
+            throw new IllegalArgumentException("Fornada sem pizzas");
+        }
+        TarefaPizza primeira = tarefas.get(0);
+        this.id = id;
+        this.pizzaId = primeira.getPizzaId();
+        this.nomePizza = primeira.getNomePizza();
+        this.tamanho = primeira.getTamanho();
+        this.estacao = estacao;
+        this.inicio = inicio;
+        this.tempoPreparoMillis = primeira.getTempoPreparoMillis();
+        this.tarefas = new ArrayList<>(tarefas);
+    }
+
+    // Getters
+    public long getId() {
+        return id;
+    }
+
+    public int getPizzaId() {
+        return pizzaId;
+    }
+
+    public String getNomePizza() {
+        return nomePizza;
+    }
+
+    public Tamanho getTamanho() {
+        return tamanho;
+    }
+
+    public int getEstacao() {
+        return estacao;
+    }
+
+    public long getInicio() {
+        return inicio;
+    }
+
+    public long getTempoPreparoMillis() {
+        return tempoPreparoMillis;
+    }
+
+    /**
+     * Instante (epoch millis) previsto para a fornada sair do forno
+     */
+    public long getFimPrevisto() {
+        return inicio + tempoPreparoMillis;
+    }
+
+    public List<TarefaPizza> getTarefas() {
+        return new ArrayList<>(tarefas);
+    }
+
+    public int getQuantidade() {
+        return tarefas.size();
+    }
+
+    /**
+     * IDs dos pedidos atendidos por esta fornada, sem repetição
+     */
+    public List<Integer> getPedidos() {
+        return tarefas.stream()
+                      .map(TarefaPizza::getPedidoId)
+                      .distinct()
+                      .toList();
+    }
+
+    // Métodos de negócio
+    boolean removerTarefa(TarefaPizza tarefa) {
+        return tarefas.remove(tarefa);
+    }
+
+    boolean isVazia() {
+        return tarefas.isEmpty();
+    }
+
+    /**
+     * Texto do ticket impresso para a estação
+     */
+    public String getTicket() {
+        return String.format("FORNADA #%d - Estação %d - %dx %s (%s) - pedidos %s",
+                           id, estacao, tarefas.size(), nomePizza, tamanho.getSigla(), getPedidos());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Fornada{id=%d, pizza='%s', tamanho=%s, quantidade=%d, estacao=%d}",
+                           id, nomePizza, tamanho.getSigla(), tarefas.size(), estacao);
+    }
+}
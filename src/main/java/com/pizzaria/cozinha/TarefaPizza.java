@@ -0,0 +1,118 @@
+package com.pizzaria.cozinha;
+
+import com.pizzaria.model.Tamanho;
+
+/**
+ * Classe que representa uma pizza a ser assada (uma unidade de um ItemPedido)
+ * Ordenada pelo prazo limite; empates são resolvidos pela ordem de chegada
+ */
+public class TarefaPizza implements Comparable<TarefaPizza> {
+    private final long id;
+    private final int pedidoId;
+    private final int pizzaId;
+    private final String nomePizza;
+    private final Tamanho tamanho;
+    private final FaixaPrioridade faixa;
+    private final long tempoPreparoMillis;
+    private final long prazoLimite;
+    private int estacao;
+    private long inicio;
+
+    public TarefaPizza(long id, int pedidoId, int pizzaId, String nomePizza, Tamanho tamanho,
+                       FaixaPrioridade faixa, long tempoPreparoMillis, long prazoLimite) {
+        this.id = id;
+        this.pedidoId = pedidoId;
+        this.pizzaId = pizzaId;
+        this.nomePizza = nomePizza;
+        this.tamanho = tamanho;
+        this.faixa = faixa;
+        this.tempoPreparoMillis = tempoPreparoMillis;
+        this.prazoLimite = prazoLimite;
+        this.estacao = -1;
+    }
+
+    // Getters
+    public long getId() {
+        return id;
+    }
+
+    public int getPedidoId() {
+        return pedidoId;
+    }
+
+    public int getPizzaId() {
+        return pizzaId;
+    }
+
+    public String getNomePizza() {
+        return nomePizza;
+    }
+
+    public Tamanho getTamanho() {
+        return tamanho;
+    }
+
+    public FaixaPrioridade getFaixa() {
+        return faixa;
+    }
+
+    public long getTempoPreparoMillis() {
+        return tempoPreparoMillis;
+    }
+
+    /**
+     * Instante (epoch millis) em que a pizza deveria sair do forno
+     */
+    public long getPrazoLimite() {
+        return prazoLimite;
+    }
+
+    public int getEstacao() {
+        return estacao;
+    }
+
+    void setEstacao(int estacao) {
+        this.estacao = estacao;
+    }
+
+    /**
+     * Instante (epoch millis) em que entrou no forno, ou 0 se ainda está na fila
+     */
+    public long getInicio() {
+        return inicio;
+    }
+
+    void setInicio(long inicio) {
+        this.inicio = inicio;
+    }
+
+    public boolean isEmPreparo() {
+        return inicio > 0;
+    }
+
+    @Override
+    public int compareTo(TarefaPizza outra) {
+        int comparacao = Long.compare(prazoLimite, outra.prazoLimite);
+        return comparacao != 0 ? comparacao : Long.compare(id, outra.id);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TarefaPizza{id=%d, pedido=%d, pizza='%s', tamanho=%s, faixa=%s, estacao=%d}",
+                           id, pedidoId, nomePizza, tamanho.getSigla(), faixa, estacao);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        TarefaPizza that = (TarefaPizza) obj;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+}
@@ -0,0 +1,284 @@
+package com.pizzaria.evento;
+
+import com.pizzaria.model.ItemCardapio;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.StatusPedido;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Barramento de eventos de pedido sobre um anel pré-alocado.
+ *
+ * O produtor apenas reserva uma sequência, sobrescreve o slot correspondente do
+ * anel e não espera consumidores. O anel não aloca por evento, mas quem publica
+ * passa uma cópia do pedido (new Pedido): os ouvintes a leem em outras threads
+ * enquanto o serviço segue alterando o original. É uma alocação por evento, em
+ * troca de não haver lock entre o serviço e os ouvintes.
+ *
+ * Pode haver vários produtores ao mesmo tempo (o PedidoServiceParticionado publica
+ * das threads das partições e de quem confirma uma unidade de trabalho): cada um
+ * escreve só o slot da sequência que reservou. Cada consumidor roda em sua própria
+ * thread, lê em lotes tudo o que foi publicado desde a última leitura e, se ficar
+ * mais de uma volta atrás dos produtores, descarta os eventos sobrescritos
+ * (contados em getPerdidos).
+ *
+ * Cada slot tem um carimbo de sequência (seqlock): -1 enquanto está sendo escrito
+ * e a sequência publicada depois. O produtor só toma o slot quando o carimbo é o da
+ * volta anterior, então dois produtores nunca escrevem o mesmo slot juntos. O
+ * consumidor copia o slot e confere o carimbo antes e depois da cópia para nunca
+ * entregar um evento misturado.
+ */
+public class BarramentoEventosPedido {
+    private static final int CAPACIDADE_PADRAO = 4096;
+    private static final int GIROS_ANTES_DE_CEDER = 200;
+    private static final int CESSOES_ANTES_DE_DORMIR = 50;
+
+    private final EventoPedido[] anel;
+    private final AtomicLongArray carimbos;
+    private final int mascara;
+    private final AtomicLong proximaSequencia;
+    private final List<Consumidor> consumidores;
+
+    public BarramentoEventosPedido() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    public BarramentoEventosPedido(int capacidade) {
+        if (capacidade <= 0 || Integer.bitCount(capacidade) != 1) {
+            throw new IllegalArgumentException("Capacidade do anel deve ser potência de 2");
+        }
+        this.anel = new EventoPedido[capacidade];
+        this.carimbos = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            anel[i] = new EventoPedido();
+            carimbos.set(i, i - (long) capacidade); // slot ainda não publicado
+        }
+        this.mascara = capacidade - 1;
+        this.proximaSequencia = new AtomicLong(0);
+        this.consumidores = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Publica um evento de pedido. Não espera consumidores; só gira enquanto outro
+     * produtor, uma volta do anel atrás, ainda termina de escrever o mesmo slot.
+     */
+    public void publicar(TipoEventoPedido tipo, Pedido pedido, StatusPedido statusAnterior,
+                         ItemCardapio item, int quantidade) {
+        long sequencia = proximaSequencia.getAndIncrement();
+        int indice = (int) (sequencia & mascara);
+
+        // Outro produtor uma volta atrás ainda escrevendo este slot: espera ele terminar
+        long voltaAnterior = sequencia - anel.length;
+        while (!carimbos.compareAndSet(indice, voltaAnterior, -1)) {
+            Thread.onSpinWait();
+        }
+        VarHandle.storeStoreFence();
+        anel[indice].preencher(tipo, pedido, statusAnterior, item, quantidade, System.currentTimeMillis());
+        carimbos.set(indice, sequencia);
+
+        for (Consumidor consumidor : consumidores) {
+            if (consumidor.dormindo) {
+                LockSupport.unpark(consumidor.thread);
+            }
+        }
+    }
+
+    /**
+     * Publica um evento sem item associado
+     */
+    public void publicar(TipoEventoPedido tipo, Pedido pedido, StatusPedido statusAnterior) {
+        publicar(tipo, pedido, statusAnterior, null, 0);
+    }
+
+    /**
+     * Inscreve um ouvinte em uma thread própria. Ele recebe os eventos
+     * publicados a partir deste momento.
+     */
+    public Consumidor inscrever(String nome, OuvinteEventoPedido ouvinte) {
+        Consumidor consumidor = new Consumidor(nome, ouvinte, proximaSequencia.get());
+        consumidores.add(consumidor);
+        consumidor.thread.start();
+        return consumidor;
+    }
+
+    /**
+     * Encerra todos os consumidores
+     */
+    public void encerrar() {
+        for (Consumidor consumidor : consumidores) {
+            consumidor.cancelar();
+        }
+    }
+
+    /**
+     * Obtém o total de eventos publicados
+     */
+    public long getPublicados() {
+        return proximaSequencia.get();
+    }
+
+    public int getCapacidade() {
+        return anel.length;
+    }
+
+    /**
+     * Tenta copiar o evento da sequência informada.
+     * @return 1 se copiou, 0 se ainda não foi publicado, -1 se já foi sobrescrito
+     */
+    private int copiar(long sequencia, EventoPedido destino) {
+        int indice = (int) (sequencia & mascara);
+        long antes = carimbos.get(indice);
+        if (antes != sequencia) {
+            return antes > sequencia ? -1 : 0;
+        }
+        destino.copiarDe(anel[indice]);
+        VarHandle.loadLoadFence();
+        return carimbos.get(indice) == sequencia ? 1 : -1;
+    }
+
+    /**
+     * Consumidor com thread dedicada e sequência própria
+     */
+    public class Consumidor implements Runnable {
+        private final String nome;
+        private final OuvinteEventoPedido ouvinte;
+        private final EventoPedido evento;
+        private final Thread thread;
+        private volatile long proxima;
+        private volatile boolean ativo;
+        private volatile boolean dormindo;
+        private final AtomicLong perdidos;
+
+        private Consumidor(String nome, OuvinteEventoPedido ouvinte, long inicio) {
+            this.nome = nome;
+            this.ouvinte = ouvinte;
+            this.evento = new EventoPedido();
+            this.proxima = inicio;
+            this.ativo = true;
+            this.perdidos = new AtomicLong();
+            this.thread = new Thread(this, "eventos-" + nome);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int ociosidade = 0;
+            while (ativo) {
+                long disponivel = proximaSequencia.get() - 1;
+                if (disponivel < proxima) {
+                    ociosidade = esperar(ociosidade);
+                    continue;
+                }
+                ociosidade = 0;
+                processarLote(disponivel);
+            }
+        }
+
+        private void processarLote(long disponivel) {
+            long sequencia = proxima;
+
+            // Ficou mais de uma volta atrás: pula para o evento mais antigo ainda no anel
+            long maisAntigo = disponivel - anel.length + 1;
+            if (sequencia < maisAntigo) {
+                perdidos.addAndGet(maisAntigo - sequencia);
+                sequencia = maisAntigo;
+            }
+
+            while (sequencia <= disponivel && ativo) {
+                int resultado = copiar(sequencia, evento);
+                if (resultado == 0) {
+                    // Produtor reservou a sequência mas ainda está escrevendo o slot
+                    Thread.onSpinWait();
+                    continue;
+                }
+                if (resultado > 0) {
+                    try {
+                        ouvinte.aoEvento(evento, sequencia, sequencia == disponivel);
+                    } catch (RuntimeException e) {
+                        System.err.println("Erro no consumidor de eventos '" + nome + "': " + e.getMessage());
+                    }
+                } else {
+                    perdidos.incrementAndGet();
+                }
+                sequencia++;
+            }
+            proxima = sequencia;
+        }
+
+        /**
+         * Espera progressiva: gira, cede a CPU e por fim dorme até ser acordado pelo produtor.
+         * Sem prazo: o consumidor marca dormindo antes de reler a sequência e o produtor
+         * incrementa a sequência antes de ler dormindo, então um dos dois sempre vê o outro.
+         */
+        private int esperar(int ociosidade) {
+            if (ociosidade < GIROS_ANTES_DE_CEDER) {
+                Thread.onSpinWait();
+            } else if (ociosidade < GIROS_ANTES_DE_CEDER + CESSOES_ANTES_DE_DORMIR) {
+                Thread.yield();
+            } else {
+                dormindo = true;
+                if (proximaSequencia.get() - 1 < proxima) {
+                    LockSupport.park(this);
+                }
+                dormindo = false;
+            }
+            return ociosidade + 1;
+        }
+
+        /**
+         * Para a thread do consumidor
+         */
+        public void cancelar() {
+            ativo = false;
+            consumidores.remove(this);
+            LockSupport.unpark(thread);
+        }
+
+        /**
+         * Aguarda até o consumidor processar todos os eventos publicados até agora
+         * @return true se alcançou o produtor dentro do prazo
+         */
+        public boolean aguardar(long timeoutMillis) {
+            long alvo = proximaSequencia.get();
+            long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (proxima < alvo) {
+                if (System.nanoTime() > limite) {
+                    return false;
+                }
+                LockSupport.parkNanos(50_000);
+            }
+            return true;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        /**
+         * Eventos já entregues ou descartados por este consumidor
+         */
+        public long getProcessados() {
+            return proxima;
+        }
+
+        /**
+         * Eventos descartados porque o consumidor ficou mais de uma volta atrás
+         */
+        public long getPerdidos() {
+            return perdidos.get();
+        }
+
+        /**
+         * Quantos eventos publicados ainda não foram lidos
+         */
+        public long getAtraso() {
+            return Math.max(0, proximaSequencia.get() - proxima);
+        }
+    }
+}
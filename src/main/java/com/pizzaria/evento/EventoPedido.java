@@ -0,0 +1,125 @@
+package com.pizzaria.evento;
+
+import com.pizzaria.model.ItemCardapio;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.StatusPedido;
+import com.pizzaria.util.Dinheiro;
+
+/**
+ * Evento de pedido publicado no barramento.
+ * As instâncias são pré-alocadas no anel e reaproveitadas: o produtor só
+ * sobrescreve os campos, sem criar objetos por evento.
+ */
+public class EventoPedido {
+    private TipoEventoPedido tipo;
+    private int pedidoId;
+    private int clienteId;
+    private StatusPedido statusAnterior;
+    private StatusPedido statusNovo;
+    private long valorTotalCentavos;
+    private long instante;
+    private Pedido pedido;
+    private ItemCardapio item;
+    private int quantidade;
+
+    // Construtor padrão (usado na pré-alocação do anel)
+    public EventoPedido() {
+    }
+
+    /**
+     * Preenche o evento com os dados de uma publicação
+     */
+    void preencher(TipoEventoPedido tipo, Pedido pedido, StatusPedido statusAnterior,
+                   ItemCardapio item, int quantidade, long instante) {
+        this.tipo = tipo;
+        this.pedidoId = pedido.getId();
+        this.clienteId = pedido.getClienteId();
+        this.statusAnterior = statusAnterior;
+        this.statusNovo = pedido.getStatus();
+        this.valorTotalCentavos = pedido.getValorTotalCentavos();
+        this.instante = instante;
+        this.pedido = pedido;
+        this.item = item;
+        this.quantidade = quantidade;
+    }
+
+    /**
+     * Copia todos os campos de outro evento
+     */
+    void copiarDe(EventoPedido outro) {
+        this.tipo = outro.tipo;
+        this.pedidoId = outro.pedidoId;
+        this.clienteId = outro.clienteId;
+        this.statusAnterior = outro.statusAnterior;
+        this.statusNovo = outro.statusNovo;
+        this.valorTotalCentavos = outro.valorTotalCentavos;
+        this.instante = outro.instante;
+        this.pedido = outro.pedido;
+        this.item = outro.item;
+        this.quantidade = outro.quantidade;
+    }
+
+    // Getters
+    public TipoEventoPedido getTipo() {
+        return tipo;
+    }
+
+    public int getPedidoId() {
+        return pedidoId;
+    }
+
+    public int getClienteId() {
+        return clienteId;
+    }
+
+    public StatusPedido getStatusAnterior() {
+        return statusAnterior;
+    }
+
+    public StatusPedido getStatusNovo() {
+        return statusNovo;
+    }
+
+    /**
+     * Valor total do pedido no momento da publicação
+     */
+    public double getValorTotal() {
+        return Dinheiro.paraReais(valorTotalCentavos);
+    }
+
+    public long getValorTotalCentavos() {
+        return valorTotalCentavos;
+    }
+
+    /**
+     * Instante da publicação em milissegundos desde a época
+     */
+    public long getInstante() {
+        return instante;
+    }
+
+    /**
+     * Pedido de origem. Os campos acima são uma cópia do momento da publicação;
+     * o pedido em si pode já ter mudado quando o evento for consumido.
+     */
+    public Pedido getPedido() {
+        return pedido;
+    }
+
+    /**
+     * Item afetado (apenas em ITEM_ADICIONADO e ITEM_REMOVIDO)
+     */
+    public ItemCardapio getItem() {
+        return item;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EventoPedido{tipo=%s, pedido=%d, status=%s->%s, valorTotal=R$%.2f}",
+                           tipo, pedidoId, statusAnterior, statusNovo, getValorTotal());
+    }
+}
@@ -0,0 +1,18 @@
+package com.pizzaria.evento;
+
+/**
+ * Interface para quem consome eventos de pedido do BarramentoEventosPedido.
+ * O evento recebido é reutilizado pelo consumidor: copie os campos necessários,
+ * não guarde a referência.
+ */
+@FunctionalInterface
+public interface OuvinteEventoPedido {
+
+    /**
+     * Trata um evento
+     * @param evento o evento (reutilizado a cada chamada)
+     * @param sequencia posição do evento no barramento
+     * @param fimDoLote true no último evento disponível do lote atual
+     */
+    void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote);
+}
@@ -0,0 +1,27 @@
+package com.pizzaria.evento;
+
+/**
+ * Enum que representa os tipos de evento publicados pelo PedidoService
+ */
+public enum TipoEventoPedido {
+    CRIADO("Pedido criado"),
+    ITEM_ADICIONADO("Item adicionado"),
+    ITEM_REMOVIDO("Item removido"),
+    STATUS_ALTERADO("Status alterado"),
+    CANCELADO("Pedido cancelado");
+
+    private final String descricao;
+
+    TipoEventoPedido(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -0,0 +1,30 @@
+package com.pizzaria.exception;
+
+/**
+ * Exceção lançada quando a cozinha está saturada e um novo pedido é recusado
+ */
+public class CapacidadeExcedidaException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private int pedidosAbertos;
+    private long minutosPorEstacao;
+
+    public CapacidadeExcedidaException(String message) {
+        super(message);
+    }
+
+    public CapacidadeExcedidaException(String motivo, int pedidosAbertos, long minutosPorEstacao) {
+        super(String.format("Pedido recusado: %s (%d pedidos abertos, %d min de forno por estação)",
+                          motivo, pedidosAbertos, minutosPorEstacao));
+        this.pedidosAbertos = pedidosAbertos;
+        this.minutosPorEstacao = minutosPorEstacao;
+    }
+
+    public int getPedidosAbertos() {
+        return pedidosAbertos;
+    }
+
+    public long getMinutosPorEstacao() {
+        return minutosPorEstacao;
+    }
+}
@@ -4,6 +4,8 @@ package com.pizzaria.exception;
  * Exceção lançada quando um cliente não é encontrado
  */
 public class ClienteNaoEncontradoException extends Exception {
+    private static final long serialVersionUID = 1L;
+
     private int clienteId;
     private String telefone;
 
@@ -4,6 +4,8 @@ package com.pizzaria.exception;
  * Exceção lançada quando não há estoque suficiente de um ingrediente
  */
 public class EstoqueInsuficienteException extends Exception {
+    private static final long serialVersionUID = 1L;
+
     private String nomeIngrediente;
     private int quantidadeDisponivel;
     private int quantidadeSolicitada;
@@ -6,6 +6,8 @@ import com.pizzaria.model.StatusPedido;
  * Exceção lançada quando uma operação inválida é realizada em um pedido
  */
 public class PedidoInvalidoException extends Exception {
+    private static final long serialVersionUID = 1L;
+
     private int pedidoId;
     private StatusPedido statusAtual;
 
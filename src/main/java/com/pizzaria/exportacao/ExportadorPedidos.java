@@ -0,0 +1,371 @@
+package com.pizzaria.exportacao;
+
+import com.pizzaria.model.Endereco;
+import com.pizzaria.model.ItemCardapio;
+import com.pizzaria.model.ItemPedido;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.Pizza;
+import com.pizzaria.service.PedidoService;
+import com.pizzaria.service.VisaoPedidos;
+import com.pizzaria.util.Dinheiro;
+import com.pizzaria.util.ThreadUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Exportação de pedidos e itens de um período para CSV ou para um layout contábil
+ * de largura fixa.
+ *
+ * Os pedidos são lidos de uma visão de leitura (PedidoService.abrirVisao()), sem montar
+ * a lista do histórico, e cada um é escrito assim que lido em um canal de arquivo com
+ * buffer; a memória usada é a mesma para qualquer tamanho de histórico. A exportação
+ * por dia grava um arquivo por dia a partir de uma única passada pela visão: os pedidos
+ * são separados por dia em lotes e só a escrita dos arquivos é paralela (cada dia
+ * sempre pela mesma thread, na ordem da visão). Os arquivos correspondem ao mesmo
+ * instante, sem travar os caixas.
+ *
+ * CSV (UTF-8, separador ";", decimais com vírgula): uma linha por item, com os dados
+ * do pedido repetidos; pedidos sem itens saem em uma linha com as colunas de item vazias.
+ *
+ * Largura fixa (ASCII, sem acentos, valores em centavos com zeros à esquerda):
+ * <pre>
+ * P pedido(10) dataHora AAAAMMDDhhmmss(14) status(20) clienteId(10) cliente(30) bairro(20) valor(13)
+ * I pedido(10) itemId(10) item(30) tamanho(10) quantidade(6) precoUnitario(13) subtotal(13)
+ * T pedidos(10) itens(10) valorTotal(15)
+ * </pre>
+ * Um registro P por pedido, seguido dos registros I dos seus itens; o T fecha o arquivo.
+ */
+public class ExportadorPedidos {
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final int PEDIDOS_POR_LOTE = 512;
+    private static final int LOTES_EM_ESCRITA_POR_THREAD = 4;
+    private static final String CABECALHO_CSV = "pedido;data_hora;status;cliente_id;cliente;bairro;valor_pedido;"
+            + "item_id;item;tamanho;quantidade;preco_unitario;subtotal";
+    private static final DateTimeFormatter DATA_HORA_CSV = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter DATA_HORA_FIXA = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final PedidoService pedidoService;
+
+    public ExportadorPedidos(PedidoService pedidoService) {
+        this.pedidoService = pedidoService;
+    }
+
+    /**
+     * Exporta os pedidos feitos no período (inclusive) para um único arquivo
+     */
+    public ResultadoExportacao exportar(LocalDate inicio, LocalDate fim, FormatoExportacao formato, Path arquivo)
+            throws IOException {
+        ResultadoExportacao resultado = new ResultadoExportacao();
+        try (VisaoPedidos visao = pedidoService.abrirVisao();
+             Arquivo saida = new Arquivo(formato, arquivo)) {
+            saida.abrir();
+            percorrer(visao, inicio, fim, saida);
+            saida.fechar(resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Exporta cada dia do período para o seu arquivo (pedidos-AAAA-MM-DD.extensão) no
+     * diretório, com até `threads` arquivos sendo escritos ao mesmo tempo. Dias sem
+     * pedidos não geram arquivo.
+     */
+    public ResultadoExportacao exportarPorDia(LocalDate inicio, LocalDate fim, FormatoExportacao formato,
+                                              Path diretorio, int threads) throws IOException {
+        Files.createDirectories(diretorio);
+        List<ExecutorService> escritores = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            escritores.add(Executors.newSingleThreadExecutor(ThreadUtils.novaFabrica("exportacao", true)));
+        }
+        // Limita os lotes esperando escrita: a passada não se adianta muito aos arquivos
+        Semaphore lotesEmEscrita = new Semaphore(escritores.size() * LOTES_EM_ESCRITA_POR_THREAD);
+        Map<LocalDate, Dia> dias = new TreeMap<>();
+        List<Future<?>> escritas = new ArrayList<>();
+        try (VisaoPedidos visao = pedidoService.abrirVisao()) {
+            visao.percorrer(inicio, fim, pedido -> {
+                LocalDate data = pedido.getDataHora().toLocalDate();
+                Dia dia = dias.computeIfAbsent(data, d -> new Dia(
+                        new Arquivo(formato, diretorio.resolve("pedidos-" + d + "." + formato.getExtensao())),
+                        escritores.get(dias.size() % escritores.size())));
+                dia.lote.add(pedido);
+                if (dia.lote.size() >= PEDIDOS_POR_LOTE) {
+                    escritas.add(enviarLote(dia, lotesEmEscrita));
+                }
+            });
+            for (Dia dia : dias.values()) {
+                if (!dia.lote.isEmpty()) {
+                    escritas.add(enviarLote(dia, lotesEmEscrita));
+                }
+            }
+            for (Future<?> escrita : escritas) {
+                aguardar(escrita);
+            }
+
+            ResultadoExportacao resultado = new ResultadoExportacao();
+            for (Dia dia : dias.values()) {
+                try (Arquivo saida = dia.arquivo) {
+                    saida.fechar(resultado);
+                }
+            }
+            return resultado;
+        } finally {
+            for (ExecutorService escritor : escritores) {
+                escritor.shutdownNow();
+            }
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Entrega o lote acumulado do dia à thread que escreve o arquivo dele
+     */
+    private Future<?> enviarLote(Dia dia, Semaphore lotesEmEscrita) {
+        List<Pedido> lote = dia.lote;
+        dia.lote = new ArrayList<>();
+        lotesEmEscrita.acquireUninterruptibly();
+        return dia.escritor.submit(() -> {
+            try (Arquivo saida = dia.arquivo) {
+                for (Pedido pedido : lote) {
+                    saida.escrever(pedido);
+                }
+            } finally {
+                lotesEmEscrita.release();
+            }
+            return null;
+        });
+    }
+
+    private void percorrer(VisaoPedidos visao, LocalDate inicio, LocalDate fim, Arquivo saida) throws IOException {
+        try {
+            visao.percorrer(inicio, fim, pedido -> {
+                try {
+                    saida.escrever(pedido);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void aguardar(Future<?> escrita) throws IOException {
+        try {
+            escrita.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw (Error) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportação interrompida", e);
+        }
+    }
+
+    private static String dinheiroCsv(long centavos) {
+        return Dinheiro.paraDecimal(centavos).toPlainString().replace('.', ',');
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(';') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Texto sem acentos, cortado ou completado com espaços até a largura
+     */
+    private static String textoFixo(String valor, int largura) {
+        String texto = valor == null ? "" : Normalizer.normalize(valor, Normalizer.Form.NFD)
+                                                      .replaceAll("\\p{M}", "")
+                                                      .replaceAll("[^\\x20-\\x7E]", "?");
+        if (texto.length() >= largura) {
+            return texto.substring(0, largura);
+        }
+        return texto + " ".repeat(largura - texto.length());
+    }
+
+    /**
+     * Número com zeros à esquerda (o sinal de negativos ocupa a primeira posição)
+     */
+    private static String numeroFixo(long valor, int largura) {
+        String numero = String.format("%0" + largura + "d", valor);
+        return numero.length() > largura ? numero.substring(numero.length() - largura) : numero;
+    }
+
+    /**
+     * Arquivo de um dia, a thread que o escreve e os pedidos ainda não entregues a ela
+     */
+    private static final class Dia {
+        private final Arquivo arquivo;
+        private final ExecutorService escritor;
+        private List<Pedido> lote;
+
+        private Dia(Arquivo arquivo, ExecutorService escritor) {
+            this.arquivo = arquivo;
+            this.escritor = escritor;
+            this.lote = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Arquivo de destino com os totais do que já foi escrito. Pode ser fechado e
+     * reaberto: só a primeira abertura cria o arquivo, as outras acrescentam no fim.
+     */
+    private static final class Arquivo implements AutoCloseable {
+        private final FormatoExportacao formato;
+        private final Path caminho;
+        private Writer escritor;
+        private boolean criado;
+        private long pedidos;
+        private long itens;
+        private long valorCentavos;
+
+        private Arquivo(FormatoExportacao formato, Path caminho) {
+            this.formato = formato;
+            this.caminho = caminho;
+        }
+
+        private void abrir() throws IOException {
+            if (escritor != null) {
+                return;
+            }
+            if (caminho.getParent() != null) {
+                Files.createDirectories(caminho.getParent());
+            }
+            FileChannel canal = criado
+                    ? FileChannel.open(caminho, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                    : FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                       StandardOpenOption.TRUNCATE_EXISTING);
+            CharsetEncoder codificador = formato.getCharset().newEncoder()
+                                                .onMalformedInput(CodingErrorAction.REPLACE)
+                                                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            escritor = new BufferedWriter(Channels.newWriter(canal, codificador, TAMANHO_BUFFER), TAMANHO_BUFFER);
+            if (criado) {
+                return;
+            }
+            criado = true;
+            if (formato == FormatoExportacao.CSV) {
+                escritor.write(CABECALHO_CSV);
+                escritor.write('\n');
+            }
+        }
+
+        private void escrever(Pedido pedido) throws IOException {
+            abrir();
+            pedidos++;
+            valorCentavos += pedido.getValorTotalCentavos();
+            itens += pedido.getItensDoPedido().size();
+            switch (formato) {
+                case CSV -> escreverCsv(pedido);
+                case LARGURA_FIXA -> escreverLarguraFixa(pedido);
+            }
+        }
+
+        /**
+         * Escreve o rodapé (no layout de largura fixa) e soma este arquivo ao resultado
+         */
+        private void fechar(ResultadoExportacao resultado) throws IOException {
+            if (!criado) {
+                return;
+            }
+            if (formato == FormatoExportacao.LARGURA_FIXA) {
+                abrir();
+                escritor.write("T" + numeroFixo(pedidos, 10) + numeroFixo(itens, 10) + numeroFixo(valorCentavos, 15));
+                escritor.write('\n');
+            }
+            close();
+            resultado.adicionar(caminho, pedidos, itens, valorCentavos);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (escritor != null) {
+                Writer aberto = escritor;
+                escritor = null;
+                aberto.close();
+            }
+        }
+
+        private void escreverCsv(Pedido pedido) throws IOException {
+            String dadosPedido = pedido.getId() + ";" + pedido.getDataHora().format(DATA_HORA_CSV) + ";"
+                    + pedido.getStatus().name() + ";" + pedido.getClienteId() + ";"
+                    + campoCsv(nomeCliente(pedido)) + ";" + campoCsv(bairro(pedido)) + ";"
+                    + dinheiroCsv(pedido.getValorTotalCentavos()) + ";";
+            if (pedido.getItensDoPedido().isEmpty()) {
+                escritor.write(dadosPedido + ";;;;;");
+                escritor.write('\n');
+                return;
+            }
+            for (ItemPedido itemPedido : pedido.getItensDoPedido()) {
+                ItemCardapio item = itemPedido.getItem();
+                escritor.write(dadosPedido);
+                escritor.write(item.getId() + ";" + campoCsv(item.getNome()) + ";" + tamanho(item) + ";"
+                        + itemPedido.getQuantidade() + ";" + dinheiroCsv(itemPedido.getPrecoUnitarioCentavos()) + ";"
+                        + dinheiroCsv(itemPedido.calcularSubtotalCentavos()));
+                escritor.write('\n');
+            }
+        }
+
+        private void escreverLarguraFixa(Pedido pedido) throws IOException {
+            escritor.write("P" + numeroFixo(pedido.getId(), 10) + pedido.getDataHora().format(DATA_HORA_FIXA)
+                    + textoFixo(pedido.getStatus().name(), 20) + numeroFixo(pedido.getClienteId(), 10)
+                    + textoFixo(nomeCliente(pedido), 30) + textoFixo(bairro(pedido), 20)
+                    + numeroFixo(pedido.getValorTotalCentavos(), 13));
+            escritor.write('\n');
+            for (ItemPedido itemPedido : pedido.getItensDoPedido()) {
+                ItemCardapio item = itemPedido.getItem();
+                escritor.write("I" + numeroFixo(pedido.getId(), 10) + numeroFixo(item.getId(), 10)
+                        + textoFixo(item.getNome(), 30) + textoFixo(tamanho(item), 10)
+                        + numeroFixo(itemPedido.getQuantidade(), 6)
+                        + numeroFixo(itemPedido.getPrecoUnitarioCentavos(), 13)
+                        + numeroFixo(itemPedido.calcularSubtotalCentavos(), 13));
+                escritor.write('\n');
+            }
+        }
+
+        private static String nomeCliente(Pedido pedido) {
+            return pedido.getCliente() != null ? pedido.getCliente().getNome() : "";
+        }
+
+        private static String bairro(Pedido pedido) {
+            Endereco endereco = pedido.getEnderecoEntrega();
+            return endereco != null && endereco.getBairro() != null ? endereco.getBairro() : "";
+        }
+
+        private static String tamanho(ItemCardapio item) {
+            return item instanceof Pizza pizza && pizza.getTamanho() != null ? pizza.getTamanho().name() : "";
+        }
+    }
+}
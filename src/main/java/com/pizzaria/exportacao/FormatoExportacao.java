@@ -0,0 +1,39 @@
+package com.pizzaria.exportacao;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formatos de arquivo da exportação de pedidos
+ */
+public enum FormatoExportacao {
+    CSV("CSV (separado por ponto e vírgula)", "csv", StandardCharsets.UTF_8),
+    LARGURA_FIXA("Layout contábil de largura fixa", "txt", StandardCharsets.US_ASCII);
+
+    private final String descricao;
+    private final String extensao;
+    private final Charset charset;
+
+    FormatoExportacao(String descricao, String extensao, Charset charset) {
+        this.descricao = descricao;
+        this.extensao = extensao;
+        this.charset = charset;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -0,0 +1,56 @@
+package com.pizzaria.exportacao;
+
+import com.pizzaria.util.Dinheiro;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Classe que resume uma exportação: arquivos gerados, pedidos, linhas de itens e valor
+ */
+public class ResultadoExportacao {
+    private final List<Path> arquivos;
+    private long pedidos;
+    private long itens;
+    private long valorCentavos;
+
+    ResultadoExportacao() {
+        this.arquivos = new ArrayList<>();
+    }
+
+    void adicionar(Path arquivo, long pedidos, long itens, long valorCentavos) {
+        arquivos.add(arquivo);
+        this.pedidos += pedidos;
+        this.itens += itens;
+        this.valorCentavos += valorCentavos;
+    }
+
+    // Getters
+    public List<Path> getArquivos() {
+        return Collections.unmodifiableList(arquivos);
+    }
+
+    public long getPedidos() {
+        return pedidos;
+    }
+
+    public long getItens() {
+        return itens;
+    }
+
+    public double getValor() {
+        return Dinheiro.paraReais(valorCentavos);
+    }
+
+    public long getValorCentavos() {
+        return valorCentavos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d pedidos e %d itens exportados em %d arquivo(s) - Valor: R$%.2f",
+                pedidos, itens, arquivos.size(), getValor());
+    }
+}
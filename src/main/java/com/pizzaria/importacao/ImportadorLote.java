@@ -0,0 +1,398 @@
+package com.pizzaria.importacao;
+
+import com.pizzaria.model.Bebida;
+import com.pizzaria.model.Cliente;
+import com.pizzaria.model.Endereco;
+import com.pizzaria.model.ItemCardapio;
+import com.pizzaria.model.ItemPedido;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.Pizza;
+import com.pizzaria.model.StatusPedido;
+import com.pizzaria.model.Tamanho;
+import com.pizzaria.service.CardapioService;
+import com.pizzaria.service.ClienteService;
+import com.pizzaria.service.PedidoService;
+import com.pizzaria.util.Dinheiro;
+import com.pizzaria.util.UnidadeDeTrabalho;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Importação em lote de clientes e pedidos históricos a partir de CSV (UTF-8,
+ * separador ";", com cabeçalho), para a carga inicial de uma nova filial.
+ *
+ * Os registros são lidos um a um, validados e resolvidos em memória (clientes pelo
+ * telefone, itens pelo nome, sem diferenciar maiúsculas e acentos); os IDs são
+ * atribuídos em blocos e o arquivo JSON de destino é gravado uma única vez no fim,
+ * em vez de uma vez por registro como em criarCliente/criarPedido. Linhas rejeitadas
+ * vão com o motivo para `arquivo.rejeitados.csv`, ao lado do arquivo importado.
+ *
+ * Clientes: nome;telefone;logradouro;numero;bairro;cidade;cep
+ *
+ * Pedidos (uma linha por item; linhas seguidas com o mesmo código formam um pedido):
+ * pedido;data_hora;status;telefone;item;tamanho;quantidade;preco_unitario
+ * <ul>
+ *   <li>data_hora: AAAA-MM-DD hh:mm[:ss] ou dd/MM/AAAA hh:mm</li>
+ *   <li>status: nome do StatusPedido (vazio: CONCLUIDO)</li>
+ *   <li>tamanho: P, M ou G, só para pizzas (vazio: o tamanho da pizza no cardápio)</li>
+ *   <li>preco_unitario: com vírgula ou ponto (vazio: o preço atual do cardápio)</li>
+ * </ul>
+ * Um erro em qualquer linha rejeita o pedido inteiro. Os pedidos não consomem estoque
+ * e entram sem horários por status, como os pedidos gravados antes desse registro.
+ *
+ * Deve rodar com o sistema parado: os serviços recebidos são os únicos donos dos arquivos.
+ */
+public class ImportadorLote {
+    private static final int TAMANHO_BLOCO = 10_000;
+    private static final DateTimeFormatter[] FORMATOS_DATA_HORA = {
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]"),
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm[:ss]"),
+        DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm[:ss]")
+    };
+
+    private final ClienteService clienteService;
+    private final CardapioService cardapioService;
+    private final PedidoService pedidoService;
+
+    public ImportadorLote(ClienteService clienteService, CardapioService cardapioService,
+                          PedidoService pedidoService) {
+        this.clienteService = clienteService;
+        this.cardapioService = cardapioService;
+        this.pedidoService = pedidoService;
+    }
+
+    /**
+     * Importa clientes; telefones já cadastrados (ou repetidos no arquivo) são rejeitados
+     */
+    public ResultadoImportacao importarClientes(Path arquivo) throws IOException {
+        ResultadoImportacao resultado = new ResultadoImportacao(arquivo);
+        Map<String, Cliente> porTelefone = indexarClientes();
+        List<Cliente> novos = new ArrayList<>();
+
+        try (LeitorCsv leitor = new LeitorCsv(Files.newBufferedReader(arquivo, StandardCharsets.UTF_8));
+             Rejeitados rejeitados = new Rejeitados(arquivo, resultado)) {
+            List<String> registro;
+            while ((registro = leitor.proximo()) != null) {
+                if (vazio(registro)) {
+                    continue;
+                }
+                String nome = leitor.valor(registro, "nome");
+                String telefone = leitor.valor(registro, "telefone");
+                String motivo = null;
+                if (nome.isEmpty()) {
+                    motivo = "nome vazio";
+                } else if (telefone.isEmpty()) {
+                    motivo = "telefone vazio";
+                } else if (porTelefone.containsKey(telefone)) {
+                    motivo = "telefone já cadastrado: " + telefone;
+                }
+                if (motivo != null) {
+                    rejeitados.rejeitar(leitor.getLinha(), motivo, registro);
+                    continue;
+                }
+
+                Endereco endereco = new Endereco(leitor.valor(registro, "logradouro"), leitor.valor(registro, "numero"),
+                                                 leitor.valor(registro, "bairro"), leitor.valor(registro, "cidade"),
+                                                 leitor.valor(registro, "cep"));
+                Cliente cliente = new Cliente(0, nome, telefone, endereco);
+                porTelefone.put(telefone, cliente);
+                novos.add(cliente);
+                resultado.registrarImportado(0);
+            }
+        }
+
+        clienteService.importar(novos);
+        return resultado;
+    }
+
+    /**
+     * Importa pedidos históricos de clientes já cadastrados
+     */
+    public ResultadoImportacao importarPedidos(Path arquivo) throws IOException {
+        ResultadoImportacao resultado = new ResultadoImportacao(arquivo);
+        Map<String, Cliente> porTelefone = indexarClientes();
+        Map<String, ItemCardapio> porNome = indexarCardapio();
+        Map<String, Pizza> pizzasPorTamanho = new HashMap<>();
+        List<Pedido> bloco = new ArrayList<>(TAMANHO_BLOCO);
+
+        // Dentro de uma unidade de trabalho o arquivo de pedidos fica travado do primeiro
+        // bloco até a gravação: outro processo não cria pedidos com os IDs reservados aqui
+        try (UnidadeDeTrabalho unidade = UnidadeDeTrabalho.iniciar()) {
+            try (LeitorCsv leitor = new LeitorCsv(Files.newBufferedReader(arquivo, StandardCharsets.UTF_8));
+                 Rejeitados rejeitados = new Rejeitados(arquivo, resultado)) {
+                PedidoEmMontagem atual = null;
+                List<String> registro;
+                while ((registro = leitor.proximo()) != null) {
+                    if (vazio(registro)) {
+                        continue;
+                    }
+                    String codigo = leitor.valor(registro, "pedido");
+                    if (atual == null || !atual.codigo.equals(codigo)) {
+                        concluir(atual, bloco, resultado, rejeitados);
+                        atual = new PedidoEmMontagem(codigo);
+                    }
+                    atual.linhas.add(leitor.getLinha());
+                    atual.registros.add(registro);
+                    if (atual.motivo == null) {
+                        atual.motivo = adicionarLinha(atual, leitor, registro, porTelefone, porNome, pizzasPorTamanho);
+                    }
+                }
+                concluir(atual, bloco, resultado, rejeitados);
+            }
+
+            if (!bloco.isEmpty()) {
+                pedidoService.importar(bloco);
+            }
+            pedidoService.concluirImportacao();
+            unidade.confirmar();
+        }
+        return resultado;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Valida uma linha e acrescenta o item ao pedido; devolve o motivo da rejeição ou null
+     */
+    private String adicionarLinha(PedidoEmMontagem atual, LeitorCsv leitor, List<String> registro,
+                                  Map<String, Cliente> porTelefone, Map<String, ItemCardapio> porNome,
+                                  Map<String, Pizza> pizzasPorTamanho) {
+        if (atual.codigo.isEmpty()) {
+            return "código do pedido vazio";
+        }
+
+        String textoDataHora = leitor.valor(registro, "data_hora");
+        String telefone = leitor.valor(registro, "telefone");
+        String textoStatus = leitor.valor(registro, "status");
+        if (atual.pedido == null) {
+            LocalDateTime dataHora = lerDataHora(textoDataHora);
+            if (dataHora == null) {
+                return "data_hora inválida: " + textoDataHora;
+            }
+            Cliente cliente = porTelefone.get(telefone);
+            if (cliente == null) {
+                return "cliente não cadastrado: " + telefone;
+            }
+            StatusPedido status;
+            try {
+                status = textoStatus.isEmpty() ? StatusPedido.CONCLUIDO
+                                               : StatusPedido.valueOf(textoStatus.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return "status inválido: " + textoStatus;
+            }
+
+            atual.pedido = new Pedido(0, cliente);
+            atual.pedido.setDataHora(dataHora);
+            if (status != StatusPedido.PENDENTE) {
+                atual.pedido.setStatus(status);
+                atual.pedido.registrarHorarioStatus(status, null); // horário real da transição desconhecido
+            }
+            atual.dataHora = textoDataHora;
+            atual.telefone = telefone;
+            atual.status = textoStatus;
+        } else if (!textoDataHora.equals(atual.dataHora) || !telefone.equals(atual.telefone)
+                || !textoStatus.equals(atual.status)) {
+            return "linhas do pedido com data_hora, telefone ou status diferentes";
+        }
+
+        String nome = leitor.valor(registro, "item");
+        ItemCardapio item = porNome.get(normalizar(nome));
+        if (item == null) {
+            return "item não encontrado no cardápio: " + nome;
+        }
+        String textoTamanho = leitor.valor(registro, "tamanho");
+        if (item instanceof Pizza pizza) {
+            Tamanho tamanho = textoTamanho.isEmpty() ? pizza.getTamanho() : lerTamanho(textoTamanho);
+            if (tamanho == null) {
+                return "tamanho inválido: " + textoTamanho;
+            }
+            // Uma pizza por tamanho, compartilhada pelos itens (como a cópia feita pelo cardápio)
+            item = pizzasPorTamanho.computeIfAbsent(pizza.getId() + ":" + tamanho.name(), chave ->
+                    new Pizza(pizza.getId(), pizza.getNome(), pizza.getDescricao(), pizza.getPrecoBase(),
+                              tamanho, pizza.getIngredientes()));
+        } else if (!textoTamanho.isEmpty()) {
+            return "tamanho informado para item que não é pizza: " + nome;
+        }
+
+        String textoQuantidade = leitor.valor(registro, "quantidade");
+        int quantidade;
+        try {
+            quantidade = Integer.parseInt(textoQuantidade);
+        } catch (NumberFormatException e) {
+            return "quantidade inválida: " + textoQuantidade;
+        }
+        if (quantidade <= 0) {
+            return "quantidade inválida: " + textoQuantidade;
+        }
+
+        ItemPedido itemPedido = new ItemPedido(item, quantidade);
+        String textoPreco = leitor.valor(registro, "preco_unitario");
+        if (!textoPreco.isEmpty()) {
+            try {
+                long centavos = Dinheiro.paraCentavos(new BigDecimal(textoPreco.replace(',', '.')));
+                if (centavos < 0) {
+                    return "preco_unitario negativo: " + textoPreco;
+                }
+                itemPedido.setPrecoUnitarioCentavos(centavos);
+            } catch (NumberFormatException e) {
+                return "preco_unitario inválido: " + textoPreco;
+            }
+        }
+        atual.itens.add(itemPedido);
+        return null;
+    }
+
+    /**
+     * Fecha o pedido montado: vai para o bloco (gravado a cada TAMANHO_BLOCO) ou é rejeitado
+     */
+    private void concluir(PedidoEmMontagem montagem, List<Pedido> bloco, ResultadoImportacao resultado,
+                          Rejeitados rejeitados) throws IOException {
+        if (montagem == null) {
+            return;
+        }
+        if (montagem.motivo != null) {
+            for (int i = 0; i < montagem.linhas.size(); i++) {
+                rejeitados.rejeitar(montagem.linhas.get(i), montagem.motivo, montagem.registros.get(i));
+            }
+            return;
+        }
+        montagem.pedido.setItensDoPedido(montagem.itens);
+        bloco.add(montagem.pedido);
+        resultado.registrarImportado(montagem.itens.size());
+        if (bloco.size() >= TAMANHO_BLOCO) {
+            pedidoService.importar(bloco);
+            bloco.clear();
+        }
+    }
+
+    private Map<String, Cliente> indexarClientes() {
+        Map<String, Cliente> porTelefone = new HashMap<>();
+        for (Cliente cliente : clienteService.listarTodos()) {
+            porTelefone.put(cliente.getTelefone(), cliente);
+        }
+        return porTelefone;
+    }
+
+    private Map<String, ItemCardapio> indexarCardapio() {
+        Map<String, ItemCardapio> porNome = new HashMap<>();
+        for (Pizza pizza : cardapioService.listarTodasPizzas()) {
+            porNome.putIfAbsent(normalizar(pizza.getNome()), pizza);
+        }
+        for (Bebida bebida : cardapioService.listarTodasBebidas()) {
+            porNome.putIfAbsent(normalizar(bebida.getNome()), bebida);
+        }
+        return porNome;
+    }
+
+    private static LocalDateTime lerDataHora(String texto) {
+        for (DateTimeFormatter formato : FORMATOS_DATA_HORA) {
+            try {
+                return LocalDateTime.parse(texto, formato);
+            } catch (DateTimeParseException e) {
+                // tenta o próximo formato
+            }
+        }
+        return null;
+    }
+
+    private static Tamanho lerTamanho(String texto) {
+        Tamanho tamanho = Tamanho.porSigla(texto);
+        if (tamanho != null) {
+            return tamanho;
+        }
+        for (Tamanho candidato : Tamanho.values()) {
+            if (normalizar(candidato.getDescricao()).equals(normalizar(texto))) {
+                return candidato;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nome sem acentos, em minúsculas e sem espaços repetidos
+     */
+    private static String normalizar(String nome) {
+        return Normalizer.normalize(nome, Normalizer.Form.NFD)
+                         .replaceAll("\\p{M}", "")
+                         .trim()
+                         .replaceAll("\\s+", " ")
+                         .toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean vazio(List<String> registro) {
+        for (String campo : registro) {
+            if (!campo.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Pedido sendo montado a partir das suas linhas
+     */
+    private static final class PedidoEmMontagem {
+        private final String codigo;
+        private final List<Integer> linhas = new ArrayList<>();
+        private final List<List<String>> registros = new ArrayList<>();
+        private final List<ItemPedido> itens = new ArrayList<>();
+        private Pedido pedido;
+        private String dataHora;
+        private String telefone;
+        private String status;
+        private String motivo;
+
+        private PedidoEmMontagem(String codigo) {
+            this.codigo = codigo;
+        }
+    }
+
+    /**
+     * Arquivo de linhas rejeitadas (criado na primeira rejeição)
+     */
+    private static final class Rejeitados implements AutoCloseable {
+        private final Path caminho;
+        private final ResultadoImportacao resultado;
+        private BufferedWriter escritor;
+
+        private Rejeitados(Path arquivo, ResultadoImportacao resultado) {
+            this.caminho = arquivo.resolveSibling(arquivo.getFileName() + ".rejeitados.csv");
+            this.resultado = resultado;
+            resultado.setArquivoRejeitados(caminho);
+        }
+
+        private void rejeitar(int linha, String motivo, List<String> registro) throws IOException {
+            resultado.registrarRejeicao(linha, motivo);
+            if (escritor == null) {
+                escritor = Files.newBufferedWriter(caminho, StandardCharsets.UTF_8);
+                escritor.write("linha;motivo;registro\n");
+            }
+            escritor.write(linha + ";" + campo(motivo) + ";" + campo(String.join(";", registro)) + "\n");
+        }
+
+        private static String campo(String valor) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (escritor != null) {
+                escritor.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.pizzaria.importacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Leitor de CSV separado por ponto e vírgula que devolve um registro por vez.
+ * Campos entre aspas podem conter ";", aspas dobradas e quebras de linha.
+ * A primeira linha é o cabeçalho, e as colunas são encontradas pelo nome.
+ */
+class LeitorCsv implements Closeable {
+    private static final char SEPARADOR = ';';
+
+    private final Reader leitor;
+    private final Map<String, Integer> colunas;
+    private int linha;            // linha em que começa o registro atual
+    private int proximaLinha;
+    private int pendente = -2;    // caractere lido a mais (-2: nenhum)
+
+    LeitorCsv(Reader leitor) throws IOException {
+        this.leitor = leitor;
+        this.colunas = new HashMap<>();
+        this.proximaLinha = 1;
+        List<String> cabecalho = proximo();
+        if (cabecalho != null) {
+            for (int i = 0; i < cabecalho.size(); i++) {
+                colunas.put(cabecalho.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+    }
+
+    /**
+     * Próximo registro, ou null no fim do arquivo
+     */
+    List<String> proximo() throws IOException {
+        linha = proximaLinha;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        int c = ler();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1) {
+            if (entreAspas) {
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        devolver(seguinte);
+                    }
+                } else {
+                    if (c == '\n') {
+                        proximaLinha++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreAspas = true;
+            } else if (c == SEPARADOR) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n') {
+                proximaLinha++;
+                break;
+            } else if (c != '\r') {
+                campo.append((char) c);
+            }
+            c = ler();
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Valor da coluna no registro ("" se a coluna não existe ou o registro é curto)
+     */
+    String valor(List<String> registro, String coluna) {
+        Integer indice = colunas.get(coluna);
+        return indice != null && indice < registro.size() ? registro.get(indice).trim() : "";
+    }
+
+    boolean temColuna(String coluna) {
+        return colunas.containsKey(coluna);
+    }
+
+    /**
+     * Linha do arquivo em que começa o último registro lido
+     */
+    int getLinha() {
+        return linha;
+    }
+
+    @Override
+    public void close() throws IOException {
+        leitor.close();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private int ler() throws IOException {
+        if (pendente != -2) {
+            int c = pendente;
+            pendente = -2;
+            return c;
+        }
+        return leitor.read();
+    }
+
+    private void devolver(int c) {
+        pendente = c;
+    }
+}
@@ -0,0 +1,92 @@
+package com.pizzaria.importacao;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Classe que resume uma importação em lote: registros aceitos e linhas rejeitadas.
+ * Guarda só as primeiras rejeições; todas vão para o arquivo de rejeitados.
+ */
+public class ResultadoImportacao {
+    private static final int MAXIMO_REJEICOES_GUARDADAS = 100;
+
+    private final Path arquivo;
+    private long registrosImportados;
+    private long itensImportados;
+    private long linhasRejeitadas;
+    private final List<String> primeirasRejeicoes;
+    private Path arquivoRejeitados;
+
+    ResultadoImportacao(Path arquivo) {
+        this.arquivo = arquivo;
+        this.primeirasRejeicoes = new ArrayList<>();
+    }
+
+    void registrarImportado(int itens) {
+        registrosImportados++;
+        itensImportados += itens;
+    }
+
+    void registrarRejeicao(int linha, String motivo) {
+        linhasRejeitadas++;
+        if (primeirasRejeicoes.size() < MAXIMO_REJEICOES_GUARDADAS) {
+            primeirasRejeicoes.add("linha " + linha + ": " + motivo);
+        }
+    }
+
+    void setArquivoRejeitados(Path arquivoRejeitados) {
+        this.arquivoRejeitados = arquivoRejeitados;
+    }
+
+    // Getters
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * Clientes ou pedidos gravados
+     */
+    public long getRegistrosImportados() {
+        return registrosImportados;
+    }
+
+    /**
+     * Itens dos pedidos gravados (zero na importação de clientes)
+     */
+    public long getItensImportados() {
+        return itensImportados;
+    }
+
+    public long getLinhasRejeitadas() {
+        return linhasRejeitadas;
+    }
+
+    /**
+     * As primeiras rejeições ("linha N: motivo")
+     */
+    public List<String> getPrimeirasRejeicoes() {
+        return Collections.unmodifiableList(primeirasRejeicoes);
+    }
+
+    /**
+     * Arquivo com todas as linhas rejeitadas e os motivos, ou null se não houve rejeições
+     */
+    public Path getArquivoRejeitados() {
+        return linhasRejeitadas > 0 ? arquivoRejeitados : null;
+    }
+
+    @Override
+    public String toString() {
+        String resumo = arquivo.getFileName() + ": " + registrosImportados + " importados";
+        if (itensImportados > 0) {
+            resumo += " (" + itensImportados + " itens)";
+        }
+        resumo += ", " + linhasRejeitadas + " linhas rejeitadas";
+        if (getArquivoRejeitados() != null) {
+            resumo += " (ver " + arquivoRejeitados + ")";
+        }
+        return resumo;
+    }
+}
@@ -1,6 +1,10 @@
 package com.pizzaria.model;
 
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.pizzaria.util.CentavosAdapter;
+import com.pizzaria.util.Dinheiro;
 
 /**
  * Classe que representa uma bebida do cardápio
@@ -8,7 +12,9 @@ import com.google.gson.annotations.Expose;
  */
 public class Bebida extends ItemCardapio {
     @Expose
-    private double precoFixo;
+    @SerializedName("precoFixo")
+    @JsonAdapter(CentavosAdapter.class)
+    private long precoFixoCentavos;
     @Expose
     private int volumeEmML;
 
@@ -20,17 +26,25 @@ public class Bebida extends ItemCardapio {
     // Construtor com parâmetros
     public Bebida(int id, String nome, String descricao, double precoFixo, int volumeEmML) {
         super(id, nome, descricao);
-        this.precoFixo = precoFixo;
+        this.precoFixoCentavos = Dinheiro.paraCentavos(precoFixo);
         this.volumeEmML = volumeEmML;
     }
 
     // Getters e Setters
     public double getPrecoFixo() {
-        return precoFixo;
+        return Dinheiro.paraReais(precoFixoCentavos);
     }
 
     public void setPrecoFixo(double precoFixo) {
-        this.precoFixo = precoFixo;
+        this.precoFixoCentavos = Dinheiro.paraCentavos(precoFixo);
+    }
+
+    public long getPrecoFixoCentavos() {
+        return precoFixoCentavos;
+    }
+
+    public void setPrecoFixoCentavos(long precoFixoCentavos) {
+        this.precoFixoCentavos = precoFixoCentavos;
     }
 
     public int getVolumeEmML() {
@@ -43,16 +57,16 @@ public class Bebida extends ItemCardapio {
 
     /**
      * Calcula o preço da bebida (preço fixo)
-     * @return o preço da bebida
+     * @return o preço da bebida, em centavos
      */
     @Override
-    public double calcularPreco() {
-        return precoFixo;
+    public long calcularPrecoCentavos() {
+        return precoFixoCentavos;
     }
 
     @Override
     public String toString() {
         return String.format("Bebida{id=%d, nome='%s', volume=%dml, preco=R$%.2f}", 
-                           id, nome, volumeEmML, precoFixo);
+                           id, nome, volumeEmML, getPrecoFixo());
     }
 }
@@ -0,0 +1,335 @@
+package com.pizzaria.model;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.pizzaria.util.CentavosAdapter;
+import com.pizzaria.util.Dinheiro;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Classe que representa o fechamento das vendas de um dia (ou a soma dos
+ * fechamentos de um período): pedidos por status, faturamento dos concluídos,
+ * itens vendidos por item e tamanho e ingredientes consumidos no preparo.
+ * Depois de criado não muda; é montado por um Fechamento.Acumulador.
+ */
+public class Fechamento {
+    @Expose
+    private LocalDate inicio;
+    @Expose
+    private LocalDate fim;
+    @Expose
+    private LocalDateTime fechadoEm; // null enquanto o dia está aberto
+    @Expose
+    private Map<String, Integer> pedidosPorStatus; // chave: nome do StatusPedido
+    @Expose
+    @SerializedName("faturamento")
+    @JsonAdapter(CentavosAdapter.class)
+    private long faturamentoCentavos;
+    @Expose
+    private List<ItemVendido> itensVendidos;
+    @Expose
+    private List<IngredienteConsumido> ingredientesConsumidos;
+
+    // Construtor padrão (Gson)
+    public Fechamento() {
+        this.pedidosPorStatus = new LinkedHashMap<>();
+        this.itensVendidos = new ArrayList<>();
+        this.ingredientesConsumidos = new ArrayList<>();
+    }
+
+    // Getters
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public LocalDate getFim() {
+        return fim;
+    }
+
+    public LocalDateTime getFechadoEm() {
+        return fechadoEm;
+    }
+
+    /**
+     * Indica se é o resumo parcial do dia corrente, ainda sem fechamento
+     */
+    public boolean isAberto() {
+        return fechadoEm == null;
+    }
+
+    public int getPedidos(StatusPedido status) {
+        return pedidosPorStatus.getOrDefault(status.name(), 0);
+    }
+
+    public int getTotalPedidos() {
+        return pedidosPorStatus.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public double getFaturamento() {
+        return Dinheiro.paraReais(faturamentoCentavos);
+    }
+
+    public long getFaturamentoCentavos() {
+        return faturamentoCentavos;
+    }
+
+    /**
+     * Itens vendidos (pedidos não cancelados), do mais para o menos vendido
+     */
+    public List<ItemVendido> getItensVendidos() {
+        return Collections.unmodifiableList(itensVendidos);
+    }
+
+    /**
+     * Ingredientes consumidos, do mais para o menos usado
+     */
+    public List<IngredienteConsumido> getIngredientesConsumidos() {
+        return Collections.unmodifiableList(ingredientesConsumidos);
+    }
+
+    @Override
+    public String toString() {
+        String periodo = inicio.equals(fim) ? inicio.toString() : inicio + " a " + fim;
+        return String.format("%s: %d pedidos (%d concluídos, %d cancelados) - Faturamento: R$%.2f%s",
+                periodo, getTotalPedidos(), getPedidos(StatusPedido.CONCLUIDO),
+                getPedidos(StatusPedido.CANCELADO), getFaturamento(), isAberto() ? " (parcial)" : "");
+    }
+
+    /**
+     * Quantidade vendida de um item do cardápio em um tamanho (null para bebidas)
+     */
+    public static class ItemVendido {
+        @Expose
+        private int itemId;
+        @Expose
+        private String nome;
+        @Expose
+        private Tamanho tamanho;
+        @Expose
+        private int quantidade;
+        @Expose
+        @SerializedName("valor")
+        @JsonAdapter(CentavosAdapter.class)
+        private long valorCentavos;
+
+        public ItemVendido() {
+        }
+
+        private ItemVendido(ItemVendido outro) {
+            this.itemId = outro.itemId;
+            this.nome = outro.nome;
+            this.tamanho = outro.tamanho;
+            this.quantidade = outro.quantidade;
+            this.valorCentavos = outro.valorCentavos;
+        }
+
+        public int getItemId() {
+            return itemId;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public Tamanho getTamanho() {
+            return tamanho;
+        }
+
+        public int getQuantidade() {
+            return quantidade;
+        }
+
+        public double getValor() {
+            return Dinheiro.paraReais(valorCentavos);
+        }
+
+        @Override
+        public String toString() {
+            String rotulo = tamanho != null ? nome + " (" + tamanho.getDescricao() + ")" : nome;
+            return String.format("%-28s %6d  R$%10.2f", rotulo, quantidade, getValor());
+        }
+    }
+
+    /**
+     * Quantidade consumida de um ingrediente
+     */
+    public static class IngredienteConsumido {
+        @Expose
+        private int ingredienteId;
+        @Expose
+        private String nome;
+        @Expose
+        private int quantidade;
+
+        public IngredienteConsumido() {
+        }
+
+        private IngredienteConsumido(IngredienteConsumido outro) {
+            this.ingredienteId = outro.ingredienteId;
+            this.nome = outro.nome;
+            this.quantidade = outro.quantidade;
+        }
+
+        public int getIngredienteId() {
+            return ingredienteId;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public int getQuantidade() {
+            return quantidade;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s %6d", nome, quantidade);
+        }
+    }
+
+    /**
+     * Soma pedidos (e fechamentos já prontos) para montar um Fechamento.
+     * Um pedido pode ser retirado com remover() antes de ser somado de novo com
+     * outro status, o que permite manter o dia corrente em dia a cada evento.
+     */
+    public static final class Acumulador {
+        private final int[] porStatus = new int[StatusPedido.values().length];
+        private long faturamentoCentavos;
+        private final Map<String, ItemVendido> itens = new TreeMap<>();
+        private final Map<Integer, IngredienteConsumido> ingredientes = new TreeMap<>();
+
+        public void adicionar(Pedido pedido) {
+            somar(pedido, 1);
+        }
+
+        public void remover(Pedido pedido) {
+            somar(pedido, -1);
+        }
+
+        /**
+         * Soma um fechamento já pronto (de um dia ou de um período)
+         */
+        public void juntar(Fechamento fechamento) {
+            for (StatusPedido status : StatusPedido.values()) {
+                porStatus[status.ordinal()] += fechamento.getPedidos(status);
+            }
+            faturamentoCentavos += fechamento.faturamentoCentavos;
+            for (ItemVendido item : fechamento.itensVendidos) {
+                ItemVendido soma = itens.computeIfAbsent(chave(item.itemId, item.tamanho), chave -> {
+                    ItemVendido novo = new ItemVendido(item);
+                    novo.quantidade = 0;
+                    novo.valorCentavos = 0;
+                    return novo;
+                });
+                soma.quantidade += item.quantidade;
+                soma.valorCentavos += item.valorCentavos;
+            }
+            for (IngredienteConsumido ingrediente : fechamento.ingredientesConsumidos) {
+                IngredienteConsumido soma = ingredientes.computeIfAbsent(ingrediente.ingredienteId, id -> {
+                    IngredienteConsumido novo = new IngredienteConsumido(ingrediente);
+                    novo.quantidade = 0;
+                    return novo;
+                });
+                soma.quantidade += ingrediente.quantidade;
+            }
+        }
+
+        /**
+         * Cria o fechamento do período com o que foi somado até aqui
+         * (fechadoEm null indica um resumo parcial do dia corrente)
+         */
+        public Fechamento fechar(LocalDate inicio, LocalDate fim, LocalDateTime fechadoEm) {
+            Fechamento fechamento = new Fechamento();
+            fechamento.inicio = inicio;
+            fechamento.fim = fim;
+            fechamento.fechadoEm = fechadoEm;
+            for (StatusPedido status : StatusPedido.values()) {
+                if (porStatus[status.ordinal()] != 0) {
+                    fechamento.pedidosPorStatus.put(status.name(), porStatus[status.ordinal()]);
+                }
+            }
+            fechamento.faturamentoCentavos = faturamentoCentavos;
+            for (ItemVendido item : itens.values()) {
+                if (item.quantidade != 0) {
+                    fechamento.itensVendidos.add(new ItemVendido(item));
+                }
+            }
+            fechamento.itensVendidos.sort(Comparator.comparingInt(ItemVendido::getQuantidade).reversed());
+            for (IngredienteConsumido ingrediente : ingredientes.values()) {
+                if (ingrediente.quantidade != 0) {
+                    fechamento.ingredientesConsumidos.add(new IngredienteConsumido(ingrediente));
+                }
+            }
+            fechamento.ingredientesConsumidos.sort(
+                    Comparator.comparingInt(IngredienteConsumido::getQuantidade).reversed());
+            return fechamento;
+        }
+
+        private void somar(Pedido pedido, int sinal) {
+            StatusPedido status = pedido.getStatus();
+            porStatus[status.ordinal()] += sinal;
+            if (status == StatusPedido.CONCLUIDO) {
+                faturamentoCentavos += sinal * pedido.getValorTotalCentavos();
+            }
+            boolean vendido = status != StatusPedido.CANCELADO;
+            boolean consumiu = consumiuIngredientes(pedido);
+            for (ItemPedido itemPedido : pedido.getItensDoPedido()) {
+                ItemCardapio item = itemPedido.getItem();
+                Tamanho tamanho = item instanceof Pizza pizza ? pizza.getTamanho() : null;
+                if (vendido) {
+                    ItemVendido vendidoItem = itens.computeIfAbsent(chave(item.getId(), tamanho), chave -> {
+                        ItemVendido novo = new ItemVendido();
+                        novo.itemId = item.getId();
+                        novo.nome = item.getNome();
+                        novo.tamanho = tamanho;
+                        return novo;
+                    });
+                    vendidoItem.quantidade += sinal * itemPedido.getQuantidade();
+                    vendidoItem.valorCentavos += sinal * itemPedido.calcularSubtotalCentavos();
+                }
+                if (consumiu && item instanceof Pizza pizza) {
+                    for (Ingrediente ingrediente : pizza.getIngredientes()) {
+                        IngredienteConsumido consumido = ingredientes.computeIfAbsent(ingrediente.getId(), id -> {
+                            IngredienteConsumido novo = new IngredienteConsumido();
+                            novo.ingredienteId = ingrediente.getId();
+                            novo.nome = ingrediente.getNome();
+                            return novo;
+                        });
+                        consumido.quantidade += sinal * itemPedido.getQuantidade();
+                    }
+                }
+            }
+        }
+
+        /**
+         * O estoque é consumido na confirmação (entrada em EM_PREPARO)
+         */
+        private static boolean consumiuIngredientes(Pedido pedido) {
+            if (pedido.getDataHoraStatus(StatusPedido.EM_PREPARO) != null) {
+                return true;
+            }
+            // Pedidos gravados antes dos horários por status: só o status atual indica o preparo
+            boolean semHorarios = pedido.getDataHoraStatus(StatusPedido.SAIU_PARA_ENTREGA) == null
+                    && pedido.getDataHoraStatus(StatusPedido.CONCLUIDO) == null
+                    && pedido.getDataHoraStatus(StatusPedido.CANCELADO) == null;
+            StatusPedido status = pedido.getStatus();
+            return semHorarios && (status == StatusPedido.EM_PREPARO
+                    || status == StatusPedido.SAIU_PARA_ENTREGA || status == StatusPedido.CONCLUIDO);
+        }
+
+        private static String chave(int itemId, Tamanho tamanho) {
+            return tamanho != null ? itemId + ":" + tamanho.name() : String.valueOf(itemId);
+        }
+    }
+}
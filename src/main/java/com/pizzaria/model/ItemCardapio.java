@@ -1,6 +1,7 @@
 package com.pizzaria.model;
 
 import com.google.gson.annotations.Expose;
+import com.pizzaria.util.Dinheiro;
 
 /**
  * Classe abstrata que representa um item do cardápio
@@ -51,7 +52,14 @@ public abstract class ItemCardapio {
     }
 
     // Método abstrato que deve ser implementado pelas subclasses
-    public abstract double calcularPreco();
+    public abstract long calcularPrecoCentavos();
+
+    /**
+     * Preço em reais, apenas para exibição (cálculos usam centavos)
+     */
+    public double calcularPreco() {
+        return Dinheiro.paraReais(calcularPrecoCentavos());
+    }
 
     @Override
     public String toString() {
@@ -1,6 +1,10 @@
 package com.pizzaria.model;
 
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.pizzaria.util.CentavosAdapter;
+import com.pizzaria.util.Dinheiro;
 
 /**
  * Classe associativa que liga um Pedido a um ItemCardapio
@@ -12,7 +16,9 @@ public class ItemPedido {
     @Expose
     private int quantidade;
     @Expose
-    private double precoUnitario;
+    @SerializedName("precoUnitario")
+    @JsonAdapter(CentavosAdapter.class)
+    private long precoUnitarioCentavos;
 
     // Construtor padrão
     public ItemPedido() {
@@ -22,14 +28,14 @@ public class ItemPedido {
     public ItemPedido(ItemCardapio item, int quantidade) {
         this.item = item;
         this.quantidade = quantidade;
-        this.precoUnitario = item.calcularPreco();
+        this.precoUnitarioCentavos = item.calcularPrecoCentavos();
     }
 
     // Construtor completo
     public ItemPedido(ItemCardapio item, int quantidade, double precoUnitario) {
         this.item = item;
         this.quantidade = quantidade;
-        this.precoUnitario = precoUnitario;
+        this.precoUnitarioCentavos = Dinheiro.paraCentavos(precoUnitario);
     }
 
     // Getters e Setters
@@ -50,26 +56,38 @@ public class ItemPedido {
     }
 
     public double getPrecoUnitario() {
-        return precoUnitario;
+        return Dinheiro.paraReais(precoUnitarioCentavos);
     }
 
     public void setPrecoUnitario(double precoUnitario) {
-        this.precoUnitario = precoUnitario;
+        this.precoUnitarioCentavos = Dinheiro.paraCentavos(precoUnitario);
+    }
+
+    public long getPrecoUnitarioCentavos() {
+        return precoUnitarioCentavos;
+    }
+
+    public void setPrecoUnitarioCentavos(long precoUnitarioCentavos) {
+        this.precoUnitarioCentavos = precoUnitarioCentavos;
     }
 
     // Métodos de negócio
+    public long calcularSubtotalCentavos() {
+        return Dinheiro.multiplicar(precoUnitarioCentavos, quantidade);
+    }
+
     public double calcularSubtotal() {
-        return precoUnitario * quantidade;
+        return Dinheiro.paraReais(calcularSubtotalCentavos());
     }
 
     public void atualizarPrecoUnitario() {
-        this.precoUnitario = item.calcularPreco();
+        this.precoUnitarioCentavos = item.calcularPrecoCentavos();
     }
 
     @Override
     public String toString() {
         return String.format("ItemPedido{item='%s', quantidade=%d, precoUnitario=R$%.2f, subtotal=R$%.2f}", 
-                           item.getNome(), quantidade, precoUnitario, calcularSubtotal());
+                           item.getNome(), quantidade, getPrecoUnitario(), calcularSubtotal());
     }
 
     @Override
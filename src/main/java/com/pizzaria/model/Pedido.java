@@ -1,6 +1,10 @@
 package com.pizzaria.model;
 
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.pizzaria.util.CentavosAdapter;
+import com.pizzaria.util.Dinheiro;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -18,20 +22,33 @@ public class Pedido {
     @Expose
     private List<ItemPedido> itensDoPedido;
     @Expose
-    private double valorTotal;
+    @SerializedName("valorTotal")
+    @JsonAdapter(CentavosAdapter.class)
+    private long valorTotalCentavos;
     @Expose
     private StatusPedido status;
     @Expose
     private LocalDateTime dataHora;
     @Expose
     private Endereco enderecoEntrega;
+    @Expose
+    private LocalDateTime prazoPrometido; // Horário prometido ao cliente na admissão
+    // Horário em que o pedido entrou em cada status (o PENDENTE é a dataHora)
+    @Expose
+    private LocalDateTime dataHoraPreparo;
+    @Expose
+    private LocalDateTime dataHoraSaida;
+    @Expose
+    private LocalDateTime dataHoraConclusao;
+    @Expose
+    private LocalDateTime dataHoraCancelamento;
 
     // Construtor padrão
     public Pedido() {
         this.itensDoPedido = new ArrayList<>();
         this.dataHora = LocalDateTime.now();
         this.status = StatusPedido.PENDENTE;
-        this.valorTotal = 0.0;
+        this.valorTotalCentavos = 0;
     }
 
     // Construtor com parâmetros
@@ -42,7 +59,7 @@ public class Pedido {
         this.itensDoPedido = new ArrayList<>();
         this.dataHora = LocalDateTime.now();
         this.status = StatusPedido.PENDENTE;
-        this.valorTotal = 0.0;
+        this.valorTotalCentavos = 0;
         this.enderecoEntrega = cliente.getEndereco();
     }
 
@@ -54,10 +71,32 @@ public class Pedido {
         this.itensDoPedido = new ArrayList<>();
         this.dataHora = LocalDateTime.now();
         this.status = StatusPedido.PENDENTE;
-        this.valorTotal = 0.0;
+        this.valorTotalCentavos = 0;
         this.enderecoEntrega = enderecoEntrega;
     }
 
+    // Construtor de cópia (itens copiados; cliente e itens do cardápio compartilhados)
+    public Pedido(Pedido outro) {
+        this.id = outro.id;
+        this.clienteId = outro.clienteId;
+        this.cliente = outro.cliente;
+        this.itensDoPedido = new ArrayList<>();
+        for (ItemPedido item : outro.itensDoPedido) {
+            ItemPedido copia = new ItemPedido(item.getItem(), item.getQuantidade());
+            copia.setPrecoUnitarioCentavos(item.getPrecoUnitarioCentavos());
+            this.itensDoPedido.add(copia);
+        }
+        this.valorTotalCentavos = outro.valorTotalCentavos;
+        this.status = outro.status;
+        this.dataHora = outro.dataHora;
+        this.enderecoEntrega = outro.enderecoEntrega;
+        this.prazoPrometido = outro.prazoPrometido;
+        this.dataHoraPreparo = outro.dataHoraPreparo;
+        this.dataHoraSaida = outro.dataHoraSaida;
+        this.dataHoraConclusao = outro.dataHoraConclusao;
+        this.dataHoraCancelamento = outro.dataHoraCancelamento;
+    }
+
     // Getters e Setters
     public int getId() {
         return id;
@@ -94,21 +133,69 @@ public class Pedido {
     }
 
     public double getValorTotal() {
-        return valorTotal;
+        return Dinheiro.paraReais(valorTotalCentavos);
     }
 
     public void setValorTotal(double valorTotal) {
-        this.valorTotal = valorTotal;
+        this.valorTotalCentavos = Dinheiro.paraCentavos(valorTotal);
+    }
+
+    public long getValorTotalCentavos() {
+        return valorTotalCentavos;
     }
 
     public StatusPedido getStatus() {
         return status;
     }
 
+    /**
+     * Muda o status registrando o horário da transição
+     */
     public void setStatus(StatusPedido status) {
+        if (status != this.status) {
+            registrarHorarioStatus(status, LocalDateTime.now());
+        }
         this.status = status;
     }
 
+    /**
+     * Horário em que o pedido entrou no status, ou null se não passou por ele
+     * (pedidos gravados antes deste registro também não têm os horários)
+     */
+    public LocalDateTime getDataHoraStatus(StatusPedido status) {
+        return switch (status) {
+            case PENDENTE -> dataHora;
+            case EM_PREPARO -> dataHoraPreparo;
+            case SAIU_PARA_ENTREGA -> dataHoraSaida;
+            case CONCLUIDO -> dataHoraConclusao;
+            case CANCELADO -> dataHoraCancelamento;
+        };
+    }
+
+    /**
+     * Registra o horário de entrada em um status. O de PENDENTE é a data de criação
+     * do pedido e não muda por aqui.
+     */
+    public void registrarHorarioStatus(StatusPedido status, LocalDateTime horario) {
+        switch (status) {
+            case PENDENTE -> { }
+            case EM_PREPARO -> dataHoraPreparo = horario;
+            case SAIU_PARA_ENTREGA -> dataHoraSaida = horario;
+            case CONCLUIDO -> dataHoraConclusao = horario;
+            case CANCELADO -> dataHoraCancelamento = horario;
+        }
+    }
+
+    /**
+     * Desfaz uma mudança de status ainda não gravada: volta ao status anterior sem
+     * registrar horário novo e devolve ao status desfeito o horário que ele tinha antes
+     */
+    public void restaurarStatus(StatusPedido statusAnterior, StatusPedido statusDesfeito,
+                                LocalDateTime horarioDesfeito) {
+        registrarHorarioStatus(statusDesfeito, horarioDesfeito);
+        this.status = statusAnterior;
+    }
+
     public LocalDateTime getDataHora() {
         return dataHora;
     }
@@ -125,6 +212,14 @@ public class Pedido {
         this.enderecoEntrega = enderecoEntrega;
     }
 
+    public LocalDateTime getPrazoPrometido() {
+        return prazoPrometido;
+    }
+
+    public void setPrazoPrometido(LocalDateTime prazoPrometido) {
+        this.prazoPrometido = prazoPrometido;
+    }
+
     // Métodos de negócio
     public void adicionarItem(ItemPedido itemPedido) {
         // Verifica se o item já existe no pedido
@@ -154,9 +249,9 @@ public class Pedido {
     }
 
     public void calcularValorTotal() {
-        this.valorTotal = itensDoPedido.stream()
-                                      .mapToDouble(ItemPedido::calcularSubtotal)
-                                      .sum();
+        this.valorTotalCentavos = itensDoPedido.stream()
+                                              .mapToLong(ItemPedido::calcularSubtotalCentavos)
+                                              .reduce(0L, Dinheiro::somar);
     }
 
     public boolean isDelivery() {
@@ -180,7 +275,7 @@ public class Pedido {
     @Override
     public String toString() {
         return String.format("Pedido{id=%d, cliente='%s', itens=%d, valorTotal=R$%.2f, status=%s, data=%s}", 
-                           id, cliente.getNome(), itensDoPedido.size(), valorTotal, status, 
+                           id, cliente.getNome(), itensDoPedido.size(), getValorTotal(), status, 
                            dataHora.toString());
     }
 
@@ -1,6 +1,10 @@
 package com.pizzaria.model;
 
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.pizzaria.util.CentavosAdapter;
+import com.pizzaria.util.Dinheiro;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,7 +14,9 @@ import java.util.List;
  */
 public class Pizza extends ItemCardapio {
     @Expose
-    private double precoBase;
+    @SerializedName("precoBase")
+    @JsonAdapter(CentavosAdapter.class)
+    private long precoBaseCentavos;
     @Expose
     private Tamanho tamanho;
     @Expose
@@ -25,7 +31,7 @@ public class Pizza extends ItemCardapio {
     // Construtor com parâmetros
     public Pizza(int id, String nome, String descricao, double precoBase, Tamanho tamanho) {
         super(id, nome, descricao);
-        this.precoBase = precoBase;
+        this.precoBaseCentavos = Dinheiro.paraCentavos(precoBase);
         this.tamanho = tamanho;
         this.ingredientes = new ArrayList<>();
     }
@@ -33,18 +39,26 @@ public class Pizza extends ItemCardapio {
     // Construtor completo
     public Pizza(int id, String nome, String descricao, double precoBase, Tamanho tamanho, List<Ingrediente> ingredientes) {
         super(id, nome, descricao);
-        this.precoBase = precoBase;
+        this.precoBaseCentavos = Dinheiro.paraCentavos(precoBase);
         this.tamanho = tamanho;
         this.ingredientes = new ArrayList<>(ingredientes);
     }
 
     // Getters e Setters
     public double getPrecoBase() {
-        return precoBase;
+        return Dinheiro.paraReais(precoBaseCentavos);
     }
 
     public void setPrecoBase(double precoBase) {
-        this.precoBase = precoBase;
+        this.precoBaseCentavos = Dinheiro.paraCentavos(precoBase);
+    }
+
+    public long getPrecoBaseCentavos() {
+        return precoBaseCentavos;
+    }
+
+    public void setPrecoBaseCentavos(long precoBaseCentavos) {
+        this.precoBaseCentavos = precoBaseCentavos;
     }
 
     public Tamanho getTamanho() {
@@ -78,18 +92,25 @@ public class Pizza extends ItemCardapio {
 
     /**
      * Calcula o preço da pizza baseado no preço base e tamanho
-     * @return o preço total da pizza
+     * @return o preço total da pizza, em centavos (arredondado meio para cima)
      */
     @Override
-    public double calcularPreco() {
-        return precoBase * tamanho.getMultiplicador();
+    public long calcularPrecoCentavos() {
+        return calcularPrecoCentavos(tamanho);
+    }
+
+    /**
+     * Calcula o preço desta pizza em outro tamanho, em centavos
+     */
+    public long calcularPrecoCentavos(Tamanho tamanho) {
+        return Dinheiro.multiplicar(precoBaseCentavos, tamanho.getMultiplicador());
     }
 
     @Override
     public String toString() {
-        double precoP = precoBase * Tamanho.PEQUENA.getMultiplicador();
-        double precoM = precoBase * Tamanho.MEDIA.getMultiplicador();
-        double precoG = precoBase * Tamanho.GRANDE.getMultiplicador();
+        double precoP = Dinheiro.paraReais(calcularPrecoCentavos(Tamanho.PEQUENA));
+        double precoM = Dinheiro.paraReais(calcularPrecoCentavos(Tamanho.MEDIA));
+        double precoG = Dinheiro.paraReais(calcularPrecoCentavos(Tamanho.GRANDE));
         
         return String.format("Pizza{id=%d, nome='%s', ingredientes=%d}%n" +
                            "Preços: P=R$%.2f | M=R$%.2f | G=R$%.2f%n" +
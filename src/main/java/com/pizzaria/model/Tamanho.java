@@ -4,18 +4,20 @@ package com.pizzaria.model;
  * Enum que representa os tamanhos disponíveis para pizzas
  */
 public enum Tamanho {
-    PEQUENA("Pequena", "P", 1.0),
-    MEDIA("Média", "M", 1.5),
-    GRANDE("Grande", "G", 2.0);
+    PEQUENA("Pequena", "P", 1.0, 8),
+    MEDIA("Média", "M", 1.5, 10),
+    GRANDE("Grande", "G", 2.0, 12);
 
     private final String descricao;
     private final String sigla;
     private final double multiplicador;
+    private final int minutosForno;
 
-    Tamanho(String descricao, String sigla, double multiplicador) {
+    Tamanho(String descricao, String sigla, double multiplicador, int minutosForno) {
         this.descricao = descricao;
         this.sigla = sigla;
         this.multiplicador = multiplicador;
+        this.minutosForno = minutosForno;
     }
 
     public String getDescricao() {
@@ -30,6 +32,13 @@ public enum Tamanho {
         return multiplicador;
     }
 
+    /**
+     * Tempo padrão de forno de uma pizza deste tamanho, em minutos
+     */
+    public int getMinutosForno() {
+        return minutosForno;
+    }
+
     /**
      * Obtém um tamanho pela sigla (P, M, G)
      */
@@ -0,0 +1,130 @@
+package com.pizzaria.replicacao;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lote de alterações enviado do primário ao standby.
+ *
+ * Formato: número do lote, instante (ms) da alteração mais antiga do lote no primário,
+ * arquivos completos (nome, tamanho, bytes) e pedidos alterados (JSON de cada um, em
+ * ordem de ID). O standby responde cada lote com o seu número depois de aplicá-lo.
+ *
+ * Quem lê não confia no que chega: só os arquivos replicados são aceitos e as
+ * quantidades e tamanhos têm teto, para um lote corrompido não esgotar a memória.
+ */
+final class LoteReplicacao {
+    static final String PROTOCOLO = "PIZZARIA-REPLICACAO 1";
+    static final String ACEITO = "ACEITO";
+    static final String PROMOVIDO = "PROMOVIDO";
+    static final String PEDIDOS_FILE = "pedidos.json";
+    // Arquivos replicados, na ordem de aplicação no standby: clientes antes dos pedidos que os referenciam
+    static final List<String> ARQUIVOS = List.of("clientes.json", "ingredientes.json", "pizzas.json",
+                                                 "bebidas.json", PEDIDOS_FILE);
+    static final int MAXIMO_PEDIDOS_POR_LOTE = 2000;
+    private static final int TAMANHO_MAXIMO_ARQUIVO = 512 * 1024 * 1024;
+    private static final int TAMANHO_MAXIMO_PEDIDO = 1024 * 1024;
+
+    private final long numero;
+    private final long instanteOrigem;
+    private final Map<String, byte[]> arquivos;
+    private final List<String> pedidos;
+
+    LoteReplicacao(long numero, long instanteOrigem, Map<String, byte[]> arquivos, List<String> pedidos) {
+        this.numero = numero;
+        this.instanteOrigem = instanteOrigem;
+        this.arquivos = arquivos;
+        this.pedidos = pedidos;
+    }
+
+    long getNumero() {
+        return numero;
+    }
+
+    long getInstanteOrigem() {
+        return instanteOrigem;
+    }
+
+    Map<String, byte[]> getArquivos() {
+        return arquivos;
+    }
+
+    List<String> getPedidos() {
+        return pedidos;
+    }
+
+    /**
+     * Quantidade de alterações no lote (arquivos + pedidos)
+     */
+    int getTamanho() {
+        return arquivos.size() + pedidos.size();
+    }
+
+    void escrever(DataOutputStream saida) throws IOException {
+        saida.writeLong(numero);
+        saida.writeLong(instanteOrigem);
+        saida.writeInt(arquivos.size());
+        for (Map.Entry<String, byte[]> arquivo : arquivos.entrySet()) {
+            saida.writeUTF(arquivo.getKey());
+            saida.writeInt(arquivo.getValue().length);
+            saida.write(arquivo.getValue());
+        }
+        saida.writeInt(pedidos.size());
+        for (String pedido : pedidos) {
+            byte[] bytes = pedido.getBytes(StandardCharsets.UTF_8);
+            saida.writeInt(bytes.length);
+            saida.write(bytes);
+        }
+    }
+
+    static LoteReplicacao ler(DataInputStream entrada) throws IOException {
+        long numero = entrada.readLong();
+        long instanteOrigem = entrada.readLong();
+        int totalArquivos = lerQuantidade(entrada, ARQUIVOS.size(), "arquivos");
+        Map<String, byte[]> arquivos = new LinkedHashMap<>();
+        for (int i = 0; i < totalArquivos; i++) {
+            String nome = entrada.readUTF();
+            if (!ARQUIVOS.contains(nome) || arquivos.containsKey(nome)) {
+                throw new IOException("Arquivo não replicável no lote: " + nome);
+            }
+            arquivos.put(nome, lerBytes(entrada, TAMANHO_MAXIMO_ARQUIVO));
+        }
+        int totalPedidos = lerQuantidade(entrada, MAXIMO_PEDIDOS_POR_LOTE, "pedidos");
+        List<String> pedidos = new ArrayList<>(totalPedidos);
+        for (int i = 0; i < totalPedidos; i++) {
+            pedidos.add(new String(lerBytes(entrada, TAMANHO_MAXIMO_PEDIDO), StandardCharsets.UTF_8));
+        }
+        return new LoteReplicacao(numero, instanteOrigem, arquivos, pedidos);
+    }
+
+    private static int lerQuantidade(DataInputStream entrada, int maximo, String descricao) throws IOException {
+        int quantidade = entrada.readInt();
+        if (quantidade < 0 || quantidade > maximo) {
+            throw new IOException("Quantidade de " + descricao + " inválida no lote: " + quantidade);
+        }
+        return quantidade;
+    }
+
+    /**
+     * Lê um bloco com tamanho prefixado; o buffer cresce conforme os bytes chegam, então
+     * um tamanho grande sem dados atrás dele não reserva memória de antemão
+     */
+    private static byte[] lerBytes(DataInputStream entrada, int maximo) throws IOException {
+        int tamanho = entrada.readInt();
+        if (tamanho < 0 || tamanho > maximo) {
+            throw new IOException("Tamanho inválido no lote: " + tamanho);
+        }
+        byte[] bytes = entrada.readNBytes(tamanho);
+        if (bytes.length != tamanho) {
+            throw new EOFException();
+        }
+        return bytes;
+    }
+}
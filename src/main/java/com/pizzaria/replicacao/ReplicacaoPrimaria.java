@@ -0,0 +1,269 @@
+package com.pizzaria.replicacao;
+
+import com.pizzaria.evento.BarramentoEventosPedido;
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.util.JsonPersistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lado primário da replicação para um standby (ReplicacaoStandby) por um socket local.
+ *
+ * Nada é feito no caminho da criação de pedidos: os pedidos alterados chegam pelo
+ * barramento de eventos (a cópia publicada, guardando só a última de cada ID) e os
+ * arquivos pequenos (clientes, estoque, cardápio) são apenas marcados quando gravados.
+ * Uma thread própria junta o que acumulou em lotes, envia e espera a confirmação do
+ * standby antes do próximo. A cada conexão o standby recebe também o pedidos.json
+ * inteiro como base, e os pedidos alterados daí em diante seguem como diferenças.
+ *
+ * A replicação é assíncrona: se o primário cair, o que ainda não foi confirmado se perde.
+ */
+public class ReplicacaoPrimaria implements OuvinteEventoPedido {
+    private static final long INTERVALO_LOTE_MILLIS = 100;
+    private static final long ESPERA_MAXIMA_RECONEXAO_MILLIS = 5000;
+
+    private final BarramentoEventosPedido eventos;
+    private final int porta;
+    private final ConcurrentSkipListMap<Integer, Pedido> pedidosPendentes;
+    private final Set<String> arquivosPendentes;
+    private final AtomicLong pendenteDesde;
+    private final AtomicLong lotesConfirmados;
+    private final AtomicLong alteracoesConfirmadas;
+    private volatile long emVooDesde;
+    private volatile boolean conectado;
+    private volatile boolean ativa;
+    private BarramentoEventosPedido.Consumidor consumidor;
+    private long perdidosConhecidos;
+    private long proximoLote;
+    private Thread threadEnvio;
+
+    public ReplicacaoPrimaria(BarramentoEventosPedido eventos, int porta) {
+        this.eventos = eventos;
+        this.porta = porta;
+        this.pedidosPendentes = new ConcurrentSkipListMap<>();
+        this.arquivosPendentes = ConcurrentHashMap.newKeySet();
+        this.pendenteDesde = new AtomicLong();
+        this.lotesConfirmados = new AtomicLong();
+        this.alteracoesConfirmadas = new AtomicLong();
+        this.proximoLote = 1;
+    }
+
+    /**
+     * Passa a acompanhar as alterações e começa a enviar ao standby (conectando em
+     * segundo plano, com novas tentativas enquanto ele não estiver no ar)
+     */
+    public synchronized void iniciar() {
+        if (ativa) {
+            return;
+        }
+        ativa = true;
+        JsonPersistence.aoGravar(this::aoGravarArquivo);
+        consumidor = eventos.inscrever("replicacao", this);
+        perdidosConhecidos = consumidor.getPerdidos();
+
+        threadEnvio = new Thread(this::executar, "replicacao-envio");
+        threadEnvio.setDaemon(true);
+        threadEnvio.start();
+    }
+
+    /**
+     * Para de enviar (o que estiver pendente não é mais replicado)
+     */
+    public synchronized void encerrar() {
+        ativa = false;
+        if (consumidor != null) {
+            consumidor.cancelar();
+        }
+        if (threadEnvio != null) {
+            threadEnvio.interrupt();
+        }
+    }
+
+    @Override
+    public void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        // A cópia publicada não muda mais: basta guardar a referência mais recente do pedido
+        pedidosPendentes.put(evento.getPedidoId(), evento.getPedido());
+        marcarPendente();
+    }
+
+    /**
+     * Atraso da réplica: há quanto tempo está a alteração mais antiga que o standby
+     * ainda não confirmou (0 quando está em dia)
+     */
+    public long getAtrasoMillis() {
+        long maisAntiga = emVooDesde;
+        long pendente = pendenteDesde.get();
+        if (maisAntiga == 0 || (pendente != 0 && pendente < maisAntiga)) {
+            maisAntiga = pendente;
+        }
+        return maisAntiga == 0 ? 0 : Math.max(0, System.currentTimeMillis() - maisAntiga);
+    }
+
+    /**
+     * Obtém um resumo do estado da replicação
+     */
+    public ResumoReplicacao getResumo() {
+        return new ResumoReplicacao("primário", conectado, lotesConfirmados.get(), alteracoesConfirmadas.get(),
+                                    pedidosPendentes.size() + arquivosPendentes.size(), getAtrasoMillis());
+    }
+
+    public int getPorta() {
+        return porta;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Chamado com a trava do arquivo, no caminho da gravação: só anota
+     */
+    private void aoGravarArquivo(String nome) {
+        // O pedidos.json só vai inteiro como base: os pedidos alterados seguem pelos eventos
+        if (LoteReplicacao.ARQUIVOS.contains(nome) && !LoteReplicacao.PEDIDOS_FILE.equals(nome)) {
+            arquivosPendentes.add(nome);
+            marcarPendente();
+        }
+    }
+
+    private void marcarPendente() {
+        pendenteDesde.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    /**
+     * Na conexão o standby pode estar em qualquer ponto: recebe todos os arquivos
+     * (os pedidos alterados que já estavam pendentes seguem também; repetidos são ignorados)
+     */
+    private void marcarTudo() {
+        arquivosPendentes.addAll(LoteReplicacao.ARQUIVOS);
+        marcarPendente();
+    }
+
+    private void executar() {
+        long espera = 100;
+        while (ativa) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta));
+                socket.setTcpNoDelay(true);
+                DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                DataInputStream entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                saida.writeUTF(LoteReplicacao.PROTOCOLO);
+                saida.flush();
+                String resposta = entrada.readUTF();
+                if (LoteReplicacao.PROMOVIDO.equals(resposta)) {
+                    System.err.println("Aviso: o standby da porta " + porta + " foi promovido; replicação encerrada");
+                    ativa = false;
+                    return;
+                }
+                if (!LoteReplicacao.ACEITO.equals(resposta)) {
+                    throw new IOException("Resposta inesperada do standby: " + resposta);
+                }
+                conectado = true;
+                espera = 100;
+                marcarTudo();
+                enviarEnquantoConectado(saida, entrada);
+            } catch (EOFException e) {
+                if (conectado) {
+                    System.err.println("Aviso: o standby encerrou a conexão de replicação");
+                }
+            } catch (IOException e) {
+                if (conectado) {
+                    System.err.println("Erro na replicação para o standby: " + e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                conectado = false;
+                desfazerEnvio();
+            }
+
+            // O que não foi confirmado volta a ser pendente pela base enviada na próxima conexão
+            try {
+                Thread.sleep(espera);
+            } catch (InterruptedException e) {
+                return;
+            }
+            espera = Math.min(espera * 2, ESPERA_MAXIMA_RECONEXAO_MILLIS);
+        }
+    }
+
+    private void enviarEnquantoConectado(DataOutputStream saida, DataInputStream entrada)
+            throws IOException, InterruptedException {
+        while (ativa) {
+            if (pendenteDesde.get() == 0) {
+                Thread.sleep(INTERVALO_LOTE_MILLIS);
+                continue;
+            }
+            // Eventos descartados pelo barramento: só a base completa recupera os pedidos perdidos
+            long perdidos = consumidor.getPerdidos();
+            if (perdidos != perdidosConhecidos) {
+                perdidosConhecidos = perdidos;
+                arquivosPendentes.add(LoteReplicacao.PEDIDOS_FILE);
+            }
+
+            LoteReplicacao lote = montarLote();
+            lote.escrever(saida);
+            saida.flush();
+            long confirmado = entrada.readLong();
+            if (confirmado != lote.getNumero()) {
+                throw new IOException("Confirmação fora de ordem do standby: " + confirmado);
+            }
+            emVooDesde = 0;
+            lotesConfirmados.incrementAndGet();
+            alteracoesConfirmadas.addAndGet(lote.getTamanho());
+            Thread.sleep(INTERVALO_LOTE_MILLIS);
+        }
+    }
+
+    /**
+     * Lote sem confirmação: a alteração mais antiga dele continua contando no atraso
+     */
+    private void desfazerEnvio() {
+        long naoConfirmado = emVooDesde;
+        emVooDesde = 0;
+        if (naoConfirmado != 0) {
+            pendenteDesde.getAndUpdate(atual -> atual == 0 ? naoConfirmado : Math.min(atual, naoConfirmado));
+        }
+    }
+
+    private LoteReplicacao montarLote() throws IOException {
+        long instanteOrigem = pendenteDesde.getAndSet(0);
+        emVooDesde = instanteOrigem;
+
+        Map<String, byte[]> arquivos = new LinkedHashMap<>();
+        for (String nome : LoteReplicacao.ARQUIVOS) {
+            if (arquivosPendentes.remove(nome)) {
+                byte[] conteudo = JsonPersistence.readFile(nome);
+                if (conteudo != null) {
+                    arquivos.put(nome, conteudo);
+                }
+            }
+        }
+
+        List<String> pedidos = new ArrayList<>();
+        Map.Entry<Integer, Pedido> entrada;
+        while (pedidos.size() < LoteReplicacao.MAXIMO_PEDIDOS_POR_LOTE && (entrada = pedidosPendentes.pollFirstEntry()) != null) {
+            pedidos.add(JsonPersistence.toJson(entrada.getValue()));
+        }
+        if (!pedidosPendentes.isEmpty()) {
+            marcarPendente(); // o restante vai no próximo lote
+        }
+        return new LoteReplicacao(proximoLote++, instanteOrigem, arquivos, pedidos);
+    }
+}
@@ -0,0 +1,193 @@
+package com.pizzaria.replicacao;
+
+import com.pizzaria.model.Pedido;
+import com.pizzaria.service.PedidoService;
+import com.pizzaria.util.JsonPersistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lado standby da replicação: recebe os lotes do primário (ReplicacaoPrimaria) e os
+ * aplica nos próprios serviços e arquivos. Os arquivos pequenos substituem os daqui e
+ * recarregam o serviço dono (como uma gravação de outro processo); os pedidos entram
+ * pelo PedidoService, com estatísticas e eventos, como se tivessem sido feitos aqui.
+ *
+ * Até ser promovido, o standby só recebe: o processo não deve alterar os dados. Depois
+ * de promover(), quem tenta replicar para ele recebe a recusa e para de enviar.
+ */
+public class ReplicacaoStandby {
+    private final PedidoService pedidoService;
+    private final int porta;
+    private final Object travaAplicacao;
+    private ServerSocket servidor;
+    private Thread threadRecepcao;
+    private volatile Socket conexao;
+    private volatile boolean promovido;
+    private long lotesAplicados;
+    private long alteracoesAplicadas;
+    private long atrasoUltimoLote;
+
+    public ReplicacaoStandby(PedidoService pedidoService, int porta) {
+        this.pedidoService = pedidoService;
+        this.porta = porta;
+        this.travaAplicacao = new Object();
+    }
+
+    /**
+     * Abre a porta (apenas na interface local) e espera o primário. A thread de recepção
+     * não é daemon: o processo standby continua no ar enquanto ela existir.
+     */
+    public void iniciar() throws IOException {
+        servidor = new ServerSocket();
+        servidor.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta));
+
+        threadRecepcao = new Thread(this::aceitarConexoes, "replicacao-standby");
+        threadRecepcao.start();
+    }
+
+    /**
+     * Promove o standby: termina o lote em aplicação, derruba o primário e passa a
+     * recusar novas conexões de replicação. Os serviços ficam livres para uso.
+     */
+    public void promover() {
+        synchronized (travaAplicacao) {
+            promovido = true;
+        }
+        Socket atual = conexao;
+        if (atual != null) {
+            fecharSilenciosamente(atual);
+        }
+    }
+
+    /**
+     * Fecha a porta e a conexão com o primário
+     */
+    public void parar() {
+        try {
+            if (servidor != null) {
+                servidor.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar porta de replicação: " + e.getMessage());
+        }
+        Socket atual = conexao;
+        if (atual != null) {
+            fecharSilenciosamente(atual);
+        }
+    }
+
+    public boolean isPromovido() {
+        return promovido;
+    }
+
+    public int getPorta() {
+        return servidor != null ? servidor.getLocalPort() : porta;
+    }
+
+    /**
+     * Obtém um resumo do estado da replicação
+     */
+    public ResumoReplicacao getResumo() {
+        synchronized (travaAplicacao) {
+            return new ResumoReplicacao(promovido ? "promovido" : "standby", conexao != null,
+                                        lotesAplicados, alteracoesAplicadas, 0, atrasoUltimoLote);
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void aceitarConexoes() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                socket.setTcpNoDelay(true);
+                receber(socket);
+            } catch (SocketException e) {
+                if (servidor.isClosed()) {
+                    return; // porta fechada
+                }
+            } catch (IOException | RuntimeException e) {
+                // A conexão é descartada; o primário reconecta e reenvia a base completa
+                System.err.println("Erro ao receber do primário: " + e);
+            }
+        }
+    }
+
+    /**
+     * Atende um primário por vez, até ele desconectar
+     */
+    private void receber(Socket socket) throws IOException {
+        try (socket) {
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (!LoteReplicacao.PROTOCOLO.equals(entrada.readUTF())) {
+                return;
+            }
+            saida.writeUTF(promovido ? LoteReplicacao.PROMOVIDO : LoteReplicacao.ACEITO);
+            saida.flush();
+            if (promovido) {
+                return;
+            }
+            conexao = socket;
+            while (!promovido) {
+                LoteReplicacao lote = LoteReplicacao.ler(entrada);
+                if (!aplicar(lote)) {
+                    return;
+                }
+                saida.writeLong(lote.getNumero());
+                saida.flush();
+            }
+        } catch (EOFException e) {
+            // primário desconectou
+        } finally {
+            conexao = null;
+        }
+    }
+
+    /**
+     * Aplica o lote inteiro; false se o standby foi promovido antes (os nomes de arquivo
+     * já foram conferidos com os replicados em LoteReplicacao.ler)
+     */
+    private boolean aplicar(LoteReplicacao lote) throws IOException {
+        synchronized (travaAplicacao) {
+            if (promovido) {
+                return false;
+            }
+            for (Map.Entry<String, byte[]> arquivo : lote.getArquivos().entrySet()) {
+                JsonPersistence.replaceFile(arquivo.getKey(), arquivo.getValue());
+            }
+            if (!lote.getPedidos().isEmpty()) {
+                List<Pedido> pedidos = new ArrayList<>(lote.getPedidos().size());
+                for (String json : lote.getPedidos()) {
+                    pedidos.add(JsonPersistence.fromJson(json, Pedido.class));
+                }
+                pedidoService.aplicarReplica(pedidos);
+            }
+            lotesAplicados++;
+            alteracoesAplicadas += lote.getTamanho();
+            atrasoUltimoLote = Math.max(0, System.currentTimeMillis() - lote.getInstanteOrigem());
+            return true;
+        }
+    }
+
+    private void fecharSilenciosamente(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // já fechado
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.pizzaria.replicacao;
+
+/**
+ * Classe que representa uma leitura do estado da replicação (primário ou standby)
+ */
+public class ResumoReplicacao {
+    private final String papel;
+    private final boolean conectado;
+    private final long lotes;
+    private final long alteracoes;
+    private final int pendentes;
+    private final long atrasoMillis;
+
+    public ResumoReplicacao(String papel, boolean conectado, long lotes, long alteracoes,
+                            int pendentes, long atrasoMillis) {
+        this.papel = papel;
+        this.conectado = conectado;
+        this.lotes = lotes;
+        this.alteracoes = alteracoes;
+        this.pendentes = pendentes;
+        this.atrasoMillis = atrasoMillis;
+    }
+
+    /**
+     * "primário", "standby" ou "promovido"
+     */
+    public String getPapel() {
+        return papel;
+    }
+
+    public boolean isConectado() {
+        return conectado;
+    }
+
+    /**
+     * Lotes confirmados pelo standby (no primário) ou aplicados (no standby)
+     */
+    public long getLotes() {
+        return lotes;
+    }
+
+    /**
+     * Arquivos e pedidos replicados nesses lotes
+     */
+    public long getAlteracoes() {
+        return alteracoes;
+    }
+
+    /**
+     * Alterações ainda não enviadas (só no primário)
+     */
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    /**
+     * No primário: há quanto tempo está a alteração mais antiga ainda não confirmada pelo
+     * standby (0 quando está em dia). No standby: atraso do último lote aplicado.
+     */
+    public long getAtrasoMillis() {
+        return atrasoMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Replicação (%s): %s, %d lotes, %d alterações, %d pendentes, atraso %d ms",
+                             papel, conectado ? "conectado" : "desconectado", lotes, alteracoes, pendentes, atrasoMillis);
+    }
+}
@@ -0,0 +1,134 @@
+package com.pizzaria.service;
+
+import com.pizzaria.model.Bebida;
+import com.pizzaria.model.Cliente;
+import com.pizzaria.model.Ingrediente;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.Pizza;
+import com.pizzaria.util.JsonPersistence;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Backup online dos dados dos quatro serviços, consistente em um único instante.
+ *
+ * A captura suspende as alterações de pedidos e segura os locks de ingredientes,
+ * clientes e cardápio (nessa ordem, a mesma dos serviços) só pelo tempo de abrir uma
+ * visão de leitura de pedidos e estoque (VisaoLeitura) e copiar as referências das
+ * listas de clientes e cardápio. A leitura da visão, a serialização e a compressão
+ * rodam depois, com os serviços liberados.
+ *
+ * O backup é um zip em data/backups/ com os mesmos arquivos de data/; restaurar é
+ * extraí-lo em data/ com o sistema parado.
+ */
+public class BackupService {
+    private static final Path BACKUPS_DIR = Path.of("data", "backups");
+    private static final DateTimeFormatter FORMATO_NOME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private final ClienteService clienteService;
+    private final IngredienteService ingredienteService;
+    private final CardapioService cardapioService;
+    private final PedidoService pedidoService;
+
+    public BackupService(ClienteService clienteService, IngredienteService ingredienteService,
+                         CardapioService cardapioService, PedidoService pedidoService) {
+        this.clienteService = clienteService;
+        this.ingredienteService = ingredienteService;
+        this.cardapioService = cardapioService;
+        this.pedidoService = pedidoService;
+    }
+
+    /**
+     * Captura o instante atual e grava o backup compactado
+     */
+    public ResultadoBackup criarBackup() throws IOException {
+        Instantaneo instantaneo = pedidoService.executarComPedidosParados(this::capturar);
+
+        // Fora da pausa: a ordem por ID é a mesma do arquivo de pedidos
+        try (VisaoLeitura visao = instantaneo.visao) {
+            instantaneo.pedidos = visao.getPedidos().listar();
+            instantaneo.ingredientes = visao.getIngredientes();
+        }
+        instantaneo.pedidos.sort(Comparator.comparingInt(Pedido::getId));
+
+        Files.createDirectories(BACKUPS_DIR);
+        Path arquivo = BACKUPS_DIR.resolve("backup-" + instantaneo.instante.format(FORMATO_NOME) + ".zip");
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+            Writer escritor = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            gravarEntrada(zip, escritor, "clientes.json", instantaneo.clientes);
+            gravarEntrada(zip, escritor, "ingredientes.json", instantaneo.ingredientes);
+            gravarEntrada(zip, escritor, "pizzas.json", instantaneo.pizzas);
+            gravarEntrada(zip, escritor, "bebidas.json", instantaneo.bebidas);
+            gravarEntrada(zip, escritor, PedidoService.PEDIDOS_FILE, instantaneo.pedidos);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+        // Um backup pela metade nunca aparece com o nome final
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return new ResultadoBackup(arquivo, instantaneo.clientes.size(), instantaneo.ingredientes.size(),
+                                   instantaneo.pizzas.size() + instantaneo.bebidas.size(),
+                                   instantaneo.pedidos.size(), instantaneo.pausaMicros, Files.size(arquivo));
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Roda com os pedidos parados; os locks são reentrantes, então as listagens
+     * dos serviços podem ser chamadas aqui dentro
+     */
+    private Instantaneo capturar() {
+        synchronized (ingredienteService) {
+            synchronized (clienteService) {
+                synchronized (cardapioService) {
+                    long inicioPausa = System.nanoTime();
+                    Instantaneo instantaneo = new Instantaneo();
+                    instantaneo.instante = LocalDateTime.now();
+                    instantaneo.visao = VisaoLeitura.capturar(pedidoService, ingredienteService);
+                    // Clientes e itens do cardápio são substituídos, não alterados, nas atualizações
+                    instantaneo.clientes = clienteService.listarTodos();
+                    instantaneo.pizzas = cardapioService.listarTodasPizzas();
+                    instantaneo.bebidas = cardapioService.listarTodasBebidas();
+                    instantaneo.pausaMicros = (System.nanoTime() - inicioPausa) / 1000;
+                    return instantaneo;
+                }
+            }
+        }
+    }
+
+    private void gravarEntrada(ZipOutputStream zip, Writer escritor, String nome, Object dados) throws IOException {
+        zip.putNextEntry(new ZipEntry(nome));
+        JsonPersistence.writeJson(dados, escritor);
+        escritor.flush();
+        zip.closeEntry();
+    }
+
+    /**
+     * Cópia dos dados em um instante
+     */
+    private static final class Instantaneo {
+        private LocalDateTime instante;
+        private long pausaMicros;   // tempo com todos os locks segurados
+        private VisaoLeitura visao;
+        private List<Ingrediente> ingredientes;
+        private List<Cliente> clientes;
+        private List<Pizza> pizzas;
+        private List<Bebida> bebidas;
+        private List<Pedido> pedidos;
+    }
+}
@@ -2,6 +2,7 @@ package com.pizzaria.service;
 
 import com.pizzaria.model.*;
 import com.pizzaria.util.JsonPersistence;
+import com.pizzaria.util.TravaDeArquivo;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
@@ -28,6 +29,8 @@ public class CardapioService {
         this.proximoIdPizza = 1;
         this.proximoIdBebida = 1000; // Começar com ID diferente para evitar conflitos
         carregarDados();
+        JsonPersistence.aoAlterarEmOutroProcesso(PIZZAS_FILE, this::recarregarPizzas);
+        JsonPersistence.aoAlterarEmOutroProcesso(BEBIDAS_FILE, this::recarregarBebidas);
     }
 
     // ========== MÉTODOS PARA PIZZAS ==========
@@ -35,17 +38,22 @@ public class CardapioService {
     /**
      * Cria uma nova pizza
      */
+    @SuppressWarnings("try")
     public Pizza criarPizza(Pizza pizza) throws IOException {
-        pizza.setId(proximoIdPizza++);
-        pizzas.add(pizza);
-        salvarPizzas();
-        return pizza;
+        try (TravaDeArquivo trava = JsonPersistence.travar(PIZZAS_FILE)) {
+            synchronized (this) {
+                pizza.setId(proximoIdPizza++);
+                pizzas.add(pizza);
+                salvarPizzas();
+                return pizza;
+            }
+        }
     }
 
     /**
      * Busca uma pizza por ID
      */
-    public Pizza buscarPizzaPorId(int id) {
+    public synchronized Pizza buscarPizzaPorId(int id) {
         return pizzas.stream()
                     .filter(p -> p.getId() == id)
                     .findFirst()
@@ -55,7 +63,7 @@ public class CardapioService {
     /**
      * Busca pizzas por nome
      */
-    public List<Pizza> buscarPizzasPorNome(String nome) {
+    public synchronized List<Pizza> buscarPizzasPorNome(String nome) {
         return pizzas.stream()
                     .filter(p -> p.getNome().toLowerCase().contains(nome.toLowerCase()))
                     .toList();
@@ -64,49 +72,64 @@ public class CardapioService {
     /**
      * Lista todas as pizzas
      */
-    public List<Pizza> listarTodasPizzas() {
+    public synchronized List<Pizza> listarTodasPizzas() {
         return new ArrayList<>(pizzas);
     }
 
     /**
      * Atualiza uma pizza existente
      */
+    @SuppressWarnings("try")
     public Pizza atualizarPizza(Pizza pizza) throws IOException {
-        Optional<Pizza> pizzaExistente = pizzas.stream()
-                                              .filter(p -> p.getId() == pizza.getId())
-                                              .findFirst();
+        try (TravaDeArquivo trava = JsonPersistence.travar(PIZZAS_FILE)) {
+            synchronized (this) {
+                Optional<Pizza> pizzaExistente = pizzas.stream()
+                                                      .filter(p -> p.getId() == pizza.getId())
+                                                      .findFirst();
         
-        if (pizzaExistente.isEmpty()) {
-            throw new IllegalArgumentException("Pizza não encontrada");
+                if (pizzaExistente.isEmpty()) {
+                    throw new IllegalArgumentException("Pizza não encontrada");
+                }
+
+                pizzas.removeIf(p -> p.getId() == pizza.getId());
+                pizzas.add(pizza);
+                salvarPizzas();
+                return pizza;
+            }
         }
-
-        pizzas.removeIf(p -> p.getId() == pizza.getId());
-        pizzas.add(pizza);
-        salvarPizzas();
-        return pizza;
     }
 
     /**
      * Remove uma pizza
      */
+    @SuppressWarnings("try")
     public void removerPizza(int id) throws IOException {
-        boolean removido = pizzas.removeIf(p -> p.getId() == id);
+        try (TravaDeArquivo trava = JsonPersistence.travar(PIZZAS_FILE)) {
+            synchronized (this) {
+                boolean removido = pizzas.removeIf(p -> p.getId() == id);
         
-        if (!removido) {
-            throw new IllegalArgumentException("Pizza não encontrada");
-        }
+                if (!removido) {
+                    throw new IllegalArgumentException("Pizza não encontrada");
+                }
         
-        salvarPizzas();
+                salvarPizzas();
+            }
+        }
     }
 
     /**
      * Cria uma pizza personalizada
      */
+    @SuppressWarnings("try")
     public Pizza criarPizzaPersonalizada(String nome, Tamanho tamanho, double precoBase, List<Ingrediente> ingredientes) throws IOException {
-        Pizza pizza = new Pizza(proximoIdPizza++, nome, "Pizza personalizada", precoBase, tamanho, ingredientes);
-        pizzas.add(pizza);
-        salvarPizzas();
-        return pizza;
+        try (TravaDeArquivo trava = JsonPersistence.travar(PIZZAS_FILE)) {
+            synchronized (this) {
+                Pizza pizza = new Pizza(proximoIdPizza++, nome, "Pizza personalizada", precoBase, tamanho, ingredientes);
+                pizzas.add(pizza);
+                salvarPizzas();
+                return pizza;
+            }
+        }
     }
 
     // ========== MÉTODOS PARA BEBIDAS ==========
@@ -114,17 +137,22 @@ public class CardapioService {
     /**
      * Cria uma nova bebida
      */
+    @SuppressWarnings("try")
     public Bebida criarBebida(Bebida bebida) throws IOException {
-        bebida.setId(proximoIdBebida++);
-        bebidas.add(bebida);
-        salvarBebidas();
-        return bebida;
+        try (TravaDeArquivo trava = JsonPersistence.travar(BEBIDAS_FILE)) {
+            synchronized (this) {
+                bebida.setId(proximoIdBebida++);
+                bebidas.add(bebida);
+                salvarBebidas();
+                return bebida;
+            }
+        }
     }
 
     /**
      * Busca uma bebida por ID
      */
-    public Bebida buscarBebidaPorId(int id) {
+    public synchronized Bebida buscarBebidaPorId(int id) {
         return bebidas.stream()
                      .filter(b -> b.getId() == id)
                      .findFirst()
@@ -134,7 +162,7 @@ public class CardapioService {
     /**
      * Busca bebidas por nome
      */
-    public List<Bebida> buscarBebidasPorNome(String nome) {
+    public synchronized List<Bebida> buscarBebidasPorNome(String nome) {
         return bebidas.stream()
                      .filter(b -> b.getNome().toLowerCase().contains(nome.toLowerCase()))
                      .toList();
@@ -143,39 +171,49 @@ public class CardapioService {
     /**
      * Lista todas as bebidas
      */
-    public List<Bebida> listarTodasBebidas() {
+    public synchronized List<Bebida> listarTodasBebidas() {
         return new ArrayList<>(bebidas);
     }
 
     /**
      * Atualiza uma bebida existente
      */
+    @SuppressWarnings("try")
     public Bebida atualizarBebida(Bebida bebida) throws IOException {
-        Optional<Bebida> bebidaExistente = bebidas.stream()
-                                                 .filter(b -> b.getId() == bebida.getId())
-                                                 .findFirst();
+        try (TravaDeArquivo trava = JsonPersistence.travar(BEBIDAS_FILE)) {
+            synchronized (this) {
+                Optional<Bebida> bebidaExistente = bebidas.stream()
+                                                         .filter(b -> b.getId() == bebida.getId())
+                                                         .findFirst();
         
-        if (bebidaExistente.isEmpty()) {
-            throw new IllegalArgumentException("Bebida não encontrada");
+                if (bebidaExistente.isEmpty()) {
+                    throw new IllegalArgumentException("Bebida não encontrada");
+                }
+
+                bebidas.removeIf(b -> b.getId() == bebida.getId());
+                bebidas.add(bebida);
+                salvarBebidas();
+                return bebida;
+            }
         }
-
-        bebidas.removeIf(b -> b.getId() == bebida.getId());
-        bebidas.add(bebida);
-        salvarBebidas();
-        return bebida;
     }
 
     /**
      * Remove uma bebida
      */
+    @SuppressWarnings("try")
     public void removerBebida(int id) throws IOException {
-        boolean removido = bebidas.removeIf(b -> b.getId() == id);
+        try (TravaDeArquivo trava = JsonPersistence.travar(BEBIDAS_FILE)) {
+            synchronized (this) {
+                boolean removido = bebidas.removeIf(b -> b.getId() == id);
         
-        if (!removido) {
-            throw new IllegalArgumentException("Bebida não encontrada");
-        }
+                if (!removido) {
+                    throw new IllegalArgumentException("Bebida não encontrada");
+                }
         
-        salvarBebidas();
+                salvarBebidas();
+            }
+        }
     }
 
     // ========== MÉTODOS GERAIS ==========
@@ -183,7 +221,7 @@ public class CardapioService {
     /**
      * Busca um item do cardápio por ID (pizza ou bebida)
      */
-    public ItemCardapio buscarItemPorId(int id) {
+    public synchronized ItemCardapio buscarItemPorId(int id) {
         ItemCardapio item = buscarPizzaPorId(id);
         if (item == null) {
             item = buscarBebidaPorId(id);
@@ -191,10 +229,41 @@ public class CardapioService {
         return item;
     }
 
+    /**
+     * Monta um item de pedido a partir do ID do cardápio.
+     * Para pizzas, cria uma cópia com o tamanho escolhido (mesma regra do menu de pedidos).
+     */
+    public synchronized ItemPedido criarItemPedido(int itemId, Tamanho tamanho, int quantidade) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade inválida");
+        }
+
+        Pizza pizzaBase = buscarPizzaPorId(itemId);
+        if (pizzaBase != null) {
+            Tamanho tamanhoEscolhido = tamanho != null ? tamanho : pizzaBase.getTamanho();
+            Pizza pizzaComTamanho = new Pizza(
+                pizzaBase.getId(),
+                pizzaBase.getNome(),
+                pizzaBase.getDescricao(),
+                pizzaBase.getPrecoBase(),
+                tamanhoEscolhido,
+                pizzaBase.getIngredientes()
+            );
+            return new ItemPedido(pizzaComTamanho, quantidade);
+        }
+
+        Bebida bebida = buscarBebidaPorId(itemId);
+        if (bebida != null) {
+            return new ItemPedido(bebida, quantidade);
+        }
+
+        throw new IllegalArgumentException("Item não encontrado no cardápio: " + itemId);
+    }
+
     /**
      * Lista todos os itens do cardápio
      */
-    public List<ItemCardapio> listarTodosItens() {
+    public synchronized List<ItemCardapio> listarTodosItens() {
         List<ItemCardapio> todosItens = new ArrayList<>();
         todosItens.addAll(pizzas);
         todosItens.addAll(bebidas);
@@ -204,7 +273,7 @@ public class CardapioService {
     /**
      * Busca itens por nome (pizzas e bebidas)
      */
-    public List<ItemCardapio> buscarItensPorNome(String nome) {
+    public synchronized List<ItemCardapio> buscarItensPorNome(String nome) {
         List<ItemCardapio> itensEncontrados = new ArrayList<>();
         itensEncontrados.addAll(buscarPizzasPorNome(nome));
         itensEncontrados.addAll(buscarBebidasPorNome(nome));
@@ -214,7 +283,7 @@ public class CardapioService {
     /**
      * Verifica se um nome de pizza já está cadastrado
      */
-    public boolean nomePizzaJaCadastrado(String nome) {
+    public synchronized boolean nomePizzaJaCadastrado(String nome) {
         return pizzas.stream()
                     .anyMatch(p -> p.getNome().equalsIgnoreCase(nome));
     }
@@ -222,7 +291,7 @@ public class CardapioService {
     /**
      * Verifica se um nome de bebida já está cadastrado
      */
-    public boolean nomeBebidaJaCadastrado(String nome) {
+    public synchronized boolean nomeBebidaJaCadastrado(String nome) {
         return bebidas.stream()
                      .anyMatch(b -> b.getNome().equalsIgnoreCase(nome));
     }
@@ -230,7 +299,7 @@ public class CardapioService {
     /**
      * Obtém estatísticas do cardápio
      */
-    public String getEstatisticas() {
+    public synchronized String getEstatisticas() {
         return String.format("Cardápio: %d pizzas, %d bebidas, %d itens total", 
                            pizzas.size(), bebidas.size(), pizzas.size() + bebidas.size());
     }
@@ -277,11 +346,22 @@ public class CardapioService {
         }
     }
 
+    /**
+     * Relê o cardápio gravado por outro processo (chamados com a trava do arquivo)
+     */
+    private synchronized void recarregarPizzas() {
+        carregarPizzas();
+    }
+
+    private synchronized void recarregarBebidas() {
+        carregarBebidas();
+    }
+
     private void salvarPizzas() throws IOException {
-        JsonPersistence.saveToFile(pizzas, PIZZAS_FILE);
+        JsonPersistence.saveToFile(() -> pizzas, PIZZAS_FILE, this);
     }
 
     private void salvarBebidas() throws IOException {
-        JsonPersistence.saveToFile(bebidas, BEBIDAS_FILE);
+        JsonPersistence.saveToFile(() -> bebidas, BEBIDAS_FILE, this);
     }
 }
@@ -3,6 +3,8 @@ package com.pizzaria.service;
 import com.pizzaria.exception.ClienteNaoEncontradoException;
 import com.pizzaria.model.Cliente;
 import com.pizzaria.util.JsonPersistence;
+import com.pizzaria.util.TravaDeArquivo;
+import com.pizzaria.util.UnidadeDeTrabalho;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
@@ -23,22 +25,46 @@ public class ClienteService {
         this.clientes = new ArrayList<>();
         this.proximoId = 1;
         carregarDados();
+        JsonPersistence.aoAlterarEmOutroProcesso(CLIENTES_FILE, this::recarregar);
     }
 
     /**
      * Cria um novo cliente
      */
+    @SuppressWarnings("try")
     public Cliente criarCliente(Cliente cliente) throws IOException {
-        cliente.setId(proximoId++);
-        clientes.add(cliente);
-        salvarDados();
-        return cliente;
+        try (TravaDeArquivo trava = JsonPersistence.travar(CLIENTES_FILE)) {
+            synchronized (this) {
+                cliente.setId(proximoId++);
+                clientes.add(cliente);
+                UnidadeDeTrabalho.aoDesfazer(() -> descartarCliente(cliente));
+                salvarDados();
+                return cliente;
+            }
+        }
+    }
+
+    /**
+     * Inclui clientes de uma importação em lote: IDs atribuídos em sequência e
+     * uma única gravação do arquivo
+     */
+    @SuppressWarnings("try")
+    public void importar(List<Cliente> novos) throws IOException {
+        try (TravaDeArquivo trava = JsonPersistence.travar(CLIENTES_FILE)) {
+            synchronized (this) {
+                for (Cliente cliente : novos) {
+                    cliente.setId(proximoId++);
+                    clientes.add(cliente);
+                }
+                salvarDados();
+            }
+        }
     }
 
     /**
      * Busca um cliente por ID
      */
-    public Cliente buscarPorId(int id) throws ClienteNaoEncontradoException {
+    public synchronized Cliente buscarPorId(int id) throws ClienteNaoEncontradoException {
         return clientes.stream()
                       .filter(c -> c.getId() == id)
                       .findFirst()
@@ -48,7 +74,7 @@ public class ClienteService {
     /**
      * Busca um cliente por telefone
      */
-    public Cliente buscarPorTelefone(String telefone) throws ClienteNaoEncontradoException {
+    public synchronized Cliente buscarPorTelefone(String telefone) throws ClienteNaoEncontradoException {
         return clientes.stream()
                       .filter(c -> c.getTelefone().equals(telefone))
                       .findFirst()
@@ -58,7 +84,7 @@ public class ClienteService {
     /**
      * Busca clientes por nome (busca parcial)
      */
-    public List<Cliente> buscarPorNome(String nome) {
+    public synchronized List<Cliente> buscarPorNome(String nome) {
         return clientes.stream()
                       .filter(c -> c.getNome().toLowerCase().contains(nome.toLowerCase()))
                       .toList();
@@ -67,46 +93,56 @@ public class ClienteService {
     /**
      * Lista todos os clientes
      */
-    public List<Cliente> listarTodos() {
+    public synchronized List<Cliente> listarTodos() {
         return new ArrayList<>(clientes);
     }
 
     /**
      * Atualiza um cliente existente
      */
+    @SuppressWarnings("try")
     public Cliente atualizarCliente(Cliente cliente) throws IOException, ClienteNaoEncontradoException {
-        Optional<Cliente> clienteExistente = clientes.stream()
-                                                    .filter(c -> c.getId() == cliente.getId())
-                                                    .findFirst();
+        try (TravaDeArquivo trava = JsonPersistence.travar(CLIENTES_FILE)) {
+            synchronized (this) {
+                Optional<Cliente> clienteExistente = clientes.stream()
+                                                            .filter(c -> c.getId() == cliente.getId())
+                                                            .findFirst();
         
-        if (clienteExistente.isEmpty()) {
-            throw new ClienteNaoEncontradoException(cliente.getId());
+                if (clienteExistente.isEmpty()) {
+                    throw new ClienteNaoEncontradoException(cliente.getId());
+                }
+
+                // Remove o cliente antigo e adiciona o atualizado
+                clientes.removeIf(c -> c.getId() == cliente.getId());
+                clientes.add(cliente);
+                salvarDados();
+                return cliente;
+            }
         }
-
-        // Remove o cliente antigo e adiciona o atualizado
-        clientes.removeIf(c -> c.getId() == cliente.getId());
-        clientes.add(cliente);
-        salvarDados();
-        return cliente;
     }
 
     /**
      * Remove um cliente
      */
+    @SuppressWarnings("try")
     public void removerCliente(int id) throws IOException, ClienteNaoEncontradoException {
-        boolean removido = clientes.removeIf(c -> c.getId() == id);
+        try (TravaDeArquivo trava = JsonPersistence.travar(CLIENTES_FILE)) {
+            synchronized (this) {
+                boolean removido = clientes.removeIf(c -> c.getId() == id);
         
-        if (!removido) {
-            throw new ClienteNaoEncontradoException(id);
-        }
+                if (!removido) {
+                    throw new ClienteNaoEncontradoException(id);
+                }
         
-        salvarDados();
+                salvarDados();
+            }
+        }
     }
 
     /**
      * Verifica se um telefone já está cadastrado
      */
-    public boolean telefoneJaCadastrado(String telefone) {
+    public synchronized boolean telefoneJaCadastrado(String telefone) {
         return clientes.stream()
                       .anyMatch(c -> c.getTelefone().equals(telefone));
     }
@@ -114,7 +150,7 @@ public class ClienteService {
     /**
      * Verifica se um telefone já está cadastrado por outro cliente
      */
-    public boolean telefoneJaCadastradoPorOutro(String telefone, int clienteId) {
+    public synchronized boolean telefoneJaCadastradoPorOutro(String telefone, int clienteId) {
         return clientes.stream()
                       .anyMatch(c -> c.getTelefone().equals(telefone) && c.getId() != clienteId);
     }
@@ -122,7 +158,7 @@ public class ClienteService {
     /**
      * Obtém o total de clientes cadastrados
      */
-    public int getTotalClientes() {
+    public synchronized int getTotalClientes() {
         return clientes.size();
     }
 
@@ -147,9 +183,23 @@ public class ClienteService {
     }
 
     /**
-     * Salva os dados no arquivo JSON
+     * Relê os clientes gravados por outro processo (chamado com a trava do arquivo)
+     */
+    private synchronized void recarregar() {
+        carregarDados();
+    }
+
+    /**
+     * Desfaz o cadastro de um cliente de uma unidade de trabalho não confirmada
+     */
+    private synchronized void descartarCliente(Cliente cliente) {
+        clientes.remove(cliente);
+    }
+
+    /**
+     * Salva os dados no arquivo JSON (na confirmação, dentro de uma unidade de trabalho)
      */
     private void salvarDados() throws IOException {
-        JsonPersistence.saveToFile(clientes, CLIENTES_FILE);
+        JsonPersistence.saveToFile(() -> clientes, CLIENTES_FILE, this);
     }
 }
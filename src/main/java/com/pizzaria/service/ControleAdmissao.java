@@ -0,0 +1,308 @@
+package com.pizzaria.service;
+
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.evento.TipoEventoPedido;
+import com.pizzaria.exception.CapacidadeExcedidaException;
+import com.pizzaria.model.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Controle de admissão de pedidos no pico: acompanha a carga em aberto na cozinha
+ * (pedidos abertos e minutos de forno por estação) e decide, para cada novo pedido,
+ * se ele é aceito, aceito com prazo maior, colocado em espera ou recusado.
+ *
+ * A avaliação não usa lock global: a carga é reservada de forma otimista com
+ * contadores atômicos e desfeita quando o pedido é recusado. A liberação é feita pelo
+ * serviço de pedidos na própria mudança de status (saída para entrega, conclusão ou
+ * cancelamento), não pelo barramento, que descarta eventos de consumidores atrasados;
+ * pelos eventos chegam só os ajustes de itens, que não deixam reserva presa.
+ *
+ * A espera é indicativa: o pedido EM_ESPERA entra na fila (listarEspera, proximoDaEspera)
+ * para o operador e o painel da cozinha decidirem a ordem de preparo, mas a confirmação
+ * do pedido não é bloqueada por ela.
+ */
+public class ControleAdmissao implements OuvinteEventoPedido {
+    private static final int PRAZO_BASE_BALCAO = 20;   // minutos além da fila do forno
+    private static final int PRAZO_BASE_DELIVERY = 45;
+
+    private final int numeroEstacoes;
+    private final AtomicInteger pedidosAbertos;
+    private final AtomicLong minutosForno;
+    private final Map<Integer, Reserva> reservas;
+    private final Queue<Integer> filaEspera;
+    private final LongAdder aceitos;
+    private final LongAdder aceitosComAtraso;
+    private final LongAdder emEspera;
+    private final LongAdder recusados;
+
+    private volatile int limiteAtraso = 20;     // minutos de forno por estação
+    private volatile int limiteEspera = 40;
+    private volatile int limiteRecusa = 60;
+    private volatile int maximoPedidosAbertos = 100;
+
+    /**
+     * Reserva de carga de um pedido admitido
+     */
+    private static final class Reserva {
+        private final DecisaoAdmissao decisao;
+        private int minutos;
+
+        private Reserva(DecisaoAdmissao decisao, int minutos) {
+            this.decisao = decisao;
+            this.minutos = minutos;
+        }
+    }
+
+    public ControleAdmissao(int numeroEstacoes) {
+        if (numeroEstacoes <= 0) {
+            throw new IllegalArgumentException("Número de estações deve ser positivo");
+        }
+        this.numeroEstacoes = numeroEstacoes;
+        this.pedidosAbertos = new AtomicInteger();
+        this.minutosForno = new AtomicLong();
+        this.reservas = new ConcurrentHashMap<>();
+        this.filaEspera = new ConcurrentLinkedQueue<>();
+        this.aceitos = new LongAdder();
+        this.aceitosComAtraso = new LongAdder();
+        this.emEspera = new LongAdder();
+        this.recusados = new LongAdder();
+    }
+
+    /**
+     * Define os limites, em minutos de forno por estação, a partir dos quais
+     * o pedido recebe prazo maior, vai para a espera ou é recusado
+     */
+    public void definirLimites(int atraso, int espera, int recusa) {
+        if (atraso <= 0 || espera < atraso || recusa < espera) {
+            throw new IllegalArgumentException("Limites devem ser positivos e crescentes");
+        }
+        this.limiteAtraso = atraso;
+        this.limiteEspera = espera;
+        this.limiteRecusa = recusa;
+    }
+
+    /**
+     * Define o número máximo de pedidos abertos na cozinha
+     */
+    public void definirMaximoPedidosAbertos(int maximo) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("Máximo de pedidos abertos deve ser positivo");
+        }
+        this.maximoPedidosAbertos = maximo;
+    }
+
+    /**
+     * Carrega a carga dos pedidos que já estavam abertos (pendentes ou em preparo)
+     */
+    public void inicializar(List<Pedido> pedidosEmAberto) {
+        for (Pedido pedido : pedidosEmAberto) {
+            int minutos = calcularMinutosForno(pedido.getItensDoPedido());
+            DecisaoAdmissao decisao = new DecisaoAdmissao(DecisaoAdmissao.Resultado.ACEITO,
+                                                          pedido.getPrazoPrometido(), minutos, null);
+            if (reservas.putIfAbsent(pedido.getId(), new Reserva(decisao, minutos)) == null) {
+                pedidosAbertos.incrementAndGet();
+                minutosForno.addAndGet(minutos);
+            }
+        }
+    }
+
+    /**
+     * Avalia e reserva a carga de um novo pedido. A reserva precisa ser vinculada
+     * ao pedido criado (vincular) ou desfeita se a criação falhar (desfazer).
+     */
+    public DecisaoAdmissao admitir(List<ItemPedido> itens, boolean delivery) throws CapacidadeExcedidaException {
+        int minutos = calcularMinutosForno(itens);
+
+        // Reserva otimista: soma primeiro e desfaz se passar do limite
+        int abertos = pedidosAbertos.incrementAndGet();
+        long porEstacao = minutosPorEstacao(minutosForno.addAndGet(minutos));
+
+        if (abertos > maximoPedidosAbertos || porEstacao >= limiteRecusa) {
+            pedidosAbertos.decrementAndGet();
+            minutosForno.addAndGet(-minutos);
+            recusados.increment();
+            String motivo = abertos > maximoPedidosAbertos
+                    ? "limite de pedidos abertos atingido"
+                    : "cozinha saturada";
+            throw new CapacidadeExcedidaException(motivo, abertos - 1, porEstacao);
+        }
+
+        int prazoBase = delivery ? PRAZO_BASE_DELIVERY : PRAZO_BASE_BALCAO;
+        LocalDateTime prazo = LocalDateTime.now().plusMinutes(prazoBase + porEstacao);
+
+        if (porEstacao >= limiteEspera) {
+            emEspera.increment();
+            return new DecisaoAdmissao(DecisaoAdmissao.Resultado.EM_ESPERA, prazo, minutos,
+                String.format("fila do forno com %d min por estação; preparo só quando liberar", porEstacao));
+        }
+        if (porEstacao >= limiteAtraso) {
+            aceitosComAtraso.increment();
+            return new DecisaoAdmissao(DecisaoAdmissao.Resultado.ACEITO_COM_ATRASO, prazo, minutos,
+                String.format("fila do forno com %d min por estação", porEstacao));
+        }
+        aceitos.increment();
+        return new DecisaoAdmissao(DecisaoAdmissao.Resultado.ACEITO, prazo, minutos, null);
+    }
+
+    /**
+     * Vincula a reserva de uma decisão ao pedido criado
+     */
+    public void vincular(int pedidoId, DecisaoAdmissao decisao) {
+        reservas.put(pedidoId, new Reserva(decisao, decisao.getMinutosForno()));
+        if (decisao.getResultado() == DecisaoAdmissao.Resultado.EM_ESPERA) {
+            filaEspera.add(pedidoId);
+        }
+    }
+
+    /**
+     * Desfaz a reserva de uma decisão cujo pedido não chegou a ser criado
+     */
+    public void desfazer(DecisaoAdmissao decisao) {
+        pedidosAbertos.decrementAndGet();
+        minutosForno.addAndGet(-decisao.getMinutosForno());
+    }
+
+    /**
+     * Devolve a reserva de um pedido cuja criação foi desfeita
+     */
+    public void desvincular(int pedidoId) {
+        liberar(pedidoId);
+    }
+
+    /**
+     * Acompanha a mudança de status de um pedido (chamado pelo serviço de pedidos):
+     * libera a reserva quando ele sai da cozinha e o tira da espera quando entra em preparo
+     */
+    public void registrarStatus(int pedidoId, StatusPedido status) {
+        switch (status) {
+            case SAIU_PARA_ENTREGA, CONCLUIDO, CANCELADO -> liberar(pedidoId);
+            case EM_PREPARO -> filaEspera.remove(pedidoId);
+            default -> { }
+        }
+    }
+
+    /**
+     * Obtém a decisão de admissão de um pedido aberto, ou null se já foi liberado
+     */
+    public DecisaoAdmissao getDecisao(int pedidoId) {
+        Reserva reserva = reservas.get(pedidoId);
+        return reserva != null ? reserva.decisao : null;
+    }
+
+    /**
+     * Verifica se a fila do forno está abaixo do limite de espera
+     */
+    public boolean haCapacidade() {
+        return getMinutosPorEstacao() < limiteEspera;
+    }
+
+    /**
+     * Retira o próximo pedido da espera, se houver capacidade para iniciá-lo (sugestão
+     * de ordem de preparo; nada impede confirmar outro pedido antes)
+     */
+    public Integer proximoDaEspera() {
+        if (!haCapacidade()) {
+            return null;
+        }
+        Integer pedidoId;
+        while ((pedidoId = filaEspera.poll()) != null) {
+            if (reservas.containsKey(pedidoId)) {
+                return pedidoId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lista os pedidos em espera, na ordem de chegada
+     */
+    public List<Integer> listarEspera() {
+        return filaEspera.stream()
+                         .filter(reservas::containsKey)
+                         .toList();
+    }
+
+    public int getPedidosAbertos() {
+        return pedidosAbertos.get();
+    }
+
+    /**
+     * Minutos de forno em aberto divididos entre as estações
+     */
+    public long getMinutosPorEstacao() {
+        return minutosPorEstacao(minutosForno.get());
+    }
+
+    /**
+     * Obtém o resumo da carga e das decisões tomadas
+     */
+    public String getResumo() {
+        return String.format(
+            "Admissão: %d pedidos abertos, %d min de forno por estação, %d em espera. " +
+            "Aceitos: %d, com atraso: %d, em espera: %d, recusados: %d",
+            getPedidosAbertos(), getMinutosPorEstacao(), listarEspera().size(),
+            aceitos.sum(), aceitosComAtraso.sum(), emEspera.sum(), recusados.sum()
+        );
+    }
+
+    @Override
+    public void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        // Um ajuste perdido só deixa a reserva imprecisa até a liberação, que desconta o total dela
+        switch (evento.getTipo()) {
+            case ITEM_ADICIONADO, ITEM_REMOVIDO -> ajustarReserva(evento);
+            default -> { }
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void ajustarReserva(EventoPedido evento) {
+        if (!(evento.getItem() instanceof Pizza pizza)) {
+            return;
+        }
+        int delta = pizza.getTamanho().getMinutosForno() * evento.getQuantidade();
+        if (evento.getTipo() == TipoEventoPedido.ITEM_REMOVIDO) {
+            delta = -delta;
+        }
+        int ajuste = delta;
+        // computeIfPresent trava só a entrada do pedido, não o mapa inteiro
+        reservas.computeIfPresent(evento.getPedidoId(), (id, reserva) -> {
+            reserva.minutos += ajuste;
+            minutosForno.addAndGet(ajuste);
+            return reserva;
+        });
+    }
+
+    private void liberar(int pedidoId) {
+        Reserva reserva = reservas.remove(pedidoId);
+        if (reserva != null) {
+            pedidosAbertos.decrementAndGet();
+            minutosForno.addAndGet(-reserva.minutos);
+            filaEspera.remove(pedidoId);
+        }
+    }
+
+    private long minutosPorEstacao(long minutos) {
+        return (minutos + numeroEstacoes - 1) / numeroEstacoes;
+    }
+
+    private int calcularMinutosForno(List<ItemPedido> itens) {
+        int minutos = 0;
+        for (ItemPedido itemPedido : itens) {
+            if (itemPedido.getItem() instanceof Pizza pizza) {
+                minutos += pizza.getTamanho().getMinutosForno() * itemPedido.getQuantidade();
+            }
+        }
+        return minutos;
+    }
+}
@@ -0,0 +1,71 @@
+package com.pizzaria.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Classe que representa a decisão do controle de admissão para um novo pedido:
+ * o resultado, o horário prometido ao cliente e o motivo quando há atraso ou espera
+ */
+public class DecisaoAdmissao {
+    /**
+     * Resultados possíveis da admissão, do mais ao menos favorável
+     */
+    public enum Resultado {
+        ACEITO("Aceito"),
+        ACEITO_COM_ATRASO("Aceito com atraso"),
+        EM_ESPERA("Em espera"),
+        RECUSADO("Recusado");
+
+        private final String descricao;
+
+        Resultado(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    private final Resultado resultado;
+    private final LocalDateTime prazoPrometido;
+    private final int minutosForno;
+    private final String motivo;
+
+    public DecisaoAdmissao(Resultado resultado, LocalDateTime prazoPrometido, int minutosForno, String motivo) {
+        this.resultado = resultado;
+        this.prazoPrometido = prazoPrometido;
+        this.minutosForno = minutosForno;
+        this.motivo = motivo;
+    }
+
+    // Getters
+    public Resultado getResultado() {
+        return resultado;
+    }
+
+    public LocalDateTime getPrazoPrometido() {
+        return prazoPrometido;
+    }
+
+    /**
+     * Minutos de forno reservados para o pedido
+     */
+    public int getMinutosForno() {
+        return minutosForno;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    @Override
+    public String toString() {
+        return motivo != null ? resultado + " - " + motivo : resultado.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package com.pizzaria.service;
+
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.StatusPedido;
+import com.pizzaria.util.Dinheiro;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatísticas de pedidos mantidas de forma incremental: contadores por status e
+ * faturamento (pedidos concluídos) por dia do pedido, atualizados a cada criação
+ * e mudança de status. As consultas são O(1) em vez de percorrer o histórico.
+ *
+ * Os valores são acumulados em centavos, então a soma não depende da ordem das
+ * atualizações e a reconstrução após reiniciar dá exatamente o mesmo resultado.
+ */
+public class EstatisticasPedidos {
+    private final AtomicIntegerArray porStatus;
+    private final LongAdder total;
+    private final LongAdder faturamentoTotalCentavos;
+    private final Map<LocalDate, LongAdder> faturamentoPorDiaCentavos;
+
+    public EstatisticasPedidos() {
+        this.porStatus = new AtomicIntegerArray(StatusPedido.values().length);
+        this.total = new LongAdder();
+        this.faturamentoTotalCentavos = new LongAdder();
+        this.faturamentoPorDiaCentavos = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Recalcula tudo a partir do histórico carregado do arquivo
+     */
+    public void reconstruir(List<Pedido> pedidos) {
+        for (int i = 0; i < porStatus.length(); i++) {
+            porStatus.set(i, 0);
+        }
+        total.reset();
+        faturamentoTotalCentavos.reset();
+        faturamentoPorDiaCentavos.clear();
+
+        for (Pedido pedido : pedidos) {
+            registrarNovo(pedido);
+        }
+    }
+
+    /**
+     * Registra um pedido recém-criado (ou carregado) no seu status atual
+     */
+    public void registrarNovo(Pedido pedido) {
+        total.increment();
+        porStatus.incrementAndGet(pedido.getStatus().ordinal());
+        if (pedido.getStatus() == StatusPedido.CONCLUIDO) {
+            somarFaturamento(pedido, 1);
+        }
+    }
+
+    /**
+     * Desfaz o registro de um pedido cuja criação não chegou a ser gravada
+     */
+    public void desfazerNovo(Pedido pedido) {
+        total.decrement();
+        porStatus.decrementAndGet(pedido.getStatus().ordinal());
+        if (pedido.getStatus() == StatusPedido.CONCLUIDO) {
+            somarFaturamento(pedido, -1);
+        }
+    }
+
+    /**
+     * Registra a mudança de status de um pedido (inclusive cancelamento)
+     */
+    public void registrarMudanca(Pedido pedido, StatusPedido statusAnterior) {
+        StatusPedido statusNovo = pedido.getStatus();
+        if (statusNovo == statusAnterior) {
+            return;
+        }
+        porStatus.decrementAndGet(statusAnterior.ordinal());
+        porStatus.incrementAndGet(statusNovo.ordinal());
+
+        if (statusNovo == StatusPedido.CONCLUIDO) {
+            somarFaturamento(pedido, 1);
+        } else if (statusAnterior == StatusPedido.CONCLUIDO) {
+            somarFaturamento(pedido, -1);
+        }
+    }
+
+    /**
+     * Obtém o total de pedidos registrados
+     */
+    public int getTotal() {
+        return total.intValue();
+    }
+
+    /**
+     * Obtém o número de pedidos em um status
+     */
+    public int contarPorStatus(StatusPedido status) {
+        return porStatus.get(status.ordinal());
+    }
+
+    /**
+     * Faturamento dos pedidos concluídos feitos no dia informado
+     */
+    public double getFaturamentoDoDia(LocalDate dia) {
+        LongAdder centavos = faturamentoPorDiaCentavos.get(dia);
+        return centavos != null ? Dinheiro.paraReais(centavos.sum()) : 0.0;
+    }
+
+    /**
+     * Faturamento de todos os pedidos concluídos
+     */
+    public double getFaturamentoTotal() {
+        return Dinheiro.paraReais(faturamentoTotalCentavos.sum());
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void somarFaturamento(Pedido pedido, int sinal) {
+        long centavos = sinal * pedido.getValorTotalCentavos();
+        faturamentoTotalCentavos.add(centavos);
+        faturamentoPorDiaCentavos.computeIfAbsent(pedido.getDataHora().toLocalDate(), dia -> new LongAdder())
+                                 .add(centavos);
+    }
+}
@@ -0,0 +1,280 @@
+package com.pizzaria.service;
+
+import com.google.gson.JsonParseException;
+import com.pizzaria.evento.EventoPedido;
+import com.pizzaria.evento.OuvinteEventoPedido;
+import com.pizzaria.model.Fechamento;
+import com.pizzaria.model.Pedido;
+import com.pizzaria.model.StatusPedido;
+import com.pizzaria.util.JsonPersistence;
+import com.pizzaria.util.ThreadUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serviço de fechamento diário de vendas.
+ *
+ * Cada dia encerrado ganha um resumo (Fechamento) gravado em
+ * data/fechamentos/AAAA-MM-DD.json e carregado na partida. Consultas sobre dias
+ * passados viram leituras desses resumos e uma soma pequena, sem percorrer os
+ * pedidos. O dia corrente é mantido em memória e atualizado a cada evento de pedido.
+ *
+ * O fechamento de um dia roda logo depois da meia-noite, quando pedidos daquele dia
+ * ainda podem estar abertos. Se um deles muda depois, o dia é marcado e o resumo é
+ * refeito (e regravado) antes da próxima consulta, para que o faturamento continue
+ * batendo com o das estatísticas. Mudanças feitas com o processo fora do ar são
+ * percebidas na partida pela contagem de pedidos por status.
+ */
+public class FechamentoService implements OuvinteEventoPedido {
+    private static final String FECHAMENTOS_DIR = "fechamentos";
+
+    private final PedidoService pedidoService;
+    private final TreeMap<LocalDate, Fechamento> fechamentos;
+    private final TreeSet<LocalDate> diasComPedidos;
+    private final TreeSet<LocalDate> diasAlterados; // já fechados, com pedidos alterados depois
+    private final Object travaFechamento;
+
+    // Dia corrente: última versão conhecida de cada pedido do dia e a soma delas
+    private LocalDate diaAtual;
+    private final Map<Integer, Pedido> pedidosDoDia;
+    private Fechamento.Acumulador acumuladorDoDia;
+
+    private ScheduledExecutorService agendador;
+
+    public FechamentoService(PedidoService pedidoService) {
+        this.pedidoService = pedidoService;
+        this.fechamentos = new TreeMap<>();
+        this.diasComPedidos = new TreeSet<>();
+        this.diasAlterados = new TreeSet<>();
+        this.travaFechamento = new Object();
+        this.pedidosDoDia = new HashMap<>();
+        carregarDados();
+        reconstruirDiaAtual();
+        fecharDiasPendentes();
+    }
+
+    /**
+     * Agenda o fechamento para rodar logo após cada meia-noite
+     */
+    public synchronized void iniciarAgendamento() {
+        if (agendador != null) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(ThreadUtils.novaFabrica("fechamento", true));
+        LocalDateTime agora = LocalDateTime.now();
+        long ateMeiaNoite = Duration.between(agora, agora.toLocalDate().plusDays(1).atStartOfDay()).toMillis();
+        agendador.scheduleAtFixedRate(this::fecharDiasPendentes, ateMeiaNoite + 1000,
+                                      TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void encerrarAgendamento() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            agendador = null;
+        }
+    }
+
+    /**
+     * Fecha os dias anteriores a hoje que tiveram pedidos e ainda não têm resumo, e
+     * refaz o resumo dos dias com pedidos alterados depois do fechamento
+     */
+    public void fecharDiasPendentes() {
+        // Uma chamada por vez: uma passada mais antiga não pode regravar por cima de uma mais nova
+        synchronized (travaFechamento) {
+            List<LocalDate> pendentes = listarDiasPendentes();
+            if (!pendentes.isEmpty()) {
+                fechar(pendentes);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void aoEvento(EventoPedido evento, long sequencia, boolean fimDoLote) {
+        Pedido pedido = evento.getPedido();
+        LocalDate dia = pedido.getDataHora().toLocalDate();
+        diasComPedidos.add(dia);
+        avancarDia(LocalDate.now());
+        if (!dia.equals(diaAtual)) {
+            // Pedido de um dia anterior: se o dia já foi fechado, o resumo é refeito antes da próxima consulta
+            if (fechamentos.containsKey(dia)) {
+                diasAlterados.add(dia);
+            }
+            return;
+        }
+
+        Pedido anterior = pedidosDoDia.put(pedido.getId(), pedido);
+        if (anterior != null) {
+            acumuladorDoDia.remover(anterior);
+        }
+        acumuladorDoDia.adicionar(pedido);
+    }
+
+    /**
+     * Resumo de um dia: o fechamento gravado, ou o parcial se for hoje
+     * (dias passados sem fechamento são fechados na hora)
+     */
+    public Fechamento getFechamento(LocalDate dia) {
+        fecharDiasPendentes();
+        synchronized (this) {
+            if (dia.equals(diaAtual)) {
+                return acumuladorDoDia.fechar(dia, dia, null);
+            }
+            Fechamento fechamento = fechamentos.get(dia);
+            return fechamento != null ? fechamento : new Fechamento.Acumulador().fechar(dia, dia, null);
+        }
+    }
+
+    /**
+     * Soma dos resumos diários do período (inclusive), com o parcial de hoje se ele
+     * estiver no período
+     */
+    public Fechamento consolidar(LocalDate inicio, LocalDate fim) {
+        Fechamento.Acumulador acumulador = new Fechamento.Acumulador();
+        List<Fechamento> dias = listarDias(inicio, fim);
+        for (Fechamento fechamento : dias) {
+            acumulador.juntar(fechamento);
+        }
+        boolean incluiHoje = !dias.isEmpty() && dias.get(dias.size() - 1).isAberto();
+        return acumulador.fechar(inicio, fim, incluiHoje ? null : LocalDateTime.now());
+    }
+
+    /**
+     * Resumos diários do período, do dia mais antigo para o mais recente
+     */
+    public List<Fechamento> listarDias(LocalDate inicio, LocalDate fim) {
+        fecharDiasPendentes(); // só percorre os pedidos se a meia-noite passou sem fechamento
+        synchronized (this) {
+            List<Fechamento> dias = new ArrayList<>(fechamentos.subMap(inicio, true, fim, true).values());
+            if (!diaAtual.isBefore(inicio) && !diaAtual.isAfter(fim) && !pedidosDoDia.isEmpty()) {
+                dias.add(acumuladorDoDia.fechar(diaAtual, diaAtual, null));
+            }
+            return dias;
+        }
+    }
+
+    public synchronized int getTotalFechamentos() {
+        return fechamentos.size();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Monta os resumos dos dias informados a partir dos pedidos e os grava
+     */
+    private void fechar(List<LocalDate> pendentes) {
+        // Uma passada por uma visão de leitura dos pedidos monta todos os dias pendentes,
+        // sem segurar o lock deste serviço, que o consumidor de eventos também usa
+        Map<LocalDate, Fechamento.Acumulador> acumuladores = new TreeMap<>();
+        for (LocalDate dia : pendentes) {
+            acumuladores.put(dia, new Fechamento.Acumulador());
+        }
+        pedidoService.percorrer(pendentes.get(0), pendentes.get(pendentes.size() - 1), pedido -> {
+            Fechamento.Acumulador acumulador = acumuladores.get(pedido.getDataHora().toLocalDate());
+            if (acumulador != null) {
+                acumulador.adicionar(pedido);
+            }
+        });
+        LocalDateTime agora = LocalDateTime.now();
+        synchronized (this) {
+            for (Map.Entry<LocalDate, Fechamento.Acumulador> entrada : acumuladores.entrySet()) {
+                LocalDate dia = entrada.getKey();
+                Fechamento fechamento = entrada.getValue().fechar(dia, dia, agora);
+                try {
+                    JsonPersistence.saveObjectToFile(fechamento, arquivoDoDia(dia));
+                    fechamentos.put(dia, fechamento);
+                } catch (IOException e) {
+                    System.err.println("Erro ao gravar fechamento de " + dia + ": " + e.getMessage());
+                    if (fechamentos.containsKey(dia)) {
+                        diasAlterados.add(dia); // o resumo antigo continua valendo até a próxima tentativa
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Dias sem resumo e dias alterados depois do fechamento (que saem da marcação: uma
+     * alteração durante a leitura dos pedidos marca o dia de novo)
+     */
+    private synchronized List<LocalDate> listarDiasPendentes() {
+        LocalDate hoje = LocalDate.now();
+        avancarDia(hoje);
+        TreeSet<LocalDate> pendentes = new TreeSet<>(diasAlterados);
+        diasAlterados.clear();
+        for (LocalDate dia : diasComPedidos.headSet(hoje)) {
+            if (!fechamentos.containsKey(dia)) {
+                pendentes.add(dia);
+            }
+        }
+        return new ArrayList<>(pendentes);
+    }
+
+    /**
+     * Começa um novo dia corrente quando a data muda
+     */
+    private void avancarDia(LocalDate hoje) {
+        if (!hoje.equals(diaAtual)) {
+            diaAtual = hoje;
+            pedidosDoDia.clear();
+            acumuladorDoDia = new Fechamento.Acumulador();
+        }
+    }
+
+    /**
+     * Monta o dia corrente e confere, pela contagem por status, os dias já fechados
+     * (um pedido pode ter mudado depois do fechamento sem que o resumo fosse refeito)
+     */
+    private void reconstruirDiaAtual() {
+        avancarDia(LocalDate.now());
+        Map<LocalDate, int[]> contagens = new HashMap<>();
+        for (Pedido pedido : pedidoService.listarTodos()) {
+            LocalDate dia = pedido.getDataHora().toLocalDate();
+            diasComPedidos.add(dia);
+            if (dia.equals(diaAtual)) {
+                Pedido copia = new Pedido(pedido);
+                pedidosDoDia.put(copia.getId(), copia);
+                acumuladorDoDia.adicionar(copia);
+            } else if (fechamentos.containsKey(dia)) {
+                contagens.computeIfAbsent(dia, d -> new int[StatusPedido.values().length])[pedido.getStatus().ordinal()]++;
+            }
+        }
+        for (Map.Entry<LocalDate, int[]> entrada : contagens.entrySet()) {
+            Fechamento fechamento = fechamentos.get(entrada.getKey());
+            for (StatusPedido status : StatusPedido.values()) {
+                if (fechamento.getPedidos(status) != entrada.getValue()[status.ordinal()]) {
+                    diasAlterados.add(entrada.getKey());
+                    break;
+                }
+            }
+        }
+    }
+
+    private String arquivoDoDia(LocalDate dia) {
+        return FECHAMENTOS_DIR + "/" + dia + ".json";
+    }
+
+    private void carregarDados() {
+        for (String arquivo : JsonPersistence.listFiles(FECHAMENTOS_DIR)) {
+            try {
+                Fechamento fechamento = JsonPersistence.loadObjectFromFile(arquivo, Fechamento.class);
+                if (fechamento != null) {
+                    fechamentos.put(fechamento.getInicio(), fechamento);
+                }
+            } catch (IOException | JsonParseException e) {
+                System.err.println("Erro ao carregar fechamento " + arquivo + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.pizzaria.service;
 import com.pizzaria.exception.EstoqueInsuficienteException;
 import com.pizzaria.model.Ingrediente;
 import com.pizzaria.util.JsonPersistence;
+import com.pizzaria.util.TravaDeArquivo;
+import com.pizzaria.util.UnidadeDeTrabalho;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
@@ -23,22 +25,28 @@ public class IngredienteService {
         this.ingredientes = new ArrayList<>();
         this.proximoId = 1;
         carregarDados();
+        JsonPersistence.aoAlterarEmOutroProcesso(INGREDIENTES_FILE, this::recarregar);
     }
 
     /**
      * Cria um novo ingrediente
      */
+    @SuppressWarnings("try")
     public Ingrediente criarIngrediente(Ingrediente ingrediente) throws IOException {
-        ingrediente.setId(proximoId++);
-        ingredientes.add(ingrediente);
-        salvarDados();
-        return ingrediente;
+        try (TravaDeArquivo trava = JsonPersistence.travar(INGREDIENTES_FILE)) {
+            synchronized (this) {
+                ingrediente.setId(proximoId++);
+                ingredientes.add(ingrediente);
+                salvarDados();
+                return ingrediente;
+            }
+        }
     }
 
     /**
      * Busca um ingrediente por ID
      */
-    public Ingrediente buscarPorId(int id) {
+    public synchronized Ingrediente buscarPorId(int id) {
         return ingredientes.stream()
                           .filter(i -> i.getId() == id)
                           .findFirst()
@@ -48,7 +56,7 @@ public class IngredienteService {
     /**
      * Busca ingredientes por nome (busca parcial)
      */
-    public List<Ingrediente> buscarPorNome(String nome) {
+    public synchronized List<Ingrediente> buscarPorNome(String nome) {
         return ingredientes.stream()
                           .filter(i -> i.getNome().toLowerCase().contains(nome.toLowerCase()))
                           .toList();
@@ -57,14 +65,14 @@ public class IngredienteService {
     /**
      * Lista todos os ingredientes
      */
-    public List<Ingrediente> listarTodos() {
+    public synchronized List<Ingrediente> listarTodos() {
         return new ArrayList<>(ingredientes);
     }
 
     /**
      * Lista ingredientes disponíveis (com estoque > 0)
      */
-    public List<Ingrediente> listarDisponiveis() {
+    public synchronized List<Ingrediente> listarDisponiveis() {
         return ingredientes.stream()
                           .filter(Ingrediente::temEstoque)
                           .toList();
@@ -73,7 +81,7 @@ public class IngredienteService {
     /**
      * Lista ingredientes em falta (estoque = 0)
      */
-    public List<Ingrediente> listarEmFalta() {
+    public synchronized List<Ingrediente> listarEmFalta() {
         return ingredientes.stream()
                           .filter(i -> !i.temEstoque())
                           .toList();
@@ -82,72 +90,93 @@ public class IngredienteService {
     /**
      * Atualiza um ingrediente existente
      */
+    @SuppressWarnings("try")
     public Ingrediente atualizarIngrediente(Ingrediente ingrediente) throws IOException {
-        Optional<Ingrediente> ingredienteExistente = ingredientes.stream()
-                                                                .filter(i -> i.getId() == ingrediente.getId())
-                                                                .findFirst();
+        try (TravaDeArquivo trava = JsonPersistence.travar(INGREDIENTES_FILE)) {
+            synchronized (this) {
+                Optional<Ingrediente> ingredienteExistente = ingredientes.stream()
+                                                                        .filter(i -> i.getId() == ingrediente.getId())
+                                                                        .findFirst();
         
-        if (ingredienteExistente.isEmpty()) {
-            throw new IllegalArgumentException("Ingrediente não encontrado");
-        }
+                if (ingredienteExistente.isEmpty()) {
+                    throw new IllegalArgumentException("Ingrediente não encontrado");
+                }
 
-        ingredientes.removeIf(i -> i.getId() == ingrediente.getId());
-        ingredientes.add(ingrediente);
-        salvarDados();
-        return ingrediente;
+                ingredientes.removeIf(i -> i.getId() == ingrediente.getId());
+                ingredientes.add(ingrediente);
+                salvarDados();
+                return ingrediente;
+            }
+        }
     }
 
     /**
      * Remove um ingrediente
      */
+    @SuppressWarnings("try")
     public void removerIngrediente(int id) throws IOException {
-        boolean removido = ingredientes.removeIf(i -> i.getId() == id);
+        try (TravaDeArquivo trava = JsonPersistence.travar(INGREDIENTES_FILE)) {
+            synchronized (this) {
+                boolean removido = ingredientes.removeIf(i -> i.getId() == id);
         
-        if (!removido) {
-            throw new IllegalArgumentException("Ingrediente não encontrado");
-        }
+                if (!removido) {
+                    throw new IllegalArgumentException("Ingrediente não encontrado");
+                }
         
-        salvarDados();
+                salvarDados();
+            }
+        }
     }
 
     /**
      * Adiciona estoque de um ingrediente
      */
+    @SuppressWarnings("try")
     public void adicionarEstoque(int ingredienteId, int quantidade) throws IOException {
-        Ingrediente ingrediente = buscarPorId(ingredienteId);
-        if (ingrediente == null) {
-            throw new IllegalArgumentException("Ingrediente não encontrado");
-        }
+        try (TravaDeArquivo trava = JsonPersistence.travar(INGREDIENTES_FILE)) {
+            synchronized (this) {
+                Ingrediente ingrediente = buscarPorId(ingredienteId);
+                if (ingrediente == null) {
+                    throw new IllegalArgumentException("Ingrediente não encontrado");
+                }
 
-        ingrediente.aumentarEstoque(quantidade);
-        salvarDados();
+                ingrediente.aumentarEstoque(quantidade);
+                salvarDados();
+            }
+        }
     }
 
     /**
      * Reduz estoque de um ingrediente
      */
+    @SuppressWarnings("try")
     public void reduzirEstoque(int ingredienteId, int quantidade) throws IOException, EstoqueInsuficienteException {
-        Ingrediente ingrediente = buscarPorId(ingredienteId);
-        if (ingrediente == null) {
-            throw new IllegalArgumentException("Ingrediente não encontrado");
-        }
+        try (TravaDeArquivo trava = JsonPersistence.travar(INGREDIENTES_FILE)) {
+            synchronized (this) {
+                Ingrediente ingrediente = buscarPorId(ingredienteId);
+                if (ingrediente == null) {
+                    throw new IllegalArgumentException("Ingrediente não encontrado");
+                }
 
-        if (ingrediente.getQuantidadeEmEstoque() < quantidade) {
-            throw new EstoqueInsuficienteException(
-                ingrediente.getNome(), 
-                ingrediente.getQuantidadeEmEstoque(), 
-                quantidade
-            );
-        }
+                if (ingrediente.getQuantidadeEmEstoque() < quantidade) {
+                    throw new EstoqueInsuficienteException(
+                        ingrediente.getNome(), 
+                        ingrediente.getQuantidadeEmEstoque(), 
+                        quantidade
+                    );
+                }
 
-        ingrediente.reduzirEstoque(quantidade);
-        salvarDados();
+                ingrediente.reduzirEstoque(quantidade);
+                UnidadeDeTrabalho.aoDesfazer(() -> devolverEstoque(ingrediente, quantidade));
+                salvarDados();
+            }
+        }
     }
 
     /**
      * Verifica se há estoque suficiente para uma lista de ingredientes
      */
-    public void verificarEstoqueDisponivel(List<Ingrediente> ingredientesNecessarios) throws EstoqueInsuficienteException {
+    public synchronized void verificarEstoqueDisponivel(List<Ingrediente> ingredientesNecessarios) throws EstoqueInsuficienteException {
         for (Ingrediente ingrediente : ingredientesNecessarios) {
             Ingrediente ingredienteEstoque = buscarPorId(ingrediente.getId());
             if (ingredienteEstoque == null || !ingredienteEstoque.temEstoque()) {
@@ -163,20 +192,25 @@ public class IngredienteService {
     /**
      * Consome ingredientes do estoque (para preparar uma pizza)
      */
+    @SuppressWarnings("try")
     public void consumirIngredientes(List<Ingrediente> ingredientes) throws IOException, EstoqueInsuficienteException {
-        // Primeiro verifica se todos os ingredientes estão disponíveis
-        verificarEstoqueDisponivel(ingredientes);
+        try (TravaDeArquivo trava = JsonPersistence.travar(INGREDIENTES_FILE)) {
+            synchronized (this) {
+                // Primeiro verifica se todos os ingredientes estão disponíveis
+                verificarEstoqueDisponivel(ingredientes);
         
-        // Se passou na verificação, consome todos
-        for (Ingrediente ingrediente : ingredientes) {
-            reduzirEstoque(ingrediente.getId(), 1);
+                // Se passou na verificação, consome todos
+                for (Ingrediente ingrediente : ingredientes) {
+                    reduzirEstoque(ingrediente.getId(), 1);
+                }
+            }
         }
     }
 
     /**
      * Verifica se um nome de ingrediente já está cadastrado
      */
-    public boolean nomeJaCadastrado(String nome) {
+    public synchronized boolean nomeJaCadastrado(String nome) {
         return ingredientes.stream()
                           .anyMatch(i -> i.getNome().equalsIgnoreCase(nome));
     }
@@ -184,7 +218,7 @@ public class IngredienteService {
     /**
      * Verifica se um nome já está cadastrado por outro ingrediente
      */
-    public boolean nomeJaCadastradoPorOutro(String nome, int ingredienteId) {
+    public synchronized boolean nomeJaCadastradoPorOutro(String nome, int ingredienteId) {
         return ingredientes.stream()
                           .anyMatch(i -> i.getNome().equalsIgnoreCase(nome) && i.getId() != ingredienteId);
     }
@@ -192,7 +226,7 @@ public class IngredienteService {
     /**
      * Obtém o total de ingredientes cadastrados
      */
-    public int getTotalIngredientes() {
+    public synchronized int getTotalIngredientes() {
         return ingredientes.size();
     }
 
@@ -216,9 +250,23 @@ public class IngredienteService {
     }
 
     /**
-     * Salva os dados no arquivo JSON
+     * Relê o estoque gravado por outro processo (chamado com a trava do arquivo)
+     */
+    private synchronized void recarregar() {
+        carregarDados();
+    }
+
+    /**
+     * Devolve o estoque reduzido em uma unidade de trabalho não confirmada
+     */
+    private synchronized void devolverEstoque(Ingrediente ingrediente, int quantidade) {
+        ingrediente.aumentarEstoque(quantidade);
+    }
+
+    /**
+     * Salva os dados no arquivo JSON (na confirmação, dentro de uma unidade de trabalho)
      */
     private void salvarDados() throws IOException {
-        JsonPersistence.saveToFile(ingredientes, INGREDIENTES_FILE);
+        JsonPersistence.saveToFile(() -> ingredientes, INGREDIENTES_FILE, this);
     }
 }
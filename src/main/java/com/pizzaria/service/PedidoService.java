@@ -1,8 +1,12 @@
 package com.pizzaria.service;
 
+import com.pizzaria.evento.BarramentoEventosPedido;
+import com.pizzaria.evento.TipoEventoPedido;
 import com.pizzaria.exception.*;
 import com.pizzaria.model.*;
 import com.pizzaria.util.JsonPersistence;
+import com.pizzaria.util.TravaDeArquivo;
+import com.pizzaria.util.UnidadeDeTrabalho;
 import com.google.gson.reflect.TypeToken;
 
 import java.io.IOException;
@@ -10,72 +14,273 @@ import java.lang.reflect.Type;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Serviço responsável pelo CRUD de pedidos e lógica de negócio relacionada
  */
 public class PedidoService {
-    private static final String PEDIDOS_FILE = "pedidos.json";
+    protected static final String PEDIDOS_FILE = "pedidos.json";
+    private static final int BLOCO_VARREDURA = 4096;
     
     private List<Pedido> pedidos;
+    private final Map<Integer, Integer> posicaoDosAbertos;   // ID -> posição na lista, só pedidos abertos
+    private final Set<Integer> idsNaLista;                   // IDs de todos os pedidos da lista
+    private final AtomicInteger visoesAbertas;
     private int proximoId;
     private ClienteService clienteService;
     private IngredienteService ingredienteService;
     private CardapioService cardapioService;
+    private final BarramentoEventosPedido eventos;
+    private final EstatisticasPedidos estatisticas;
+    private volatile ControleAdmissao controleAdmissao;
 
     public PedidoService(ClienteService clienteService, IngredienteService ingredienteService, CardapioService cardapioService) {
         this.pedidos = new ArrayList<>();
+        this.posicaoDosAbertos = new HashMap<>();
+        this.idsNaLista = new HashSet<>();
+        this.visoesAbertas = new AtomicInteger();
         this.proximoId = 1;
         this.clienteService = clienteService;
         this.ingredienteService = ingredienteService;
         this.cardapioService = cardapioService;
+        this.eventos = new BarramentoEventosPedido();
+        this.estatisticas = new EstatisticasPedidos();
         carregarDados();
+        JsonPersistence.aoAlterarEmOutroProcesso(PEDIDOS_FILE, this::recarregar);
+    }
+
+    /**
+     * Obtém o barramento onde são publicados os eventos de pedido
+     * (criação, itens, mudanças de status e cancelamento)
+     */
+    public BarramentoEventosPedido getEventos() {
+        return eventos;
+    }
+
+    /**
+     * Obtém os contadores de pedidos mantidos a cada criação e mudança de status
+     */
+    public EstatisticasPedidos getEstatisticasPedidos() {
+        return estatisticas;
+    }
+
+    /**
+     * Define o controle de admissão consultado antes de cada novo pedido
+     * (null desativa o controle e todo pedido é aceito)
+     */
+    public void setControleAdmissao(ControleAdmissao controleAdmissao) {
+        this.controleAdmissao = controleAdmissao;
+    }
+
+    public ControleAdmissao getControleAdmissao() {
+        return controleAdmissao;
     }
 
     /**
      * Cria um novo pedido
      */
-    public Pedido criarPedido(Cliente cliente, List<ItemPedido> itens) throws IOException, EstoqueInsuficienteException {
-        // Verifica estoque antes de criar o pedido
-        verificarEstoqueParaPedido(itens);
+    @SuppressWarnings("try")
+    public Pedido criarPedido(Cliente cliente, List<ItemPedido> itens) 
+            throws IOException, EstoqueInsuficienteException, CapacidadeExcedidaException {
+        // A admissão é avaliada fora do lock do serviço: recusas no pico não disputam com os caixas
+        DecisaoAdmissao decisao = admitir(itens, false);
+        boolean vinculada = false;
         
-        Pedido pedido = new Pedido(proximoId++, cliente);
-        pedido.setItensDoPedido(itens);
-        pedido.calcularValorTotal();
-        
-        pedidos.add(pedido);
-        // Remover a adição do pedido ao cliente para evitar referência circular
-        // cliente.adicionarPedido(pedido);
-        
-        salvarDados();
-        return pedido;
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                // Verifica estoque antes de criar o pedido
+                verificarEstoqueParaPedido(itens);
+            
+                Pedido pedido = new Pedido(proximoId++, cliente);
+                pedido.setItensDoPedido(itens);
+                pedido.calcularValorTotal();
+                vincularAdmissao(pedido, decisao);
+                vinculada = true;
+            
+                pedidos.add(pedido);
+                idsNaLista.add(pedido.getId());
+                posicaoDosAbertos.put(pedido.getId(), pedidos.size() - 1);
+                // Remover a adição do pedido ao cliente para evitar referência circular
+                // cliente.adicionarPedido(pedido);
+            
+                estatisticas.registrarNovo(pedido);
+                UnidadeDeTrabalho.aoDesfazer(() -> desfazerCriacao(pedido));
+                salvarDados();
+                // Dentro de uma unidade, o evento só sai quando ela for gravada
+                Pedido copia = new Pedido(pedido);
+                UnidadeDeTrabalho.aoConfirmar(() -> eventos.publicar(TipoEventoPedido.CRIADO, copia, null));
+                return pedido;
+            }
+        } finally {
+            // Falhou antes de o pedido existir (trava, estoque...): a carga reservada volta
+            if (!vinculada) {
+                desfazerAdmissao(decisao);
+            }
+        }
     }
 
     /**
      * Cria um novo pedido para delivery
      */
+    @SuppressWarnings("try")
     public Pedido criarPedidoDelivery(Cliente cliente, List<ItemPedido> itens, Endereco enderecoEntrega) 
-            throws IOException, EstoqueInsuficienteException {
-        verificarEstoqueParaPedido(itens);
-        
-        Pedido pedido = new Pedido(proximoId++, cliente, enderecoEntrega);
-        pedido.setItensDoPedido(itens);
-        pedido.calcularValorTotal();
-        
-        pedidos.add(pedido);
-        // Remover a adição do pedido ao cliente para evitar referência circular
-        // cliente.adicionarPedido(pedido);
+            throws IOException, EstoqueInsuficienteException, CapacidadeExcedidaException {
+        DecisaoAdmissao decisao = admitir(itens, true);
+        boolean vinculada = false;
         
-        salvarDados();
-        return pedido;
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                verificarEstoqueParaPedido(itens);
+            
+                Pedido pedido = new Pedido(proximoId++, cliente, enderecoEntrega);
+                pedido.setItensDoPedido(itens);
+                pedido.calcularValorTotal();
+                vincularAdmissao(pedido, decisao);
+                vinculada = true;
+            
+                pedidos.add(pedido);
+                idsNaLista.add(pedido.getId());
+                posicaoDosAbertos.put(pedido.getId(), pedidos.size() - 1);
+                // Remover a adição do pedido ao cliente para evitar referência circular
+                // cliente.adicionarPedido(pedido);
+            
+                estatisticas.registrarNovo(pedido);
+                UnidadeDeTrabalho.aoDesfazer(() -> desfazerCriacao(pedido));
+                salvarDados();
+                // Dentro de uma unidade, o evento só sai quando ela for gravada
+                Pedido copia = new Pedido(pedido);
+                UnidadeDeTrabalho.aoConfirmar(() -> eventos.publicar(TipoEventoPedido.CRIADO, copia, null));
+                return pedido;
+            }
+        } finally {
+            // Falhou antes de o pedido existir (trava, estoque...): a carga reservada volta
+            if (!vinculada) {
+                desfazerAdmissao(decisao);
+            }
+        }
+    }
+
+    /**
+     * Aplica pedidos recebidos da instância primária (ver ReplicacaoStandby), em ordem
+     * de ID: a mesma incorporação da recarga, seguida da gravação
+     */
+    @SuppressWarnings("try")
+    public void aplicarReplica(List<Pedido> recebidos) throws IOException {
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                incorporar(recebidos, true);
+                salvarDados();
+            }
+        }
+    }
+
+    /**
+     * Executa a ação com as alterações de pedidos suspensas (aqui, segurando o lock do
+     * serviço); usado pelas visões de leitura e pelo backup para capturar um instante consistente
+     */
+    public <T> T executarComPedidosParados(Supplier<T> acao) {
+        synchronized (this) {
+            return acao.get();
+        }
+    }
+
+    /**
+     * Abre uma visão de leitura dos pedidos no instante atual (ver VisaoPedidos).
+     * A abertura custa só a cópia dos pedidos abertos; deve ser fechada ao fim do uso.
+     */
+    public VisaoPedidos abrirVisao() {
+        return executarComPedidosParados(this::capturarVisao);
+    }
+
+    /**
+     * Quantidade de visões de leitura abertas e ainda não fechadas
+     */
+    public int getVisoesAbertas() {
+        return visoesAbertas.get();
+    }
+
+    /**
+     * Abre a visão com as alterações já suspensas por quem chama (dentro de
+     * executarComPedidosParados). Pedidos concluídos e cancelados não mudam mais e
+     * são lidos da lista; só os abertos são copiados.
+     */
+    synchronized VisaoPedidos capturarVisao() {
+        Map<Integer, Pedido> copiasDosAbertos = new HashMap<>();
+        for (int posicao : posicaoDosAbertos.values()) {
+            copiasDosAbertos.put(posicao, new Pedido(pedidos.get(posicao)));
+        }
+        return new VisaoPorPosicao(eventos.getPublicados(), pedidos.size(), copiasDosAbertos);
+    }
+
+    /**
+     * Contador de visões abertas, compartilhado com as visões das subclasses
+     */
+    AtomicInteger getContadorVisoes() {
+        return visoesAbertas;
+    }
+
+    /**
+     * Inclui um bloco de pedidos de uma importação em lote: reserva um bloco de IDs,
+     * não publica eventos nem consome estoque e não grava o arquivo (ver concluirImportacao()).
+     * Os componentes de análise enxergam os pedidos importados na próxima partida.
+     */
+    @SuppressWarnings("try")
+    public void importar(List<Pedido> lote) throws IOException {
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                int primeiroId = proximoId;
+                proximoId += lote.size();
+                for (int i = 0; i < lote.size(); i++) {
+                    Pedido pedido = lote.get(i);
+                    pedido.setId(primeiroId + i);
+                    pedidos.add(pedido);
+                    idsNaLista.add(pedido.getId());
+                    if (estaAberto(pedido)) {
+                        posicaoDosAbertos.put(pedido.getId(), pedidos.size() - 1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Encerra uma importação em lote: recalcula as estatísticas e grava o arquivo de pedidos
+     */
+    @SuppressWarnings("try")
+    public void concluirImportacao() throws IOException {
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                estatisticas.reconstruir(pedidos);
+                salvarDados();
+            }
+        }
+    }
+
+    /**
+     * Entrega os pedidos carregados e esvazia a lista do serviço, para subclasses que
+     * guardam os pedidos de outra forma
+     */
+    protected synchronized List<Pedido> retirarPedidosCarregados() {
+        List<Pedido> carregados = pedidos;
+        pedidos = new ArrayList<>();
+        posicaoDosAbertos.clear();
+        idsNaLista.clear();
+        return carregados;
     }
 
     /**
      * Busca um pedido por ID
      */
-    public Pedido buscarPorId(int id) throws PedidoInvalidoException {
+    public synchronized Pedido buscarPorId(int id) throws PedidoInvalidoException {
         return pedidos.stream()
                      .filter(p -> p.getId() == id)
                      .findFirst()
@@ -85,14 +290,14 @@ public class PedidoService {
     /**
      * Lista todos os pedidos
      */
-    public List<Pedido> listarTodos() {
+    public synchronized List<Pedido> listarTodos() {
         return new ArrayList<>(pedidos);
     }
 
     /**
      * Lista pedidos por cliente
      */
-    public List<Pedido> listarPorCliente(Cliente cliente) {
+    public synchronized List<Pedido> listarPorCliente(Cliente cliente) {
         return pedidos.stream()
                      .filter(p -> p.getClienteId() == cliente.getId())
                      .toList();
@@ -101,7 +306,7 @@ public class PedidoService {
     /**
      * Lista pedidos do dia atual
      */
-    public List<Pedido> listarPedidosDoDia() {
+    public synchronized List<Pedido> listarPedidosDoDia() {
         LocalDate hoje = LocalDate.now();
         return pedidos.stream()
                      .filter(p -> p.getDataHora().toLocalDate().equals(hoje))
@@ -111,7 +316,7 @@ public class PedidoService {
     /**
      * Lista pedidos por status
      */
-    public List<Pedido> listarPorStatus(StatusPedido status) {
+    public synchronized List<Pedido> listarPorStatus(StatusPedido status) {
         return pedidos.stream()
                      .filter(p -> p.getStatus() == status)
                      .toList();
@@ -120,137 +325,181 @@ public class PedidoService {
     /**
      * Lista pedidos pendentes
      */
-    public List<Pedido> listarPendentes() {
+    public synchronized List<Pedido> listarPendentes() {
         return listarPorStatus(StatusPedido.PENDENTE);
     }
 
     /**
      * Lista pedidos em preparo
      */
-    public List<Pedido> listarEmPreparo() {
+    public synchronized List<Pedido> listarEmPreparo() {
         return listarPorStatus(StatusPedido.EM_PREPARO);
     }
 
+    /**
+     * Entrega ao visitante cada pedido feito no período (inclusive), todos do mesmo
+     * instante: percorre uma visão de leitura aberta só para isso
+     */
+    public void percorrer(LocalDate inicio, LocalDate fim, Consumer<Pedido> visitante) {
+        try (VisaoPedidos visao = abrirVisao()) {
+            visao.percorrer(inicio, fim, visitante);
+        }
+    }
+
     /**
      * Atualiza o status de um pedido
      */
+    @SuppressWarnings("try")
     public void atualizarStatusPedido(int id, StatusPedido novoStatus) 
             throws IOException, PedidoInvalidoException, EstoqueInsuficienteException {
-        Pedido pedido = buscarPorId(id);
-        StatusPedido statusAnterior = pedido.getStatus();
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                Pedido pedido = buscarPorId(id);
+                StatusPedido statusAnterior = pedido.getStatus();
         
-        // Validações de transição de status
-        validarTransicaoStatus(statusAnterior, novoStatus);
+                // Validações de transição de status
+                validarTransicaoStatus(statusAnterior, novoStatus);
         
-        // Se está confirmando o pedido (PENDENTE -> EM_PREPARO), verifica e consome estoque
-        if (statusAnterior == StatusPedido.PENDENTE && novoStatus == StatusPedido.EM_PREPARO) {
-            confirmarPedido(pedido);
-        }
+                // Se está confirmando o pedido (PENDENTE -> EM_PREPARO), verifica e consome estoque
+                if (statusAnterior == StatusPedido.PENDENTE && novoStatus == StatusPedido.EM_PREPARO) {
+                    confirmarPedido(pedido);
+                    return;
+                }
         
-        pedido.setStatus(novoStatus);
-        salvarDados();
+                pedido.setStatus(novoStatus);
+                atualizarIndiceDosAbertos(pedido);
+                estatisticas.registrarMudanca(pedido, statusAnterior);
+                salvarDados();
+                publicarMudancaDeStatus(new Pedido(pedido), statusAnterior);
+            }
+        }
     }
 
     /**
-     * Confirma um pedido e consome ingredientes do estoque
+     * Confirma um pedido e consome ingredientes do estoque. Estoque e pedido são gravados
+     * juntos em uma unidade de trabalho; se faltar algum ingrediente no meio, o que já
+     * foi consumido é devolvido.
      */
+    @SuppressWarnings("try")
     public void confirmarPedido(Pedido pedido) throws EstoqueInsuficienteException, IOException {
-        if (pedido.getStatus() != StatusPedido.PENDENTE) {
-            throw new IllegalStateException("Só é possível confirmar pedidos pendentes");
-        }
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                if (pedido.getStatus() != StatusPedido.PENDENTE) {
+                    throw new IllegalStateException("Só é possível confirmar pedidos pendentes");
+                }
         
-        // Consome ingredientes das pizzas
-        for (ItemPedido itemPedido : pedido.getItensDoPedido()) {
-            if (itemPedido.getItem() instanceof Pizza pizza) {
-                for (int i = 0; i < itemPedido.getQuantidade(); i++) {
-                    ingredienteService.consumirIngredientes(pizza.getIngredientes());
+                try (UnidadeDeTrabalho unidade = UnidadeDeTrabalho.iniciar()) {
+                    consumirIngredientes(pedido);
+            
+                    LocalDateTime preparoAnterior = pedido.getDataHoraStatus(StatusPedido.EM_PREPARO);
+                    pedido.setStatus(StatusPedido.EM_PREPARO);
+                    estatisticas.registrarMudanca(pedido, StatusPedido.PENDENTE);
+                    UnidadeDeTrabalho.aoDesfazer(() -> desfazerConfirmacao(pedido, preparoAnterior));
+                    salvarDados();
+                    unidade.confirmar();
                 }
+                // Dentro de uma unidade externa, o evento só sai quando ela for gravada
+                Pedido copia = new Pedido(pedido);
+                UnidadeDeTrabalho.aoConfirmar(() -> publicarMudancaDeStatus(copia, StatusPedido.PENDENTE));
             }
         }
-        
-        pedido.setStatus(StatusPedido.EM_PREPARO);
-        salvarDados();
     }
 
     /**
      * Cancela um pedido
      */
+    @SuppressWarnings("try")
     public void cancelarPedido(int id) throws IOException, PedidoInvalidoException {
-        Pedido pedido = buscarPorId(id);
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                Pedido pedido = buscarPorId(id);
         
-        if (!pedido.podeSerCancelado()) {
-            throw new PedidoInvalidoException(id, pedido.getStatus(), "cancelar");
-        }
+                if (!pedido.podeSerCancelado()) {
+                    throw new PedidoInvalidoException(id, pedido.getStatus(), "cancelar");
+                }
         
-        pedido.setStatus(StatusPedido.CANCELADO);
-        salvarDados();
+                StatusPedido statusAnterior = pedido.getStatus();
+                pedido.setStatus(StatusPedido.CANCELADO);
+                atualizarIndiceDosAbertos(pedido);
+                estatisticas.registrarMudanca(pedido, statusAnterior);
+                salvarDados();
+                publicarMudancaDeStatus(new Pedido(pedido), statusAnterior);
+            }
+        }
     }
 
     /**
      * Adiciona um item a um pedido pendente
      */
+    @SuppressWarnings("try")
     public void adicionarItemAoPedido(int pedidoId, ItemPedido novoItem) 
             throws IOException, PedidoInvalidoException, EstoqueInsuficienteException {
-        Pedido pedido = buscarPorId(pedidoId);
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                Pedido pedido = buscarPorId(pedidoId);
         
-        if (!pedido.podeSerAlterado()) {
-            throw new PedidoInvalidoException(pedidoId, pedido.getStatus(), "alterar");
-        }
+                if (!pedido.podeSerAlterado()) {
+                    throw new PedidoInvalidoException(pedidoId, pedido.getStatus(), "alterar");
+                }
         
-        // Verifica estoque se for pizza
-        if (novoItem.getItem() instanceof Pizza pizza) {
-            for (int i = 0; i < novoItem.getQuantidade(); i++) {
-                ingredienteService.verificarEstoqueDisponivel(pizza.getIngredientes());
+                // Verifica estoque se for pizza
+                verificarEstoqueParaItem(novoItem);
+        
+                pedido.adicionarItem(novoItem);
+                salvarDados();
+                eventos.publicar(TipoEventoPedido.ITEM_ADICIONADO, new Pedido(pedido), pedido.getStatus(),
+                                 novoItem.getItem(), novoItem.getQuantidade());
             }
         }
-        
-        pedido.adicionarItem(novoItem);
-        salvarDados();
     }
 
     /**
      * Remove um item de um pedido pendente
      */
+    @SuppressWarnings("try")
     public void removerItemDoPedido(int pedidoId, ItemCardapio item) 
             throws IOException, PedidoInvalidoException {
-        Pedido pedido = buscarPorId(pedidoId);
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (this) {
+                Pedido pedido = buscarPorId(pedidoId);
         
-        if (!pedido.podeSerAlterado()) {
-            throw new PedidoInvalidoException(pedidoId, pedido.getStatus(), "alterar");
-        }
+                if (!pedido.podeSerAlterado()) {
+                    throw new PedidoInvalidoException(pedidoId, pedido.getStatus(), "alterar");
+                }
         
-        pedido.removerItem(item);
-        salvarDados();
+                int quantidadeRemovida = pedido.getItensDoPedido().stream()
+                                               .filter(itemPedido -> itemPedido.getItem().equals(item))
+                                               .mapToInt(ItemPedido::getQuantidade)
+                                               .sum();
+                pedido.removerItem(item);
+                salvarDados();
+                eventos.publicar(TipoEventoPedido.ITEM_REMOVIDO, new Pedido(pedido), pedido.getStatus(), item, quantidadeRemovida);
+            }
+        }
     }
 
     /**
-     * Calcula o faturamento do dia
+     * Calcula o faturamento do dia (pedidos concluídos feitos hoje)
      */
     public double calcularFaturamentoDoDia() {
-        return listarPedidosDoDia().stream()
-                                  .filter(p -> p.getStatus() == StatusPedido.CONCLUIDO)
-                                  .mapToDouble(Pedido::getValorTotal)
-                                  .sum();
+        return estatisticas.getFaturamentoDoDia(LocalDate.now());
     }
 
     /**
      * Calcula o faturamento total
      */
     public double calcularFaturamentoTotal() {
-        return pedidos.stream()
-                     .filter(p -> p.getStatus() == StatusPedido.CONCLUIDO)
-                     .mapToDouble(Pedido::getValorTotal)
-                     .sum();
+        return estatisticas.getFaturamentoTotal();
     }
 
     /**
      * Obtém estatísticas dos pedidos
      */
     public String getEstatisticas() {
-        int total = pedidos.size();
-        int pendentes = listarPendentes().size();
-        int emPreparo = listarEmPreparo().size();
-        int concluidos = listarPorStatus(StatusPedido.CONCLUIDO).size();
+        int total = estatisticas.getTotal();
+        int pendentes = estatisticas.contarPorStatus(StatusPedido.PENDENTE);
+        int emPreparo = estatisticas.contarPorStatus(StatusPedido.EM_PREPARO);
+        int concluidos = estatisticas.contarPorStatus(StatusPedido.CONCLUIDO);
         double faturamentoDia = calcularFaturamentoDoDia();
         
         return String.format(
@@ -261,10 +510,65 @@ public class PedidoService {
 
     // ========== MÉTODOS PRIVADOS ==========
 
+    /**
+     * Publica a mudança de status (cancelamento tem evento próprio).
+     * Os eventos levam uma cópia do pedido: os ouvintes leem em outras threads.
+     */
+    protected void publicarMudancaDeStatus(Pedido pedido, StatusPedido statusAnterior) {
+        // A admissão é avisada direto: uma reserva liberada só por evento ficaria presa se ele se perdesse
+        ControleAdmissao controle = controleAdmissao;
+        if (controle != null) {
+            controle.registrarStatus(pedido.getId(), pedido.getStatus());
+        }
+        TipoEventoPedido tipo = pedido.getStatus() == StatusPedido.CANCELADO
+                ? TipoEventoPedido.CANCELADO
+                : TipoEventoPedido.STATUS_ALTERADO;
+        eventos.publicar(tipo, pedido, statusAnterior);
+    }
+
+    /**
+     * Reserva a carga do pedido no controle de admissão, se houver um
+     */
+    protected DecisaoAdmissao admitir(List<ItemPedido> itens, boolean delivery) throws CapacidadeExcedidaException {
+        ControleAdmissao controle = controleAdmissao;
+        return controle != null ? controle.admitir(itens, delivery) : null;
+    }
+
+    /**
+     * Associa a reserva de admissão ao pedido criado e registra o prazo prometido
+     */
+    protected void vincularAdmissao(Pedido pedido, DecisaoAdmissao decisao) {
+        ControleAdmissao controle = controleAdmissao;
+        if (decisao != null && controle != null) {
+            pedido.setPrazoPrometido(decisao.getPrazoPrometido());
+            controle.vincular(pedido.getId(), decisao);
+        }
+    }
+
+    /**
+     * Devolve a reserva de um pedido cuja criação foi desfeita
+     */
+    protected void desvincularAdmissao(int pedidoId) {
+        ControleAdmissao controle = controleAdmissao;
+        if (controle != null) {
+            controle.desvincular(pedidoId);
+        }
+    }
+
+    /**
+     * Devolve a carga reservada para um pedido que não chegou a ser criado
+     */
+    protected void desfazerAdmissao(DecisaoAdmissao decisao) {
+        ControleAdmissao controle = controleAdmissao;
+        if (decisao != null && controle != null) {
+            controle.desfazer(decisao);
+        }
+    }
+
     /**
      * Verifica se há estoque suficiente para todos os itens do pedido
      */
-    private void verificarEstoqueParaPedido(List<ItemPedido> itens) throws EstoqueInsuficienteException {
+    protected void verificarEstoqueParaPedido(List<ItemPedido> itens) throws EstoqueInsuficienteException {
         for (ItemPedido itemPedido : itens) {
             if (itemPedido.getItem() instanceof Pizza pizza) {
                 for (int i = 0; i < itemPedido.getQuantidade(); i++) {
@@ -274,10 +578,34 @@ public class PedidoService {
         }
     }
 
+    /**
+     * Verifica o estoque para um item adicionado a um pedido
+     */
+    protected void verificarEstoqueParaItem(ItemPedido novoItem) throws EstoqueInsuficienteException {
+        if (novoItem.getItem() instanceof Pizza pizza) {
+            for (int i = 0; i < novoItem.getQuantidade(); i++) {
+                ingredienteService.verificarEstoqueDisponivel(pizza.getIngredientes());
+            }
+        }
+    }
+
+    /**
+     * Consome do estoque os ingredientes das pizzas do pedido
+     */
+    protected void consumirIngredientes(Pedido pedido) throws EstoqueInsuficienteException, IOException {
+        for (ItemPedido itemPedido : pedido.getItensDoPedido()) {
+            if (itemPedido.getItem() instanceof Pizza pizza) {
+                for (int i = 0; i < itemPedido.getQuantidade(); i++) {
+                    ingredienteService.consumirIngredientes(pizza.getIngredientes());
+                }
+            }
+        }
+    }
+
     /**
      * Valida se uma transição de status é permitida
      */
-    private void validarTransicaoStatus(StatusPedido statusAtual, StatusPedido novoStatus) 
+    protected void validarTransicaoStatus(StatusPedido statusAtual, StatusPedido novoStatus) 
             throws PedidoInvalidoException {
         // Não permite alterar pedidos já concluídos ou cancelados
         if (statusAtual == StatusPedido.CONCLUIDO || statusAtual == StatusPedido.CANCELADO) {
@@ -313,6 +641,19 @@ public class PedidoService {
         }
     }
 
+    private static boolean estaAberto(Pedido pedido) {
+        return pedido.getStatus() != StatusPedido.CONCLUIDO && pedido.getStatus() != StatusPedido.CANCELADO;
+    }
+
+    /**
+     * Tira do índice de abertos o pedido que acabou de ser concluído ou cancelado
+     */
+    private void atualizarIndiceDosAbertos(Pedido pedido) {
+        if (!estaAberto(pedido)) {
+            posicaoDosAbertos.remove(pedido.getId());
+        }
+    }
+
     /**
      * Carrega os dados do arquivo JSON
      */
@@ -340,12 +681,177 @@ public class PedidoService {
             pedidos = new ArrayList<>();
             proximoId = 1;
         }
+        posicaoDosAbertos.clear();
+        idsNaLista.clear();
+        for (int i = 0; i < pedidos.size(); i++) {
+            idsNaLista.add(pedidos.get(i).getId());
+            if (estaAberto(pedidos.get(i))) {
+                posicaoDosAbertos.put(pedidos.get(i).getId(), i);
+            }
+        }
+        estatisticas.reconstruir(pedidos);
+    }
+
+    /**
+     * Traz para a memória os pedidos que outro processo gravou (chamado com a trava do arquivo)
+     */
+    private synchronized void recarregar() {
+        List<Pedido> lidos;
+        try {
+            Type listType = new TypeToken<List<Pedido>>(){}.getType();
+            lidos = JsonPersistence.loadFromFile(PEDIDOS_FILE, listType);
+        } catch (IOException e) {
+            System.err.println("Erro ao recarregar pedidos: " + e.getMessage());
+            return;
+        }
+        incorporar(lidos, false);
     }
 
     /**
-     * Salva os dados no arquivo JSON
+     * Incorpora pedidos feitos em outra instância, em ordem de ID. Os novos entram no fim
+     * da lista e os abertos que mudaram são substituídos, com estatísticas e eventos como
+     * se tivessem sido feitos aqui; a lista continua só crescendo no fim, como as visões
+     * de leitura esperam. Com foraDeOrdem, um ID menor que o próximo que ainda não existe
+     * aqui também é novo (o primário particionado publica pedidos fora da ordem de ID).
+     */
+    private void incorporar(List<Pedido> lidos, boolean foraDeOrdem) {
+        for (Pedido lido : lidos) {
+            if (lido.getId() >= proximoId || (foraDeOrdem && !idsNaLista.contains(lido.getId()))) {
+                vincularCliente(lido);
+                pedidos.add(lido);
+                idsNaLista.add(lido.getId());
+                if (estaAberto(lido)) {
+                    posicaoDosAbertos.put(lido.getId(), pedidos.size() - 1);
+                }
+                proximoId = Math.max(proximoId, lido.getId() + 1);
+                estatisticas.registrarNovo(lido);
+                eventos.publicar(TipoEventoPedido.CRIADO, new Pedido(lido), null);
+                if (lido.getStatus() != StatusPedido.PENDENTE) {
+                    publicarMudancaDeStatus(new Pedido(lido), StatusPedido.PENDENTE);
+                }
+                continue;
+            }
+
+            Integer posicao = posicaoDosAbertos.get(lido.getId());
+            if (posicao == null) {
+                continue; // encerrado aqui: não muda mais
+            }
+            Pedido atual = pedidos.get(posicao);
+            if (atual.getStatus() == lido.getStatus()
+                    && atual.getItensDoPedido().size() == lido.getItensDoPedido().size()
+                    && atual.getValorTotal() == lido.getValorTotal()) {
+                continue;
+            }
+            vincularCliente(lido);
+            pedidos.set(posicao, lido);
+            atualizarIndiceDosAbertos(lido);
+            if (atual.getStatus() != lido.getStatus()) {
+                estatisticas.registrarMudanca(lido, atual.getStatus());
+                publicarMudancaDeStatus(new Pedido(lido), atual.getStatus());
+            }
+        }
+    }
+
+    /**
+     * Compensação da criação em uma unidade de trabalho não confirmada: o pedido sai da
+     * lista (é o último: a trava do arquivo fica com a unidade até o fim) e a reserva de
+     * admissão e as estatísticas acompanham
+     */
+    private synchronized void desfazerCriacao(Pedido pedido) {
+        int posicao = pedidos.size() - 1;
+        while (posicao >= 0 && pedidos.get(posicao) != pedido) {
+            posicao--;
+        }
+        if (posicao < 0) {
+            return;
+        }
+        pedidos.remove(posicao);
+        idsNaLista.remove(pedido.getId());
+        posicaoDosAbertos.remove(pedido.getId());
+        for (Map.Entry<Integer, Integer> aberto : posicaoDosAbertos.entrySet()) {
+            if (aberto.getValue() > posicao) {
+                aberto.setValue(aberto.getValue() - 1);
+            }
+        }
+        if (pedido.getId() == proximoId - 1) {
+            proximoId--;
+        }
+        estatisticas.desfazerNovo(pedido);
+        desvincularAdmissao(pedido.getId());
+    }
+
+    /**
+     * Compensação da confirmação em uma unidade de trabalho não confirmada: o pedido
+     * volta a pendente (continua aberto), sem mexer na data de criação, e as
+     * estatísticas acompanham
+     */
+    private synchronized void desfazerConfirmacao(Pedido pedido, LocalDateTime preparoAnterior) {
+        pedido.restaurarStatus(StatusPedido.PENDENTE, StatusPedido.EM_PREPARO, preparoAnterior);
+        estatisticas.registrarMudanca(pedido, StatusPedido.EM_PREPARO);
+    }
+
+    /**
+     * Liga o pedido lido do arquivo ao cliente em memória (pode ainda não existir aqui,
+     * se outro processo acabou de cadastrá-lo; o pedido guarda o ID de qualquer forma)
+     */
+    private void vincularCliente(Pedido pedido) {
+        try {
+            pedido.setCliente(clienteService.buscarPorId(pedido.getClienteId()));
+        } catch (ClienteNaoEncontradoException e) {
+            // fica só com o ID
+        }
+    }
+
+    /**
+     * Salva os dados no arquivo JSON (na confirmação, dentro de uma unidade de trabalho)
      */
     private void salvarDados() throws IOException {
-        JsonPersistence.saveToFile(pedidos, PEDIDOS_FILE);
+        JsonPersistence.saveToFile(() -> pedidos, PEDIDOS_FILE, this);
+    }
+
+    /**
+     * Visão sobre a lista do serviço: as posições até o tamanho da abertura, lidas por
+     * blocos com o lock e entregues fora dele. A lista só cresce no fim e os pedidos
+     * encerrados não mudam, então só os que estavam abertos precisam das cópias.
+     */
+    private final class VisaoPorPosicao extends VisaoPedidos {
+        private final int tamanho;
+        private final Map<Integer, Pedido> copiasDosAbertos;   // posição -> cópia
+
+        private VisaoPorPosicao(long sequencia, int tamanho, Map<Integer, Pedido> copiasDosAbertos) {
+            super(sequencia, tamanho, visoesAbertas);
+            this.tamanho = tamanho;
+            this.copiasDosAbertos = copiasDosAbertos;
+        }
+
+        @Override
+        protected void percorrerPedidos(LocalDate inicio, LocalDate fim, Consumer<Pedido> visitante) {
+            List<Pedido> bloco = new ArrayList<>();
+            int posicao = 0;
+            while (posicao < tamanho) {
+                bloco.clear();
+                int limite = Math.min(tamanho, posicao + BLOCO_VARREDURA);
+                synchronized (PedidoService.this) {
+                    if (!isAberta()) {
+                        throw new IllegalStateException("Visão de leitura fechada durante a leitura");
+                    }
+                    for (; posicao < limite; posicao++) {
+                        Pedido copia = copiasDosAbertos.get(posicao);
+                        Pedido pedido = copia != null ? copia : pedidos.get(posicao);
+                        if (noPeriodo(pedido, inicio, fim)) {
+                            bloco.add(pedido);
+                        }
+                    }
+                }
+                bloco.forEach(visitante);
+            }
+        }
+
+        @Override
+        protected void liberar() {
+            synchronized (PedidoService.this) {
+                copiasDosAbertos.clear();
+            }
+        }
     }
 }
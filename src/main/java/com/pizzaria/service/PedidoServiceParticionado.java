@@ -0,0 +1,553 @@
+package com.pizzaria.service;
+
+import com.pizzaria.evento.TipoEventoPedido;
+import com.pizzaria.exception.*;
+import com.pizzaria.model.*;
+import com.pizzaria.util.JsonPersistence;
+import com.pizzaria.util.TravaDeArquivo;
+import com.pizzaria.util.ThreadUtils;
+import com.pizzaria.util.UnidadeDeTrabalho;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Implementação alternativa do PedidoService dividida em partições pelo ID do pedido.
+ *
+ * Cada partição tem uma única thread dona, que aplica em ordem (fila do executor)
+ * todas as alterações dos seus pedidos; não há lock do serviço. Após cada alteração
+ * a partição publica uma cópia do pedido, e as leituras só enxergam essas cópias,
+ * que nunca são alteradas depois de publicadas.
+ *
+ * A gravação em JSON é agrupada: quem termina uma alteração espera a próxima
+ * gravação que a inclua, e várias alterações concorrentes saem em um único arquivo.
+ * A confirmação (que também consome estoque) roda em uma unidade de trabalho, aberta
+ * por quem chama e repassada à thread dona, e grava estoque e pedidos juntos.
+ *
+ * Diferente da classe base, não recarrega pedidos gravados por outro processo: reserva
+ * o diretório de dados só para si e não é criado se outro processo já o usa.
+ */
+public class PedidoServiceParticionado extends PedidoService {
+    private final Particao[] particoes;
+    private final AtomicInteger proximoId;
+    private final AtomicLong versaoAlterada;
+    private final Object travaGravacao;
+    private volatile long versaoGravada;
+
+    /**
+     * Partição de pedidos: os objetos vivos só são tocados pela thread dona
+     */
+    private static final class Particao {
+        private final ExecutorService dona;
+        private final Map<Integer, Pedido> vivos;
+        private final Map<Integer, Pedido> publicados;
+
+        private Particao(ExecutorService dona) {
+            this.dona = dona;
+            this.vivos = new HashMap<>();
+            this.publicados = new ConcurrentHashMap<>();
+        }
+    }
+
+    public PedidoServiceParticionado(ClienteService clienteService, IngredienteService ingredienteService,
+                                     CardapioService cardapioService, int numeroParticoes) {
+        super(clienteService, ingredienteService, cardapioService);
+        if (numeroParticoes <= 0) {
+            throw new IllegalArgumentException("Número de partições deve ser positivo");
+        }
+        try {
+            JsonPersistence.reservarDiretorio(true);
+        } catch (IOException e) {
+            throw new IllegalStateException("Pedidos particionados precisam de data/ só para este processo: "
+                                            + e.getMessage(), e);
+        }
+        // Ninguém mais grava pedidos.json: a recarga da classe base não tem o que fazer
+        JsonPersistence.aoAlterarEmOutroProcesso(PEDIDOS_FILE, null);
+
+        this.particoes = new Particao[numeroParticoes];
+        for (int i = 0; i < numeroParticoes; i++) {
+            particoes[i] = new Particao(Executors.newSingleThreadExecutor(
+                ThreadUtils.novaFabrica("pedidos-particao-" + i, true)));
+        }
+
+        // Distribui o histórico carregado pela classe base entre as partições (a lista dela fica vazia)
+        int maiorId = 0;
+        for (Pedido pedido : retirarPedidosCarregados()) {
+            Particao particao = particaoDe(pedido.getId());
+            particao.vivos.put(pedido.getId(), pedido);
+            particao.publicados.put(pedido.getId(), new Pedido(pedido));
+            maiorId = Math.max(maiorId, pedido.getId());
+        }
+        this.proximoId = new AtomicInteger(maiorId + 1);
+        this.versaoAlterada = new AtomicLong();
+        this.travaGravacao = new Object();
+    }
+
+    /**
+     * Obtém o número de partições
+     */
+    public int getNumeroParticoes() {
+        return particoes.length;
+    }
+
+    /**
+     * Encerra as threads das partições (alterações já enfileiradas são concluídas)
+     */
+    public void encerrar() {
+        for (Particao particao : particoes) {
+            particao.dona.shutdown();
+        }
+    }
+
+    /**
+     * Para todas as partições entre duas alterações (cada thread dona executa uma tarefa
+     * que espera a liberação), executa a ação e libera as partições
+     */
+    @Override
+    public <T> T executarComPedidosParados(Supplier<T> acao) {
+        CountDownLatch paradas = new CountDownLatch(particoes.length);
+        CountDownLatch liberacao = new CountDownLatch(1);
+        try {
+            for (Particao particao : particoes) {
+                particao.dona.execute(() -> {
+                    paradas.countDown();
+                    try {
+                        liberacao.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            paradas.await();
+            return acao.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando as partições de pedidos", e);
+        } finally {
+            liberacao.countDown();
+        }
+    }
+
+    /**
+     * As cópias publicadas já são imutáveis: a visão só junta as referências
+     * (a ordem é por partição, não por ID)
+     */
+    @Override
+    VisaoPedidos capturarVisao() {
+        List<Pedido> todos = new ArrayList<>();
+        for (Particao particao : particoes) {
+            todos.addAll(particao.publicados.values());
+        }
+        return new VisaoListaPedidos(getEventos().getPublicados(), todos, getContadorVisoes());
+    }
+
+    // ========== ALTERAÇÕES (executadas pela thread dona da partição) ==========
+
+    @Override
+    public Pedido criarPedido(Cliente cliente, List<ItemPedido> itens)
+            throws IOException, EstoqueInsuficienteException, CapacidadeExcedidaException {
+        DecisaoAdmissao decisao = admitir(itens, false);
+        int id = proximoId.getAndIncrement();
+        return criar(id, decisao, itens, () -> new Pedido(id, cliente));
+    }
+
+    @Override
+    public Pedido criarPedidoDelivery(Cliente cliente, List<ItemPedido> itens, Endereco enderecoEntrega)
+            throws IOException, EstoqueInsuficienteException, CapacidadeExcedidaException {
+        DecisaoAdmissao decisao = admitir(itens, true);
+        int id = proximoId.getAndIncrement();
+        return criar(id, decisao, itens, () -> new Pedido(id, cliente, enderecoEntrega));
+    }
+
+    @Override
+    public void atualizarStatusPedido(int id, StatusPedido novoStatus)
+            throws IOException, PedidoInvalidoException, EstoqueInsuficienteException {
+        try (UnidadeDeTrabalho unidade = UnidadeDeTrabalho.iniciar()) {
+            alterar(id, pedido -> {
+                StatusPedido statusAnterior = pedido.getStatus();
+                validarTransicaoStatus(statusAnterior, novoStatus);
+
+                // Confirmação (PENDENTE -> EM_PREPARO) consome estoque
+                if (statusAnterior == StatusPedido.PENDENTE && novoStatus == StatusPedido.EM_PREPARO) {
+                    consumirIngredientes(pedido);
+                }
+                LocalDateTime horarioAnterior = pedido.getDataHoraStatus(novoStatus);
+                pedido.setStatus(novoStatus);
+                getEstatisticasPedidos().registrarMudanca(pedido, statusAnterior);
+                UnidadeDeTrabalho.aoDesfazer(() -> desfazerStatus(id, statusAnterior, horarioAnterior));
+                return () -> publicarAoConfirmar(publicado(pedido), statusAnterior);
+            });
+            unidade.confirmar();
+        } catch (IOException | PedidoInvalidoException | EstoqueInsuficienteException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw falhaInesperada(e);
+        }
+    }
+
+    @Override
+    public void confirmarPedido(Pedido pedido) throws EstoqueInsuficienteException, IOException {
+        try (UnidadeDeTrabalho unidade = UnidadeDeTrabalho.iniciar()) {
+            alterar(pedido.getId(), vivo -> {
+                if (vivo.getStatus() != StatusPedido.PENDENTE) {
+                    throw new IllegalStateException("Só é possível confirmar pedidos pendentes");
+                }
+                consumirIngredientes(vivo);
+                LocalDateTime preparoAnterior = vivo.getDataHoraStatus(StatusPedido.EM_PREPARO);
+                vivo.setStatus(StatusPedido.EM_PREPARO);
+                getEstatisticasPedidos().registrarMudanca(vivo, StatusPedido.PENDENTE);
+                UnidadeDeTrabalho.aoDesfazer(() -> desfazerStatus(vivo.getId(), StatusPedido.PENDENTE, preparoAnterior));
+                return () -> publicarAoConfirmar(publicado(vivo), StatusPedido.PENDENTE);
+            });
+            unidade.confirmar();
+        } catch (PedidoInvalidoException e) {
+            throw new IllegalStateException(e.getMessage());
+        } catch (IOException | EstoqueInsuficienteException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw falhaInesperada(e);
+        }
+    }
+
+    @Override
+    public void cancelarPedido(int id) throws IOException, PedidoInvalidoException {
+        try {
+            alterar(id, pedido -> {
+                if (!pedido.podeSerCancelado()) {
+                    throw new PedidoInvalidoException(id, pedido.getStatus(), "cancelar");
+                }
+                StatusPedido statusAnterior = pedido.getStatus();
+                pedido.setStatus(StatusPedido.CANCELADO);
+                getEstatisticasPedidos().registrarMudanca(pedido, statusAnterior);
+                return () -> publicarMudancaDeStatus(publicado(pedido), statusAnterior);
+            });
+        } catch (IOException | PedidoInvalidoException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw falhaInesperada(e);
+        }
+    }
+
+    @Override
+    public void adicionarItemAoPedido(int pedidoId, ItemPedido novoItem)
+            throws IOException, PedidoInvalidoException, EstoqueInsuficienteException {
+        try {
+            alterar(pedidoId, pedido -> {
+                if (!pedido.podeSerAlterado()) {
+                    throw new PedidoInvalidoException(pedidoId, pedido.getStatus(), "alterar");
+                }
+                verificarEstoqueParaItem(novoItem);
+                pedido.adicionarItem(novoItem);
+                return () -> getEventos().publicar(TipoEventoPedido.ITEM_ADICIONADO, publicado(pedido),
+                                                   pedido.getStatus(), novoItem.getItem(), novoItem.getQuantidade());
+            });
+        } catch (IOException | PedidoInvalidoException | EstoqueInsuficienteException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw falhaInesperada(e);
+        }
+    }
+
+    @Override
+    public void removerItemDoPedido(int pedidoId, ItemCardapio item)
+            throws IOException, PedidoInvalidoException {
+        try {
+            alterar(pedidoId, pedido -> {
+                if (!pedido.podeSerAlterado()) {
+                    throw new PedidoInvalidoException(pedidoId, pedido.getStatus(), "alterar");
+                }
+                int quantidadeRemovida = pedido.getItensDoPedido().stream()
+                                               .filter(itemPedido -> itemPedido.getItem().equals(item))
+                                               .mapToInt(ItemPedido::getQuantidade)
+                                               .sum();
+                pedido.removerItem(item);
+                return () -> getEventos().publicar(TipoEventoPedido.ITEM_REMOVIDO, publicado(pedido),
+                                                   pedido.getStatus(), item, quantidadeRemovida);
+            });
+        } catch (IOException | PedidoInvalidoException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw falhaInesperada(e);
+        }
+    }
+
+    /**
+     * A importação em lote usa sempre o serviço com lock único (ver SistemaPizzaria)
+     */
+    @Override
+    public void importar(List<Pedido> lote) {
+        throw new UnsupportedOperationException("Importação em lote não é suportada com partições");
+    }
+
+    @Override
+    public void concluirImportacao() {
+        throw new UnsupportedOperationException("Importação em lote não é suportada com partições");
+    }
+
+    // ========== LEITURAS (cópias publicadas, sem lock) ==========
+
+    /**
+     * O standby usa sempre o serviço com lock único: aqui não há lista para incorporar réplicas
+     */
+    @Override
+    public void aplicarReplica(List<Pedido> recebidos) {
+        throw new UnsupportedOperationException("Réplica de pedidos não é suportada com partições");
+    }
+
+    @Override
+    public Pedido buscarPorId(int id) throws PedidoInvalidoException {
+        Pedido pedido = particaoDe(id).publicados.get(id);
+        if (pedido == null) {
+            throw new PedidoInvalidoException(id);
+        }
+        return pedido;
+    }
+
+    @Override
+    public List<Pedido> listarTodos() {
+        List<Pedido> todos = new ArrayList<>();
+        for (Particao particao : particoes) {
+            todos.addAll(particao.publicados.values());
+        }
+        todos.sort(Comparator.comparingInt(Pedido::getId));
+        return todos;
+    }
+
+    @Override
+    public List<Pedido> listarPorCliente(Cliente cliente) {
+        return listarTodos().stream()
+                            .filter(p -> p.getClienteId() == cliente.getId())
+                            .toList();
+    }
+
+    @Override
+    public List<Pedido> listarPedidosDoDia() {
+        LocalDate hoje = LocalDate.now();
+        return listarTodos().stream()
+                            .filter(p -> p.getDataHora().toLocalDate().equals(hoje))
+                            .toList();
+    }
+
+    @Override
+    public List<Pedido> listarPorStatus(StatusPedido status) {
+        return listarTodos().stream()
+                            .filter(p -> p.getStatus() == status)
+                            .toList();
+    }
+
+    @Override
+    public List<Pedido> listarPendentes() {
+        return listarPorStatus(StatusPedido.PENDENTE);
+    }
+
+    @Override
+    public List<Pedido> listarEmPreparo() {
+        return listarPorStatus(StatusPedido.EM_PREPARO);
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Alteração aplicada sobre o pedido vivo; devolve a publicação do evento correspondente
+     */
+    @FunctionalInterface
+    private interface Alteracao {
+        Runnable aplicar(Pedido pedido) throws Exception;
+    }
+
+    /**
+     * Criação do objeto do pedido (executada na thread dona)
+     */
+    @FunctionalInterface
+    private interface FabricaPedido {
+        Pedido criar();
+    }
+
+    private Pedido criar(int id, DecisaoAdmissao decisao, List<ItemPedido> itens, FabricaPedido fabrica)
+            throws IOException, EstoqueInsuficienteException {
+        Particao particao = particaoDe(id);
+        // A reserva é vinculada pela thread dona ou desfeita aqui, nunca as duas coisas
+        // (quem desistiu de esperar não deixa a tarefa vincular depois)
+        AtomicBoolean vinculada = new AtomicBoolean();
+        UnidadeDeTrabalho unidade = UnidadeDeTrabalho.atual();
+        try {
+            Pedido criado = aguardar(particao.dona.submit(() -> UnidadeDeTrabalho.participar(unidade, () -> {
+                verificarEstoqueParaPedido(itens);
+
+                Pedido pedido = fabrica.criar();
+                pedido.setItensDoPedido(itens);
+                pedido.calcularValorTotal();
+                if (!vinculada.compareAndSet(false, true)) {
+                    throw new IllegalStateException("Criação do pedido " + id + " abandonada");
+                }
+                vincularAdmissao(pedido, decisao);
+
+                particao.vivos.put(id, pedido);
+                getEstatisticasPedidos().registrarNovo(pedido);
+                UnidadeDeTrabalho.aoDesfazer(() -> desfazerCriacao(id));
+                Pedido copia = publicar(particao, pedido);
+                UnidadeDeTrabalho.aoConfirmar(() -> getEventos().publicar(TipoEventoPedido.CRIADO, copia, null));
+                return copia;
+            })));
+            gravar();
+            return criado;
+        } catch (IOException | EstoqueInsuficienteException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw falhaInesperada(e);
+        } finally {
+            // Falhou antes de o pedido existir (estoque, partição encerrada...): a carga reservada volta
+            if (vinculada.compareAndSet(false, true)) {
+                desfazerAdmissao(decisao);
+            }
+        }
+    }
+
+    /**
+     * Aplica a alteração na thread dona da partição do pedido e espera a gravação que a inclui.
+     * A unidade de trabalho de quem chama vale também na thread dona, durante a alteração.
+     */
+    private void alterar(int pedidoId, Alteracao alteracao) throws Exception {
+        Particao particao = particaoDe(pedidoId);
+        UnidadeDeTrabalho unidade = UnidadeDeTrabalho.atual();
+        aguardar(particao.dona.submit(() -> UnidadeDeTrabalho.participar(unidade, () -> {
+            Pedido pedido = particao.vivos.get(pedidoId);
+            if (pedido == null) {
+                throw new PedidoInvalidoException(pedidoId);
+            }
+            Runnable publicarEvento = alteracao.aplicar(pedido);
+            publicar(particao, pedido);
+            publicarEvento.run();
+            return null;
+        })));
+        gravar();
+    }
+
+    /**
+     * O evento de uma mudança feita em unidade de trabalho só sai quando ela for gravada
+     */
+    private void publicarAoConfirmar(Pedido copia, StatusPedido statusAnterior) {
+        UnidadeDeTrabalho.aoConfirmar(() -> publicarMudancaDeStatus(copia, statusAnterior));
+    }
+
+    /**
+     * Compensação de uma mudança de status em unidade de trabalho não confirmada: a
+     * thread dona devolve o status anterior, com os horários de antes, e republica a
+     * cópia (que vai para o arquivo)
+     */
+    private void desfazerStatus(int pedidoId, StatusPedido statusAnterior, LocalDateTime horarioDesfeito) {
+        Particao particao = particaoDe(pedidoId);
+        try {
+            aguardar(particao.dona.submit(() -> {
+                Pedido pedido = particao.vivos.get(pedidoId);
+                StatusPedido statusDesfeito = pedido.getStatus();
+                pedido.restaurarStatus(statusAnterior, statusDesfeito, horarioDesfeito);
+                getEstatisticasPedidos().registrarMudanca(pedido, statusDesfeito);
+                publicar(particao, pedido);
+                return null;
+            }));
+        } catch (Exception e) {
+            System.err.println("Erro ao desfazer status do pedido " + pedidoId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compensação da criação em uma unidade de trabalho não confirmada: a thread dona
+     * tira o pedido da partição, e a reserva de admissão e as estatísticas acompanham
+     */
+    private void desfazerCriacao(int pedidoId) {
+        Particao particao = particaoDe(pedidoId);
+        try {
+            aguardar(particao.dona.submit(() -> {
+                Pedido pedido = particao.vivos.remove(pedidoId);
+                if (pedido != null) {
+                    particao.publicados.remove(pedidoId);
+                    versaoAlterada.incrementAndGet();
+                    proximoId.compareAndSet(pedidoId + 1, pedidoId);
+                    getEstatisticasPedidos().desfazerNovo(pedido);
+                    desvincularAdmissao(pedidoId);
+                }
+                return null;
+            }));
+        } catch (Exception e) {
+            System.err.println("Erro ao desfazer criação do pedido " + pedidoId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Publica uma cópia do pedido vivo para os leitores (executado pela thread dona)
+     */
+    private Pedido publicar(Particao particao, Pedido pedido) {
+        Pedido copia = new Pedido(pedido);
+        particao.publicados.put(pedido.getId(), copia);
+        versaoAlterada.incrementAndGet();
+        return copia;
+    }
+
+    private Pedido publicado(Pedido pedido) {
+        return particaoDe(pedido.getId()).publicados.get(pedido.getId());
+    }
+
+    /**
+     * Gravação agrupada: se outra thread já gravou um estado que inclui a alteração
+     * de quem chama, não grava de novo
+     */
+    @SuppressWarnings("try")
+    private void gravar() throws IOException {
+        if (UnidadeDeTrabalho.atual() != null) {
+            // Sai na confirmação da unidade, junto com os outros serviços
+            JsonPersistence.saveToFile(this::listarTodos, PEDIDOS_FILE, travaGravacao);
+            return;
+        }
+        long versao = versaoAlterada.get();
+        // Trava do arquivo antes da trava de gravação, na mesma ordem de saveAll()
+        try (TravaDeArquivo trava = JsonPersistence.travar(PEDIDOS_FILE)) {
+            synchronized (travaGravacao) {
+                if (versaoGravada >= versao) {
+                    return;
+                }
+                long versaoAtual = versaoAlterada.get();
+                JsonPersistence.saveToFile(listarTodos(), PEDIDOS_FILE);
+                versaoGravada = versaoAtual;
+            }
+        }
+    }
+
+    private Particao particaoDe(int pedidoId) {
+        return particoes[Math.floorMod(pedidoId, particoes.length)];
+    }
+
+    private <T> T aguardar(Future<T> resultado) throws Exception {
+        try {
+            return resultado.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception causa) {
+                throw causa;
+            }
+            throw (Error) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a partição de pedidos", e);
+        }
+    }
+
+    private IllegalStateException falhaInesperada(Exception e) {
+        return new IllegalStateException("Falha ao processar pedido: " + e.getMessage(), e);
+    }
+}
@@ -0,0 +1,67 @@
+package com.pizzaria.service;
+
+import java.nio.file.Path;
+
+/**
+ * Classe que resume um backup: arquivo gerado, o que foi copiado e quanto tempo
+ * as alterações ficaram suspensas
+ */
+public class ResultadoBackup {
+    private final Path arquivo;
+    private final int clientes;
+    private final int ingredientes;
+    private final int itensCardapio;
+    private final int pedidos;
+    private final long pausaMicros;
+    private final long tamanhoBytes;
+
+    public ResultadoBackup(Path arquivo, int clientes, int ingredientes, int itensCardapio, int pedidos,
+                           long pausaMicros, long tamanhoBytes) {
+        this.arquivo = arquivo;
+        this.clientes = clientes;
+        this.ingredientes = ingredientes;
+        this.itensCardapio = itensCardapio;
+        this.pedidos = pedidos;
+        this.pausaMicros = pausaMicros;
+        this.tamanhoBytes = tamanhoBytes;
+    }
+
+    // Getters
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    public int getClientes() {
+        return clientes;
+    }
+
+    public int getIngredientes() {
+        return ingredientes;
+    }
+
+    public int getItensCardapio() {
+        return itensCardapio;
+    }
+
+    public int getPedidos() {
+        return pedidos;
+    }
+
+    /**
+     * Tempo em que os serviços ficaram travados para a captura, em microssegundos
+     */
+    public long getPausaMicros() {
+        return pausaMicros;
+    }
+
+    public long getTamanhoBytes() {
+        return tamanhoBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Backup %s: %d clientes, %d ingredientes, %d itens do cardápio, %d pedidos "
+                + "(%.1f KB, pausa de %.2f ms)", arquivo.getFileName(), clientes, ingredientes, itensCardapio,
+                pedidos, tamanhoBytes / 1024.0, pausaMicros / 1000.0);
+    }
+}
@@ -0,0 +1,68 @@
+package com.pizzaria.service;
+
+import com.pizzaria.model.Ingrediente;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Visão de leitura de pedidos e estoque no mesmo instante lógico, para relatórios
+ * que cruzam os dois (o estoque corresponde exatamente aos pedidos confirmados da visão).
+ * A abertura suspende as alterações só pelo tempo de copiar o estoque e abrir a
+ * visão de pedidos; deve ser fechada ao fim do relatório.
+ */
+public class VisaoLeitura implements AutoCloseable {
+    private final VisaoPedidos pedidos;
+    private final Map<Integer, Ingrediente> ingredientes;
+
+    private VisaoLeitura(VisaoPedidos pedidos, Map<Integer, Ingrediente> ingredientes) {
+        this.pedidos = pedidos;
+        this.ingredientes = ingredientes;
+    }
+
+    public static VisaoLeitura abrir(PedidoService pedidoService, IngredienteService ingredienteService) {
+        return pedidoService.executarComPedidosParados(() -> capturar(pedidoService, ingredienteService));
+    }
+
+    /**
+     * Abre a visão com as alterações de pedidos já suspensas por quem chama
+     * (dentro de executarComPedidosParados)
+     */
+    static VisaoLeitura capturar(PedidoService pedidoService, IngredienteService ingredienteService) {
+        synchronized (ingredienteService) {
+            Map<Integer, Ingrediente> copias = new LinkedHashMap<>();
+            for (Ingrediente ingrediente : ingredienteService.listarTodos()) {
+                copias.put(ingrediente.getId(), new Ingrediente(ingrediente.getId(), ingrediente.getNome(),
+                                                                ingrediente.getQuantidadeEmEstoque()));
+            }
+            return new VisaoLeitura(pedidoService.capturarVisao(), copias);
+        }
+    }
+
+    public VisaoPedidos getPedidos() {
+        return pedidos;
+    }
+
+    /**
+     * Ingredientes com o estoque do instante da visão (cópias)
+     */
+    public List<Ingrediente> getIngredientes() {
+        return Collections.unmodifiableList(new ArrayList<>(ingredientes.values()));
+    }
+
+    /**
+     * Estoque do ingrediente no instante da visão (0 se não existia)
+     */
+    public int getEstoque(int ingredienteId) {
+        Ingrediente ingrediente = ingredientes.get(ingredienteId);
+        return ingrediente != null ? ingrediente.getQuantidadeEmEstoque() : 0;
+    }
+
+    @Override
+    public void close() {
+        pedidos.close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.pizzaria.service;
+
+import com.pizzaria.model.Pedido;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Visão sobre uma lista de pedidos que não mudam mais (cópias já imutáveis),
+ * percorrida sem lock
+ */
+final class VisaoListaPedidos extends VisaoPedidos {
+    private volatile List<Pedido> pedidos;
+
+    VisaoListaPedidos(long sequencia, List<Pedido> pedidos, AtomicInteger abertas) {
+        super(sequencia, pedidos.size(), abertas);
+        this.pedidos = pedidos;
+    }
+
+    @Override
+    protected void percorrerPedidos(LocalDate inicio, LocalDate fim, Consumer<Pedido> visitante) {
+        List<Pedido> lista = pedidos;
+        if (lista == null) {
+            throw new IllegalStateException("Visão de leitura fechada durante a leitura");
+        }
+        for (Pedido pedido : lista) {
+            if (noPeriodo(pedido, inicio, fim)) {
+                visitante.accept(pedido);
+            }
+        }
+    }
+
+    @Override
+    protected void liberar() {
+        pedidos = null;
+    }
+}
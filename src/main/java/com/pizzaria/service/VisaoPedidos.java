@@ -0,0 +1,104 @@
+package com.pizzaria.service;
+
+import com.pizzaria.model.Pedido;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Visão de leitura estável dos pedidos em um instante lógico: a posição do barramento
+ * de eventos no momento em que foi aberta (getSequencia()). Relatórios percorrem a
+ * visão sem travar quem altera pedidos e veem sempre os mesmos dados, por mais que
+ * demorem; alterações posteriores à abertura não aparecem.
+ *
+ * Os pedidos entregues são somente leitura. Deve ser fechada ao fim do relatório
+ * (try-with-resources) para liberar as cópias que segura; pode ser percorrida por
+ * várias threads ao mesmo tempo.
+ */
+public abstract class VisaoPedidos implements AutoCloseable {
+    private final long sequencia;
+    private final LocalDateTime instante;
+    private final int total;
+    private final AtomicInteger abertas;
+    private final AtomicBoolean aberta;
+
+    protected VisaoPedidos(long sequencia, int total, AtomicInteger abertas) {
+        this.sequencia = sequencia;
+        this.instante = LocalDateTime.now();
+        this.total = total;
+        this.abertas = abertas;
+        this.aberta = new AtomicBoolean(true);
+        abertas.incrementAndGet();
+    }
+
+    /**
+     * Número de eventos de pedido publicados até a abertura: a visão contém exatamente
+     * o efeito desses eventos
+     */
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public LocalDateTime getInstante() {
+        return instante;
+    }
+
+    /**
+     * Total de pedidos na visão
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean isAberta() {
+        return aberta.get();
+    }
+
+    /**
+     * Entrega ao visitante cada pedido da visão feito no período (inclusive)
+     */
+    public void percorrer(LocalDate inicio, LocalDate fim, Consumer<Pedido> visitante) {
+        if (!isAberta()) {
+            throw new IllegalStateException("Visão de leitura já fechada");
+        }
+        percorrerPedidos(inicio, fim, visitante);
+    }
+
+    public void percorrer(Consumer<Pedido> visitante) {
+        percorrer(LocalDate.MIN, LocalDate.MAX, visitante);
+    }
+
+    /**
+     * Lista com todos os pedidos da visão (referências, sem copiar os pedidos)
+     */
+    public List<Pedido> listar() {
+        List<Pedido> pedidos = new ArrayList<>(total);
+        percorrer(pedidos::add);
+        return pedidos;
+    }
+
+    @Override
+    public void close() {
+        if (aberta.compareAndSet(true, false)) {
+            liberar();
+            abertas.decrementAndGet();
+        }
+    }
+
+    protected abstract void percorrerPedidos(LocalDate inicio, LocalDate fim, Consumer<Pedido> visitante);
+
+    /**
+     * Solta o que a visão segura (chamado uma vez, no fechamento)
+     */
+    protected abstract void liberar();
+
+    protected static boolean noPeriodo(Pedido pedido, LocalDate inicio, LocalDate fim) {
+        LocalDate dia = pedido.getDataHora().toLocalDate();
+        return !dia.isBefore(inicio) && !dia.isAfter(fim);
+    }
+}
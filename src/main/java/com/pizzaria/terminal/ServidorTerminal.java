@@ -0,0 +1,123 @@
+package com.pizzaria.terminal;
+
+import com.pizzaria.SistemaPizzaria;
+import com.pizzaria.util.ThreadUtils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor TCP local de terminais: cada operador conectado (telnet/nc) recebe
+ * sua própria sessão com os mesmos menus do console, e todas as sessões
+ * compartilham uma única instância de cada serviço (via SistemaPizzaria.novaSessao).
+ */
+public class ServidorTerminal {
+    private final SistemaPizzaria sistema;
+    private final int porta;
+    private final Set<Socket> sessoesAtivas;
+    private final AtomicInteger proximaSessao;
+    private ServerSocket servidor;
+    private ExecutorService executor;
+    private Thread threadAceite;
+
+    public ServidorTerminal(SistemaPizzaria sistema, int porta) {
+        this.sistema = sistema;
+        this.porta = porta;
+        this.sessoesAtivas = ConcurrentHashMap.newKeySet();
+        this.proximaSessao = new AtomicInteger(1);
+    }
+
+    /**
+     * Abre a porta (apenas na interface local) e começa a aceitar operadores
+     */
+    public void iniciar() throws IOException {
+        servidor = new ServerSocket();
+        servidor.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta));
+        // Sessões passam a maior parte do tempo bloqueadas em leitura: threads virtuais quando disponíveis
+        executor = ThreadUtils.novoExecutorPorTarefa("terminal", 64);
+
+        threadAceite = new Thread(this::aceitarConexoes, "terminal-aceite");
+        threadAceite.setDaemon(true);
+        threadAceite.start();
+    }
+
+    /**
+     * Fecha a porta e derruba as sessões abertas
+     */
+    public void parar() {
+        try {
+            if (servidor != null) {
+                servidor.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar servidor de terminais: " + e.getMessage());
+        }
+        for (Socket socket : sessoesAtivas) {
+            fecharSilenciosamente(socket);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public int getPorta() {
+        return servidor != null ? servidor.getLocalPort() : porta;
+    }
+
+    /**
+     * Obtém o número de operadores conectados
+     */
+    public int getTotalSessoes() {
+        return sessoesAtivas.size();
+    }
+
+    private void aceitarConexoes() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                socket.setTcpNoDelay(true);
+                sessoesAtivas.add(socket);
+                executor.execute(() -> executarSessao(socket, proximaSessao.getAndIncrement()));
+            } catch (SocketException e) {
+                return; // servidor fechado
+            } catch (IOException e) {
+                System.err.println("Erro ao aceitar operador: " + e.getMessage());
+            }
+        }
+    }
+
+    private void executarSessao(Socket socket, int numeroSessao) {
+        try {
+            // Sem buffer intermediário: os prompts sem quebra de linha chegam imediatamente ao operador
+            PrintStream saida = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            saida.println("=== Sistema de Gerenciamento de Pizzaria - Sessão " + numeroSessao + " ===");
+
+            SistemaPizzaria sessao = sistema.novaSessao(socket.getInputStream(), saida);
+            sessao.executarMenuPrincipal();
+        } catch (NoSuchElementException | IOException e) {
+            // Operador desconectou no meio de um menu
+        } finally {
+            sessoesAtivas.remove(socket);
+            fecharSilenciosamente(socket);
+        }
+    }
+
+    private void fecharSilenciosamente(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // já fechado
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.pizzaria.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Acesso ao diretório de dados por vários processos ao mesmo tempo.
+ *
+ * Cada arquivo de dados tem ao lado um arquivo de trava (clientes.json.lock) com a
+ * versão do arquivo, incrementada a cada gravação, e a transação que o está alterando,
+ * se houver. Quem altera uma coleção segura a trava desde antes da alteração em memória
+ * até a gravação: um FileLock para os outros processos e, dentro do processo, uma trava
+ * reentrante cujo dono é a thread ou a unidade de trabalho. Ao pegar a trava, se a versão
+ * no disco não é a conhecida, outro processo gravou antes e a coleção é recarregada.
+ * Sem disputa, o custo por gravação é o de travar e ler/escrever 24 bytes.
+ *
+ * Uma transação que caiu no meio é refeita por quem pegar a trava de um dos seus
+ * arquivos depois (pela marca no arquivo de trava) ou na próxima partida.
+ */
+final class ArquivosCompartilhados {
+    private static final String EXTENSAO_TRAVA = ".lock";
+    private static final String TRAVA_DIRETORIO = "diretorio.lock"; // processos usando data/
+    private static final int TAMANHO_CABECALHO = 24;   // versão, pid e número da transação
+    private static final long ESPERA_MAXIMA_MILLIS = 8;  // entre tentativas de travar com outro processo
+
+    private final Path dataDir;
+    private final Map<String, Arquivo> arquivos;
+    private final List<Consumer<String>> observadoresGravacao;
+    private volatile WatchService observador;
+    private FileChannel canalDiretorio;
+    private volatile FileLock travaDiretorio;
+
+    ArquivosCompartilhados(Path dataDir) {
+        this.dataDir = dataDir;
+        this.arquivos = new ConcurrentHashMap<>();
+        this.observadoresGravacao = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Pega a trava do arquivo (reentrante para o mesmo dono) e, na primeira vez,
+     * traz a coleção em memória para a versão do disco
+     */
+    TravaDeArquivo travar(String nome) throws IOException {
+        if (travaDiretorio == null) {
+            reservarDiretorio(false);
+        }
+        Arquivo arquivo = arquivo(nome);
+        Object dono = UnidadeDeTrabalho.donoAtual();
+        if (arquivo.adquirir(dono)) {
+            try {
+                arquivo.travarProcesso();
+                sincronizar(arquivo);
+            } catch (IOException | RuntimeException e) {
+                arquivo.liberar(dono);
+                throw e;
+            }
+        }
+        return new TravaDeArquivo(arquivo, dono);
+    }
+
+    /**
+     * Marca data/ como usado por este processo até ele terminar: trava compartilhada em
+     * diretorio.lock ou, para quem não aceita outro processo no diretório, exclusiva.
+     * Falha se outro processo segura uma trava incompatível com a pedida.
+     */
+    synchronized void reservarDiretorio(boolean exclusivo) throws IOException {
+        if (travaDiretorio != null && (!exclusivo || !travaDiretorio.isShared())) {
+            return;
+        }
+        if (canalDiretorio == null) {
+            Files.createDirectories(dataDir);
+            canalDiretorio = FileChannel.open(dataDir.resolve(TRAVA_DIRETORIO), StandardOpenOption.CREATE,
+                                              StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        if (travaDiretorio != null) {
+            // Uma trava compartilhada não vira exclusiva: solta e tenta pegar a outra
+            travaDiretorio.release();
+            travaDiretorio = null;
+        }
+        FileLock trava = canalDiretorio.tryLock(0, Long.MAX_VALUE, !exclusivo);
+        if (trava == null) {
+            if (exclusivo) {
+                travaDiretorio = canalDiretorio.tryLock(0, Long.MAX_VALUE, true);
+                throw new IOException("outro processo está usando " + dataDir + "/");
+            }
+            throw new IOException(dataDir + "/ está reservado para outro processo");
+        }
+        travaDiretorio = trava;
+    }
+
+    /**
+     * Define como recarregar a coleção quando outro processo gravar o arquivo (null: não recarrega)
+     */
+    void aoAlterar(String nome, Runnable recarga) {
+        arquivo(nome).recarga = recarga;
+    }
+
+    /**
+     * Avisa o observador de cada nova versão de um arquivo, gravada por este processo ou
+     * percebida ao travar (chamado com a trava segurada)
+     */
+    void aoGravar(Consumer<String> observadorGravacao) {
+        observadoresGravacao.add(observadorGravacao);
+    }
+
+    /**
+     * Registra uma gravação feita com a trava segurada: próxima versão
+     */
+    void registrarGravacao(String nome) throws IOException {
+        Arquivo arquivo = arquivo(nome);
+        arquivo.escreverCabecalho(arquivo.versaoConhecida + 1, 0, 0);
+        notificarGravacao(nome);
+    }
+
+    /**
+     * Conteúdo atual do arquivo, lido com a trava (null se não existe)
+     */
+    @SuppressWarnings("try")
+    byte[] ler(String nome) throws IOException {
+        try (TravaDeArquivo trava = travar(nome)) {
+            Path caminho = dataDir.resolve(nome);
+            return Files.exists(caminho) ? Files.readAllBytes(caminho) : null;
+        }
+    }
+
+    /**
+     * Substitui o arquivo por um conteúdo vindo de fora (réplica) como uma nova versão
+     * e recarrega a coleção em memória
+     */
+    @SuppressWarnings("try")
+    void substituirERecarregar(String nome, byte[] conteudo) throws IOException {
+        try (TravaDeArquivo trava = travar(nome)) {
+            Arquivo arquivo = arquivo(nome);
+            substituir(nome, conteudo);
+            arquivo.escreverCabecalho(arquivo.versaoConhecida + 1, 0, 0);
+            Runnable recarga = arquivo.recarga;
+            if (recarga != null) {
+                recarga.run();
+            }
+            notificarGravacao(nome);
+        }
+    }
+
+    /**
+     * Grava os arquivos (com as travas de todos seguradas) como uma transação: marca os
+     * arquivos de trava, grava o registro durável (ponto de atomicidade), substitui os
+     * arquivos, avança as versões e descarta o registro
+     */
+    void gravarTransacao(Map<String, byte[]> conteudos) throws IOException {
+        RegistroTransacao registro = RegistroTransacao.novo(dataDir);
+        Map<String, RegistroTransacao.Entrada> entradas = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> conteudo : conteudos.entrySet()) {
+            Arquivo arquivo = arquivo(conteudo.getKey());
+            entradas.put(conteudo.getKey(), new RegistroTransacao.Entrada(arquivo.versaoConhecida, conteudo.getValue()));
+        }
+
+        try {
+            for (String nome : entradas.keySet()) {
+                Arquivo arquivo = arquivo(nome);
+                arquivo.escreverCabecalho(arquivo.versaoConhecida, registro.getPid(), registro.getNumero());
+            }
+            registro.gravar(entradas);
+        } catch (IOException e) {
+            // Não chegou ao ponto de atomicidade: nada foi alterado
+            for (String nome : entradas.keySet()) {
+                Arquivo arquivo = arquivo(nome);
+                try {
+                    arquivo.escreverCabecalho(arquivo.versaoConhecida, 0, 0);
+                } catch (IOException ignorada) {
+                    // a marca aponta para um registro que não existe e será limpa por quem travar depois
+                }
+            }
+            registro.descartar();
+            throw e;
+        }
+
+        // Daqui em diante a transação está confirmada; se algo falhar, o registro e as
+        // marcas ficam e a transação é refeita na próxima vez que o arquivo for travado
+        for (Map.Entry<String, RegistroTransacao.Entrada> entrada : entradas.entrySet()) {
+            substituir(entrada.getKey(), entrada.getValue().conteudo);
+        }
+        for (Map.Entry<String, RegistroTransacao.Entrada> entrada : entradas.entrySet()) {
+            arquivo(entrada.getKey()).escreverCabecalho(entrada.getValue().versaoBase + 1, 0, 0);
+        }
+        registro.descartar();
+        for (String nome : entradas.keySet()) {
+            notificarGravacao(nome);
+        }
+    }
+
+    /**
+     * Refaz as transações de processos que terminaram no meio delas (chamado na partida)
+     */
+    @SuppressWarnings("try")
+    void recuperarTransacoesAbandonadas() {
+        try {
+            for (RegistroTransacao registro : RegistroTransacao.listar(dataDir)) {
+                if (registro.donoAtivo()) {
+                    continue;
+                }
+                Map<String, RegistroTransacao.Entrada> entradas = registro.ler();
+                if (entradas != null) {
+                    for (String nome : entradas.keySet()) {
+                        try (TravaDeArquivo trava = travar(nome)) {
+                            recuperar(arquivo(nome), registro, entradas);
+                        }
+                    }
+                }
+                registro.descartar();
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao recuperar transações pendentes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inicia uma thread que observa o diretório de dados e recarrega, entre uma gravação
+     * e outra, as coleções que outro processo alterou
+     */
+    synchronized void observar() throws IOException {
+        if (observador != null) {
+            return;
+        }
+        Files.createDirectories(dataDir);
+        observador = FileSystems.getDefault().newWatchService();
+        dataDir.register(observador, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::observarAlteracoes, "observador-dados");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private Arquivo arquivo(String nome) {
+        return arquivos.computeIfAbsent(nome, n -> new Arquivo(n, dataDir.resolve(n + EXTENSAO_TRAVA)));
+    }
+
+    /**
+     * Com a trava recém-pegada: termina uma transação abandonada no arquivo e recarrega
+     * a coleção se outro processo gravou uma versão que este não conhece
+     */
+    private void sincronizar(Arquivo arquivo) throws IOException {
+        long[] cabecalho = arquivo.lerCabecalho();
+        if (cabecalho[1] != 0) {
+            RegistroTransacao registro = RegistroTransacao.de(dataDir, cabecalho[1], cabecalho[2]);
+            Map<String, RegistroTransacao.Entrada> entradas;
+            try {
+                entradas = registro.ler();
+            } catch (IOException e) {
+                System.err.println("Erro ao ler registro de transação: " + e.getMessage());
+                entradas = null;
+            }
+            recuperar(arquivo, registro, entradas);
+            cabecalho = arquivo.lerCabecalho();
+        }
+
+        boolean alteradoPorOutro = arquivo.versaoConhecida >= 0 && cabecalho[0] != arquivo.versaoConhecida;
+        arquivo.versaoConhecida = cabecalho[0];
+        if (alteradoPorOutro) {
+            Runnable recarga = arquivo.recarga;
+            if (recarga != null) {
+                recarga.run();
+            } else {
+                System.err.println("Aviso: " + arquivo.nome + " foi alterado por outro processo e não será recarregado");
+            }
+            notificarGravacao(arquivo.nome);
+        }
+    }
+
+    /**
+     * Aplica ao arquivo (com a trava segurada) a sua parte de uma transação confirmada,
+     * se ainda não foi aplicada, e limpa a marca
+     */
+    private void recuperar(Arquivo arquivo, RegistroTransacao registro,
+                           Map<String, RegistroTransacao.Entrada> entradas) throws IOException {
+        long conhecida = arquivo.versaoConhecida;
+        long[] cabecalho = arquivo.lerCabecalho();
+        long versao = cabecalho[0];
+        RegistroTransacao.Entrada entrada = entradas != null ? entradas.get(arquivo.nome) : null;
+        if (entrada != null && versao == entrada.versaoBase) {
+            substituir(arquivo.nome, entrada.conteudo);
+            versao = entrada.versaoBase + 1;
+            System.err.println("Aviso: transação " + registro.getPid() + "-" + registro.getNumero()
+                               + " refeita em " + arquivo.nome);
+        }
+        boolean marcadoPorEsta = cabecalho[1] == registro.getPid() && cabecalho[2] == registro.getNumero();
+        if (versao != cabecalho[0] || marcadoPorEsta) {
+            arquivo.escreverCabecalho(versao, 0, 0);
+        }
+        // A memória continua na versão de antes: quem trava compara com o disco e recarrega
+        arquivo.versaoConhecida = conhecida;
+    }
+
+    private void notificarGravacao(String nome) {
+        for (Consumer<String> observadorGravacao : observadoresGravacao) {
+            observadorGravacao.accept(nome);
+        }
+    }
+
+    /**
+     * Substitui o arquivo de dados (temporário + renomeação)
+     */
+    private void substituir(String nome, byte[] conteudo) throws IOException {
+        Path destino = dataDir.resolve(nome);
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        Files.write(temporario, conteudo);
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @SuppressWarnings("try")
+    private void observarAlteracoes() {
+        try {
+            while (true) {
+                WatchKey chave = observador.take();
+                Set<String> alterados = new LinkedHashSet<>();
+                for (WatchEvent<?> evento : chave.pollEvents()) {
+                    String nome = String.valueOf(evento.context());
+                    if (nome.endsWith(EXTENSAO_TRAVA)) {
+                        alterados.add(nome.substring(0, nome.length() - EXTENSAO_TRAVA.length()));
+                    }
+                }
+                chave.reset();
+                for (String nome : alterados) {
+                    Arquivo arquivo = arquivos.get(nome);
+                    // As próprias gravações também geram eventos: só trava se a versão mudou
+                    if (arquivo != null && arquivo.recarga != null && arquivo.versaoMudou()) {
+                        try (TravaDeArquivo trava = travar(nome)) {
+                            // travar() já recarregou
+                        } catch (IOException | RuntimeException e) {
+                            System.err.println("Erro ao recarregar " + nome + ": " + e.getMessage());
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Arquivo de dados: trava dentro do processo (reentrante por dono), FileLock entre
+     * processos e a última versão que este processo leu ou gravou
+     */
+    static final class Arquivo {
+        private final String nome;
+        private final Path caminhoTrava;
+        private Object dono;
+        private int contagem;
+        private FileChannel canal;
+        private FileLock travaProcesso;
+        private volatile long versaoConhecida = -1;
+        private volatile Runnable recarga;
+
+        private Arquivo(String nome, Path caminhoTrava) {
+            this.nome = nome;
+            this.caminhoTrava = caminhoTrava;
+        }
+
+        /**
+         * Espera a trava ficar livre (ou já ser do mesmo dono); true se é a primeira do dono
+         */
+        private synchronized boolean adquirir(Object quem) throws InterruptedIOException {
+            while (dono != null && dono != quem) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrompido aguardando a trava de " + nome);
+                }
+            }
+            dono = quem;
+            contagem++;
+            return contagem == 1;
+        }
+
+        synchronized void liberar(Object quem) {
+            if (dono != quem || contagem == 0) {
+                throw new IllegalStateException("Trava de " + nome + " liberada por quem não a possui");
+            }
+            if (--contagem > 0) {
+                return;
+            }
+            if (travaProcesso != null) {
+                try {
+                    travaProcesso.release();
+                } catch (IOException e) {
+                    System.err.println("Erro ao liberar trava de " + nome + ": " + e.getMessage());
+                }
+                travaProcesso = null;
+            }
+            dono = null;
+            notifyAll();
+        }
+
+        /**
+         * O canal fica aberto: com travas POSIX, fechar qualquer canal do arquivo
+         * soltaria o FileLock do processo inteiro. Usa tryLock() com espera crescente
+         * em vez de lock(): o Linux detecta deadlock por processo e, com várias threads
+         * esperando travas de arquivos diferentes, acusaria deadlocks que não existem.
+         */
+        private void travarProcesso() throws IOException {
+            FileChannel atual;
+            synchronized (this) {
+                if (canal == null) {
+                    Files.createDirectories(caminhoTrava.getParent());
+                    canal = FileChannel.open(caminhoTrava, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                             StandardOpenOption.WRITE);
+                }
+                atual = canal;
+            }
+            FileLock trava = atual.tryLock();
+            long esperaMillis = 1;
+            while (trava == null) {
+                try {
+                    Thread.sleep(esperaMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrompido aguardando a trava de " + nome);
+                }
+                esperaMillis = Math.min(esperaMillis * 2, ESPERA_MAXIMA_MILLIS);
+                trava = atual.tryLock();
+            }
+            synchronized (this) {
+                travaProcesso = trava;
+            }
+        }
+
+        /**
+         * Versão, pid e número da transação em andamento (zeros se o arquivo de trava é novo)
+         */
+        private long[] lerCabecalho() throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            while (buffer.hasRemaining() && canal.read(buffer, buffer.position()) > 0) {
+                // lê até completar o cabeçalho ou chegar ao fim
+            }
+            if (buffer.position() < TAMANHO_CABECALHO) {
+                return new long[3];
+            }
+            buffer.flip();
+            return new long[] {buffer.getLong(), buffer.getLong(), buffer.getLong()};
+        }
+
+        private void escreverCabecalho(long versao, long pid, long numero) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            buffer.putLong(versao).putLong(pid).putLong(numero).flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer, buffer.position());
+            }
+            versaoConhecida = versao;
+        }
+
+        /**
+         * Leitura sem trava, só como indício para o observador
+         */
+        private boolean versaoMudou() {
+            try {
+                FileChannel atual;
+                synchronized (this) {
+                    atual = canal;
+                }
+                if (atual == null) {
+                    return true;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+                atual.read(buffer, 0);
+                return buffer.position() < Long.BYTES || buffer.getLong(0) != versaoConhecida;
+            } catch (IOException e) {
+                return true;
+            }
+        }
+    }
+}
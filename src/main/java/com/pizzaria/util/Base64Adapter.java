@@ -0,0 +1,27 @@
+package com.pizzaria.util;
+
+import com.google.gson.*;
+import java.lang.reflect.Type;
+import java.util.Base64;
+
+/**
+ * Adaptador Gson para arrays de bytes: grava como texto Base64 em vez de uma
+ * lista de números, o que deixa arquivos com muitos bytes bem menores
+ */
+public class Base64Adapter implements JsonSerializer<byte[]>, JsonDeserializer<byte[]> {
+
+    @Override
+    public JsonElement serialize(byte[] bytes, Type srcType, JsonSerializationContext context) {
+        return new JsonPrimitive(Base64.getEncoder().encodeToString(bytes));
+    }
+
+    @Override
+    public byte[] deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+            throws JsonParseException {
+        try {
+            return Base64.getDecoder().decode(json.getAsString());
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Conteúdo Base64 inválido", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.pizzaria.util;
+
+import com.google.gson.*;
+import java.lang.reflect.Type;
+
+/**
+ * Adaptador Gson para campos em centavos: grava em reais com duas casas (ex.: 45.50)
+ * e lê tanto esse formato quanto os valores double gravados pelas versões anteriores
+ */
+public class CentavosAdapter implements JsonSerializer<Long>, JsonDeserializer<Long> {
+
+    @Override
+    public JsonElement serialize(Long centavos, Type srcType, JsonSerializationContext context) {
+        return new JsonPrimitive(Dinheiro.paraDecimal(centavos));
+    }
+
+    @Override
+    public Long deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+            throws JsonParseException {
+        try {
+            // Lê o texto do número direto como decimal, sem passar por double
+            return Dinheiro.paraCentavos(json.getAsBigDecimal());
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new JsonParseException("Valor monetário inválido: " + json, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.pizzaria.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Classe utilitária para valores em dinheiro representados em centavos (long).
+ *
+ * Regras de arredondamento:
+ * - conversão de reais para centavos: meio para cima (HALF_UP) na segunda casa;
+ * - preço unitário = preço base x multiplicador do tamanho, arredondado (HALF_UP) para centavos;
+ * - subtotais e totais são somas/produtos exatos de centavos, sem arredondamento.
+ * Como as somas são inteiras, o resultado não depende da ordem (pode ser paralelizado).
+ */
+public class Dinheiro {
+    private static final RoundingMode ARREDONDAMENTO = RoundingMode.HALF_UP;
+
+    private Dinheiro() {
+    }
+
+    /**
+     * Converte um valor em reais para centavos
+     */
+    public static long paraCentavos(double reais) {
+        return paraCentavos(BigDecimal.valueOf(reais));
+    }
+
+    /**
+     * Converte um valor decimal em reais (ex.: lido do JSON) para centavos
+     */
+    public static long paraCentavos(BigDecimal reais) {
+        return reais.setScale(2, ARREDONDAMENTO).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converte centavos para reais (apenas para exibição)
+     */
+    public static double paraReais(long centavos) {
+        return centavos / 100.0;
+    }
+
+    /**
+     * Converte centavos para um decimal exato com duas casas
+     */
+    public static BigDecimal paraDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Aplica um multiplicador (ex.: do tamanho da pizza) arredondando para centavos
+     */
+    public static long multiplicar(long centavos, double multiplicador) {
+        return BigDecimal.valueOf(centavos)
+                         .multiply(BigDecimal.valueOf(multiplicador))
+                         .setScale(0, ARREDONDAMENTO)
+                         .longValueExact();
+    }
+
+    /**
+     * Multiplica por uma quantidade, falhando em vez de estourar
+     */
+    public static long multiplicar(long centavos, int quantidade) {
+        return Math.multiplyExact(centavos, (long) quantidade);
+    }
+
+    /**
+     * Soma dois valores, falhando em vez de estourar
+     */
+    public static long somar(long centavos, long outros) {
+        return Math.addExact(centavos, outros);
+    }
+}
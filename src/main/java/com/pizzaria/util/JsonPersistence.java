@@ -7,9 +7,17 @@ import com.pizzaria.model.ItemCardapio;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Classe utilitária para persistência de dados em arquivos JSON
@@ -17,51 +25,211 @@ import java.util.List;
 public class JsonPersistence {
     private static final Gson gson = new GsonBuilder()
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
             .registerTypeAdapter(ItemCardapio.class, new ItemCardapioAdapter())
             .excludeFieldsWithoutExposeAnnotation()
             .setPrettyPrinting()
             .create();
 
+    // Mesma configuração, sem indentação, para respostas de rede
+    private static final Gson gsonCompacto = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+            .registerTypeAdapter(ItemCardapio.class, new ItemCardapioAdapter())
+            .excludeFieldsWithoutExposeAnnotation()
+            .create();
+
     private static final String DATA_DIRECTORY = "data/";
 
+    // Travas e versões dos arquivos, compartilhadas com outros processos no mesmo data/
+    private static final ArquivosCompartilhados compartilhados = new ArquivosCompartilhados(Path.of(DATA_DIRECTORY));
+
+    static {
+        // Antes de qualquer leitura: refaz transações de processos que caíram no meio
+        compartilhados.recuperarTransacoesAbandonadas();
+    }
+
+    /**
+     * Converte um objeto para JSON compacto
+     */
+    public static String toJson(Object data) {
+        return gsonCompacto.toJson(data);
+    }
+
+    /**
+     * Converte um JSON para objeto do tipo informado
+     */
+    public static <T> T fromJson(String json, Type typeOfT) {
+        return gsonCompacto.fromJson(json, typeOfT);
+    }
+
+    /**
+     * Trava um arquivo de dados contra outras threads e outros processos. Os serviços
+     * pegam a trava antes de alterar a coleção em memória (e antes do próprio lock) e a
+     * seguram até gravar; ao pegá-la, se outro processo gravou o arquivo, a coleção é
+     * recarregada antes (ver aoAlterarEmOutroProcesso()).
+     */
+    public static TravaDeArquivo travar(String filename) throws IOException {
+        createDataDirectoryIfNotExists();
+        return compartilhados.travar(filename);
+    }
+
+    /**
+     * Reserva data/ para este processo: compartilhado com outros processos (o que todo
+     * acesso já faz) ou exclusivo, para quem não recarrega o que outro processo grava.
+     * Falha se a reserva não é compatível com a de outro processo.
+     */
+    public static void reservarDiretorio(boolean exclusivo) throws IOException {
+        compartilhados.reservarDiretorio(exclusivo);
+    }
+
+    /**
+     * Registra como recarregar a coleção de um arquivo alterado por outro processo
+     */
+    public static void aoAlterarEmOutroProcesso(String filename, Runnable recarga) {
+        compartilhados.aoAlterar(filename, recarga);
+    }
+
+    /**
+     * Passa a observar data/ e recarregar as coleções alteradas por outros processos
+     * assim que forem gravadas, sem esperar a próxima alteração local
+     */
+    public static void observarAlteracoes() throws IOException {
+        compartilhados.observar();
+    }
+
+    /**
+     * Registra quem deve saber de cada nova versão de um arquivo de dados, gravada por
+     * este processo ou por outro (recebe o nome do arquivo). É chamado com a trava do
+     * arquivo segurada, no caminho das gravações: deve só anotar e retornar.
+     */
+    public static void aoGravar(Consumer<String> observador) {
+        compartilhados.aoGravar(observador);
+    }
+
+    /**
+     * Lê o conteúdo atual de um arquivo de dados, com a trava (null se não existe)
+     */
+    public static byte[] readFile(String filename) throws IOException {
+        createDataDirectoryIfNotExists();
+        return compartilhados.ler(filename);
+    }
+
+    /**
+     * Substitui um arquivo de dados por um conteúdo recebido de outra instância (réplica)
+     * e recarrega a coleção do serviço dono
+     */
+    public static void replaceFile(String filename, byte[] content) throws IOException {
+        createDataDirectoryIfNotExists();
+        compartilhados.substituirERecarregar(filename, content);
+    }
+
     /**
      * Salva uma lista de objetos em um arquivo JSON
      */
+    @SuppressWarnings("try")
     public static <T> void saveToFile(List<T> data, String filename) throws IOException {
-        createDataDirectoryIfNotExists();
-        
-        try (FileWriter writer = new FileWriter(DATA_DIRECTORY + filename)) {
-            gson.toJson(data, writer);
+        try (TravaDeArquivo trava = travar(filename)) {
+            try (FileWriter writer = new FileWriter(DATA_DIRECTORY + filename)) {
+                gson.toJson(data, writer);
+            }
+            compartilhados.registrarGravacao(filename);
+        }
+    }
+
+    /**
+     * Salva a lista de um serviço, chamado com a trava do serviço segurada. Com uma
+     * UnidadeDeTrabalho aberta na thread, só marca o arquivo: ele é gravado na
+     * confirmação, junto com os dos outros serviços (ver saveAll()).
+     */
+    public static void saveToFile(Supplier<? extends List<?>> data, String filename, Object lock) throws IOException {
+        if (!UnidadeDeTrabalho.adiar(filename, lock, data)) {
+            saveToFile(data.get(), filename);
+        }
+    }
+
+    /**
+     * Grava juntos os arquivos de uma unidade de trabalho: trava os arquivos (em ordem
+     * de nome), serializa cada um segurando a trava do seu serviço e grava como uma
+     * transação, com um registro forçado para o disco como ponto de atomicidade
+     */
+    static void saveAll(Map<String, UnidadeDeTrabalho.GravacaoPendente> gravacoes) throws IOException {
+        if (gravacoes.isEmpty()) {
+            return;
+        }
+        Map<String, UnidadeDeTrabalho.GravacaoPendente> ordenadas = new TreeMap<>(gravacoes);
+        List<TravaDeArquivo> travas = new ArrayList<>();
+        try {
+            for (String arquivo : ordenadas.keySet()) {
+                travas.add(travar(arquivo));
+            }
+            Map<String, byte[]> conteudos = new TreeMap<>();
+            Charset charset = Charset.defaultCharset(); // o mesmo do FileWriter
+            for (Map.Entry<String, UnidadeDeTrabalho.GravacaoPendente> gravacao : ordenadas.entrySet()) {
+                UnidadeDeTrabalho.GravacaoPendente pendente = gravacao.getValue();
+                synchronized (pendente.trava) {
+                    conteudos.put(gravacao.getKey(), gson.toJson(pendente.dados.get()).getBytes(charset));
+                }
+            }
+            compartilhados.gravarTransacao(conteudos);
+        } finally {
+            for (int i = travas.size() - 1; i >= 0; i--) {
+                travas.get(i).close();
+            }
         }
     }
 
     /**
      * Carrega uma lista de objetos de um arquivo JSON
      */
+    @SuppressWarnings("try")
     public static <T> List<T> loadFromFile(String filename, Type typeOfT) throws IOException {
         File file = new File(DATA_DIRECTORY + filename);
         
-        if (!file.exists()) {
-            return new ArrayList<>();
-        }
+        // Com a trava, a versão lida passa a ser a conhecida por este processo
+        try (TravaDeArquivo trava = travar(filename)) {
+            if (!file.exists()) {
+                return new ArrayList<>();
+            }
 
-        try (FileReader reader = new FileReader(file)) {
-            List<T> result = gson.fromJson(reader, typeOfT);
-            return result != null ? result : new ArrayList<>();
+            try (FileReader reader = new FileReader(file)) {
+                List<T> result = gson.fromJson(reader, typeOfT);
+                return result != null ? result : new ArrayList<>();
+            }
         }
     }
 
     /**
-     * Salva um único objeto em um arquivo JSON
+     * Escreve o JSON (no mesmo formato dos arquivos de data/) em um Writer já aberto
+     */
+    public static void writeJson(Object data, Writer writer) {
+        gson.toJson(data, writer);
+    }
+
+    /**
+     * Salva um único objeto em um arquivo JSON (o nome pode incluir um subdiretório de data/)
      */
     public static <T> void saveObjectToFile(T data, String filename) throws IOException {
         createDataDirectoryIfNotExists();
+        new File(DATA_DIRECTORY + filename).getParentFile().mkdirs();
         
         try (FileWriter writer = new FileWriter(DATA_DIRECTORY + filename)) {
             gson.toJson(data, writer);
         }
     }
 
+    /**
+     * Salva um único objeto com a trava do arquivo, registrando a gravação como uma
+     * nova versão dele (para arquivos que mais de um processo grava)
+     */
+    @SuppressWarnings("try")
+    public static <T> void saveSharedObjectToFile(T data, String filename) throws IOException {
+        try (TravaDeArquivo trava = travar(filename)) {
+            saveObjectToFile(data, filename);
+            compartilhados.registrarGravacao(filename);
+        }
+    }
+
     /**
      * Carrega um único objeto de um arquivo JSON
      */
@@ -94,6 +262,22 @@ public class JsonPersistence {
         return new File(DATA_DIRECTORY + filename).exists();
     }
 
+    /**
+     * Lista, em ordem alfabética, os arquivos JSON de um subdiretório de data/
+     * (os nomes retornados já incluem o subdiretório)
+     */
+    public static List<String> listFiles(String directory) {
+        String[] nomes = new File(DATA_DIRECTORY + directory).list((dir, nome) -> nome.endsWith(".json"));
+        List<String> arquivos = new ArrayList<>();
+        if (nomes != null) {
+            Arrays.sort(nomes);
+            for (String nome : nomes) {
+                arquivos.add(directory + "/" + nome);
+            }
+        }
+        return arquivos;
+    }
+
     /**
      * Deleta um arquivo
      */
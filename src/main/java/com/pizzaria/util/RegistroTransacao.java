@@ -0,0 +1,194 @@
+package com.pizzaria.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Registro de uma transação de gravação (data/transacoes/&lt;pid&gt;-&lt;número&gt;.log): o
+ * conteúdo completo de cada arquivo da transação e a versão sobre a qual foi feito,
+ * com CRC. O registro é escrito em um temporário, forçado para o disco e renomeado;
+ * a renomeação é o ponto de atomicidade. Um temporário sem o .log nunca foi confirmado.
+ *
+ * Layout: cabeçalho, quantidade de arquivos, (nome, versão base, tamanho, bytes) de
+ * cada um e o CRC32.
+ */
+final class RegistroTransacao {
+    static final String DIRETORIO = "transacoes";
+    private static final String CABECALHO = "PIZZARIA-TRANSACAO 2";
+    private static final AtomicLong sequencia = new AtomicLong();
+
+    private final long pid;
+    private final long numero;
+    private final Path arquivo;
+    private final Path temporario;
+
+    private RegistroTransacao(Path dataDir, long pid, long numero) {
+        this.pid = pid;
+        this.numero = numero;
+        Path diretorio = dataDir.resolve(DIRETORIO);
+        this.arquivo = diretorio.resolve(pid + "-" + numero + ".log");
+        this.temporario = diretorio.resolve(pid + "-" + numero + ".log.tmp");
+    }
+
+    /**
+     * Registro para uma nova transação deste processo
+     */
+    static RegistroTransacao novo(Path dataDir) {
+        return new RegistroTransacao(dataDir, ProcessHandle.current().pid(), sequencia.incrementAndGet());
+    }
+
+    static RegistroTransacao de(Path dataDir, long pid, long numero) {
+        return new RegistroTransacao(dataDir, pid, numero);
+    }
+
+    /**
+     * Registros (confirmados ou não) existentes no diretório de transações
+     */
+    static List<RegistroTransacao> listar(Path dataDir) throws IOException {
+        List<RegistroTransacao> registros = new ArrayList<>();
+        Path diretorio = dataDir.resolve(DIRETORIO);
+        if (!Files.isDirectory(diretorio)) {
+            return registros;
+        }
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*-*.log*")) {
+            for (Path caminho : arquivos) {
+                String nome = caminho.getFileName().toString();
+                String[] partes = nome.substring(0, nome.indexOf(".log")).split("-");
+                try {
+                    RegistroTransacao registro = de(dataDir, Long.parseLong(partes[0]), Long.parseLong(partes[1]));
+                    if (!registros.contains(registro)) {
+                        registros.add(registro);
+                    }
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    System.err.println("Erro ao ler nome de registro de transação: " + nome);
+                }
+            }
+        }
+        return registros;
+    }
+
+    long getPid() {
+        return pid;
+    }
+
+    long getNumero() {
+        return numero;
+    }
+
+    /**
+     * Se o processo que criou o registro ainda está rodando (e pode terminar a transação)
+     */
+    boolean donoAtivo() {
+        if (pid == ProcessHandle.current().pid()) {
+            return false; // só pode ser de um processo anterior com o mesmo pid
+        }
+        return ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    /**
+     * Grava o registro de forma durável (a única escrita forçada da transação)
+     */
+    void gravar(Map<String, Entrada> entradas) throws IOException {
+        Files.createDirectories(temporario.getParent());
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32 crc = new CRC32();
+            BufferedOutputStream buffer = new BufferedOutputStream(Channels.newOutputStream(canal));
+            DataOutputStream saida = new DataOutputStream(new CheckedOutputStream(buffer, crc));
+            saida.writeUTF(CABECALHO);
+            saida.writeInt(entradas.size());
+            for (Map.Entry<String, Entrada> entrada : entradas.entrySet()) {
+                saida.writeUTF(entrada.getKey());
+                saida.writeLong(entrada.getValue().versaoBase);
+                saida.writeInt(entrada.getValue().conteudo.length);
+                saida.write(entrada.getValue().conteudo);
+            }
+            saida.flush();
+            new DataOutputStream(buffer).writeLong(crc.getValue());
+            buffer.flush();
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lê o registro confirmado; null se ele não existe (a transação não chegou ao
+     * ponto de atomicidade ou já terminou)
+     */
+    Map<String, Entrada> ler() throws IOException {
+        if (!Files.exists(arquivo)) {
+            return null;
+        }
+        try (InputStream bruto = new BufferedInputStream(Files.newInputStream(arquivo))) {
+            CheckedInputStream verificado = new CheckedInputStream(bruto, new CRC32());
+            DataInputStream entrada = new DataInputStream(verificado);
+            if (!CABECALHO.equals(entrada.readUTF())) {
+                throw new IOException("Registro de transação com formato desconhecido: " + arquivo);
+            }
+            Map<String, Entrada> entradas = new LinkedHashMap<>();
+            int quantidade = entrada.readInt();
+            for (int i = 0; i < quantidade; i++) {
+                String nome = entrada.readUTF();
+                long versaoBase = entrada.readLong();
+                byte[] conteudo = new byte[entrada.readInt()];
+                entrada.readFully(conteudo);
+                entradas.put(nome, new Entrada(versaoBase, conteudo));
+            }
+            long calculado = verificado.getChecksum().getValue();
+            if (new DataInputStream(bruto).readLong() != calculado) {
+                throw new IOException("Registro de transação corrompido (CRC): " + arquivo);
+            }
+            return entradas;
+        }
+    }
+
+    /**
+     * Remove o registro e o temporário
+     */
+    void descartar() throws IOException {
+        Files.deleteIfExists(arquivo);
+        Files.deleteIfExists(temporario);
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof RegistroTransacao registro && registro.pid == pid && registro.numero == numero;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(pid) * 31 + Long.hashCode(numero);
+    }
+
+    /**
+     * Conteúdo de um arquivo na transação e a versão do arquivo sobre a qual ela foi feita
+     */
+    static final class Entrada {
+        final long versaoBase;
+        final byte[] conteudo;
+
+        Entrada(long versaoBase, byte[] conteudo) {
+            this.versaoBase = versaoBase;
+            this.conteudo = conteudo;
+        }
+    }
+}
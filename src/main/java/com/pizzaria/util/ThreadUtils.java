@@ -0,0 +1,55 @@
+package com.pizzaria.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe utilitária para criação de executores dos servidores
+ * Usa threads virtuais quando a JVM oferece (JDK 21+) e um pool fixo no JDK 17
+ */
+public class ThreadUtils {
+
+    private ThreadUtils() {
+    }
+
+    /**
+     * Cria um executor com uma thread virtual por tarefa.
+     * Se a JVM não suportar threads virtuais, usa um pool fixo com o tamanho informado.
+     */
+    public static ExecutorService novoExecutorPorTarefa(String nome, int threadsFallback) {
+        try {
+            // Acesso via reflexão para continuar compilando com target 17
+            Method metodo = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) metodo.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newFixedThreadPool(threadsFallback, novaFabrica(nome, true));
+        }
+    }
+
+    /**
+     * Indica se a JVM atual suporta threads virtuais
+     */
+    public static boolean suportaThreadsVirtuais() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Cria uma fábrica de threads nomeadas (nome-1, nome-2, ...)
+     */
+    public static ThreadFactory novaFabrica(String nome, boolean daemon) {
+        AtomicInteger contador = new AtomicInteger(1);
+        return tarefa -> {
+            Thread thread = new Thread(tarefa, nome + "-" + contador.getAndIncrement());
+            thread.setDaemon(daemon);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.pizzaria.util;
+
+/**
+ * Trava de um arquivo de dados, entre threads e entre processos (ver JsonPersistence.travar()).
+ * Dentro de uma unidade de trabalho, fechar não solta a trava: ela fica com a unidade
+ * até a gravação e é liberada quando a unidade termina.
+ *
+ * O uso é só delimitar o trecho, num try-with-resources cujo corpo não toca na trava;
+ * os métodos que fazem isso suprimem o aviso "try" do compilador.
+ */
+public final class TravaDeArquivo implements AutoCloseable {
+    private final ArquivosCompartilhados.Arquivo arquivo;
+    private final Object dono;
+    private boolean fechada;
+
+    TravaDeArquivo(ArquivosCompartilhados.Arquivo arquivo, Object dono) {
+        this.arquivo = arquivo;
+        this.dono = dono;
+    }
+
+    @Override
+    public void close() {
+        if (fechada) {
+            return;
+        }
+        fechada = true;
+        UnidadeDeTrabalho unidade = UnidadeDeTrabalho.atual();
+        if (unidade != null) {
+            unidade.aoEncerrar(() -> arquivo.liberar(dono));
+        } else {
+            arquivo.liberar(dono);
+        }
+    }
+}
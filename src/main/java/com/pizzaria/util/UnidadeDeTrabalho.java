@@ -0,0 +1,230 @@
+package com.pizzaria.util;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Unidade de trabalho: junta as gravações que os serviços fazem na mesma thread
+ * (clientes, ingredientes, pedidos...) e grava todas de uma vez na confirmação, com
+ * um único registro durável como ponto de atomicidade (ver JsonPersistence). Uma
+ * queda no meio nunca deixa, por exemplo, estoque consumido sem o pedido gravado.
+ *
+ * Enquanto a unidade está aberta os serviços só marcam os arquivos alterados; o
+ * conteúdo é lido na confirmação, então o arquivo sai com o estado mais recente.
+ * Se a unidade for fechada sem confirmar, as compensações registradas pelos serviços
+ * (estoque devolvido, cliente recém-cadastrado removido) são executadas em ordem
+ * inversa e o estado resultante é gravado do mesmo jeito, para o disco não ficar
+ * diferente da memória; o mesmo acontece se a gravação da confirmação falhar. Unidades
+ * abertas dentro de outra fazem parte da externa.
+ *
+ * As travas dos arquivos (JsonPersistence.travar()) pegas dentro da unidade ficam com
+ * ela até a gravação e só são liberadas quando a unidade principal é fechada.
+ *
+ * Uso:
+ * <pre>
+ * try (UnidadeDeTrabalho unidade = UnidadeDeTrabalho.iniciar()) {
+ *     ...alterações nos serviços...
+ *     unidade.confirmar();
+ * }
+ * </pre>
+ */
+public final class UnidadeDeTrabalho implements AutoCloseable {
+    private static final ThreadLocal<UnidadeDeTrabalho> ATUAL = new ThreadLocal<>();
+
+    private final UnidadeDeTrabalho externa;
+    private final Thread dona;
+    private final Map<String, GravacaoPendente> gravacoes;   // só usado na unidade principal
+    private final Deque<Runnable> compensacoes;
+    private final List<Runnable> encerramentos;               // só usado na unidade principal
+    private final List<Runnable> confirmacoes;                // só usado na unidade principal
+    private boolean encerrada;
+
+    private UnidadeDeTrabalho(UnidadeDeTrabalho externa) {
+        this.externa = externa;
+        this.dona = Thread.currentThread();
+        this.gravacoes = new LinkedHashMap<>();
+        this.compensacoes = new ArrayDeque<>();
+        this.encerramentos = new ArrayList<>();
+        this.confirmacoes = new ArrayList<>();
+    }
+
+    /**
+     * Abre uma unidade de trabalho na thread atual (dentro de outra, passa a fazer parte dela)
+     */
+    public static UnidadeDeTrabalho iniciar() {
+        UnidadeDeTrabalho unidade = new UnidadeDeTrabalho(ATUAL.get());
+        ATUAL.set(unidade);
+        return unidade;
+    }
+
+    /**
+     * Unidade aberta na thread atual, ou null
+     */
+    public static UnidadeDeTrabalho atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Executa a ação com a unidade como atual nesta thread: usado quando parte do
+     * trabalho roda em outra thread enquanto quem abriu a unidade espera
+     */
+    public static <T> T participar(UnidadeDeTrabalho unidade, Callable<T> acao) throws Exception {
+        UnidadeDeTrabalho anterior = ATUAL.get();
+        ATUAL.set(unidade);
+        try {
+            return acao.call();
+        } finally {
+            definirAtual(anterior);
+        }
+    }
+
+    /**
+     * Registra como desfazer uma alteração em memória caso a unidade atual não seja
+     * confirmada (sem unidade aberta, não faz nada)
+     */
+    public static void aoDesfazer(Runnable compensacao) {
+        UnidadeDeTrabalho unidade = ATUAL.get();
+        if (unidade != null) {
+            unidade.compensacoes.push(compensacao);
+        }
+    }
+
+    /**
+     * Executa a ação só depois que a unidade principal for gravada (publicação de eventos
+     * de alterações que ainda podem ser desfeitas); sem unidade aberta, executa na hora
+     */
+    public static void aoConfirmar(Runnable acao) {
+        UnidadeDeTrabalho unidade = ATUAL.get();
+        if (unidade == null) {
+            acao.run();
+        } else {
+            unidade.principal().confirmacoes.add(acao);
+        }
+    }
+
+    /**
+     * Dono das travas de arquivo pegas agora: a thread que abriu a unidade principal
+     * (também quando outra thread participa dela), ou a thread atual
+     */
+    static Object donoAtual() {
+        UnidadeDeTrabalho unidade = ATUAL.get();
+        return unidade != null ? unidade.principal().dona : Thread.currentThread();
+    }
+
+    /**
+     * Adia a gravação do arquivo para a confirmação da unidade atual; retorna false se
+     * não houver unidade aberta (e quem chamou deve gravar na hora)
+     */
+    static boolean adiar(String arquivo, Object trava, Supplier<?> dados) {
+        UnidadeDeTrabalho unidade = ATUAL.get();
+        if (unidade == null) {
+            return false;
+        }
+        unidade.principal().gravacoes.put(arquivo, new GravacaoPendente(trava, dados));
+        return true;
+    }
+
+    /**
+     * Executa a ação quando a unidade principal for fechada (liberação de travas)
+     */
+    void aoEncerrar(Runnable acao) {
+        principal().encerramentos.add(acao);
+    }
+
+    /**
+     * Confirma a unidade: na principal, grava todos os arquivos alterados de uma vez;
+     * numa interna, entrega as compensações à externa
+     */
+    public void confirmar() throws IOException {
+        if (encerrada) {
+            throw new IllegalStateException("Unidade de trabalho já encerrada");
+        }
+        if (externa != null) {
+            encerrada = true;
+            // Da mais antiga para a mais nova, para a externa desfazer na ordem inversa
+            Iterator<Runnable> antigas = compensacoes.descendingIterator();
+            while (antigas.hasNext()) {
+                externa.compensacoes.push(antigas.next());
+            }
+        } else {
+            // Só depois da gravação: se ela falhar, close() ainda desfaz as alterações em memória
+            JsonPersistence.saveAll(gravacoes);
+            encerrada = true;
+            for (Runnable acao : confirmacoes) {
+                acao.run();
+            }
+            confirmacoes.clear();
+        }
+    }
+
+    /**
+     * Sem confirmação, desfaz as alterações compensáveis e grava o estado resultante
+     */
+    @Override
+    public void close() {
+        try {
+            if (!encerrada) {
+                encerrada = true;
+                while (!compensacoes.isEmpty()) {
+                    compensacoes.pop().run();
+                }
+                if (externa == null) {
+                    try {
+                        JsonPersistence.saveAll(gravacoes);
+                    } catch (IOException e) {
+                        System.err.println("Erro ao gravar dados após desfazer alterações: " + e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            if (ATUAL.get() == this) {
+                definirAtual(externa);
+            }
+            if (externa == null) {
+                for (int i = encerramentos.size() - 1; i >= 0; i--) {
+                    encerramentos.get(i).run();
+                }
+                encerramentos.clear();
+            }
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private UnidadeDeTrabalho principal() {
+        UnidadeDeTrabalho unidade = this;
+        while (unidade.externa != null) {
+            unidade = unidade.externa;
+        }
+        return unidade;
+    }
+
+    private static void definirAtual(UnidadeDeTrabalho unidade) {
+        if (unidade != null) {
+            ATUAL.set(unidade);
+        } else {
+            ATUAL.remove();
+        }
+    }
+
+    /**
+     * Arquivo a gravar na confirmação: os dados são lidos segurando a trava do serviço dono
+     */
+    static final class GravacaoPendente {
+        final Object trava;
+        final Supplier<?> dados;
+
+        GravacaoPendente(Object trava, Supplier<?> dados) {
+            this.trava = trava;
+            this.dados = dados;
+        }
+    }
+}